@@ -20,6 +20,7 @@ import com.hazelcast.jet.core.Edge;
 
 import java.io.Serializable;
 
+import static com.hazelcast.util.Preconditions.checkNotNegative;
 import static com.hazelcast.util.Preconditions.checkPositive;
 
 /**
@@ -49,6 +50,10 @@ public class EdgeConfig implements Serializable {
     private int queueSize = DEFAULT_QUEUE_SIZE;
     private int receiveWindowMultiplier = DEFAULT_RECEIVE_WINDOW_MULTIPLIER;
     private int packetSizeLimit = DEFAULT_PACKET_SIZE_LIMIT;
+    private boolean compressionEnabled;
+    private boolean adaptivePacketSizingEnabled;
+    private int packetLingerMicros;
+    private boolean creditFlowControlEnabled;
 
     /**
      * Sets the capacity of processor-to-processor concurrent queues. The value
@@ -148,4 +153,133 @@ public class EdgeConfig implements Serializable {
     public int getPacketSizeLimit() {
         return packetSizeLimit;
     }
+
+    /**
+     * Sets whether the network packets of a distributed edge are compressed.
+     * The items in each packet are compressed together using the JDK's
+     * Deflate implementation tuned for speed, and decompressed on the
+     * receiving member before being handed to the processors.
+     * <p>
+     * Compression trades CPU time for network bandwidth. It pays off for
+     * network-bound jobs with well compressible items, such as strings,
+     * especially with a larger {@link #setPacketSizeLimit(int) packet size
+     * limit}, which applies to the uncompressed size of the packet. The
+     * flow control also works with the uncompressed sizes, because it
+     * limits the amount of data waiting in the memory of the receiver.
+     * <p>
+     * The default value is {@code false}. This setting has no effect on a
+     * non-distributed edge.
+     *
+     * @return {@code this} instance for fluent API
+     * @since 3.2
+     */
+    public EdgeConfig setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+        return this;
+    }
+
+    /**
+     * Returns whether the {@link #setCompressionEnabled(boolean) network
+     * packets are compressed}.
+     *
+     * @since 3.2
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * Sets whether the size of the network packets of a distributed edge
+     * adapts to the traffic. If enabled, the {@link #setPacketSizeLimit(int)
+     * packet size limit} is only the initial target size of the packet. The
+     * target doubles when packets fill up and the receiver has enough free
+     * receive window, up to 16 times the configured limit, and halves when
+     * packets are sent half-empty or the receive window is exhausted, down to
+     * 1 kB.
+     * <p>
+     * Larger packets reduce the per-packet overhead at high rates, smaller
+     * targets reduce the {@linkplain #setPacketLingerMicros(int) linger}
+     * delay at low rates. The default value is {@code false}. This setting
+     * has no effect on a non-distributed edge.
+     *
+     * @return {@code this} instance for fluent API
+     * @since 3.2
+     */
+    public EdgeConfig setAdaptivePacketSizingEnabled(boolean adaptivePacketSizingEnabled) {
+        this.adaptivePacketSizingEnabled = adaptivePacketSizingEnabled;
+        return this;
+    }
+
+    /**
+     * Returns whether {@link #setAdaptivePacketSizingEnabled(boolean)
+     * adaptive packet sizing} is enabled.
+     *
+     * @since 3.2
+     */
+    public boolean isAdaptivePacketSizingEnabled() {
+        return adaptivePacketSizingEnabled;
+    }
+
+    /**
+     * Sets the maximum time, in microseconds, a network packet of a
+     * distributed edge is held back waiting for more items before it's sent.
+     * A packet is sent before the linger time elapses when it reaches the
+     * target size. With the default value of 0, the packet is sent as soon as
+     * there are no more items available to add to it.
+     * <p>
+     * Linger reduces the number of small packets at low rates at the cost of
+     * added latency. This setting has no effect on a non-distributed edge.
+     *
+     * @return {@code this} instance for fluent API
+     * @since 3.2
+     */
+    public EdgeConfig setPacketLingerMicros(int packetLingerMicros) {
+        checkNotNegative(packetLingerMicros, "packetLingerMicros must not be negative");
+        this.packetLingerMicros = packetLingerMicros;
+        return this;
+    }
+
+    /**
+     * Returns the {@link #setPacketLingerMicros(int) packet linger time} in
+     * microseconds.
+     *
+     * @since 3.2
+     */
+    public int getPacketLingerMicros() {
+        return packetLingerMicros;
+    }
+
+    /**
+     * Sets whether the receiving member of a distributed edge also sends
+     * flow-control packets driven by data processing, in addition to those
+     * sent in {@link InstanceConfig#setFlowControlPeriodMs(int) regular
+     * intervals}. A packet granting more send credit is sent as soon as a
+     * quarter of the receive window is processed, so the sender doesn't
+     * wait for the next flow-control period when the receiver catches up.
+     * <p>
+     * This is meant to shorten the stalls of the sender after bursts, at
+     * the cost of more flow-control packets. Because the two kinds of
+     * packets can arrive reordered, the sender keeps the highest limit it
+     * received: when the receiver shrinks its receive window, the smaller
+     * window applies only after the receiver processes the data it already
+     * allowed. The default value is {@code false}. This
+     * setting has no effect on a non-distributed edge.
+     *
+     * @return {@code this} instance for fluent API
+     * @since 3.2
+     */
+    public EdgeConfig setCreditFlowControlEnabled(boolean creditFlowControlEnabled) {
+        this.creditFlowControlEnabled = creditFlowControlEnabled;
+        return this;
+    }
+
+    /**
+     * Returns whether {@link #setCreditFlowControlEnabled(boolean) credit-based
+     * flow control} is enabled.
+     *
+     * @since 3.2
+     */
+    public boolean isCreditFlowControlEnabled() {
+        return creditFlowControlEnabled;
+    }
 }
@@ -142,6 +142,10 @@ public final class JetConfigXmlGenerator {
            .node("queue-size", defaultEdge.getQueueSize())
            .node("packet-size-limit", defaultEdge.getPacketSizeLimit())
            .node("receive-window-multiplier", defaultEdge.getReceiveWindowMultiplier())
+           .node("compression-enabled", defaultEdge.isCompressionEnabled())
+           .node("adaptive-packet-sizing-enabled", defaultEdge.isAdaptivePacketSizingEnabled())
+           .node("packet-linger-micros", defaultEdge.getPacketLingerMicros())
+           .node("credit-flow-control-enabled", defaultEdge.isCreditFlowControlEnabled())
            .close();
 
     }
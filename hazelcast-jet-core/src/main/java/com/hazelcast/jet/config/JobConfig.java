@@ -54,6 +54,9 @@ public class JobConfig implements IdentifiedDataSerializable {
     private List<ResourceConfig> resourceConfigs = new ArrayList<>();
     private JobClassLoaderFactory classLoaderFactory;
     private String initialSnapshotName;
+    private StateBackend stateBackend = StateBackend.HEAP;
+    private long maxKeysInMemory;
+    private boolean reuseSerializedClosedFrames;
 
     /**
      * Returns the name of the job or {@code null} if no name was given.
@@ -423,6 +426,105 @@ public class JobConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Returns the configured {@linkplain #setStateBackend(StateBackend)
+     * state backend}.
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    public StateBackend getStateBackend() {
+        return stateBackend;
+    }
+
+    /**
+     * Sets where the keyed state of aggregating processors is stored.
+     * {@link StateBackend#OFF_HEAP} keeps the serialized keys and
+     * accumulators in native memory, which allows grouping by many more
+     * keys without long GC pauses. The snapshot format doesn't depend on
+     * this setting. Default value is {@link StateBackend#HEAP}.
+     *
+     * @return {@code this} instance for fluent API
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    public JobConfig setStateBackend(@Nonnull StateBackend stateBackend) {
+        checkNotNull(stateBackend, "stateBackend");
+        this.stateBackend = stateBackend;
+        return this;
+    }
+
+    /**
+     * Returns the configured {@linkplain #setMaxKeysInMemory(long) maximum
+     * number of grouping keys} a processor keeps in memory, 0 means no
+     * limit.
+     *
+     * @since 3.2
+     */
+    public long getMaxKeysInMemory() {
+        return maxKeysInMemory;
+    }
+
+    /**
+     * Sets the maximum number of grouping keys a batch group-and-aggregate
+     * processor keeps in memory. When a processor accumulates more keys,
+     * it spills its accumulators to hash-partitioned files in the local
+     * temporary directory and merges them when emitting the results. This
+     * allows aggregating key spaces larger than the available memory at
+     * the cost of disk I/O. The aggregate operation must have the {@code
+     * combine} primitive, otherwise the limit is ignored.
+     * <p>
+     * The limit applies to each processor instance. When emitting the
+     * results, the spilled data is loaded back one partition at a time;
+     * there are 16 partitions, so a partition fits in memory as long as the
+     * total key count isn't much more than 16 times the limit. Default value
+     * is 0, which means no limit.
+     *
+     * @return {@code this} instance for fluent API
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    public JobConfig setMaxKeysInMemory(long maxKeysInMemory) {
+        Preconditions.checkNotNegative(maxKeysInMemory, "maxKeysInMemory can't be negative");
+        this.maxKeysInMemory = maxKeysInMemory;
+        return this;
+    }
+
+    /**
+     * Returns whether the {@linkplain #setReuseSerializedClosedFrames(boolean)
+     * serialized closed window frames are reused} between snapshots.
+     *
+     * @since 3.2
+     */
+    public boolean isReuseSerializedClosedFrames() {
+        return reuseSerializedClosedFrames;
+    }
+
+    /**
+     * Sets whether the sliding window aggregation reuses the serialized form
+     * of the closed window frames between snapshots. The frames that are
+     * behind the watermark no longer receive events, so they are serialized
+     * only once. With long windows and a short slide step this is most of
+     * the state, which makes frequent snapshots cheaper on CPU.
+     * <p>
+     * This isn't an incremental snapshot: every snapshot still writes the
+     * full state of the job. The serialized copy of the closed frames is
+     * kept in memory between snapshots, so enabling this option increases
+     * the memory use. The snapshot contents are the same regardless of this
+     * setting. Disabled by default.
+     *
+     * @return {@code this} instance for fluent API
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    public JobConfig setReuseSerializedClosedFrames(boolean reuseSerializedClosedFrames) {
+        this.reuseSerializedClosedFrames = reuseSerializedClosedFrames;
+        return this;
+    }
+
     @Override
     public int getFactoryId() {
         return JetConfigDataSerializerHook.FACTORY_ID;
@@ -443,6 +545,9 @@ public class JobConfig implements IdentifiedDataSerializable {
         out.writeObject(resourceConfigs);
         out.writeObject(classLoaderFactory);
         out.writeUTF(initialSnapshotName);
+        out.writeObject(stateBackend);
+        out.writeLong(maxKeysInMemory);
+        out.writeBoolean(reuseSerializedClosedFrames);
     }
 
     @Override
@@ -455,6 +560,9 @@ public class JobConfig implements IdentifiedDataSerializable {
         resourceConfigs = in.readObject();
         classLoaderFactory = in.readObject();
         initialSnapshotName = in.readUTF();
+        stateBackend = in.readObject();
+        maxKeysInMemory = in.readLong();
+        reuseSerializedClosedFrames = in.readBoolean();
     }
 
     @Override
@@ -474,6 +582,12 @@ public class JobConfig implements IdentifiedDataSerializable {
         if (autoScaling != jobConfig.autoScaling) {
             return false;
         }
+        if (maxKeysInMemory != jobConfig.maxKeysInMemory) {
+            return false;
+        }
+        if (reuseSerializedClosedFrames != jobConfig.reuseSerializedClosedFrames) {
+            return false;
+        }
         if (splitBrainProtectionEnabled != jobConfig.splitBrainProtectionEnabled) {
             return false;
         }
@@ -489,7 +603,10 @@ public class JobConfig implements IdentifiedDataSerializable {
         if (!Objects.equals(classLoaderFactory, jobConfig.classLoaderFactory)) {
             return false;
         }
-        return Objects.equals(initialSnapshotName, jobConfig.initialSnapshotName);
+        if (!Objects.equals(initialSnapshotName, jobConfig.initialSnapshotName)) {
+            return false;
+        }
+        return stateBackend == jobConfig.stateBackend;
     }
 
     @Override
@@ -502,6 +619,9 @@ public class JobConfig implements IdentifiedDataSerializable {
         result = 31 * result + (resourceConfigs != null ? resourceConfigs.hashCode() : 0);
         result = 31 * result + (classLoaderFactory != null ? classLoaderFactory.hashCode() : 0);
         result = 31 * result + (initialSnapshotName != null ? initialSnapshotName.hashCode() : 0);
+        result = 31 * result + (stateBackend != null ? stateBackend.hashCode() : 0);
+        result = 31 * result + (int) (maxKeysInMemory ^ (maxKeysInMemory >>> 32));
+        result = 31 * result + (reuseSerializedClosedFrames ? 1 : 0);
         return result;
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.config;
+
+/**
+ * Defines where the keyed state of aggregating processors is kept. See
+ * {@link JobConfig#setStateBackend(StateBackend)}.
+ *
+ * @since 3.2
+ */
+public enum StateBackend {
+
+    /**
+     * Accumulators are kept as plain objects on the Java heap. This option
+     * has the lowest per-item overhead and is the default.
+     */
+    HEAP,
+
+    /**
+     * Keys and accumulators are kept in serialized form in native memory,
+     * outside of the Java heap. This allows grouping a much larger number
+     * of keys without increasing the GC pressure, at the cost of
+     * serializing and deserializing the accumulator on each update.
+     * <p>
+     * Currently only the batch group-and-aggregate processor uses this
+     * backend, other processors keep their state on heap.
+     */
+    OFF_HEAP,
+
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.core;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.Traversers;
 import com.hazelcast.logging.ILogger;
@@ -24,6 +25,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Function;
@@ -48,6 +50,10 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
  *     {@link #tryProcess(int, Object)} to process the rest of the edges, which
  *     are treated uniformly.
  * </li><li>
+ *     A processor that never refuses an input item can override {@link
+ *     #isBatchProcessing()} and {@link #processBatch(int, Object[], int)}
+ *     to receive the input items in an array instead of one by one.
+ * </li><li>
  *     The {@code tryEmit(...)} methods avoid the need to deal with {@code Outbox}
  *     directly.
  * </li><li>
@@ -68,11 +74,14 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
  */
 public abstract class AbstractProcessor implements Processor {
 
+    private static final int BATCH_SIZE = 1024;
+
     private ILogger logger;
     private Outbox outbox;
 
     private Object pendingItem;
     private Entry<?, ?> pendingSnapshotItem;
+    private Object[] batch;
 
     // final implementations of Processor API
 
@@ -104,6 +113,10 @@ public abstract class AbstractProcessor implements Processor {
     @SuppressWarnings("checkstyle:magicnumber")
     public final void process(int ordinal, @Nonnull Inbox inbox) {
         try {
+            if (isBatchProcessing()) {
+                processInBatches(ordinal, inbox);
+                return;
+            }
             switch (ordinal) {
                 case 0:
                     process0(inbox);
@@ -171,6 +184,46 @@ public abstract class AbstractProcessor implements Processor {
         throw new UnsupportedOperationException("Missing implementation in " + getClass());
     }
 
+    /**
+     * Returns {@code true} if this processor wants to receive the input
+     * items in batches through {@link #processBatch(int, Object[], int)}
+     * instead of through the {@code tryProcess} methods. The processor must
+     * then be able to process each item it receives without refusing it,
+     * that is without emitting items that could be refused by the outbox.
+     * This is typical for aggregating processors and sinks.
+     * <p>
+     * The default implementation returns {@code false}.
+     *
+     * @since 3.2
+     */
+    protected boolean isBatchProcessing() {
+        return false;
+    }
+
+    /**
+     * Processes a batch of input items received from the edge with the
+     * given ordinal. Called only if {@link #isBatchProcessing()} returns
+     * {@code true}. The method must process all the items; the array is
+     * reused for the next batch after the method returns.
+     * <p>
+     * The default implementation passes each item to {@link
+     * #tryProcess(int, Object)} and fails if it refuses one.
+     *
+     * @param ordinal ordinal of the edge that delivered the items
+     * @param items   the array holding the items
+     * @param count   the number of items, stored at indexes {@code
+     *                [0..count-1]} of the array
+     *
+     * @since 3.2
+     */
+    protected void processBatch(int ordinal, @Nonnull Object[] items, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            if (!tryProcess(ordinal, items[i])) {
+                throw new JetException(getClass().getSimpleName() + " uses batch processing, but refused an item");
+            }
+        }
+    }
+
     /**
      * Tries to process the supplied input item, which was received from the
      * edge with ordinal 0. May choose to process only partially and return
@@ -623,6 +676,17 @@ public abstract class AbstractProcessor implements Processor {
         }
     }
 
+    private void processInBatches(int ordinal, @Nonnull Inbox inbox) throws Exception {
+        if (batch == null) {
+            batch = new Object[BATCH_SIZE];
+        }
+        for (int count; (count = inbox.drainTo(batch)) > 0; ) {
+            processBatch(ordinal, batch, count);
+            // don't retain the processed items
+            Arrays.fill(batch, 0, count, null);
+        }
+    }
+
     void processAny(int ordinal, @Nonnull Inbox inbox) throws Exception {
         for (Object item; (item = inbox.peek()) != null && tryProcess(ordinal, item); ) {
             inbox.remove();
@@ -19,6 +19,7 @@ package com.hazelcast.jet.core;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.config.EdgeConfig;
 import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.jet.function.ComparatorEx;
 import com.hazelcast.jet.function.FunctionEx;
 import com.hazelcast.jet.impl.MasterJobContext;
 import com.hazelcast.jet.impl.execution.init.CustomClassLoadedObject;
@@ -74,6 +75,7 @@ public class Edge implements IdentifiedDataSerializable {
     private boolean isDistributed;
     private Partitioner<?> partitioner;
     private RoutingPolicy routingPolicy = RoutingPolicy.UNICAST;
+    private ComparatorEx<?> orderComparator;
 
     private EdgeConfig config;
 
@@ -329,6 +331,45 @@ public class Edge implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Activates the <em>merge-sort</em> mode on this edge. If every upstream
+     * processor emits its items in the order defined by the given comparator,
+     * each downstream processor will receive them in that order, too: instead
+     * of draining the input queues in a round-robin fashion, the processor
+     * always takes the smallest item at the head of all the queues. On a
+     * distributed edge the same merging is done by the sender before
+     * transmitting the items to the remote member.
+     * <p>
+     * To decide on the next item, all the queues that aren't yet done must
+     * have an item at their head. A slow upstream processor will therefore
+     * hold back the whole edge. While waiting, the downstream processor keeps
+     * taking the items from the other queues and buffers them so that their
+     * upstream processors can go on emitting to other downstream processors.
+     * With a skewed partitioned edge the buffer can grow large. The order is
+     * only guaranteed between two snapshot barriers, therefore the mode is
+     * mostly useful in batch jobs.
+     *
+     * @param comparator the comparator that defines the order of items
+     * @since 3.2
+     */
+    @Nonnull
+    public <T> Edge ordered(@Nonnull ComparatorEx<T> comparator) {
+        checkSerializable(comparator, "comparator");
+        this.orderComparator = comparator;
+        return this;
+    }
+
+    /**
+     * Returns the comparator set by {@link #ordered}, or {@code null} if the
+     * edge isn't in the merge-sort mode.
+     *
+     * @since 3.2
+     */
+    @Nullable
+    public ComparatorEx<?> getOrderComparator() {
+        return orderComparator;
+    }
+
     /**
      * Returns the instance encapsulating the partitioning strategy in effect
      * on this edge.
@@ -431,6 +472,9 @@ public class Edge implements IdentifiedDataSerializable {
         if (getPriority() != 0) {
             b.append(".priority(").append(getPriority()).append(')');
         }
+        if (getOrderComparator() != null) {
+            b.append(".ordered(?)");
+        }
         return b.toString();
     }
 
@@ -467,6 +511,7 @@ public class Edge implements IdentifiedDataSerializable {
         out.writeBoolean(isDistributed());
         out.writeObject(getRoutingPolicy());
         CustomClassLoadedObject.write(out, getPartitioner());
+        CustomClassLoadedObject.write(out, getOrderComparator());
         out.writeObject(getConfig());
     }
 
@@ -481,6 +526,7 @@ public class Edge implements IdentifiedDataSerializable {
         routingPolicy = in.readObject();
         try {
             partitioner = CustomClassLoadedObject.read(in);
+            orderComparator = CustomClassLoadedObject.read(in);
         } catch (HazelcastSerializationException e) {
             throw new HazelcastSerializationException("Error deserializing edge '" + sourceName + "' -> '"
                     + destName + "': " + e, e);
@@ -67,6 +67,25 @@ public interface Inbox {
         return drained;
     }
 
+    /**
+     * Removes up to {@code target.length} items from the head of this inbox
+     * and stores them in the array, starting at index 0. Compared to {@link
+     * #poll()}, it allows the caller to process the items in a tight loop
+     * over an array it reuses.
+     *
+     * @param target the array to store the drained items into
+     * @return the number of elements actually drained
+     *
+     * @since 3.2
+     */
+    default int drainTo(Object[] target) {
+        int drained = 0;
+        for (Object o; drained < target.length && (o = poll()) != null; ) {
+            target[drained++] = o;
+        }
+        return drained;
+    }
+
     /**
      * Passes each of this object's items to the supplied consumer until it is empty.
      *
@@ -19,6 +19,7 @@ package com.hazelcast.jet.core;
 import com.hazelcast.internal.serialization.DataSerializerHook;
 import com.hazelcast.internal.serialization.impl.FactoryIdHelper;
 import com.hazelcast.jet.impl.connector.HazelcastWriters.ApplyFnEntryProcessor;
+import com.hazelcast.jet.impl.connector.IMapBatchedLookup.GetValueEntryProcessor;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.annotation.PrivateApi;
@@ -49,6 +50,10 @@ public final class JetDataSerializerHook implements DataSerializerHook {
      * Serialization ID of the {@link ApplyFnEntryProcessor} class.
      */
     public static final int APPLY_FN_ENTRY_PROCESSOR = 3;
+    /**
+     * Serialization ID of the {@link GetValueEntryProcessor} class.
+     */
+    public static final int GET_VALUE_ENTRY_PROCESSOR = 4;
 
     public static final int FACTORY_ID = FactoryIdHelper.getFactoryId(JET_DS_FACTORY, JET_DS_FACTORY_ID);
 
@@ -74,6 +79,8 @@ public final class JetDataSerializerHook implements DataSerializerHook {
                     return new Vertex();
                 case APPLY_FN_ENTRY_PROCESSOR:
                     return new ApplyFnEntryProcessor();
+                case GET_VALUE_ENTRY_PROCESSOR:
+                    return new GetValueEntryProcessor();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
@@ -308,5 +308,17 @@ public interface Processor {
          * they will have indexes 4..7.
          */
         int globalProcessorIndex();
+
+        /**
+         * Returns a new {@link TimerService} the processor can use to keep
+         * per-key event-time timers. The processor owns the returned
+         * instance; see its documentation for how to handle snapshots.
+         *
+         * @since 3.2
+         */
+        @Nonnull
+        default <K> TimerService<K> newTimerService() {
+            return new TimerService<>();
+        }
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.jet.Traverser;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps at most one event-time timer per key and tells which timers
+ * expired when a watermark arrives. A processor typically schedules a
+ * timer for a key in {@code tryProcess()} and drains {@link
+ * #expiredKeys(long)} from {@code tryProcessWatermark()}.
+ * <p>
+ * The timers are kept in a binary min-heap of primitive {@code long}
+ * times, indexed by key. Scheduling, rescheduling and cancelling a timer
+ * take {@code O(log n)} time and checking for expired timers takes {@code
+ * O(1)} time when none expired.
+ * <p>
+ * The timers aren't saved to the state snapshot. The processor should
+ * schedule them again in {@link Processor#finishSnapshotRestore()} from
+ * its own restored state.
+ * <p>
+ * The class isn't thread-safe.
+ *
+ * @param <K> type of the key
+ *
+ * @since 3.2
+ */
+public final class TimerService<K> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<K, Timer<K>> keyToTimer = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private Timer<K>[] heap = new Timer[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Schedules the timer for the given key to the given time. If the key
+     * already has a timer, it's moved to the new time.
+     */
+    public void schedule(@Nonnull K key, long time) {
+        Timer<K> timer = keyToTimer.get(key);
+        if (timer == null) {
+            timer = new Timer<>(key, time);
+            keyToTimer.put(key, timer);
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            place(timer, size++);
+            siftUp(timer.index);
+            return;
+        }
+        long oldTime = timer.time;
+        timer.time = time;
+        if (time < oldTime) {
+            siftUp(timer.index);
+        } else if (time > oldTime) {
+            siftDown(timer.index);
+        }
+    }
+
+    /**
+     * Cancels the timer for the given key.
+     *
+     * @return {@code true}, if the key had a timer
+     */
+    public boolean cancel(@Nonnull K key) {
+        Timer<K> timer = keyToTimer.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        removeAt(timer.index);
+        return true;
+    }
+
+    /**
+     * Returns a traverser over the keys whose timer time is less than the
+     * given watermark, in the order of the timer time. Each timer is
+     * removed when its key is returned, therefore the traversal can be
+     * interrupted and resumed later. If the processor schedules a new
+     * timer for a returned key, it won't be returned again by the same
+     * traverser unless it also expired.
+     */
+    @Nonnull
+    public Traverser<K> expiredKeys(long watermark) {
+        return () -> {
+            if (size == 0 || heap[0].time >= watermark) {
+                return null;
+            }
+            Timer<K> timer = heap[0];
+            removeAt(0);
+            keyToTimer.remove(timer.key);
+            return timer.key;
+        };
+    }
+
+    /**
+     * Returns the time of the earliest timer or {@code Long.MAX_VALUE}, if
+     * there are no timers.
+     */
+    public long nextTime() {
+        return size == 0 ? Long.MAX_VALUE : heap[0].time;
+    }
+
+    /**
+     * Returns the number of scheduled timers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true}, if there are no scheduled timers.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void removeAt(int index) {
+        size--;
+        Timer<K> last = heap[size];
+        heap[size] = null;
+        if (index == size) {
+            return;
+        }
+        place(last, index);
+        siftDown(index);
+        if (heap[index] == last) {
+            siftUp(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        Timer<K> timer = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].time <= timer.time) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(timer, index);
+    }
+
+    private void siftDown(int index) {
+        Timer<K> timer = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].time < heap[child].time) {
+                child = right;
+            }
+            if (timer.time <= heap[child].time) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(timer, index);
+    }
+
+    private void place(Timer<K> timer, int index) {
+        heap[index] = timer;
+        timer.index = index;
+    }
+
+    private static final class Timer<K> {
+        final K key;
+        long time;
+        int index;
+
+        Timer(K key, long time) {
+            this.key = key;
+            this.time = time;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.datamodel.KeyedWindowResult;
 import com.hazelcast.jet.function.BiFunctionEx;
 import com.hazelcast.jet.function.BiPredicateEx;
+import com.hazelcast.jet.function.ComparatorEx;
 import com.hazelcast.jet.function.ConsumerEx;
 import com.hazelcast.jet.function.FunctionEx;
 import com.hazelcast.jet.function.PredicateEx;
@@ -47,6 +48,7 @@ import com.hazelcast.jet.impl.processor.InsertWatermarksP;
 import com.hazelcast.jet.impl.processor.RollingAggregateP;
 import com.hazelcast.jet.impl.processor.SessionWindowP;
 import com.hazelcast.jet.impl.processor.SlidingWindowP;
+import com.hazelcast.jet.impl.processor.SortedGroupP;
 import com.hazelcast.jet.impl.processor.TransformP;
 import com.hazelcast.jet.impl.processor.TransformUsingContextP;
 import com.hazelcast.jet.pipeline.ContextFactory;
@@ -326,6 +328,46 @@ public final class Processors {
         return () -> new GroupP<>(keyFns, aggrOp, mapToOutputFn);
     }
 
+    /**
+     * Returns a supplier of processors for a vertex that groups items by key
+     * and performs the provided aggregate operation on each group, expecting
+     * the input to be sorted by the grouping key. Unlike {@link
+     * #aggregateByKeyP}, it doesn't wait for the input to be exhausted: it
+     * emits the result for a key as soon as it receives an item with a
+     * different key and only keeps the accumulator for the current key in
+     * memory. It computes the item to emit by passing each (key, result) pair
+     * to {@code mapToOutputFn}.
+     * <p>
+     * The processor fails if it receives an item whose key is less than the
+     * key of the previous item. If the upstream vertex has more than one
+     * processor, use an {@link com.hazelcast.jet.core.Edge#ordered ordered}
+     * edge partitioned by the grouping key to merge their sorted outputs.
+     * <p>
+     * This processor has state, but does not save it to snapshot. On job
+     * restart, the state will be lost.
+     *
+     * @param keyFn function that computes the grouping key
+     * @param keyComparator comparator that defines the order of the keys
+     * @param aggrOp the aggregate operation
+     * @param mapToOutputFn function that takes the key and the aggregation result and returns
+     *                      the output item
+     * @param <T> type of the input item
+     * @param <K> type of key
+     * @param <A> type of accumulator returned from {@code aggrOp.createAccumulatorFn()}
+     * @param <R> type of the result returned from {@code aggrOp.finishAccumulationFn()}
+     * @param <OUT> type of the item to emit
+     * @since 3.2
+     */
+    @Nonnull
+    public static <T, K, A, R, OUT> SupplierEx<Processor> aggregateSortedByKeyP(
+            @Nonnull FunctionEx<? super T, ? extends K> keyFn,
+            @Nonnull ComparatorEx<? super K> keyComparator,
+            @Nonnull AggregateOperation1<? super T, A, R> aggrOp,
+            @Nonnull BiFunctionEx<? super K, ? super R, OUT> mapToOutputFn
+    ) {
+        return () -> new SortedGroupP<>(keyFn, keyComparator, aggrOp, mapToOutputFn);
+    }
+
     /**
      * Returns a supplier of processors for the first-stage vertex in a
      * two-stage group-and-aggregate setup. The vertex groups items by the
@@ -26,6 +26,7 @@ import com.hazelcast.jet.function.BiFunctionEx;
 import com.hazelcast.jet.function.BinaryOperatorEx;
 import com.hazelcast.jet.function.ConsumerEx;
 import com.hazelcast.jet.function.SupplierEx;
+import com.hazelcast.jet.impl.connector.AsyncWriteJdbcP;
 import com.hazelcast.jet.impl.connector.HazelcastWriters;
 import com.hazelcast.jet.impl.connector.WriteBufferedP;
 import com.hazelcast.jet.impl.connector.WriteFileP;
@@ -35,6 +36,7 @@ import com.hazelcast.jet.pipeline.Sinks;
 import com.hazelcast.map.EntryProcessor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.jms.Connection;
 import javax.jms.Message;
 import javax.jms.MessageProducer;
@@ -331,4 +333,21 @@ public final class SinkProcessors {
     ) {
         return WriteJdbcP.metaSupplier(updateQuery, newConnectionFn, bindFn);
     }
+
+    /**
+     * Returns a supplier of processors for {@link Sinks#jdbcBuilder()}.
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    public static <T> ProcessorMetaSupplier writeJdbcP(
+            @Nonnull String updateQuery,
+            @Nonnull SupplierEx<? extends java.sql.Connection> newConnectionFn,
+            @Nonnull BiConsumerEx<? super PreparedStatement, ? super T> bindFn,
+            @Nullable FunctionEx<? super T, ?> keyFn,
+            int batchLimit,
+            int connectionCount
+    ) {
+        return AsyncWriteJdbcP.metaSupplier(updateQuery, newConnectionFn, bindFn, keyFn, batchLimit, connectionCount);
+    }
 }
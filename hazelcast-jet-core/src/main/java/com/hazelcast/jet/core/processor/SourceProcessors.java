@@ -52,6 +52,7 @@ import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.jms.Connection;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
@@ -419,6 +420,22 @@ public final class SourceProcessors {
         return ReadJdbcP.supplier(connectionURL, query, mapOutputFn);
     }
 
+    /**
+     * Returns a supplier of processors for {@link Sources#jdbcBuilder()}.
+     *
+     * @since 3.2
+     */
+    public static <T> ProcessorMetaSupplier readJdbcP(
+            @Nonnull SupplierEx<? extends java.sql.Connection> newConnectionFn,
+            @Nonnull String tableOrSubquery,
+            @Nullable String partitionColumn,
+            int fetchSize,
+            @Nonnull FunctionEx<? super ResultSet, ? extends T> mapOutputFn
+    ) {
+        return ReadJdbcP.rangePartitionedSupplier(newConnectionFn, tableOrSubquery, partitionColumn, fetchSize,
+                mapOutputFn);
+    }
+
     private static <I, O> Projection<I, O> toProjection(FunctionEx<I, O> projectionFn) {
         return new Projection<I, O>() {
             @Override public O transform(I input) {
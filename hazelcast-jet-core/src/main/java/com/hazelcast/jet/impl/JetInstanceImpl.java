@@ -55,6 +55,10 @@ public class JetInstanceImpl extends AbstractJetInstance {
         return config;
     }
 
+    public NodeEngine getNodeEngine() {
+        return nodeEngine;
+    }
+
     @Nonnull @Override
     public List<Job> getJobs() {
         Address masterAddress = nodeEngine.getMasterAddress();
@@ -27,10 +27,12 @@ import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.core.JobNotFoundException;
 import com.hazelcast.jet.impl.execution.TaskletExecutionService;
+import com.hazelcast.jet.impl.execution.ThreadAffinityProvider;
 import com.hazelcast.jet.impl.operation.NotifyMemberShutdownOperation;
 import com.hazelcast.jet.impl.util.ExceptionUtil;
 import com.hazelcast.jet.impl.util.JetProperties;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.LiveOperations;
 import com.hazelcast.spi.LiveOperationsTracker;
@@ -93,6 +95,18 @@ public class JetService
         this.shutdownHookThread = shutdownHookThread(node);
     }
 
+    private static ThreadAffinityProvider createAffinityProvider(HazelcastProperties jetProperties) {
+        if (jetProperties.getString(JetProperties.JET_COOPERATIVE_THREAD_AFFINITY_CPUS).trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return ClassLoaderUtil.newInstance(JetService.class.getClassLoader(),
+                    jetProperties.getString(JetProperties.JET_COOPERATIVE_THREAD_AFFINITY_PROVIDER));
+        } catch (Exception e) {
+            throw sneakyThrow(e);
+        }
+    }
+
     // ManagedService
     @Override
     public void init(NodeEngine engine, Properties hzProperties) {
@@ -103,7 +117,13 @@ public class JetService
         HazelcastProperties jetProperties = new HazelcastProperties(config.getProperties());
         taskletExecutionService = new TaskletExecutionService(nodeEngine,
                 config.getInstanceConfig().getCooperativeThreadCount(),
-                jetProperties.getNanos(JetProperties.JET_MINIMUM_IDLE_MICROSECONDS));
+                jetProperties.getNanos(JetProperties.JET_MINIMUM_IDLE_MICROSECONDS),
+                jetProperties.getBoolean(JetProperties.JET_COOPERATIVE_WORK_STEALING_ENABLED),
+                TaskletExecutionService.parseCpuList(jetProperties.getString(
+                        JetProperties.JET_COOPERATIVE_THREAD_AFFINITY_CPUS)),
+                createAffinityProvider(jetProperties),
+                jetProperties.getBoolean(JetProperties.JET_COOPERATIVE_TASKLET_COLOCATION_ENABLED),
+                jetProperties.getBoolean(JetProperties.JET_COOPERATIVE_IDLE_WAKEUP_ENABLED));
         jobRepository = new JobRepository(jetInstance);
         jobExecutionService = new JobExecutionService(nodeEngine, taskletExecutionService, jobRepository);
         jobCoordinationService = createJobCoordinationService();
@@ -99,18 +99,43 @@ public class Networking {
                 if (packetBuf.length == 0) {
                     return;
                 }
-                Connection conn = getMemberConnection(nodeEngine, member);
-                if (conn != null) {
-                    conn.write(new Packet(packetBuf)
-                            .setPacketType(Packet.Type.JET)
-                            .raiseFlags(FLAG_URGENT | FLAG_JET_FLOW_CONTROL));
-                }
+                writeFlowControlPacket(getMemberConnection(nodeEngine, member), packetBuf);
             }));
         } catch (Throwable t) {
             logger.severe("Flow-control packet broadcast failed", t);
         }
     }
 
+    /**
+     * Sends a flow-control packet with a single send seq limit for the given
+     * receiver to the member of its sender. Used by credit-based flow
+     * control, which doesn't wait for the next periodic broadcast.
+     */
+    public static void sendFlowControlPacket(
+            NodeEngine nodeEngine, Address member, long executionId, int destVertexId, int destOrdinal,
+            int sendSeqLimitCompressed
+    ) {
+        try (BufferObjectDataOutput out = createObjectDataOutput(nodeEngine)) {
+            out.writeInt(1);
+            out.writeLong(executionId);
+            out.writeInt(1);
+            out.writeInt(destVertexId);
+            out.writeInt(destOrdinal);
+            out.writeInt(sendSeqLimitCompressed);
+            writeFlowControlPacket(getMemberConnection(nodeEngine, member), out.toByteArray());
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+    }
+
+    private static void writeFlowControlPacket(Connection conn, byte[] packetBuf) {
+        if (conn != null) {
+            conn.write(new Packet(packetBuf)
+                    .setPacketType(Packet.Type.JET)
+                    .raiseFlags(FLAG_URGENT | FLAG_JET_FLOW_CONTROL));
+        }
+    }
+
     private byte[] createFlowControlPacket(Address member) throws IOException {
         try (BufferObjectDataOutput out = createObjectDataOutput(nodeEngine)) {
             final boolean[] hasData = {false};
@@ -137,6 +137,20 @@ public class JetDomConfigProcessor extends AbstractDomConfigProcessor {
                             getIntegerValue("receive-window-multiplier", getTextContent(child))
                     );
                     break;
+                case "compression-enabled":
+                    edgeConfig.setCompressionEnabled(getBooleanValue(getTextContent(child)));
+                    break;
+                case "adaptive-packet-sizing-enabled":
+                    edgeConfig.setAdaptivePacketSizingEnabled(getBooleanValue(getTextContent(child)));
+                    break;
+                case "packet-linger-micros":
+                    edgeConfig.setPacketLingerMicros(
+                            getIntegerValue("packet-linger-micros", getTextContent(child))
+                    );
+                    break;
+                case "credit-flow-control-enabled":
+                    edgeConfig.setCreditFlowControlEnabled(getBooleanValue(getTextContent(child)));
+                    break;
                 default:
                     throw new AssertionError("Unrecognized element: " + name);
             }
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.jet.core.Inbox;
+import com.hazelcast.jet.core.Outbox;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.processor.SinkProcessors;
+import com.hazelcast.jet.function.BiConsumerEx;
+import com.hazelcast.jet.function.FunctionEx;
+import com.hazelcast.jet.function.SupplierEx;
+import com.hazelcast.jet.impl.util.ExceptionUtil;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.util.concurrent.IdleStrategy;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLNonTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.jet.impl.util.Util.checkSerializable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A JDBC sink which executes and commits the batches on a dedicated
+ * executor, each batch on one of several connections. While the batches
+ * are being committed, the processor fills the next batch from the inbox.
+ * A batch is submitted when it's full or when there's no more input and a
+ * connection is free, therefore the batches get larger as the load grows.
+ * <p>
+ * The batches committed on different connections aren't ordered. Without
+ * a key function, any free connection takes the next batch and two
+ * updates of the same row in consecutive batches can be committed in
+ * either order. With a key function, each connection has its own batch
+ * and the item is added to the batch of the connection given by the hash
+ * of its key. A connection commits one batch at a time, so the updates of
+ * the same key are committed in the order the processor received them.
+ * <p>
+ * All the pending batches are committed before the processor completes
+ * and before it reports its snapshot as saved.
+ * <p>
+ * Use {@link SinkProcessors#writeJdbcP(String, SupplierEx, BiConsumerEx,
+ * FunctionEx, int, int)}.
+ */
+public final class AsyncWriteJdbcP<T> implements Processor {
+
+    private static final IdleStrategy IDLER =
+            new BackoffIdleStrategy(0, 0, SECONDS.toNanos(1), SECONDS.toNanos(10));
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final String updateQuery;
+    private final SupplierEx<? extends Connection> newConnectionFn;
+    private final BiConsumerEx<? super PreparedStatement, ? super T> bindFn;
+    private final FunctionEx<? super T, ?> keyFn;
+    private final int batchLimit;
+    private final int connectionCount;
+    private final List<ConnectionSlot> slots = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private ILogger logger;
+    private ExecutorService executor;
+    // with keyFn, there's one batch for each slot, otherwise just one batch
+    private List<T>[] batches;
+
+    private AsyncWriteJdbcP(
+            @Nonnull String updateQuery,
+            @Nonnull SupplierEx<? extends Connection> newConnectionFn,
+            @Nonnull BiConsumerEx<? super PreparedStatement, ? super T> bindFn,
+            @Nullable FunctionEx<? super T, ?> keyFn,
+            int batchLimit,
+            int connectionCount
+    ) {
+        this.updateQuery = updateQuery;
+        this.newConnectionFn = newConnectionFn;
+        this.bindFn = bindFn;
+        this.keyFn = keyFn;
+        this.batchLimit = batchLimit;
+        this.connectionCount = connectionCount;
+    }
+
+    /**
+     * Use {@link SinkProcessors#writeJdbcP(String, SupplierEx, BiConsumerEx,
+     * FunctionEx, int, int)}.
+     */
+    public static <T> ProcessorMetaSupplier metaSupplier(
+            @Nonnull String updateQuery,
+            @Nonnull SupplierEx<? extends Connection> newConnectionFn,
+            @Nonnull BiConsumerEx<? super PreparedStatement, ? super T> bindFn,
+            @Nullable FunctionEx<? super T, ?> keyFn,
+            int batchLimit,
+            int connectionCount
+    ) {
+        checkSerializable(newConnectionFn, "newConnectionFn");
+        checkSerializable(bindFn, "bindFn");
+        checkSerializable(keyFn, "keyFn");
+
+        return ProcessorMetaSupplier.preferLocalParallelismOne(() ->
+                new AsyncWriteJdbcP<>(updateQuery, newConnectionFn, bindFn, keyFn, batchLimit, connectionCount));
+    }
+
+    @Override
+    public void init(@Nonnull Outbox outbox, @Nonnull Context context) {
+        logger = context.logger();
+        String threadNamePrefix = String.format("hz.%s.jet.jdbc-sink.%s#%d.thread-",
+                context.jetInstance().getName(), context.vertexName(), context.globalProcessorIndex());
+        AtomicInteger threadSeq = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(connectionCount,
+                r -> new Thread(r, threadNamePrefix + threadSeq.getAndIncrement()));
+        for (int i = 0; i < connectionCount; i++) {
+            ConnectionSlot slot = new ConnectionSlot();
+            slot.connectAndPrepareStatement();
+            slots.add(slot);
+        }
+        @SuppressWarnings("unchecked")
+        List<T>[] batches = new List[keyFn == null ? 1 : connectionCount];
+        for (int i = 0; i < batches.length; i++) {
+            batches[i] = new ArrayList<>();
+        }
+        this.batches = batches;
+    }
+
+    @Override
+    public void process(int ordinal, @Nonnull Inbox inbox) {
+        checkFailure();
+        for (Object item; (item = inbox.peek()) != null; ) {
+            @SuppressWarnings("unchecked")
+            T t = (T) item;
+            int batchIndex = keyFn == null ? 0 : Math.floorMod(Objects.hashCode(keyFn.apply(t)), connectionCount);
+            if (batches[batchIndex].size() >= batchLimit && !trySubmitBatch(batchIndex)) {
+                // the connection for the item is busy, we'll add it in the next call
+                return;
+            }
+            batches[batchIndex].add(t);
+            inbox.remove();
+        }
+    }
+
+    @Override
+    public boolean tryProcess() {
+        checkFailure();
+        // submit the partial batches when no more input comes
+        trySubmitBatches();
+        return true;
+    }
+
+    @Override
+    public boolean complete() {
+        return flush();
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        // the items received before the snapshot barrier must be committed
+        // before the snapshot is complete
+        return flush();
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return false;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, SECONDS)) {
+                logger.warning("Some of the JDBC batches still running after " + CLOSE_TIMEOUT_SECONDS
+                        + " seconds, closing their connections anyway");
+            }
+        }
+        for (ConnectionSlot slot : slots) {
+            slot.close();
+        }
+    }
+
+    private boolean flush() {
+        checkFailure();
+        if (!trySubmitBatches()) {
+            return false;
+        }
+        for (ConnectionSlot slot : slots) {
+            if (slot.busy) {
+                return false;
+            }
+        }
+        // a batch might have failed since we last checked
+        checkFailure();
+        return true;
+    }
+
+    private boolean trySubmitBatches() {
+        boolean allSubmitted = true;
+        for (int i = 0; i < batches.length; i++) {
+            allSubmitted &= trySubmitBatch(i);
+        }
+        return allSubmitted;
+    }
+
+    private boolean trySubmitBatch(int batchIndex) {
+        List<T> items = batches[batchIndex];
+        if (items.isEmpty()) {
+            return true;
+        }
+        ConnectionSlot slot = keyFn == null ? freeSlot() : slots.get(batchIndex);
+        if (slot == null || slot.busy) {
+            return false;
+        }
+        batches[batchIndex] = new ArrayList<>(items.size());
+        slot.busy = true;
+        executor.execute(() -> {
+            try {
+                slot.write(items);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                slot.busy = false;
+            }
+        });
+        return true;
+    }
+
+    private ConnectionSlot freeSlot() {
+        for (ConnectionSlot slot : slots) {
+            if (!slot.busy) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    private void checkFailure() {
+        Throwable e = failure.get();
+        if (e != null) {
+            throw ExceptionUtil.rethrow(e);
+        }
+    }
+
+    /**
+     * A connection with its prepared statement. It's used by one batch at a
+     * time.
+     */
+    private final class ConnectionSlot {
+        // written by the processor when submitting a batch and by the executor when it's done
+        private volatile boolean busy;
+        private Connection connection;
+        private PreparedStatement statement;
+        private boolean supportsBatch;
+        private int idleCount;
+
+        void write(List<T> items) {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!reconnectIfNecessary()) {
+                    continue;
+                }
+                try {
+                    for (T item : items) {
+                        bindFn.accept(statement, item);
+                        if (supportsBatch) {
+                            statement.addBatch();
+                        } else {
+                            statement.executeUpdate();
+                        }
+                    }
+                    if (supportsBatch) {
+                        statement.executeBatch();
+                    }
+                    connection.commit();
+                    idleCount = 0;
+                    return;
+                } catch (Exception e) {
+                    if (e instanceof SQLNonTransientException ||
+                            e.getCause() instanceof SQLNonTransientException) {
+                        throw ExceptionUtil.rethrow(e);
+                    } else {
+                        logger.warning("Exception during update", e.getCause());
+                        idleCount++;
+                    }
+                }
+            }
+        }
+
+        boolean connectAndPrepareStatement() {
+            try {
+                connection = newConnectionFn.get();
+                connection.setAutoCommit(false);
+                supportsBatch = connection.getMetaData().supportsBatchUpdates();
+                statement = connection.prepareStatement(updateQuery);
+            } catch (Exception e) {
+                logger.warning("Exception during connecting and preparing the statement", e);
+                idleCount++;
+                return false;
+            }
+            return true;
+        }
+
+        private boolean reconnectIfNecessary() {
+            if (idleCount == 0) {
+                return true;
+            }
+            IDLER.idle(idleCount);
+
+            close();
+
+            return connectAndPrepareStatement();
+        }
+
+        void close() {
+            closeWithLogging(statement);
+            closeWithLogging(connection);
+        }
+    }
+
+    private void closeWithLogging(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.warning("Exception during closing " + closeable, e);
+        }
+    }
+}
@@ -245,10 +245,10 @@ public final class HazelcastWriters {
     }
 
     @SuppressWarnings("unchecked")
-    private static <K, V> ICompletableFuture<Map<K, V>> submitToKeys(
-            IMap<K, V> map, Set<Data> keys, EntryProcessor<K, V> entryProcessor) {
+    static <K, V> ICompletableFuture<Map<K, V>> submitToKeys(
+            IMap<K, V> map, Set<?> keys, EntryProcessor<K, V> entryProcessor) {
         // TODO remove this method once submitToKeys is public API
-        // we force Set<Data> instead of Set<K> to avoid re-serialization of keys
+        // we allow Set<Data> instead of Set<K> to avoid re-serialization of keys
         // this relies on an implementation detail of submitToKeys method.
         if (map instanceof MapProxyImpl) {
             return ((MapProxyImpl) map).submitToKeys(keys, entryProcessor);
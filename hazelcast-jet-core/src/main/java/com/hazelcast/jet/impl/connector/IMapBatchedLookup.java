@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.jet.core.JetDataSerializerHook;
+import com.hazelcast.jet.impl.processor.AsyncBatchingContext;
+import com.hazelcast.jet.pipeline.ContextFactory;
+import com.hazelcast.map.EntryBackupProcessor;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.impl.connector.HazelcastWriters.submitToKeys;
+import static com.hazelcast.jet.impl.util.Util.callbackOf;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * Looks up the values of the keys in an {@code IMap} in batches. The keys
+ * requested since the last batch are collected and a single read-only
+ * entry processor is submitted for all of them. Hazelcast sends one
+ * operation to each member owning some of the keys, which reads the
+ * values on the partition threads. When the response arrives, the futures
+ * returned for the keys are completed.
+ * <p>
+ * A batch is sent when it reaches the maximum size or when the processor
+ * {@linkplain AsyncBatchingContext#flush() flushes} it. The same key
+ * requested several times in a batch is looked up only once, therefore the
+ * key class must implement {@code equals()} and {@code hashCode()}.
+ * <p>
+ * The instance isn't thread-safe, it's used by a single processor.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class IMapBatchedLookup<K, V> implements AsyncBatchingContext {
+
+    /**
+     * The number of full batches that can be in flight at the same time in
+     * a processor.
+     */
+    private static final int MAX_BATCHES_IN_FLIGHT = 4;
+
+    private final IMap<K, V> map;
+    private final int maxBatchSize;
+    private Map<K, CompletableFuture<V>> batch = new HashMap<>();
+
+    IMapBatchedLookup(@Nonnull IMap<K, V> map, int maxBatchSize) {
+        this.map = map;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Returns a context factory which creates one instance for each
+     * processor. The processor can have up to four full batches in flight.
+     */
+    @Nonnull
+    public static <K, V> ContextFactory<IMapBatchedLookup<K, V>> contextFactory(
+            @Nonnull String mapName, int maxBatchSize
+    ) {
+        checkPositive(maxBatchSize, "maxBatchSize must be positive");
+        int maxPendingCalls = (int) Math.min(Integer.MAX_VALUE, (long) maxBatchSize * MAX_BATCHES_IN_FLIGHT);
+        return ContextFactory
+                .withCreateFn(jet -> new IMapBatchedLookup<K, V>(
+                        jet.getHazelcastInstance().getMap(mapName), maxBatchSize))
+                .withMaxPendingCallsPerProcessor(maxPendingCalls);
+    }
+
+    /**
+     * Adds the key to the current batch and returns a future that will be
+     * completed with its value, or with {@code null} if the map doesn't
+     * contain the key.
+     */
+    @Nonnull
+    public CompletableFuture<V> getAsync(@Nonnull K key) {
+        CompletableFuture<V> future = batch.get(key);
+        if (future == null) {
+            future = new CompletableFuture<>();
+            batch.put(key, future);
+            if (batch.size() >= maxBatchSize) {
+                flush();
+            }
+        }
+        return future;
+    }
+
+    @Override
+    public void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<K, CompletableFuture<V>> sentBatch = batch;
+        batch = new HashMap<>();
+        submitToKeys(map, sentBatch.keySet(), new GetValueEntryProcessor<>())
+                .andThen(callbackOf(
+                        values -> sentBatch.forEach((key, future) -> future.complete(values.get(key))),
+                        error -> sentBatch.values().forEach(future -> future.completeExceptionally(error))
+                ));
+    }
+
+    int batchSize() {
+        return batch.size();
+    }
+
+    /**
+     * Returns the value of the entry, or {@code null} if there's no entry.
+     * The entries without a value aren't included in the result of {@code
+     * submitToKeys()}.
+     */
+    public static final class GetValueEntryProcessor<K, V>
+            implements EntryProcessor<K, V>, ReadOnly, IdentifiedDataSerializable {
+
+        public GetValueEntryProcessor() {
+        }
+
+        @Override
+        public Object process(Entry<K, V> entry) {
+            return entry.getValue();
+        }
+
+        @Override
+        public EntryBackupProcessor<K, V> getBackupProcessor() {
+            // a read-only entry processor must not have a backup processor
+            return null;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return JetDataSerializerHook.GET_VALUE_ENTRY_PROCESSOR;
+        }
+    }
+}
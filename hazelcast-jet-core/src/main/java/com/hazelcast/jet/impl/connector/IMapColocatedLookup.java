@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.impl.JetInstanceImpl;
+import com.hazelcast.jet.pipeline.ContextFactory;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
+import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.hazelcast.jet.Util.toCompletableFuture;
+
+/**
+ * Looks up the keys in an {@code IMap} without an operation if the key's
+ * partition is owned by the local member. The lookup is a task submitted
+ * to the partition thread, which reads the value from the partition's
+ * record store directly: there's no invocation, no backup handling and no
+ * response packet. Other keys are looked up through the map proxy.
+ * <p>
+ * Only the read runs on the partition thread. The value is deserialized
+ * and the returned future is completed on the async executor, because the
+ * callbacks chained to the future run user code which must not block the
+ * partition.
+ * <p>
+ * The input of the processor should be partitioned by the same key as the
+ * map. Then Jet routes each item to the member that owned the key's
+ * partition when the job started and almost all lookups are local. After
+ * a migration, the keys of the migrated partitions are looked up through
+ * the proxy until the job restarts.
+ * <p>
+ * If the map has a {@code MapLoader}, all keys are looked up through the
+ * proxy, because a missing key might have to be loaded.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class IMapColocatedLookup<K, V> {
+
+    private final IMap<K, V> map;
+    private final String mapName;
+    private final boolean localReadsEnabled;
+    private final MapServiceContext mapServiceContext;
+    private final IPartitionService partitionService;
+    private final InternalOperationService operationService;
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitioningStrategy;
+    private final Address thisAddress;
+    private final Executor asyncExecutor;
+    private final LongAdder localReads = new LongAdder();
+    private final LongAdder remoteReads = new LongAdder();
+
+    private IMapColocatedLookup(JetInstance jet, String mapName) {
+        this.map = jet.getHazelcastInstance().getMap(mapName);
+        this.mapName = mapName;
+        if (jet instanceof JetInstanceImpl) {
+            NodeEngineImpl nodeEngine = (NodeEngineImpl) ((JetInstanceImpl) jet).getNodeEngine();
+            MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+            MapContainer mapContainer = mapService.getMapServiceContext().getMapContainer(mapName);
+            this.localReadsEnabled = !mapContainer.getMapStoreContext().isMapLoader();
+            this.mapServiceContext = mapService.getMapServiceContext();
+            this.partitionService = nodeEngine.getPartitionService();
+            this.operationService = nodeEngine.getOperationService();
+            this.serializationService = nodeEngine.getSerializationService();
+            this.partitioningStrategy = mapContainer.getPartitioningStrategy();
+            this.thisAddress = nodeEngine.getThisAddress();
+            this.asyncExecutor = nodeEngine.getExecutionService().getExecutor(ExecutionService.ASYNC_EXECUTOR);
+        } else {
+            this.localReadsEnabled = false;
+            this.mapServiceContext = null;
+            this.partitionService = null;
+            this.operationService = null;
+            this.serializationService = null;
+            this.partitioningStrategy = null;
+            this.thisAddress = null;
+            this.asyncExecutor = null;
+        }
+    }
+
+    /**
+     * Returns a context factory which creates one instance per member.
+     */
+    @Nonnull
+    public static <K, V> ContextFactory<IMapColocatedLookup<K, V>> contextFactory(@Nonnull String mapName) {
+        return ContextFactory
+                .withCreateFn(jet -> new IMapColocatedLookup<K, V>(jet, mapName))
+                .withLocalSharing();
+    }
+
+    /**
+     * Returns a future that will be completed with the value of the key, or
+     * with {@code null} if the map doesn't contain the key.
+     */
+    @Nonnull
+    public CompletableFuture<V> getAsync(@Nonnull K key) {
+        if (!localReadsEnabled) {
+            return remoteGet(key);
+        }
+        Data keyData = serializationService.toData(key, partitioningStrategy);
+        int partitionId = partitionService.getPartitionId(keyData);
+        if (!partitionService.getPartition(partitionId).isLocal()) {
+            return remoteGet(key);
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        operationService.execute(new LocalGet(partitionId, key, keyData, future));
+        return future;
+    }
+
+    long localReads() {
+        return localReads.sum();
+    }
+
+    long remoteReads() {
+        return remoteReads.sum();
+    }
+
+    private CompletableFuture<V> remoteGet(K key) {
+        remoteReads.increment();
+        return toCompletableFuture(map.getAsync(key));
+    }
+
+    private final class LocalGet implements PartitionSpecificRunnable {
+        private final int partitionId;
+        private final K key;
+        private final Data keyData;
+        private final CompletableFuture<V> future;
+
+        LocalGet(int partitionId, K key, Data keyData, CompletableFuture<V> future) {
+            this.partitionId = partitionId;
+            this.key = key;
+            this.keyData = keyData;
+            this.future = future;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            Data valueData;
+            try {
+                // the partition might have migrated since the check in getAsync()
+                if (!partitionService.getPartition(partitionId).isLocal()) {
+                    asyncExecutor.execute(this::getRemotely);
+                    return;
+                }
+                localReads.increment();
+                RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId)
+                                                           .getExistingRecordStore(mapName);
+                Object value = recordStore != null ? recordStore.get(keyData, false, thisAddress) : null;
+                // with the OBJECT in-memory format, the value is the stored instance: take a copy
+                valueData = mapServiceContext.toData(value);
+            } catch (Throwable e) {
+                asyncExecutor.execute(() -> future.completeExceptionally(e));
+                return;
+            }
+            asyncExecutor.execute(() -> complete(valueData));
+        }
+
+        private void complete(Data valueData) {
+            try {
+                future.complete(serializationService.toObject(valueData));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void getRemotely() {
+            remoteGet(key).whenComplete((value, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(value);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.MapEvent;
+import com.hazelcast.internal.metrics.LongProbeFunction;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.ProbeBuilder;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.jet.IMapJet;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.impl.JetInstanceImpl;
+import com.hazelcast.jet.pipeline.ContextFactory;
+import com.hazelcast.jet.pipeline.LookupCacheConfig;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryMergedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import static com.hazelcast.jet.Util.toCompletableFuture;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A read-through cache of {@code IMap} lookups, shared by the processors
+ * of a stage on a member. See {@link LookupCacheConfig} for the eviction
+ * and invalidation options.
+ * <p>
+ * A lookup started before an invalidation doesn't put its result into the
+ * cache, so an invalidated value can't get cached again by a concurrent
+ * lookup.
+ * <p>
+ * The eviction uses the CLOCK algorithm, an approximation of LRU: each
+ * cached key has a slot in a circular array and a flag that a hit sets.
+ * To make room, the clock hand sweeps the slots, clears the set flags and
+ * evicts the first entry whose flag is clear. A hit only sets the flag, it
+ * takes no lock.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class IMapLookupCache<K, V> {
+
+    private static final Object NULL_VALUE = new Object();
+    private static final int INITIAL_CLOCK_CAPACITY = 16;
+    private static final AtomicInteger CACHE_ID_SEQ = new AtomicInteger();
+
+    private final IMapJet<K, V> map;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<K, CachedValue> cache = new ConcurrentHashMap<>();
+    // guards the clock fields below
+    private final Object clockLock = new Object();
+    private final AtomicLong invalidationSeq = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final String listenerId;
+    private final MetricsRegistry metricsRegistry;
+
+    // the key in each slot, a slot is free if the key isn't cached in it anymore
+    private Object[] clock = new Object[INITIAL_CLOCK_CAPACITY];
+    private int clockSize;
+    private int clockHand;
+
+    private IMapLookupCache(JetInstance jet, String mapName, LookupCacheConfig config) {
+        this.map = jet.getMap(mapName);
+        this.maxSize = config.getMaxSize();
+        this.ttlNanos = MILLISECONDS.toNanos(config.getTimeToLiveMillis());
+        this.listenerId = config.isInvalidateOnChange() ? map.addEntryListener(new InvalidationListener(), false) : null;
+        this.metricsRegistry = jet instanceof JetInstanceImpl
+                ? ((JetInstanceImpl) jet).getNodeEngine().getMetricsRegistry()
+                : null;
+        if (metricsRegistry != null) {
+            registerMetrics(metricsRegistry.newProbeBuilder()
+                                           .withTag("module", "jet")
+                                           .withTag("lookupCache", mapName)
+                                           .withTag("id", String.valueOf(CACHE_ID_SEQ.incrementAndGet())));
+        }
+    }
+
+    /**
+     * Returns a context factory which creates one cache of the given map per
+     * member.
+     */
+    @Nonnull
+    public static <K, V> ContextFactory<IMapLookupCache<K, V>> contextFactory(
+            @Nonnull String mapName, @Nonnull LookupCacheConfig config
+    ) {
+        return ContextFactory
+                .withCreateFn(jet -> new IMapLookupCache<K, V>(jet, mapName, config))
+                .withDestroyFn(IMapLookupCache::destroy)
+                .withLocalSharing();
+    }
+
+    /**
+     * Returns the value of the key from the cache, if present, or looks it up
+     * in the map asynchronously.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<V> getAsync(@Nonnull K key) {
+        CachedValue cached = cache.get(key);
+        if (cached != null) {
+            long now = System.nanoTime();
+            if (ttlNanos == 0 || now - cached.expirationTime < 0) {
+                cached.referenced = true;
+                hits.increment();
+                return completedFuture(cached.value == NULL_VALUE ? null : (V) cached.value);
+            }
+            cache.remove(key, cached);
+        }
+        misses.increment();
+        long seq = invalidationSeq.get();
+        return toCompletableFuture(map.getAsync(key)).thenApply(value -> {
+            put(key, value, seq);
+            return value;
+        });
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    void destroy() {
+        if (listenerId != null) {
+            map.removeEntryListener(listenerId);
+        }
+        if (metricsRegistry != null) {
+            metricsRegistry.deregister(this);
+        }
+    }
+
+    private void put(K key, V value, long seq) {
+        if (invalidationSeq.get() != seq) {
+            // an invalidation happened during the lookup, the value might be stale
+            return;
+        }
+        CachedValue cached = new CachedValue(value == null ? NULL_VALUE : value, System.nanoTime() + ttlNanos);
+        synchronized (clockLock) {
+            CachedValue old = cache.get(key);
+            if (old != null) {
+                // a cached key keeps its slot
+                cached.slot = old.slot;
+            } else {
+                cached.slot = acquireSlot();
+                clock[cached.slot] = key;
+            }
+            cache.put(key, cached);
+        }
+        if (invalidationSeq.get() != seq) {
+            // the invalidation might have removed the key before we put it
+            cache.remove(key, cached);
+        }
+    }
+
+    /**
+     * Returns a free clock slot. Adds a new slot while there are less than
+     * {@code maxSize} of them, otherwise moves the clock hand to the first
+     * free slot, evicting an entry if needed. Expired entries are evicted
+     * and entries with the referenced flag set get a second chance, unless
+     * the hand already went full circle.
+     */
+    private int acquireSlot() {
+        if (clockSize < maxSize) {
+            if (clockSize == clock.length) {
+                clock = Arrays.copyOf(clock, (int) Math.min(2L * clock.length, maxSize));
+            }
+            return clockSize++;
+        }
+        long now = System.nanoTime();
+        for (int step = 0; ; step++) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) % clockSize;
+            Object key = clock[slot];
+            CachedValue cached = cache.get(key);
+            if (cached == null || cached.slot != slot) {
+                // the key was invalidated or expired
+                return slot;
+            }
+            boolean expired = ttlNanos != 0 && now - cached.expirationTime >= 0;
+            if (!expired && cached.referenced && step < clockSize) {
+                cached.referenced = false;
+                continue;
+            }
+            if (cache.remove(key, cached)) {
+                evictions.increment();
+            }
+            return slot;
+        }
+    }
+
+    private void invalidate(K key) {
+        invalidationSeq.incrementAndGet();
+        cache.remove(key);
+        invalidations.increment();
+    }
+
+    private void invalidateAll() {
+        invalidationSeq.incrementAndGet();
+        cache.clear();
+        invalidations.increment();
+    }
+
+    private void registerMetrics(ProbeBuilder probeBuilder) {
+        registerMetric(probeBuilder, "hits", c -> c.hits.sum());
+        registerMetric(probeBuilder, "misses", c -> c.misses.sum());
+        registerMetric(probeBuilder, "evictions", c -> c.evictions.sum());
+        registerMetric(probeBuilder, "invalidations", c -> c.invalidations.sum());
+        registerMetric(probeBuilder, "size", c -> c.cache.size());
+    }
+
+    private void registerMetric(ProbeBuilder probeBuilder, String name, ToLongFunction<IMapLookupCache<K, V>> fn) {
+        probeBuilder.register(this, name, ProbeLevel.INFO, ProbeUnit.COUNT,
+                (LongProbeFunction<IMapLookupCache<K, V>>) fn::applyAsLong);
+    }
+
+    private static final class CachedValue {
+        final Object value;
+        final long expirationTime;
+        // written under the clockLock before the value is published in the cache
+        int slot;
+        // set on a hit without synchronization, it's only used to approximate the recency
+        boolean referenced;
+
+        CachedValue(Object value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    private final class InvalidationListener implements EntryAddedListener<K, V>, EntryUpdatedListener<K, V>,
+            EntryRemovedListener<K, V>, EntryEvictedListener<K, V>, EntryExpiredListener<K, V>,
+            EntryMergedListener<K, V>, MapClearedListener, MapEvictedListener {
+
+        @Override
+        public void entryAdded(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void entryMerged(EntryEvent<K, V> event) {
+            invalidate(event.getKey());
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            invalidateAll();
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            invalidateAll();
+        }
+    }
+}
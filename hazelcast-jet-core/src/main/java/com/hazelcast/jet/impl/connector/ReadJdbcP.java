@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.connector;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
@@ -24,14 +25,21 @@ import com.hazelcast.jet.core.processor.SourceProcessors;
 import com.hazelcast.jet.function.FunctionEx;
 import com.hazelcast.jet.function.SupplierEx;
 import com.hazelcast.jet.function.ToResultSetFunction;
+import com.hazelcast.nio.Address;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.math.BigInteger;
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Function;
 
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
@@ -105,6 +113,29 @@ public final class ReadJdbcP<T> extends AbstractProcessor {
         ));
     }
 
+    /**
+     * Use {@link SourceProcessors#readJdbcP(SupplierEx, String, String, int,
+     * FunctionEx)}.
+     */
+    public static <T> ProcessorMetaSupplier rangePartitionedSupplier(
+            @Nonnull SupplierEx<? extends Connection> newConnectionFn,
+            @Nonnull String tableOrSubquery,
+            @Nullable String partitionColumn,
+            int fetchSize,
+            @Nonnull FunctionEx<? super ResultSet, ? extends T> mapOutputFn
+    ) {
+        checkSerializable(newConnectionFn, "newConnectionFn");
+        checkSerializable(mapOutputFn, "mapOutputFn");
+
+        if (partitionColumn == null) {
+            RangeQueryFunction resultSetFn = new RangeQueryFunction(tableOrSubquery, null, fetchSize, null, 0, 0);
+            return ProcessorMetaSupplier.forceTotalParallelismOne(ProcessorSupplier.of(() ->
+                    new ReadJdbcP<>(newConnectionFn, resultSetFn, mapOutputFn)));
+        }
+        return new RangePartitionedMetaSupplier<>(newConnectionFn, tableOrSubquery, partitionColumn, fetchSize,
+                mapOutputFn);
+    }
+
     @Override
     protected void init(@Nonnull Context context) {
         this.connection = newConnectionFn.get();
@@ -116,6 +147,10 @@ public final class ReadJdbcP<T> extends AbstractProcessor {
     public boolean complete() {
         if (traverser == null) {
             resultSet = uncheckCall(() -> resultSetFn.createResultSet(connection, parallelism, index));
+            if (resultSet == null) {
+                // nothing to read for this processor
+                return true;
+            }
             traverser = ((Traverser<ResultSet>) () -> uncheckCall(() -> resultSet.next() ? resultSet : null))
                     .map(mapOutputFn);
         }
@@ -152,4 +187,222 @@ public final class ReadJdbcP<T> extends AbstractProcessor {
         }
         return null;
     }
+
+    /**
+     * Queries the range of the partition column once for the whole job and
+     * lets each processor read a contiguous sub-range of it.
+     */
+    private static final class RangePartitionedMetaSupplier<T> implements ProcessorMetaSupplier {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SupplierEx<? extends Connection> newConnectionFn;
+        private final String tableOrSubquery;
+        private final String partitionColumn;
+        private final int fetchSize;
+        private final FunctionEx<? super ResultSet, ? extends T> mapOutputFn;
+
+        private transient RangeQueryFunction resultSetFn;
+
+        RangePartitionedMetaSupplier(
+                SupplierEx<? extends Connection> newConnectionFn,
+                String tableOrSubquery,
+                String partitionColumn,
+                int fetchSize,
+                FunctionEx<? super ResultSet, ? extends T> mapOutputFn
+        ) {
+            this.newConnectionFn = newConnectionFn;
+            this.tableOrSubquery = tableOrSubquery;
+            this.partitionColumn = partitionColumn;
+            this.fetchSize = fetchSize;
+            this.mapOutputFn = mapOutputFn;
+        }
+
+        @Override
+        public int preferredLocalParallelism() {
+            return 1;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) throws SQLException {
+            if (context.totalParallelism() == 1) {
+                // a single processor reads everything, don't waste a query
+                resultSetFn = new RangeQueryFunction(tableOrSubquery, null, fetchSize, null, 0, 0);
+                return;
+            }
+            try (Connection connection = newConnectionFn.get();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                         "SELECT MIN(" + partitionColumn + "), MAX(" + partitionColumn + ") FROM " + tableOrSubquery)
+            ) {
+                Object min = resultSet.next() ? resultSet.getObject(1) : null;
+                Object max = min != null ? resultSet.getObject(2) : null;
+                if (min == null) {
+                    resultSetFn = new RangeQueryFunction(tableOrSubquery, partitionColumn, fetchSize, null, 0, 0);
+                } else {
+                    PartitionColumnType type = PartitionColumnType.of(min);
+                    resultSetFn = new RangeQueryFunction(tableOrSubquery, partitionColumn, fetchSize, type,
+                            type.toLong(min), type.toLong(max));
+                }
+            }
+        }
+
+        @Nonnull @Override
+        public Function<? super Address, ? extends ProcessorSupplier> get(@Nonnull List<Address> addresses) {
+            RangeQueryFunction resultSetFnLocal = resultSetFn;
+            SupplierEx<? extends Connection> newConnectionFnLocal = newConnectionFn;
+            FunctionEx<? super ResultSet, ? extends T> mapOutputFnLocal = mapOutputFn;
+            return address -> ProcessorSupplier.of(() ->
+                    new ReadJdbcP<>(newConnectionFnLocal, resultSetFnLocal, mapOutputFnLocal));
+        }
+    }
+
+    /**
+     * Splits the {@code [min, max]} range of the partition column into {@code
+     * parallelism} sub-ranges of equal width and queries the sub-range of the
+     * processor. The first and the last sub-ranges are open so that the rows
+     * with values beyond the range, for example ones inserted since the range
+     * was queried, aren't missed. The rows with a {@code NULL} partition column
+     * are read by the first processor.
+     */
+    static final class RangeQueryFunction implements ToResultSetFunction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String tableOrSubquery;
+        private final String partitionColumn;
+        private final int fetchSize;
+        private final PartitionColumnType columnType;
+        private final long min;
+        private final long max;
+
+        /**
+         * @param partitionColumn the partition column or null, if a single
+         *      processor reads everything
+         * @param columnType the type of the partition column or null, if it
+         *      contains no other values than {@code NULL}
+         */
+        RangeQueryFunction(
+                String tableOrSubquery, @Nullable String partitionColumn, int fetchSize,
+                @Nullable PartitionColumnType columnType, long min, long max
+        ) {
+            this.tableOrSubquery = tableOrSubquery;
+            this.partitionColumn = partitionColumn;
+            this.fetchSize = fetchSize;
+            this.columnType = columnType;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public ResultSet createResultSet(Connection connection, int parallelism, int index) throws SQLException {
+            String query = "SELECT * FROM " + tableOrSubquery;
+            boolean hasLowerBound = false;
+            boolean hasUpperBound = false;
+            if (partitionColumn != null && parallelism > 1) {
+                if (columnType == null) {
+                    if (index > 0) {
+                        return null;
+                    }
+                    query += " WHERE " + partitionColumn + " IS NULL";
+                } else {
+                    hasLowerBound = index > 0;
+                    hasUpperBound = index < parallelism - 1;
+                    query += " WHERE " + (hasLowerBound ? partitionColumn + " >= ?" : "")
+                            + (hasLowerBound && hasUpperBound ? " AND " : "")
+                            + (hasUpperBound ? partitionColumn + " < ?" : "")
+                            + (index == 0 ? " OR " + partitionColumn + " IS NULL" : "");
+                }
+            }
+            // some drivers, like PostgreSQL's, only stream the result set with the
+            // fetch size if the auto-commit is disabled
+            connection.setAutoCommit(false);
+            PreparedStatement statement =
+                    connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                statement.setFetchSize(fetchSize);
+                int paramIndex = 1;
+                if (hasLowerBound) {
+                    columnType.bind(statement, paramIndex++, bound(index, parallelism));
+                }
+                if (hasUpperBound) {
+                    columnType.bind(statement, paramIndex, bound(index + 1, parallelism));
+                }
+                return statement.executeQuery();
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Returns the lower bound of the sub-range with the given index.
+         */
+        long bound(int index, int parallelism) {
+            return BigInteger.valueOf(max).subtract(BigInteger.valueOf(min)).add(BigInteger.ONE)
+                             .multiply(BigInteger.valueOf(index))
+                             .divide(BigInteger.valueOf(parallelism))
+                             .add(BigInteger.valueOf(min))
+                             .longValue();
+        }
+    }
+
+    /**
+     * The supported types of the partition column. The range is split using
+     * the values converted to {@code long}, fractions of numbers and times are
+     * truncated.
+     */
+    enum PartitionColumnType {
+        NUMBER {
+            @Override
+            long toLong(Object value) {
+                return ((Number) value).longValue();
+            }
+
+            @Override
+            void bind(PreparedStatement statement, int index, long value) throws SQLException {
+                statement.setLong(index, value);
+            }
+        },
+        DATE {
+            @Override
+            long toLong(Object value) {
+                return ((Date) value).getTime();
+            }
+
+            @Override
+            void bind(PreparedStatement statement, int index, long value) throws SQLException {
+                statement.setDate(index, new Date(value));
+            }
+        },
+        TIMESTAMP {
+            @Override
+            long toLong(Object value) {
+                return ((Timestamp) value).getTime();
+            }
+
+            @Override
+            void bind(PreparedStatement statement, int index, long value) throws SQLException {
+                statement.setTimestamp(index, new Timestamp(value));
+            }
+        };
+
+        abstract long toLong(Object value);
+
+        abstract void bind(PreparedStatement statement, int index, long value) throws SQLException;
+
+        static PartitionColumnType of(Object value) {
+            if (value instanceof Number) {
+                return NUMBER;
+            }
+            if (value instanceof Timestamp) {
+                return TIMESTAMP;
+            }
+            if (value instanceof Date) {
+                return DATE;
+            }
+            throw new JetException("Unsupported type of the partition column: " + value.getClass().getName()
+                    + ", it must be numeric, DATE or TIMESTAMP");
+        }
+    }
 }
@@ -28,18 +28,20 @@ import com.hazelcast.jet.function.ConsumerEx;
 import com.hazelcast.jet.function.SupplierEx;
 
 import javax.annotation.Nonnull;
-import java.util.function.Consumer;
 
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
 
 public final class WriteBufferedP<B, T> implements Processor {
 
+    private static final int BATCH_SIZE = 1024;
+
     private final FunctionEx<? super Context, B> createFn;
     private final ConsumerEx<? super B> flushFn;
     private final ConsumerEx<? super B> destroyFn;
+    private final BiConsumerEx<? super B, ? super T> onReceiveFn;
 
     private B buffer;
-    private final Consumer<Object> inboxConsumer;
+    private final Object[] batch = new Object[BATCH_SIZE];
 
     WriteBufferedP(
             @Nonnull FunctionEx<? super Context, B> createFn,
@@ -50,8 +52,7 @@ public final class WriteBufferedP<B, T> implements Processor {
         this.createFn = createFn;
         this.flushFn = flushFn;
         this.destroyFn = destroyFn;
-
-        inboxConsumer = item -> onReceiveFn.accept(buffer, (T) item);
+        this.onReceiveFn = onReceiveFn;
     }
 
     @Override
@@ -63,8 +64,14 @@ public final class WriteBufferedP<B, T> implements Processor {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void process(int ordinal, @Nonnull Inbox inbox) {
-        inbox.drain(inboxConsumer);
+        for (int count; (count = inbox.drainTo(batch)) > 0; ) {
+            for (int i = 0; i < count; i++) {
+                onReceiveFn.accept(buffer, (T) batch[i]);
+                batch[i] = null;
+            }
+        }
         flushFn.accept(buffer);
     }
 
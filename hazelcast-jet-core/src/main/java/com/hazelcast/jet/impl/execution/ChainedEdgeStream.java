@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.util.function.Predicate;
+
+import java.util.ArrayDeque;
+
+import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+import static com.hazelcast.jet.impl.execution.WatermarkCoalescer.NO_NEW_WM;
+import static com.hazelcast.jet.impl.util.ProgressState.DONE;
+import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.WAS_ALREADY_DONE;
+
+/**
+ * Connects two processors of a {@link ChainedTasklet}: the upstream
+ * processor's outbox offers the items to this object as its {@link
+ * OutboundCollector} and the downstream processor drains them to its
+ * inbox through it as its {@link InboundEdgeStream}.
+ * <p>
+ * Both processors run on the same thread, so the items are handed over
+ * through a plain bounded buffer instead of a concurrent queue. There is
+ * exactly one producer, therefore no watermark coalescing among queues or
+ * snapshot barrier alignment is needed: a barrier is forwarded as soon as
+ * it's drained and watermarks go through a single-input {@link
+ * WatermarkCoalescer}, which keeps the idle-message handling and the
+ * watermark probes the same as with a conveyor.
+ */
+public class ChainedEdgeStream implements OutboundCollector, InboundEdgeStream {
+
+    private final int ordinal;
+    private final int priority;
+    private final int capacity;
+    private final int[] partitions;
+    private final ArrayDeque<Object> buffer;
+    private final WatermarkCoalescer watermarkCoalescer = WatermarkCoalescer.create(1);
+    // nobody else produces to the stream, the chained tasklet calls its consumer after the producer
+    private final WakeUpHandle wakeUpHandle = new WakeUpHandle();
+    private boolean done;
+
+    public ChainedEdgeStream(int ordinal, int priority, int capacity, int[] partitions) {
+        this.ordinal = ordinal;
+        this.priority = priority;
+        this.capacity = capacity;
+        this.partitions = partitions;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public ProgressState offer(Object item) {
+        if (buffer.size() >= capacity) {
+            return NO_PROGRESS;
+        }
+        buffer.add(item);
+        return DONE;
+    }
+
+    @Override
+    public int[] getPartitions() {
+        return partitions;
+    }
+
+    @Override
+    public int ordinal() {
+        return ordinal;
+    }
+
+    @Override
+    public int priority() {
+        return priority;
+    }
+
+    @Override
+    public WakeUpHandle wakeUpHandle() {
+        return wakeUpHandle;
+    }
+
+    @Override
+    public ProgressState drainTo(Predicate<Object> dest) {
+        if (done) {
+            return WAS_ALREADY_DONE;
+        }
+        boolean madeProgress = false;
+        for (Object item; (item = buffer.poll()) != null; ) {
+            madeProgress = true;
+            if (item == DONE_ITEM) {
+                done = true;
+                maybeEmitWm(watermarkCoalescer.queueDone(0), dest);
+                return DONE;
+            }
+            if (item instanceof Watermark) {
+                if (maybeEmitWm(watermarkCoalescer.observeWm(0, ((Watermark) item).timestamp()), dest)) {
+                    return MADE_PROGRESS;
+                }
+                continue;
+            }
+            if (item instanceof SnapshotBarrier) {
+                boolean res = dest.test(item);
+                assert res : "test result expected to be true";
+                return MADE_PROGRESS;
+            }
+            if (!(item instanceof LatencyMarker)) {
+                watermarkCoalescer.observeEvent(0);
+            }
+            if (!dest.test(item)) {
+                return MADE_PROGRESS;
+            }
+        }
+        // try to emit WM based on history
+        if (maybeEmitWm(watermarkCoalescer.checkWmHistory(), dest)) {
+            return MADE_PROGRESS;
+        }
+        return madeProgress ? MADE_PROGRESS : NO_PROGRESS;
+    }
+
+    private static boolean maybeEmitWm(long timestamp, Predicate<Object> dest) {
+        if (timestamp != NO_NEW_WM) {
+            boolean res = dest.test(new Watermark(timestamp));
+            assert res : "test result expected to be true";
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public int capacities() {
+        return capacity;
+    }
+
+    @Override
+    public int sizes() {
+        return buffer.size();
+    }
+
+    @Override
+    public long topObservedWm() {
+        return watermarkCoalescer.topObservedWm();
+    }
+
+    @Override
+    public long coalescedWm() {
+        return watermarkCoalescer.coalescedWm();
+    }
+}
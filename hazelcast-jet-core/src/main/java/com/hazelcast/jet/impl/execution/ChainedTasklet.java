@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.jet.impl.util.ProgressTracker;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A cooperative tasklet that runs a chain of processor tasklets
+ * back-to-back on the same thread. The tasklets are connected by
+ * one-to-one local edges and are called in the upstream-to-downstream
+ * order, so an item emitted by one processor is usually processed by the
+ * next one in the same call, without being handed over to another thread.
+ * <p>
+ * The outbox of a processor hands the items directly to the inbox of the
+ * next one through a {@link ChainedEdgeStream}, a single-threaded buffer
+ * which forwards the watermarks and snapshot barriers the same way as a
+ * conveyor with one producer. When the buffer is full, the upstream
+ * processor's outbox rejects the items until the downstream processor
+ * drains it.
+ */
+public class ChainedTasklet implements Tasklet {
+
+    private final List<Tasklet> tasklets;
+    private final boolean[] done;
+    private final ProgressTracker progTracker = new ProgressTracker();
+
+    public ChainedTasklet(@Nonnull List<Tasklet> tasklets) {
+        assert tasklets.stream().allMatch(Tasklet::isCooperative) : "non-cooperative tasklet in a chain";
+        this.tasklets = tasklets;
+        this.done = new boolean[tasklets.size()];
+    }
+
+    @Override
+    public void init() {
+        for (Tasklet tasklet : tasklets) {
+            tasklet.init();
+        }
+    }
+
+    @Nonnull @Override
+    public ProgressState call() {
+        progTracker.reset();
+        for (int i = 0; i < done.length; i++) {
+            if (done[i]) {
+                continue;
+            }
+            ProgressState result = tasklets.get(i).call();
+            done[i] = result.isDone();
+            progTracker.mergeWith(result);
+        }
+        return progTracker.toProgressState();
+    }
+
+    @Override
+    public boolean hasThreadAffinity() {
+        return tasklets.stream().anyMatch(Tasklet::hasThreadAffinity);
+    }
+
+    @Nonnull @Override
+    public Collection<WakeUpHandle> wakeUpHandles() {
+        List<WakeUpHandle> handles = new ArrayList<>();
+        for (Tasklet tasklet : tasklets) {
+            handles.addAll(tasklet.wakeUpHandles());
+        }
+        return handles;
+    }
+
+    @Override
+    public int localProcessorIndex() {
+        return tasklets.get(0).localProcessorIndex();
+    }
+
+    @Override
+    public void close() {
+        for (Tasklet tasklet : tasklets) {
+            tasklet.close();
+        }
+    }
+
+    /**
+     * Returns the chained tasklets, upstream first.
+     */
+    public List<Tasklet> tasklets() {
+        return tasklets;
+    }
+
+    @Override
+    public String toString() {
+        return tasklets.stream().map(Object::toString).collect(joining(" -> ", "ChainedTasklet{", "}"));
+    }
+}
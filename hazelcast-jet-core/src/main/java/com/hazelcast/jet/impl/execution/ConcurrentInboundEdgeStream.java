@@ -26,19 +26,35 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.util.function.Predicate;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Comparator;
 import java.util.function.ToIntFunction;
 
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
 import static com.hazelcast.jet.impl.execution.WatermarkCoalescer.NO_NEW_WM;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static com.hazelcast.jet.impl.util.Util.toLocalTime;
 
 /**
  * {@link InboundEdgeStream} implemented in terms of a {@link ConcurrentConveyor}.
  * The conveyor has as many 1-to-1 concurrent queues as there are upstream tasklets
  * contributing to it.
+ * <p>
+ * If an order comparator is given, the stream works in the merge-sort mode:
+ * instead of draining the queues one after another, it always takes the
+ * smallest item from the heads of all the queues. See {@link
+ * com.hazelcast.jet.core.Edge#ordered}. The queues are then always drained
+ * to local buffers and the merging takes the items from there: if we left
+ * the items in a queue while waiting for an item on another queue, the
+ * upstream processor feeding the first queue could block and never emit
+ * the item we are waiting for to the other queue of a different
+ * downstream processor.
  */
 public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
 
@@ -51,6 +67,10 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
     private final WatermarkCoalescer watermarkCoalescer;
     private final BitSet receivedBarriers; // indicates if current snapshot is received on the queue
     private final ILogger logger;
+    private final Comparator<Object> orderComparator;
+    // null unless in the merge-sort mode
+    private final ArrayDeque<Object>[] mergeBuffers;
+    private final WakeUpHandle wakeUpHandle;
 
     // Tells whether we are operating in exactly-once or at-least-once mode.
     // In other words, whether a barrier from all queues must be present before
@@ -68,7 +88,44 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
      */
     public ConcurrentInboundEdgeStream(ConcurrentConveyor<Object> conveyor, int ordinal, int priority,
                                        boolean waitForAllBarriers, String debugName) {
+        this(conveyor, ordinal, priority, waitForAllBarriers, null, debugName);
+    }
+
+    /**
+     * @param waitForAllBarriers see {@link #ConcurrentInboundEdgeStream(
+     *          ConcurrentConveyor, int, int, boolean, String)}
+     * @param orderComparator if not {@code null}, the queues are merged
+     *          in the order defined by this comparator
+     */
+    public ConcurrentInboundEdgeStream(ConcurrentConveyor<Object> conveyor, int ordinal, int priority,
+                                       boolean waitForAllBarriers, @Nullable Comparator<?> orderComparator,
+                                       String debugName) {
+        this(conveyor, ordinal, priority, waitForAllBarriers, orderComparator, new WakeUpHandle(), debugName);
+    }
+
+    /**
+     * @param waitForAllBarriers see {@link #ConcurrentInboundEdgeStream(
+     *          ConcurrentConveyor, int, int, boolean, String)}
+     * @param orderComparator see {@link #ConcurrentInboundEdgeStream(
+     *          ConcurrentConveyor, int, int, boolean, Comparator, String)}
+     * @param wakeUpHandle the handle the producers to the conveyor use to
+     *          wake up the consumer of this stream
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentInboundEdgeStream(ConcurrentConveyor<Object> conveyor, int ordinal, int priority,
+                                       boolean waitForAllBarriers, @Nullable Comparator<?> orderComparator,
+                                       @Nonnull WakeUpHandle wakeUpHandle, String debugName) {
         this.conveyor = conveyor;
+        this.wakeUpHandle = wakeUpHandle;
+        // in the merge-sort mode, draining must stop at any broadcast item
+        itemDetector.stopAtLatencyMarker = orderComparator != null;
+        this.orderComparator = (Comparator<Object>) orderComparator;
+        if (orderComparator != null) {
+            mergeBuffers = new ArrayDeque[conveyor.queueCount()];
+            Arrays.setAll(mergeBuffers, i -> new ArrayDeque<>());
+        } else {
+            mergeBuffers = null;
+        }
         this.ordinal = ordinal;
         this.priority = priority;
         this.waitForAllBarriers = waitForAllBarriers;
@@ -91,6 +148,11 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
         return priority;
     }
 
+    @Override
+    public WakeUpHandle wakeUpHandle() {
+        return wakeUpHandle;
+    }
+
     @Override
     public ProgressState drainTo(Predicate<Object> dest) {
         tracker.reset();
@@ -99,13 +161,18 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
             if (q == null) {
                 continue;
             }
+            if (mergeBuffers != null) {
+                moveToBuffer(q, mergeBuffers[queueIndex]);
+            }
 
             // skip queues where a snapshot barrier has already been received
             if (waitForAllBarriers && receivedBarriers.get(queueIndex)) {
                 continue;
             }
 
-            ProgressState result = drainQueue(q, dest);
+            ProgressState result = mergeBuffers == null
+                    ? drainQueue(q, dest)
+                    : drainBroadcastItem(mergeBuffers[queueIndex], dest);
             tracker.mergeWith(result);
 
             if (itemDetector.item == DONE_ITEM) {
@@ -133,7 +200,7 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
                 }
             } else if (itemDetector.item instanceof SnapshotBarrier) {
                 observeBarrier(queueIndex, (SnapshotBarrier) itemDetector.item);
-            } else if (result.isMadeProgress()) {
+            } else if (result.isMadeProgress() && !itemDetector.onlyLatencyMarkers) {
                 watermarkCoalescer.observeEvent(queueIndex);
             }
 
@@ -154,6 +221,10 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
             }
         }
 
+        if (mergeBuffers != null && numActiveQueues > 0) {
+            mergeQueues(dest);
+        }
+
         // try to emit WM based on history
         if (maybeEmitWm(watermarkCoalescer.checkWmHistory(), dest)) {
             return MADE_PROGRESS;
@@ -193,6 +264,69 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
         return ProgressState.valueOf(drainedCount > 0, itemDetector.item == DONE_ITEM);
     }
 
+    /**
+     * Used in the merge-sort mode. Moves all the items from the queue to the
+     * buffer so that the upstream processor is never blocked by the merging.
+     */
+    private static void moveToBuffer(QueuedPipe<Object> queue, ArrayDeque<Object> buffer) {
+        for (Object item; (item = queue.poll()) != null; ) {
+            buffer.add(item);
+        }
+    }
+
+    /**
+     * Used in the merge-sort mode. Takes the item at the head of the supplied
+     * buffer only if it's a {@link BroadcastItem}, the regular items are
+     * taken by {@link #mergeQueues}.
+     */
+    private ProgressState drainBroadcastItem(ArrayDeque<Object> buffer, Predicate<Object> dest) {
+        itemDetector.reset(dest);
+        if (buffer.peek() instanceof BroadcastItem) {
+            itemDetector.test(buffer.poll());
+            itemDetector.dest = null;
+            return ProgressState.valueOf(true, itemDetector.item == DONE_ITEM);
+        }
+        itemDetector.dest = null;
+        return NO_PROGRESS;
+    }
+
+    /**
+     * Used in the merge-sort mode. Moves the smallest item at the heads of the
+     * buffers to {@code dest} for as long as every queue we can drain from
+     * has a regular item at the head of its buffer. An empty buffer or a
+     * broadcast item at the head stops the merging: we can't tell which item
+     * comes next until that queue has a regular item or the broadcast item
+     * is handled.
+     */
+    private void mergeQueues(Predicate<Object> dest) {
+        for (;;) {
+            int minQueueIndex = -1;
+            Object minItem = null;
+            for (int queueIndex = 0; queueIndex < conveyor.queueCount(); queueIndex++) {
+                if (conveyor.queue(queueIndex) == null || waitForAllBarriers && receivedBarriers.get(queueIndex)) {
+                    continue;
+                }
+                Object head = mergeBuffers[queueIndex].peek();
+                if (head == null || head instanceof BroadcastItem) {
+                    return;
+                }
+                if (minItem == null || orderComparator.compare(head, minItem) < 0) {
+                    minQueueIndex = queueIndex;
+                    minItem = head;
+                }
+            }
+            if (minItem == null) {
+                return;
+            }
+            mergeBuffers[minQueueIndex].poll();
+            watermarkCoalescer.observeEvent(minQueueIndex);
+            tracker.madeProgress();
+            if (!dest.test(minItem)) {
+                return;
+            }
+        }
+    }
+
     private void observeBarrier(int queueIndex, SnapshotBarrier barrier) {
         if (currentBarrier == null) {
             currentBarrier = barrier;
@@ -217,10 +351,14 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
     private static final class ItemDetector implements Predicate<Object> {
         Predicate<Object> dest;
         BroadcastItem item;
+        boolean stopAtLatencyMarker;
+        // a queue from which only latency markers were drained is still idle
+        boolean onlyLatencyMarkers;
 
         void reset(Predicate<Object> newDest) {
             dest = newDest;
             item = null;
+            onlyLatencyMarkers = true;
         }
 
         @Override
@@ -230,13 +368,26 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
                 item = (BroadcastItem) o;
                 return false;
             }
+            if (o instanceof LatencyMarker) {
+                // the marker is passed on like a regular item, but in the
+                // merge-sort mode we must not drain past it
+                dest.test(o);
+                return !stopAtLatencyMarker;
+            }
+            onlyLatencyMarkers = false;
             return dest.test(o);
         }
     }
 
     @Override
     public int sizes() {
-        return conveyorSum(QueuedPipe::size);
+        int sum = conveyorSum(QueuedPipe::size);
+        if (mergeBuffers != null) {
+            for (ArrayDeque<Object> buffer : mergeBuffers) {
+                sum += buffer.size();
+            }
+        }
+        return sum;
     }
 
     @Override
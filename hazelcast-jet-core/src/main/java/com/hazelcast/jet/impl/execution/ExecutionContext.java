@@ -176,7 +176,12 @@ public class ExecutionContext {
         }
         MetricsRegistry metricsRegistry = ((NodeEngineImpl) nodeEngine).getMetricsRegistry();
         processors.forEach(metricsRegistry::deregister);
-        tasklets.forEach(metricsRegistry::deregister);
+        for (Tasklet tasklet : tasklets) {
+            metricsRegistry.deregister(tasklet);
+            if (tasklet instanceof ChainedTasklet) {
+                ((ChainedTasklet) tasklet).tasklets().forEach(metricsRegistry::deregister);
+            }
+        }
     }
 
     /**
@@ -108,6 +108,44 @@ class ExecutionSerializerHooks {
         }
     }
 
+    public static final class LatencyMarkerHook implements SerializerHook<LatencyMarker> {
+
+        @Override
+        public Class<LatencyMarker> getSerializationType() {
+            return LatencyMarker.class;
+        }
+
+        @Override
+        public Serializer createSerializer() {
+            return new StreamSerializer<LatencyMarker>() {
+                @Override
+                public int getTypeId() {
+                    return SerializerHookConstants.LATENCY_MARKER;
+                }
+
+                @Override
+                public void destroy() {
+                }
+
+                @Override
+                public void write(ObjectDataOutput out, LatencyMarker object) throws IOException {
+                    out.writeLong(object.sequence());
+                    out.writeLong(object.timestampNanos());
+                }
+
+                @Override
+                public LatencyMarker read(ObjectDataInput in) throws IOException {
+                    return new LatencyMarker(in.readLong(), in.readLong());
+                }
+            };
+        }
+
+        @Override
+        public boolean isOverwritable() {
+            return true;
+        }
+    }
+
     public static final class BroadcastEntryHook implements SerializerHook<BroadcastEntry> {
 
         @Override
@@ -36,6 +36,12 @@ public interface InboundEdgeStream {
      */
     int priority();
 
+    /**
+     * Returns the handle the producers to this stream use to wake up its
+     * consumer.
+     */
+    WakeUpHandle wakeUpHandle();
+
     /**
      * Passes the items from the queues to the predicate while it returns {@code true}.
      */
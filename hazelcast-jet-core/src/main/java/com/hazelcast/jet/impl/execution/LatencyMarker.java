@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import java.util.Objects;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Special item injected by the source processor tasklets to measure the
+ * latency of the pipeline, see {@link
+ * com.hazelcast.jet.impl.util.JetProperties#JET_LATENCY_MARKER_INTERVAL_MILLIS}.
+ * It travels through the queues like the other items, but isn't delivered
+ * to the processors.
+ */
+public final class LatencyMarker implements BroadcastItem {
+
+    private static final long EPOCH_OFFSET_NANOS = MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+    private final long sequence;
+    private final long timestampNanos;
+
+    /**
+     * @param sequence the number of the marker interval, the markers created
+     *      in the same interval by different sources have the same sequence
+     * @param timestampNanos the time the marker was created, see {@link
+     *      #epochNanos()}
+     */
+    public LatencyMarker(long sequence, long timestampNanos) {
+        this.sequence = sequence;
+        this.timestampNanos = timestampNanos;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Returns the current wall-clock time in nanoseconds since the epoch,
+     * derived from {@code System.nanoTime()} for sub-millisecond precision
+     * on this member. The values on different members differ by the clock
+     * skew between them.
+     */
+    public static long epochNanos() {
+        return System.nanoTime() + EPOCH_OFFSET_NANOS;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyMarker{sequence=" + sequence + ", timestampNanos=" + timestampNanos + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LatencyMarker that = (LatencyMarker) o;
+        return sequence == that.sequence &&
+                timestampNanos == that.timestampNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequence, timestampNanos);
+    }
+}
@@ -25,6 +25,7 @@ import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.Processor.Context;
 import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.processor.ProcessorWrapper;
 import com.hazelcast.jet.impl.util.ArrayDequeInbox;
 import com.hazelcast.jet.impl.util.CircularListCursor;
@@ -42,6 +43,7 @@ import javax.annotation.Nullable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
@@ -85,6 +87,7 @@ public class ProcessorTasklet implements Tasklet {
 
     private final ArrayDequeInbox inbox = new ArrayDequeInbox(progTracker);
     private final Queue<ArrayList<InboundEdgeStream>> instreamGroupQueue;
+    private final List<WakeUpHandle> wakeUpHandles = new ArrayList<>();
     private final WatermarkCoalescer watermarkCoalescer;
     private final ILogger logger;
     private final SerializationService serializationService;
@@ -109,9 +112,19 @@ public class ProcessorTasklet implements Tasklet {
     private final AtomicLongArray emittedCounts;
     private final AtomicLong queuesSize = new AtomicLong();
     private final AtomicLong queuesCapacity = new AtomicLong();
-    private final Predicate<Object> addToInboxFunction = inbox.queue()::add;
+    private final TaskletCallMetrics callMetrics = new TaskletCallMetrics();
+    private final Predicate<Object> addToInboxFunction;
+
+    // null if the latency markers are disabled
+    @Nullable
+    private final VertexLatencyTracker latencyTracker;
+    // the marker to forward downstream or, for a source, to inject
+    private LatencyMarker pendingLatencyMarker;
+    // true, if the pending marker was rejected by the outbox
+    private boolean latencyMarkerInOutbox;
+    private long lastLatencyMarkerSequence = Long.MIN_VALUE;
+    private boolean threadAffinity;
 
-    @SuppressWarnings("checkstyle:ExecutableStatementCount")
     public ProcessorTasklet(@Nonnull Context context,
                             @Nonnull SerializationService serializationService,
                             @Nonnull Processor processor,
@@ -120,9 +133,30 @@ public class ProcessorTasklet implements Tasklet {
                             @Nonnull SnapshotContext ssContext,
                             @Nonnull OutboundCollector ssCollector,
                             @Nullable ProbeBuilder probeBuilder
+    ) {
+        this(context, serializationService, processor, instreams, outstreams, ssContext, ssCollector, probeBuilder,
+                null);
+    }
+
+    /**
+     * @param latencyTracker the tracker to record the received {@link
+     *      LatencyMarker}s to or null, if the markers are disabled
+     */
+    @SuppressWarnings("checkstyle:ExecutableStatementCount")
+    public ProcessorTasklet(@Nonnull Context context,
+                            @Nonnull SerializationService serializationService,
+                            @Nonnull Processor processor,
+                            @Nonnull List<? extends InboundEdgeStream> instreams,
+                            @Nonnull List<? extends OutboundEdgeStream> outstreams,
+                            @Nonnull SnapshotContext ssContext,
+                            @Nonnull OutboundCollector ssCollector,
+                            @Nullable ProbeBuilder probeBuilder,
+                            @Nullable VertexLatencyTracker latencyTracker
     ) {
         Preconditions.checkNotNull(processor, "processor");
         this.context = context;
+        this.latencyTracker = latencyTracker;
+        this.addToInboxFunction = latencyTracker == null ? inbox.queue()::add : this::addToInboxOrRecordMarker;
         this.serializationService = serializationService;
         this.processor = processor;
         this.numActiveOrdinals = instreams.size();
@@ -135,6 +169,12 @@ public class ProcessorTasklet implements Tasklet {
                                     .toArray(OutboundEdgeStream[]::new);
         this.ssContext = ssContext;
         this.logger = getLogger(context);
+        for (InboundEdgeStream instream : instreams) {
+            wakeUpHandles.add(instream.wakeUpHandle());
+        }
+        if (context instanceof ProcCtx) {
+            wakeUpHandles.add(((ProcCtx) context).wakeUpHandle());
+        }
 
         instreamCursor = popInstreamGroup();
         receivedCounts = new AtomicLongArray(instreams.size());
@@ -197,6 +237,12 @@ public class ProcessorTasklet implements Tasklet {
                 (LongProbeFunction<ProcessorTasklet>) t -> t.queuesSize.get());
         probeBuilder.register(this, "queuesCapacity", ProbeLevel.INFO, ProbeUnit.COUNT,
                 (LongProbeFunction<ProcessorTasklet>) t -> t.queuesCapacity.get());
+        probeBuilder.register(this, "callCount", ProbeLevel.INFO, ProbeUnit.COUNT,
+                (LongProbeFunction<ProcessorTasklet>) t -> t.callMetrics.callCount().get());
+        probeBuilder.register(this, "madeProgressCallCount", ProbeLevel.INFO, ProbeUnit.COUNT,
+                (LongProbeFunction<ProcessorTasklet>) t -> t.callMetrics.madeProgressCallCount().get());
+        probeBuilder.register(this, "callTimeNanos", ProbeLevel.INFO, ProbeUnit.NS,
+                (LongProbeFunction<ProcessorTasklet>) t -> t.callMetrics.callTimeNanos().get());
     }
 
     private OutboxImpl createOutbox(@Nonnull OutboundCollector ssCollector) {
@@ -227,10 +273,16 @@ public class ProcessorTasklet implements Tasklet {
     @Override @Nonnull
     public ProgressState call() {
         assert !processorClosed : "processor closed";
+        long start = callMetrics.beforeCall();
         progTracker.reset();
         outbox.reset();
-        stateMachineStep();
+        if (latencyTracker == null || tryEmitLatencyMarker()) {
+            stateMachineStep();
+        } else {
+            progTracker.notDone();
+        }
         ProgressState progressState = progTracker.toProgressState();
+        callMetrics.afterCall(start, progressState);
         if (progressState.isDone()) {
             closeProcessor();
             processorClosed = true;
@@ -384,6 +436,63 @@ public class ProcessorTasklet implements Tasklet {
         }
     }
 
+    /**
+     * Used instead of adding to the inbox directly if the latency markers are
+     * enabled. Records the latency of a marker instead of adding it to the
+     * inbox and makes it pending, unless a marker with the same or higher
+     * sequence was already forwarded.
+     */
+    private boolean addToInboxOrRecordMarker(Object item) {
+        if (!(item instanceof LatencyMarker)) {
+            return inbox.queue().add(item);
+        }
+        LatencyMarker marker = (LatencyMarker) item;
+        latencyTracker.recordMarker(currInstream.ordinal(), marker);
+        if (outstreams.length > 0 && marker.sequence() > lastLatencyMarkerSequence) {
+            lastLatencyMarkerSequence = marker.sequence();
+            pendingLatencyMarker = marker;
+        }
+        return true;
+    }
+
+    /**
+     * Offers the pending latency marker to the outbox, creating a new one
+     * first if this is a source tasklet and the marker interval elapsed. The
+     * marker is only offered between the calls to the processor that didn't
+     * leave an unfinished item in the outbox. Once offered, the offer is
+     * retried before the processor is called again.
+     *
+     * @return false, if the outbox rejected the marker
+     */
+    private boolean tryEmitLatencyMarker() {
+        if (!latencyMarkerInOutbox) {
+            if (outbox.hasUnfinishedItem()
+                    || state != PROCESS_INBOX && state != PROCESS_WATERMARK && state != COMPLETE
+                    // the outbox might be blocked for a snapshot
+                    || ssContext.activeSnapshotId() == pendingSnapshotId) {
+                return true;
+            }
+            if (state == COMPLETE && latencyTracker.isSource() && outstreams.length > 0) {
+                long now = LatencyMarker.epochNanos();
+                long sequence = now / latencyTracker.markerIntervalNanos();
+                if (sequence > lastLatencyMarkerSequence) {
+                    lastLatencyMarkerSequence = sequence;
+                    pendingLatencyMarker = new LatencyMarker(sequence, now);
+                }
+            }
+            if (pendingLatencyMarker == null) {
+                return true;
+            }
+        }
+        if (!outbox.offer(pendingLatencyMarker)) {
+            latencyMarkerInOutbox = true;
+            return false;
+        }
+        latencyMarkerInOutbox = false;
+        pendingLatencyMarker = null;
+        return true;
+    }
+
     private void fillInbox() {
         assert inbox.isEmpty() : "inbox is not empty";
         assert pendingWatermark == null : "null wm expected, but was " + pendingWatermark;
@@ -456,6 +565,29 @@ public class ProcessorTasklet implements Tasklet {
                        .orElse(null);
     }
 
+    @Nonnull @Override
+    public Collection<WakeUpHandle> wakeUpHandles() {
+        return wakeUpHandles;
+    }
+
+    @Override
+    public int localProcessorIndex() {
+        return context.localProcessorIndex();
+    }
+
+    @Override
+    public boolean hasThreadAffinity() {
+        return threadAffinity;
+    }
+
+    /**
+     * Sets whether the tasklet should stay on the cooperative worker it was
+     * placed on, see {@link Tasklet#hasThreadAffinity()}.
+     */
+    public void setThreadAffinity(boolean threadAffinity) {
+        this.threadAffinity = threadAffinity;
+    }
+
     @Override
     public String toString() {
         String jobPrefix = context.jobConfig().getName() == null ? "" : context.jobConfig().getName() + "/";
@@ -26,16 +26,22 @@ import com.hazelcast.logging.LoggingService;
 import com.hazelcast.nio.BufferObjectDataInput;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.Util.lazyAdd;
 import static java.lang.Math.ceil;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
@@ -68,6 +74,13 @@ public class ReceiverTasklet implements Tasklet {
      */
     static final int INITIAL_RECEIVE_WINDOW_COMPRESSED = 800;
 
+    /**
+     * With credit-based flow control, the receiver sends a flow-control
+     * packet as soon as this fraction of the receive window was processed
+     * since the last one it sent.
+     */
+    static final int CREDIT_WINDOW_FRACTION = 4;
+
     /**
      * Receive Window converges towards the amount of data processed per flow-control
      * period multiplied by this number.
@@ -80,11 +93,19 @@ public class ReceiverTasklet implements Tasklet {
     private final ProgressTracker tracker = new ProgressTracker();
     private final ArrayDeque<ObjWithPtionIdAndSize> inbox = new ArrayDeque<>();
     private final OutboundCollector collector;
+    // null if compression is disabled
+    private final Inflater inflater;
+    // null if credit-based flow control is disabled
+    private final IntConsumer creditSender;
+    private final WakeUpHandle wakeUpHandle = new WakeUpHandle();
+    private byte[] compressedBuffer = new byte[0];
+    private byte[] decompressedBuffer = new byte[0];
 
     private boolean receptionDone;
 
     private final AtomicLong itemsInCounter = new AtomicLong();
     private final AtomicLong bytesInCounter = new AtomicLong();
+    private final TaskletCallMetrics callMetrics = new TaskletCallMetrics();
 
     //                    FLOW-CONTROL STATE
     //            All arrays are indexed by sender ID.
@@ -93,26 +114,66 @@ public class ReceiverTasklet implements Tasklet {
     private volatile long ackedSeq;
     private volatile int numWaitingInInbox;
 
-    // read and written by updateAndGetSendSeqLimitCompressed(), which is invoked sequentially by a task scheduler
-    private int receiveWindowCompressed;
+    // written by updateAndGetSendSeqLimitCompressed(), which is invoked sequentially by a task scheduler,
+    // read by the tasklet execution thread with credit-based flow control
+    private volatile int receiveWindowCompressed;
+    // read and written by updateAndGetSendSeqLimitCompressed()
     private int prevAckedSeqCompressed;
     private long prevTimestamp;
 
+    // read and written by the tasklet execution thread
+    private boolean creditSent;
+    private int lastCreditAckedSeqCompressed;
+
     //                 END FLOW-CONTROL STATE
 
     public ReceiverTasklet(
             OutboundCollector collector, int rwinMultiplier, int flowControlPeriodMs,
             LoggingService loggingService, String debugName
+    ) {
+        this(collector, rwinMultiplier, flowControlPeriodMs, loggingService, debugName, false);
+    }
+
+    public ReceiverTasklet(
+            OutboundCollector collector, int rwinMultiplier, int flowControlPeriodMs,
+            LoggingService loggingService, String debugName, boolean compressionEnabled
+    ) {
+        this(collector, rwinMultiplier, flowControlPeriodMs, loggingService, debugName, compressionEnabled, null);
+    }
+
+    /**
+     * @param creditSender if not null, credit-based flow control is enabled
+     *                     and the tasklet passes to it the {@code sendSeqLimitCompressed}
+     *                     to send to the sender as soon as enough data was processed
+     */
+    public ReceiverTasklet(
+            OutboundCollector collector, int rwinMultiplier, int flowControlPeriodMs,
+            LoggingService loggingService, String debugName, boolean compressionEnabled,
+            @Nullable IntConsumer creditSender
     ) {
         this.collector = collector;
+        this.inflater = compressionEnabled ? new Inflater() : null;
+        this.creditSender = creditSender;
         this.rwinMultiplier = rwinMultiplier;
         this.flowControlPeriodNs = (double) MILLISECONDS.toNanos(flowControlPeriodMs);
         this.logger = loggingService.getLogger(getClass().getName() + '.' + debugName);
         this.receiveWindowCompressed = INITIAL_RECEIVE_WINDOW_COMPRESSED;
     }
 
+    @Override @Nonnull
+    public Collection<WakeUpHandle> wakeUpHandles() {
+        return singletonList(wakeUpHandle);
+    }
+
     @Override @Nonnull
     public ProgressState call() {
+        long start = callMetrics.beforeCall();
+        ProgressState result = doCall();
+        callMetrics.afterCall(start, result);
+        return result;
+    }
+
+    private ProgressState doCall() {
         if (receptionDone) {
             return collector.offerBroadcast(DONE_ITEM);
         }
@@ -139,11 +200,35 @@ public class ReceiverTasklet implements Tasklet {
             ackItem(o.estimatedMemoryFootprint);
         }
         numWaitingInInbox = inbox.size();
+        if (creditSender != null) {
+            maybeSendCredit();
+        }
         return tracker.toProgressState();
     }
 
+    /**
+     * Sends a flow-control packet without waiting for the next flow-control
+     * period, if the processed data since the last such packet reached {@code
+     * 1/CREDIT_WINDOW_FRACTION} of the receive window. The periodic packets
+     * are still sent and keep adapting the receive window. The two kinds of
+     * packets can be reordered and the periodic packet can carry a lower limit
+     * after the receive window shrank, the sender therefore keeps the highest
+     * limit it received, see {@link SenderTasklet#setSendSeqLimitCompressed}.
+     */
+    private void maybeSendCredit() {
+        final int ackedSeqCompressed = compressSeq(ackedSeq);
+        final int rwin = receiveWindowCompressed;
+        if (creditSent && ackedSeqCompressed - lastCreditAckedSeqCompressed < Math.max(1, rwin / CREDIT_WINDOW_FRACTION)) {
+            return;
+        }
+        creditSent = true;
+        lastCreditAckedSeqCompressed = ackedSeqCompressed;
+        creditSender.accept(ackedSeqCompressed + rwin);
+    }
+
     void receiveStreamPacket(BufferObjectDataInput packetInput) {
         incoming.add(packetInput);
+        wakeUpHandle.wakeUp();
     }
 
     /**
@@ -184,7 +269,8 @@ public class ReceiverTasklet implements Tasklet {
      * @param timestampNow value of the timestamp at the time the method is called. The timestamp
      *                     must be obtained from {@code System.nanoTime()}.
      */
-    // Invoked sequentially by a task scheduler
+    // Invoked sequentially by a task scheduler, the only writer of receiveWindowCompressed
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
     int updateAndGetSendSeqLimitCompressed(long timestampNow) {
         final boolean hadPrevStats = prevTimestamp != 0 || prevAckedSeqCompressed != 0;
 
@@ -256,6 +342,9 @@ public class ReceiverTasklet implements Tasklet {
             long totalItems = 0;
             for (BufferObjectDataInput received; (received = incoming.poll()) != null; ) {
                 final int itemCount = received.readInt();
+                if (inflater != null) {
+                    totalBytes += decompressItems(received);
+                }
                 for (int i = 0; i < itemCount; i++) {
                     final int mark = received.position();
                     final Object item = received.readObject();
@@ -263,7 +352,9 @@ public class ReceiverTasklet implements Tasklet {
                     inbox.add(new ObjWithPtionIdAndSize(item, received.readInt(), itemSize));
                 }
                 totalItems += itemCount;
-                totalBytes += received.position();
+                if (inflater == null) {
+                    totalBytes += received.position();
+                }
                 received.close();
                 tracker.madeProgress();
             }
@@ -274,6 +365,55 @@ public class ReceiverTasklet implements Tasklet {
         }
     }
 
+    /**
+     * Decompresses the items of a packet written by {@code
+     * SenderTasklet.compressItems()} and re-initializes the input to read the
+     * decompressed items.
+     *
+     * @return the received size of the packet, in bytes
+     */
+    private int decompressItems(BufferObjectDataInput received) throws IOException {
+        final int uncompressedLength = received.readInt();
+        final int compressedLength = received.readInt();
+        if (compressedBuffer.length < compressedLength) {
+            compressedBuffer = new byte[compressedLength];
+        }
+        received.readFully(compressedBuffer, 0, compressedLength);
+        final int packetSize = received.position();
+        if (decompressedBuffer.length < uncompressedLength) {
+            decompressedBuffer = new byte[uncompressedLength];
+        }
+        inflater.reset();
+        inflater.setInput(compressedBuffer, 0, compressedLength);
+        int length = 0;
+        try {
+            while (length < uncompressedLength && !inflater.finished()) {
+                final int inflated = inflater.inflate(decompressedBuffer, length, uncompressedLength - length);
+                if (inflated == 0) {
+                    // the whole input is set, so no progress means it's truncated or needs a dictionary
+                    throw new IOException("Truncated compressed packet in " + this);
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted compressed packet in " + this, e);
+        }
+        if (length != uncompressedLength) {
+            throw new IOException("Compressed packet in " + this + " inflated to " + length
+                    + " bytes, expected " + uncompressedLength);
+        }
+        // the buffer can be longer than the items, but we read exactly itemCount items from it
+        received.init(decompressedBuffer, 0);
+        return packetSize;
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
     private static class ObjWithPtionIdAndSize extends ObjectWithPartitionId {
         final long estimatedMemoryFootprint;
 
@@ -290,4 +430,8 @@ public class ReceiverTasklet implements Tasklet {
     public AtomicLong getBytesInCounter() {
         return bytesInCounter;
     }
+
+    public TaskletCallMetrics getCallMetrics() {
+        return callMetrics;
+    }
 }
@@ -16,78 +16,174 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.RestartableException;
-import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
+import com.hazelcast.jet.config.EdgeConfig;
+import com.hazelcast.jet.core.Partitioner;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Bits;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.util.function.Predicate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
 
 import static com.hazelcast.jet.impl.Networking.createStreamPacketHeader;
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+import static com.hazelcast.jet.impl.execution.ReceiverTasklet.COMPRESSED_SEQ_UNIT_LOG2;
 import static com.hazelcast.jet.impl.execution.ReceiverTasklet.compressSeq;
+import static com.hazelcast.internal.serialization.impl.SerializationUtil.createObjectDataOutputStream;
 import static com.hazelcast.jet.impl.execution.ReceiverTasklet.estimatedMemoryFootprint;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
 import static com.hazelcast.jet.impl.util.Util.createObjectDataOutput;
 import static com.hazelcast.jet.impl.util.Util.getMemberConnection;
 import static com.hazelcast.jet.impl.util.Util.lazyAdd;
+import static com.hazelcast.jet.impl.util.Util.lazyIncrement;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 
 public class SenderTasklet implements Tasklet {
 
+    /**
+     * With adaptive packet sizing the packet size target is kept between
+     * this value and {@code packetSizeLimit * MAX_ADAPTIVE_PACKET_SIZE_FACTOR}.
+     */
+    static final int MIN_ADAPTIVE_PACKET_SIZE = 1 << 10;
+    static final int MAX_ADAPTIVE_PACKET_SIZE_FACTOR = 16;
+
     private final Connection connection;
     private final Queue<Object> inbox = new ArrayDeque<>();
     private final ProgressTracker progTracker = new ProgressTracker();
     private final InboundEdgeStream inboundEdgeStream;
     private final BufferObjectDataOutput outputBuffer;
     private final int bufPosPastHeader;
+    // the output the items are serialized to: the outputBuffer, or an output
+    // over the itemsBuffer if compression is enabled
+    private final ObjectDataOutput itemsOutput;
     private final int packetSizeLimit;
+    private final boolean adaptivePacketSizing;
+    private final long packetLingerNanos;
+    private final boolean creditFlowControl;
+    // null if the edge isn't partitioned
+    private final Partitioner<Object> partitioner;
+    private final int partitionCount;
     private final AtomicLong itemsOutCounter = new AtomicLong();
     private final AtomicLong bytesOutCounter = new AtomicLong();
+    private final AtomicLong packetsOutCounter = new AtomicLong();
+    private final AtomicLong flowControlStallNanosCounter = new AtomicLong();
+    private final TaskletCallMetrics callMetrics = new TaskletCallMetrics();
+    // null if compression is disabled
+    private final Deflater deflater;
+    private final ItemsBuffer itemsBuffer;
+    private byte[] compressionBuffer;
 
     private boolean instreamExhausted;
     // read and written by Jet thread
     private long sentSeq;
+    // the size at which the packet is sent, equal to packetSizeLimit unless adaptive sizing is enabled
+    private int packetSizeTarget;
+    // the number of items in the output buffer not yet sent
+    private int bufferedCount;
+    private long firstBufferedNanos;
+    // true while there are items to send, but the receive window is exhausted
+    private boolean stalled;
+    private long stallStartNanos;
 
-    // Written by HZ networking thread, read by Jet thread
-    private volatile int sendSeqLimitCompressed;
+    // Written by HZ networking threads, read by Jet thread
+    private final AtomicInteger sendSeqLimitCompressed = new AtomicInteger();
     private Predicate<Object> addToInboxFunction = inbox::add;
 
     public SenderTasklet(InboundEdgeStream inboundEdgeStream, NodeEngine nodeEngine, Address destinationAddress,
                          long executionId, int destinationVertexId, int packetSizeLimit) {
-        this.inboundEdgeStream = inboundEdgeStream;
-        this.packetSizeLimit = packetSizeLimit;
+        this(inboundEdgeStream, nodeEngine, destinationAddress, executionId, destinationVertexId,
+                new EdgeConfig().setPacketSizeLimit(packetSizeLimit), null, -1);
+    }
+
+    /**
+     * @param partitioner the partitioner of the edge, {@code null} if the
+     *                    edge isn't partitioned
+     */
+    public SenderTasklet(InboundEdgeStream inboundEdgeStream, NodeEngine nodeEngine, Address destinationAddress,
+                         long executionId, int destinationVertexId, EdgeConfig edgeConfig,
+                         @Nullable Partitioner<?> partitioner, int partitionCount) {
         // we use Connection directly because we rely on packets not being transparently skipped or reordered
-        this.connection = getMemberConnection(nodeEngine, destinationAddress);
-        this.outputBuffer = createObjectDataOutput(nodeEngine);
-        uncheckRun(() -> outputBuffer.write(createStreamPacketHeader(
-                nodeEngine, executionId, destinationVertexId, inboundEdgeStream.ordinal())));
+        this(inboundEdgeStream, getMemberConnection(nodeEngine, destinationAddress), createObjectDataOutput(nodeEngine),
+                createStreamPacketHeader(nodeEngine, executionId, destinationVertexId, inboundEdgeStream.ordinal()),
+                edgeConfig, (InternalSerializationService) nodeEngine.getSerializationService(),
+                partitioner, partitionCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    SenderTasklet(InboundEdgeStream inboundEdgeStream, Connection connection, BufferObjectDataOutput outputBuffer,
+                  byte[] packetHeader, EdgeConfig edgeConfig, InternalSerializationService serializationService,
+                  @Nullable Partitioner<?> partitioner, int partitionCount) {
+        this.inboundEdgeStream = inboundEdgeStream;
+        this.partitioner = (Partitioner<Object>) partitioner;
+        this.partitionCount = partitionCount;
+        this.packetSizeLimit = edgeConfig.getPacketSizeLimit();
+        this.packetSizeTarget = packetSizeLimit;
+        this.adaptivePacketSizing = edgeConfig.isAdaptivePacketSizingEnabled();
+        this.packetLingerNanos = MICROSECONDS.toNanos(edgeConfig.getPacketLingerMicros());
+        this.creditFlowControl = edgeConfig.isCreditFlowControlEnabled();
+        if (edgeConfig.isCompressionEnabled()) {
+            this.deflater = new Deflater(Deflater.BEST_SPEED);
+            this.itemsBuffer = new ItemsBuffer(packetSizeLimit);
+            this.compressionBuffer = new byte[packetSizeLimit];
+            this.itemsOutput = createObjectDataOutputStream(itemsBuffer, serializationService);
+        } else {
+            this.deflater = null;
+            this.itemsBuffer = null;
+            this.itemsOutput = outputBuffer;
+        }
+        this.connection = connection;
+        this.outputBuffer = outputBuffer;
+        uncheckRun(() -> outputBuffer.write(packetHeader));
         bufPosPastHeader = outputBuffer.position();
     }
 
+    @Nonnull @Override
+    public Collection<WakeUpHandle> wakeUpHandles() {
+        return singletonList(inboundEdgeStream.wakeUpHandle());
+    }
+
     @Nonnull @Override
     public ProgressState call() {
+        long start = callMetrics.beforeCall();
+        ProgressState result = doCall();
+        callMetrics.afterCall(start, result);
+        return result;
+    }
+
+    private ProgressState doCall() {
         progTracker.reset();
         tryFillInbox();
-        if (progTracker.isDone()) {
+        if (progTracker.isDone() && bufferedCount == 0) {
             return progTracker.toProgressState();
         }
+        progTracker.notDone();
         if (tryFillOutputBuffer()) {
             progTracker.madeProgress();
-            if (!connection.write(new Packet(outputBuffer.toByteArray()).setPacketType(Packet.Type.JET))) {
-                throw new RestartableException("Connection write failed in " + toString());
-            }
+        }
+        updateStallTime();
+        if (bufferedCount > 0 && shouldSend()) {
+            progTracker.madeProgress();
+            send();
         }
         return progTracker.toProgressState();
     }
@@ -105,47 +201,183 @@ public class SenderTasklet implements Tasklet {
         progTracker.madeProgress(result.isMadeProgress());
         instreamExhausted = result.isDone();
         if (instreamExhausted) {
-            inbox.add(new ObjectWithPartitionId(DONE_ITEM, -1));
+            inbox.add(DONE_ITEM);
         }
     }
 
     private boolean tryFillOutputBuffer() {
         try {
-            // header size + slot for writtenCount
-            outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
+            if (bufferedCount == 0) {
+                // header size + slot for writtenCount
+                outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
+                if (itemsBuffer != null) {
+                    itemsBuffer.reset();
+                }
+            }
             int writtenCount = 0;
             for (Object item;
-                 outputBuffer.position() < packetSizeLimit
-                         && isWithinLimit(sentSeq, sendSeqLimitCompressed)
+                 bufferedSize() < packetSizeTarget
+                         && isWithinLimit(sentSeq, sendSeqLimitCompressed.get())
                          && (item = inbox.poll()) != null;
                  writtenCount++
             ) {
-                ObjectWithPartitionId itemWithPId = item instanceof ObjectWithPartitionId ?
-                        (ObjectWithPartitionId) item : new ObjectWithPartitionId(item, - 1);
-                final int mark = outputBuffer.position();
-                outputBuffer.writeObject(itemWithPId.getItem());
-                sentSeq += estimatedMemoryFootprint(outputBuffer.position() - mark);
-                outputBuffer.writeInt(itemWithPId.getPartitionId());
+                final int mark = bufferedSize();
+                itemsOutput.writeObject(item);
+                sentSeq += estimatedMemoryFootprint(bufferedSize() - mark);
+                itemsOutput.writeInt(partitionId(item));
             }
-            outputBuffer.writeInt(bufPosPastHeader, writtenCount);
-            lazyAdd(bytesOutCounter, outputBuffer.position());
-            lazyAdd(itemsOutCounter, writtenCount);
+            if (bufferedCount == 0 && writtenCount > 0 && packetLingerNanos > 0) {
+                firstBufferedNanos = System.nanoTime();
+            }
+            bufferedCount += writtenCount;
             return writtenCount > 0;
         } catch (IOException e) {
             throw rethrow(e);
         }
     }
 
+    /**
+     * Returns the partition the receiver routes the item to. We compute it
+     * again instead of getting it from the upstream collector so that the
+     * items don't have to be wrapped on their way to the sender.
+     */
+    private int partitionId(Object item) {
+        return partitioner == null || item instanceof BroadcastItem
+                ? -1
+                : partitioner.getPartition(item, partitionCount);
+    }
+
+    /**
+     * Returns the uncompressed size of the packet being filled, including
+     * the header.
+     */
+    private int bufferedSize() {
+        return itemsBuffer == null
+                ? outputBuffer.position()
+                : bufPosPastHeader + Bits.INT_SIZE_IN_BYTES + itemsBuffer.size();
+    }
+
+    /**
+     * Tracks the time the tasklet has items to send, but can't send them
+     * because the receiver didn't extend the send seq limit yet.
+     */
+    private void updateStallTime() {
+        boolean nowStalled = !inbox.isEmpty() && !isWithinLimit(sentSeq, sendSeqLimitCompressed.get());
+        if (nowStalled == stalled) {
+            return;
+        }
+        stalled = nowStalled;
+        if (stalled) {
+            stallStartNanos = System.nanoTime();
+        } else {
+            lazyAdd(flowControlStallNanosCounter, System.nanoTime() - stallStartNanos);
+        }
+    }
+
+    /**
+     * Tells whether the buffered items should be sent now. Without linger
+     * they are always sent. With linger, the packet is held back until it
+     * reaches the target size or the linger time elapses, unless no more
+     * items can be added to it.
+     */
+    private boolean shouldSend() {
+        return packetLingerNanos == 0
+                || bufferedSize() >= packetSizeTarget
+                || instreamExhausted && inbox.isEmpty()
+                || !isWithinLimit(sentSeq, sendSeqLimitCompressed.get())
+                || System.nanoTime() - firstBufferedNanos >= packetLingerNanos;
+    }
+
+    private void send() {
+        try {
+            outputBuffer.writeInt(bufPosPastHeader, bufferedCount);
+            final int uncompressedSize = bufferedSize();
+            if (deflater != null) {
+                compressItems();
+            }
+            lazyAdd(bytesOutCounter, outputBuffer.position());
+            lazyAdd(itemsOutCounter, bufferedCount);
+            lazyIncrement(packetsOutCounter);
+            bufferedCount = 0;
+            if (adaptivePacketSizing) {
+                adaptPacketSizeTarget(uncompressedSize);
+            }
+            if (!connection.write(new Packet(outputBuffer.toByteArray()).setPacketType(Packet.Type.JET))) {
+                throw new RestartableException("Connection write failed in " + toString());
+            }
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Doubles the packet size target if the sent packet was full and the
+     * receive window has room for more such packets. Halves it if the sender
+     * ran into the receive window limit, or if the packet was sent before
+     * reaching half of the target, so that small packets aren't held back by
+     * the linger unnecessarily.
+     */
+    private void adaptPacketSizeTarget(int packetSize) {
+        final long headroom = (long) (sendSeqLimitCompressed.get() - compressSeq(sentSeq)) << COMPRESSED_SEQ_UNIT_LOG2;
+        if (headroom <= 0) {
+            packetSizeTarget = Math.max(packetSizeTarget / 2, MIN_ADAPTIVE_PACKET_SIZE);
+        } else if (packetSize >= packetSizeTarget) {
+            if (headroom > 2L * packetSizeTarget) {
+                packetSizeTarget = (int) Math.min(2L * packetSizeTarget,
+                        (long) packetSizeLimit * MAX_ADAPTIVE_PACKET_SIZE_FACTOR);
+            }
+        } else if (packetSize < packetSizeTarget / 2) {
+            packetSizeTarget = Math.max(packetSizeTarget / 2, MIN_ADAPTIVE_PACKET_SIZE);
+        }
+    }
+
+    /**
+     * Writes the items serialized in the {@link #itemsBuffer} to the output
+     * buffer in compressed form. The packet layout after the header is then:
+     * {@code itemCount, uncompressedLength, compressedLength, compressedBytes}.
+     */
+    private void compressItems() throws IOException {
+        final int uncompressedLength = itemsBuffer.size();
+        deflater.reset();
+        deflater.setInput(itemsBuffer.buffer(), 0, uncompressedLength);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressionBuffer.length) {
+                compressionBuffer = Arrays.copyOf(compressionBuffer, compressionBuffer.length * 2);
+            }
+            compressedLength += deflater.deflate(
+                    compressionBuffer, compressedLength, compressionBuffer.length - compressedLength);
+        }
+        outputBuffer.writeInt(uncompressedLength);
+        outputBuffer.writeInt(compressedLength);
+        outputBuffer.write(compressionBuffer, 0, compressedLength);
+    }
+
+    @Override
+    public void close() {
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+
     /**
      * Updates the upper limit on {@link #sentSeq}, which constrains how much more data this tasklet can send.
+     * With credit-based flow control, the credit packets and the periodic flow-control packets can arrive
+     * reordered, so a limit lower than the current one is ignored. Otherwise the limit is set as received
+     * and goes down when the receiver shrinks its receive window.
      *
      * @param sendSeqLimitCompressed the compressed seq read from a flow-control message. The method
      *                               {@link #isWithinLimit(long, int)} derives the limit on the uncompressed
      *                               {@code sentSeq} from the number supplied here.
      */
-    // Called from HZ networking thread
+    // Called from HZ networking threads
     public void setSendSeqLimitCompressed(int sendSeqLimitCompressed) {
-        this.sendSeqLimitCompressed = sendSeqLimitCompressed;
+        if (creditFlowControl) {
+            this.sendSeqLimitCompressed.accumulateAndGet(sendSeqLimitCompressed, SenderTasklet::maxCompressedSeq);
+        } else {
+            this.sendSeqLimitCompressed.set(sendSeqLimitCompressed);
+        }
     }
 
     @Override
@@ -163,6 +395,15 @@ public class SenderTasklet implements Tasklet {
         return compressSeq(sentSeq) - sendSeqLimitCompressed <= 0;
     }
 
+    /**
+     * Returns the later of two compressed seqs. Like {@link #isWithinLimit},
+     * it compares their difference to handle the wrap-around, so it's correct
+     * as long as the seqs are less than {@code Integer.MAX_VALUE} apart.
+     */
+    static int maxCompressedSeq(int seq1, int seq2) {
+        return seq1 - seq2 >= 0 ? seq1 : seq2;
+    }
+
     public AtomicLong getItemsOutCounter() {
         return itemsOutCounter;
     }
@@ -170,4 +411,70 @@ public class SenderTasklet implements Tasklet {
     public AtomicLong getBytesOutCounter() {
         return bytesOutCounter;
     }
+
+    public AtomicLong getPacketsOutCounter() {
+        return packetsOutCounter;
+    }
+
+    public AtomicLong getFlowControlStallNanosCounter() {
+        return flowControlStallNanosCounter;
+    }
+
+    public TaskletCallMetrics getCallMetrics() {
+        return callMetrics;
+    }
+
+    int getSendSeqLimitCompressed() {
+        return sendSeqLimitCompressed.get();
+    }
+
+    int getPacketSizeTarget() {
+        return packetSizeTarget;
+    }
+
+    /**
+     * A grow-only byte buffer the items are serialized to when compression is
+     * enabled. Unlike {@link java.io.ByteArrayOutputStream}, it exposes its
+     * array so that the deflater can read it without a copy, and it isn't
+     * synchronized.
+     */
+    static final class ItemsBuffer extends OutputStream {
+        private byte[] buffer;
+        private int size;
+
+        ItemsBuffer(int initialCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(size + 1);
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) {
+            ensureCapacity(size + len);
+            System.arraycopy(b, off, buffer, size, len);
+            size += len;
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(capacity, 2 * buffer.length));
+            }
+        }
+    }
 }
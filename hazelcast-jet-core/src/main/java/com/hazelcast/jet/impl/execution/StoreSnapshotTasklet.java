@@ -25,12 +25,14 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.util.function.Predicate;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 import java.util.Map.Entry;
 
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.DONE;
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.DRAIN;
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.FLUSH;
 import static com.hazelcast.jet.impl.execution.StoreSnapshotTasklet.State.REACHED_BARRIER;
+import static java.util.Collections.singletonList;
 
 public class StoreSnapshotTasklet implements Tasklet {
 
@@ -44,6 +46,7 @@ public class StoreSnapshotTasklet implements Tasklet {
 
     private final AsyncSnapshotWriter ssWriter;
     private final ProgressTracker progTracker = new ProgressTracker();
+    private final TaskletCallMetrics callMetrics = new TaskletCallMetrics();
     private State state = DRAIN;
     private boolean hasReachedBarrier;
     private Entry<Data, Data> pendingEntry;
@@ -68,11 +71,19 @@ public class StoreSnapshotTasklet implements Tasklet {
         addToInboxFunction = this::addToInbox;
     }
 
+    @Nonnull @Override
+    public Collection<WakeUpHandle> wakeUpHandles() {
+        return singletonList(inboundEdgeStream.wakeUpHandle());
+    }
+
     @Nonnull @Override
     public ProgressState call() {
+        long start = callMetrics.beforeCall();
         progTracker.reset();
         stateMachineStep();
-        return progTracker.toProgressState();
+        ProgressState result = progTracker.toProgressState();
+        callMetrics.afterCall(start, result);
+        return result;
     }
 
     private void stateMachineStep() {
@@ -150,6 +161,15 @@ public class StoreSnapshotTasklet implements Tasklet {
         return true;
     }
 
+    @Override
+    public void close() {
+        ssWriter.close();
+    }
+
+    public TaskletCallMetrics getCallMetrics() {
+        return callMetrics;
+    }
+
     @Override
     public String toString() {
         return StoreSnapshotTasklet.class.getSimpleName() + '{' + vertexName + '}';
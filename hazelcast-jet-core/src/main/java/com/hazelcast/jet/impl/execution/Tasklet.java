@@ -19,6 +19,9 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.jet.impl.util.ProgressState;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
+
+import static java.util.Collections.emptyList;
 
 public interface Tasklet {
 
@@ -32,6 +35,36 @@ public interface Tasklet {
         return true;
     }
 
+    /**
+     * Returns true, if the tasklet should stay on the cooperative worker it
+     * was assigned to, even if cooperative work stealing is enabled. A
+     * processor tasklet reports it when the tasklets are co-located or the
+     * workers are pinned to CPUs: stealing would undo that placement.
+     */
+    default boolean hasThreadAffinity() {
+        return false;
+    }
+
+    /**
+     * Returns the local index of the processor the tasklet runs or -1, if it
+     * doesn't run a processor. Used to place the tasklets of processors with
+     * the same index, which often exchange data, on the same cooperative
+     * worker.
+     */
+    default int localProcessorIndex() {
+        return -1;
+    }
+
+    /**
+     * Returns the handles the producers of the tasklet's input use to wake
+     * up the worker running the tasklet. The handles are bound to the worker
+     * the tasklet is assigned to, if the idle wake-up is enabled.
+     */
+    @Nonnull
+    default Collection<WakeUpHandle> wakeUpHandles() {
+        return emptyList();
+    }
+
     default void close() {
     }
 
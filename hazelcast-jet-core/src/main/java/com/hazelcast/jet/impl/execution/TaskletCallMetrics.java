@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.metrics.LongProbeFunction;
+import com.hazelcast.internal.metrics.ProbeBuilder;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.jet.impl.util.ProgressState;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.hazelcast.jet.impl.util.Util.lazyAdd;
+import static com.hazelcast.jet.impl.util.Util.lazyIncrement;
+
+/**
+ * Counts the calls of a cooperative tasklet and measures the time spent in
+ * them. Together with the idle time of the worker, it tells which tasklets
+ * keep the worker busy. Only written by the thread calling the tasklet.
+ */
+public final class TaskletCallMetrics {
+
+    // the duration of every 8th call() is measured, the rest is extrapolated
+    private static final int CALL_TIME_SAMPLING_SHIFT = 3;
+    private static final int CALL_TIME_SAMPLING_MASK = (1 << CALL_TIME_SAMPLING_SHIFT) - 1;
+
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong madeProgressCallCount = new AtomicLong();
+    private final AtomicLong callTimeNanos = new AtomicLong();
+
+    /**
+     * Returns the timestamp to pass to {@link #afterCall}, or 0 if the
+     * duration of this call isn't measured.
+     */
+    long beforeCall() {
+        return isSampledCall() ? System.nanoTime() : 0;
+    }
+
+    void afterCall(long start, ProgressState result) {
+        if (isSampledCall()) {
+            lazyAdd(callTimeNanos, (System.nanoTime() - start) << CALL_TIME_SAMPLING_SHIFT);
+        }
+        lazyIncrement(callCount);
+        if (result.isMadeProgress()) {
+            lazyIncrement(madeProgressCallCount);
+        }
+    }
+
+    private boolean isSampledCall() {
+        return (callCount.get() & CALL_TIME_SAMPLING_MASK) == 0;
+    }
+
+    public AtomicLong callCount() {
+        return callCount;
+    }
+
+    public AtomicLong madeProgressCallCount() {
+        return madeProgressCallCount;
+    }
+
+    public AtomicLong callTimeNanos() {
+        return callTimeNanos;
+    }
+
+    /**
+     * Registers the sums of the metrics of the given tasklets as {@code
+     * <prefix>CallCount}, {@code <prefix>MadeProgressCallCount} and {@code
+     * <prefix>CallTimeNanos}.
+     *
+     * @param source the object used to deregister the metrics
+     */
+    public static <T> void registerSums(
+            ProbeBuilder probeBuilder, T source, String prefix, List<TaskletCallMetrics> metrics
+    ) {
+        TaskletCallMetrics[] metricsArray = metrics.toArray(new TaskletCallMetrics[0]);
+        probeBuilder.register(source, prefix + "CallCount", ProbeLevel.INFO, ProbeUnit.COUNT,
+                (LongProbeFunction<T>) s -> sum(metricsArray, m -> m.callCount));
+        probeBuilder.register(source, prefix + "MadeProgressCallCount", ProbeLevel.INFO, ProbeUnit.COUNT,
+                (LongProbeFunction<T>) s -> sum(metricsArray, m -> m.madeProgressCallCount));
+        probeBuilder.register(source, prefix + "CallTimeNanos", ProbeLevel.INFO, ProbeUnit.NS,
+                (LongProbeFunction<T>) s -> sum(metricsArray, m -> m.callTimeNanos));
+    }
+
+    private static long sum(TaskletCallMetrics[] metrics, Function<TaskletCallMetrics, AtomicLong> counterFn) {
+        long sum = 0;
+        for (TaskletCallMetrics m : metrics) {
+            sum += counterFn.apply(m).get();
+        }
+        return sum;
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.jet.impl.execution;
 
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.ProbeUnit;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.impl.util.NonCompletableFuture;
 import com.hazelcast.jet.impl.util.ProgressState;
@@ -49,6 +50,7 @@ import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
+import static com.hazelcast.jet.impl.util.Util.lazyAdd;
 import static com.hazelcast.jet.impl.util.Util.lazyIncrement;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
 import static java.lang.Thread.currentThread;
@@ -65,12 +67,22 @@ public class TaskletExecutionService {
 
     private static final long MAXIMUM_IDLE_COOPERATIVE = MILLISECONDS.toNanos(1);
     private static final long MAXIMUM_IDLE_NON_COOPERATIVE = MILLISECONDS.toNanos(5);
+    // number of idle iterations after which an idle cooperative worker tries to steal a tasklet
+    private static final int IDLE_COUNT_BEFORE_STEALING = 16;
+    // minimum length of the window over which the busy percentage of a cooperative worker is computed
+    private static final long BUSY_PERCENT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // when the worker makes progress, the window end is checked in every 64th iteration only
+    private static final int BUSY_PERCENT_CHECK_MASK = 63;
 
     private final ExecutorService blockingTaskletExecutor = newCachedThreadPool(new BlockingTaskThreadFactory());
     private final CooperativeWorker[] cooperativeWorkers;
     private final Thread[] cooperativeThreadPool;
     private final String hzInstanceName;
     private final ILogger logger;
+    private final boolean workStealingEnabled;
+    private final boolean colocationEnabled;
+    private final boolean idleWakeUpEnabled;
+    private final ThreadAffinityProvider affinityProvider;
     private int cooperativeThreadIndex;
     @Probe
     private final AtomicInteger blockingWorkerCount = new AtomicInteger();
@@ -80,12 +92,60 @@ public class TaskletExecutionService {
     private volatile IdleStrategy idlerNonCooperative;
 
     public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount, long minimumIdleTimeNs) {
+        this(nodeEngine, threadCount, minimumIdleTimeNs, false);
+    }
+
+    /**
+     * @param workStealingEnabled if true, idle cooperative workers will take
+     *      over busy tasklets from workers that have more than one of them,
+     *      see {@link com.hazelcast.jet.impl.util.JetProperties#JET_COOPERATIVE_WORK_STEALING_ENABLED}
+     */
+    public TaskletExecutionService(
+            NodeEngineImpl nodeEngine, int threadCount, long minimumIdleTimeNs, boolean workStealingEnabled
+    ) {
+        this(nodeEngine, threadCount, minimumIdleTimeNs, workStealingEnabled, null, null, false, false);
+    }
+
+    /**
+     * @param affinityCpus the CPUs to pin the cooperative workers to, worker
+     *      {@code i} is pinned to {@code affinityCpus[i % affinityCpus.length]}.
+     *      If null or empty, the workers aren't pinned, see {@link
+     *      com.hazelcast.jet.impl.util.JetProperties#JET_COOPERATIVE_THREAD_AFFINITY_CPUS}
+     * @param affinityProvider the provider used to pin the workers, can be
+     *      null if {@code affinityCpus} is empty
+     * @param colocationEnabled if true, cooperative tasklets with the same
+     *      {@linkplain Tasklet#localProcessorIndex() local processor index}
+     *      are placed on the same worker, see {@link
+     *      com.hazelcast.jet.impl.util.JetProperties#JET_COOPERATIVE_TASKLET_COLOCATION_ENABLED}
+     * @param idleWakeUpEnabled if true, an idle cooperative worker is woken
+     *      up as soon as new input arrives for one of its tasklets, see {@link
+     *      com.hazelcast.jet.impl.util.JetProperties#JET_COOPERATIVE_IDLE_WAKEUP_ENABLED}
+     */
+    public TaskletExecutionService(
+            NodeEngineImpl nodeEngine, int threadCount, long minimumIdleTimeNs, boolean workStealingEnabled,
+            int[] affinityCpus, ThreadAffinityProvider affinityProvider, boolean colocationEnabled,
+            boolean idleWakeUpEnabled
+    ) {
+        boolean pinningEnabled = affinityCpus != null && affinityCpus.length > 0;
+        if (pinningEnabled && affinityProvider == null) {
+            throw new IllegalArgumentException("affinityProvider is null");
+        }
+        this.workStealingEnabled = workStealingEnabled;
+        this.colocationEnabled = colocationEnabled;
+        this.idleWakeUpEnabled = idleWakeUpEnabled;
+        this.affinityProvider = affinityProvider;
         this.hzInstanceName = nodeEngine.getHazelcastInstance().getName();
         this.cooperativeWorkers = new CooperativeWorker[threadCount];
         this.cooperativeThreadPool = new Thread[threadCount];
         this.logger = nodeEngine.getLoggingService().getLogger(TaskletExecutionService.class);
 
         logFine(logger, "Actual minimum idle time=%dµs", NANOSECONDS.toMicros(minimumIdleTimeNs));
+        logFine(logger, "Cooperative work stealing enabled=%s", workStealingEnabled);
+        logFine(logger, "Cooperative tasklet co-location enabled=%s", colocationEnabled);
+        logFine(logger, "Cooperative idle wake-up enabled=%s", idleWakeUpEnabled);
+        if (pinningEnabled) {
+            logFine(logger, "Cooperative thread affinity CPUs=%s", Arrays.toString(affinityCpus));
+        }
         idlerCooperative = new BackoffIdleStrategy(0, 0, minimumIdleTimeNs,
                 Math.max(minimumIdleTimeNs, MAXIMUM_IDLE_COOPERATIVE));
         idlerNonCooperative = new BackoffIdleStrategy(0, 0, minimumIdleTimeNs,
@@ -95,7 +155,8 @@ public class TaskletExecutionService {
                        .withTag("module", "jet")
                        .scanAndRegister(this);
 
-        Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker());
+        Arrays.setAll(cooperativeWorkers,
+                i -> new CooperativeWorker(pinningEnabled ? affinityCpus[i % affinityCpus.length] : -1));
         Arrays.setAll(cooperativeThreadPool, i -> new Thread(cooperativeWorkers[i],
                 String.format("hz.%s.jet.cooperative.thread-%d", hzInstanceName, i)));
         Arrays.stream(cooperativeThreadPool).forEach(Thread::start);
@@ -171,17 +232,64 @@ public class TaskletExecutionService {
         // them could happen to not use all threads. When the other one ends,
         // some worker might have no tasklet.
         synchronized (lock) {
+            // with co-location, the tasklets of processors with the same local
+            // index go to the same worker, starting from the current index
+            int colocationOffset = cooperativeThreadIndex;
             for (Tasklet t : tasklets) {
-                trackersByThread[cooperativeThreadIndex].add(new TaskletTracker(t, executionTracker, jobClassLoader));
+                int processorIndex = colocationEnabled ? t.localProcessorIndex() : -1;
+                int threadIndex;
+                if (processorIndex >= 0) {
+                    threadIndex = (colocationOffset + processorIndex) % trackersByThread.length;
+                } else {
+                    threadIndex = cooperativeThreadIndex;
+                    cooperativeThreadIndex = (cooperativeThreadIndex + 1) % trackersByThread.length;
+                }
+                trackersByThread[threadIndex].add(new TaskletTracker(t, executionTracker, jobClassLoader));
+            }
+            if (colocationEnabled && cooperativeThreadIndex == colocationOffset) {
+                // let the next job start at a different worker
                 cooperativeThreadIndex = (cooperativeThreadIndex + 1) % trackersByThread.length;
             }
         }
         for (int i = 0; i < trackersByThread.length; i++) {
+            if (idleWakeUpEnabled) {
+                for (TaskletTracker t : trackersByThread[i]) {
+                    WakeUpHandle.bindAll(t.tasklet.wakeUpHandles(), cooperativeWorkers[i].wakeUpFn);
+                }
+            }
             cooperativeWorkers[i].trackers.addAll(trackersByThread[i]);
         }
         Arrays.stream(cooperativeThreadPool).forEach(LockSupport::unpark);
     }
 
+    /**
+     * Parses a list of CPUs like {@code "0-3,8,10-11"}. Returns an empty
+     * array for an empty string.
+     */
+    public static int[] parseCpuList(String cpuList) {
+        List<Integer> cpus = new ArrayList<>();
+        for (String part : cpuList.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            try {
+                int dashIndex = part.indexOf('-');
+                int from = Integer.parseInt(part.substring(0, dashIndex < 0 ? part.length() : dashIndex).trim());
+                int to = dashIndex < 0 ? from : Integer.parseInt(part.substring(dashIndex + 1).trim());
+                if (from < 0 || to < from) {
+                    throw new IllegalArgumentException("Invalid CPU range '" + part + "' in '" + cpuList + '\'');
+                }
+                for (int cpu = from; cpu <= to; cpu++) {
+                    cpus.add(cpu);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CPU list: '" + cpuList + '\'', e);
+            }
+        }
+        return cpus.stream().mapToInt(Integer::intValue).toArray();
+    }
+
     private String trackersToString() {
         return Arrays.stream(cooperativeWorkers)
                      .flatMap(w -> w.trackers.stream())
@@ -264,25 +372,50 @@ public class TaskletExecutionService {
         private final CopyOnWriteArrayList<TaskletTracker> trackers;
         @Probe
         private final AtomicLong iterationCount = new AtomicLong();
+        @Probe
+        private final AtomicLong stolenTaskletCount = new AtomicLong();
+        @Probe(unit = ProbeUnit.NS)
+        private final AtomicLong idleTimeNanos = new AtomicLong();
 
         private final ProgressTracker progressTracker = new ProgressTracker();
         // prevent lambda allocation on each iteration
         private final Consumer<TaskletTracker> runTasklet = this::runTasklet;
+        // bound to the wake-up handles of the tasklets of this worker
+        private final Runnable wakeUpFn = this::wakeUp;
 
         private boolean finestLogEnabled;
         private Thread myThread;
-
-        CooperativeWorker() {
+        // the tracker this worker requested to steal, still owned by another worker
+        private TaskletTracker pendingSteal;
+        private final BusyPercentTracker busyPercentTracker =
+                new BusyPercentTracker(BUSY_PERCENT_WINDOW_NANOS, System.nanoTime());
+
+        // the CPU to pin the worker thread to, or -1
+        private final int cpu;
+        // set by the producers when there's new input for a tasklet of this
+        // worker, cleared by the worker before it calls the tasklets
+        private volatile boolean wakeUpSignalled;
+        // true while the worker is about to park or is parked
+        private volatile boolean idle;
+
+        CooperativeWorker(int cpu) {
+            this.cpu = cpu;
             this.trackers = new CopyOnWriteArrayList<>();
         }
 
         @Override
         public void run() {
             myThread = currentThread();
+            if (cpu >= 0) {
+                pinToCpu();
+            }
             IdleStrategy idlerLocal = idlerCooperative;
             long idleCount = 0;
 
             while (!isShutdown) {
+                if (idleWakeUpEnabled && wakeUpSignalled) {
+                    wakeUpSignalled = false;
+                }
                 finestLogEnabled = logger.isFinestEnabled();
                 progressTracker.reset();
                 // garbage-free iteration -- relies on implementation in COWArrayList that doesn't use an Iterator
@@ -290,25 +423,92 @@ public class TaskletExecutionService {
                 lazyIncrement(iterationCount);
                 if (progressTracker.isMadeProgress()) {
                     idleCount = 0;
+                    if ((iterationCount.get() & BUSY_PERCENT_CHECK_MASK) == 0) {
+                        busyPercentTracker.update(System.nanoTime());
+                    }
                 } else {
-                    idlerLocal.idle(++idleCount);
+                    if (workStealingEnabled && idleCount >= IDLE_COUNT_BEFORE_STEALING) {
+                        stealWork();
+                    }
+                    long idleStart = System.nanoTime();
+                    if (idleWakeUpEnabled) {
+                        idleUntilWakeUp(idlerLocal, ++idleCount);
+                    } else {
+                        idlerLocal.idle(++idleCount);
+                    }
+                    long now = System.nanoTime();
+                    busyPercentTracker.addIdleTime(now - idleStart);
+                    lazyAdd(idleTimeNanos, now - idleStart);
+                    busyPercentTracker.update(now);
                 }
             }
             trackers.forEach(t -> t.executionTracker.taskletDone());
             trackers.clear();
         }
 
+        @Probe(unit = ProbeUnit.PERCENT)
+        private long busyPercent() {
+            return busyPercentTracker.busyPercent();
+        }
+
+        /**
+         * Parks the worker like the idle strategy does, unless a wake-up was
+         * signalled since the tasklets were last called. The {@link
+         * #wakeUp()} call unparks the worker early. The maximum park time
+         * of the idle strategy still applies: not all tasklets get their
+         * work from a signalling producer, some poll external systems or
+         * act on wall-clock time.
+         */
+        private void idleUntilWakeUp(IdleStrategy idler, long idleCount) {
+            idle = true;
+            if (!wakeUpSignalled) {
+                idler.idle(idleCount);
+            }
+            idle = false;
+        }
+
+        /**
+         * Called by the producers, after they added input for a tasklet of
+         * this worker. The flag is only written if it's not yet set, so
+         * that the producers to a busy worker don't contend on it. Because
+         * of that, a wake-up can rarely be missed; then the worker wakes up
+         * after the park timeout, as it would without the signal.
+         */
+        private void wakeUp() {
+            if (!wakeUpSignalled) {
+                wakeUpSignalled = true;
+            }
+            if (idle) {
+                LockSupport.unpark(myThread);
+            }
+        }
+
+        private void pinToCpu() {
+            try {
+                affinityProvider.pinCurrentThread(cpu);
+                logFine(logger, "%s pinned to CPU %d", myThread.getName(), cpu);
+            } catch (Exception e) {
+                logger.warning("Failed to pin " + myThread.getName() + " to CPU " + cpu
+                        + ", it will run unpinned: " + e, e);
+            }
+        }
+
         private void runTasklet(TaskletTracker t) {
             long start = 0;
             if (finestLogEnabled) {
                 start = System.nanoTime();
             }
+            if (workStealingEnabled && t.stealingWorker.get() != null) {
+                handOver(t);
+                return;
+            }
             try {
                 myThread.setContextClassLoader(t.jobClassLoader);
                 final ProgressState result = t.tasklet.call();
                 if (result.isDone()) {
                     dismissTasklet(t);
                 }
+                t.recordProgress(result.isMadeProgress());
                 progressTracker.mergeWith(result);
             } catch (Throwable e) {
                 logger.warning("Exception in " + t.tasklet, e);
@@ -331,6 +531,109 @@ public class TaskletExecutionService {
             logFinest(logger, "Tasklet %s is done", t.tasklet);
             t.executionTracker.taskletDone();
             trackers.remove(t);
+            // release the stealing worker, it waits for the hand-over otherwise
+            t.stealingWorker.set(null);
+        }
+
+        /**
+         * Moves the tracker to the worker that requested to steal it. Called
+         * on the owning thread, so the tasklet is never called by two threads
+         * concurrently; the concurrent list provides the happens-before edge
+         * to the new owner.
+         */
+        private void handOver(TaskletTracker t) {
+            CooperativeWorker newOwner = t.stealingWorker.get();
+            trackers.remove(t);
+            t.progressHistory = 0;
+            if (idleWakeUpEnabled) {
+                WakeUpHandle.bindAll(t.tasklet.wakeUpHandles(), newOwner.wakeUpFn);
+            }
+            newOwner.trackers.add(t);
+            t.stealingWorker.set(null);
+            logFinest(logger, "Tasklet %s handed over to another worker", t.tasklet);
+            LockSupport.unpark(newOwner.myThread);
+        }
+
+        /**
+         * Finds the worker with the most busy tasklets and, if it has more
+         * than one of them, requests one of its busy tasklets to be handed
+         * over to this worker. A tasklet is busy if it made progress in the
+         * majority of its recent calls. Tasklets that report {@linkplain
+         * Tasklet#hasThreadAffinity() thread affinity} are never stolen.
+         */
+        private void stealWork() {
+            if (pendingSteal != null) {
+                if (pendingSteal.stealingWorker.get() == this) {
+                    // the previous request is not yet fulfilled
+                    return;
+                }
+                pendingSteal = null;
+            }
+            CooperativeWorker victim = null;
+            int victimBusyCount = 1;
+            for (CooperativeWorker w : cooperativeWorkers) {
+                if (w == this) {
+                    continue;
+                }
+                int busyCount = 0;
+                for (TaskletTracker t : w.trackers) {
+                    if (t.isBusy()) {
+                        busyCount++;
+                    }
+                }
+                if (busyCount > victimBusyCount) {
+                    victim = w;
+                    victimBusyCount = busyCount;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            for (TaskletTracker t : victim.trackers) {
+                if (t.isBusy() && !t.tasklet.hasThreadAffinity() && t.stealingWorker.compareAndSet(null, this)) {
+                    pendingSteal = t;
+                    stolenTaskletCount.incrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the percentage of time a worker wasn't idle. The value is
+     * updated at the end of each window, which lasts at least {@code
+     * windowNanos}, from the idle time reported during that window.
+     */
+    static final class BusyPercentTracker {
+        private final long windowNanos;
+        private long windowStart;
+        private long windowIdleNanos;
+        private volatile long busyPercent;
+
+        BusyPercentTracker(long windowNanos, long now) {
+            this.windowNanos = windowNanos;
+            this.windowStart = now;
+        }
+
+        void addIdleTime(long idleNanos) {
+            windowIdleNanos += idleNanos;
+        }
+
+        /**
+         * Ends the current window and computes the busy percentage, if the
+         * window is at least {@code windowNanos} long at the given time.
+         */
+        void update(long now) {
+            long elapsed = now - windowStart;
+            if (elapsed >= windowNanos) {
+                busyPercent = (elapsed - windowIdleNanos) * 100 / elapsed;
+                windowStart = now;
+                windowIdleNanos = 0;
+            }
+        }
+
+        long busyPercent() {
+            return busyPercent;
         }
     }
 
@@ -338,6 +641,11 @@ public class TaskletExecutionService {
         final Tasklet tasklet;
         final ExecutionTracker executionTracker;
         final ClassLoader jobClassLoader;
+        // the worker that requested to take over this tasklet, null if none
+        final AtomicReference<CooperativeWorker> stealingWorker = new AtomicReference<>();
+        // one bit per recent call, 1 if the call made progress. Written by
+        // the owning worker only, racy reads by stealing workers are benign.
+        int progressHistory;
 
         TaskletTracker(Tasklet tasklet, ExecutionTracker executionTracker, ClassLoader jobClassLoader) {
             this.tasklet = tasklet;
@@ -345,6 +653,14 @@ public class TaskletExecutionService {
             this.jobClassLoader = jobClassLoader;
         }
 
+        void recordProgress(boolean madeProgress) {
+            progressHistory = (progressHistory << 1) | (madeProgress ? 1 : 0);
+        }
+
+        boolean isBusy() {
+            return Integer.bitCount(progressHistory) > Integer.SIZE / 2;
+        }
+
         @Override
         public String toString() {
             return "Tracking " + tasklet;
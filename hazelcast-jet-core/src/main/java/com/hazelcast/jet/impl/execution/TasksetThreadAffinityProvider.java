@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.JetException;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The default {@link ThreadAffinityProvider}, works on Linux only. Finds
+ * the native ID of the calling thread through {@code /proc/thread-self}
+ * and changes its affinity using the {@code taskset} utility.
+ */
+public class TasksetThreadAffinityProvider implements ThreadAffinityProvider {
+
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+    private static final File DEV_NULL = new File("/dev/null");
+
+    @Override
+    public void pinCurrentThread(int cpu) throws Exception {
+        // the link target is "<pid>/task/<tid>"
+        String nativeThreadId = Files.readSymbolicLink(THREAD_SELF).getFileName().toString();
+        Process process = new ProcessBuilder("taskset", "-p", "-c", String.valueOf(cpu), nativeThreadId)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(DEV_NULL))
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new JetException("taskset failed with exit code " + exitCode + " for thread " + nativeThreadId);
+        }
+    }
+}
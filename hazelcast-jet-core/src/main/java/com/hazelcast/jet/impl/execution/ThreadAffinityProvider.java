@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+/**
+ * Pins the cooperative worker threads to CPUs, see {@link
+ * com.hazelcast.jet.impl.util.JetProperties#JET_COOPERATIVE_THREAD_AFFINITY_CPUS}.
+ * The implementing class must have a public no-argument constructor.
+ */
+public interface ThreadAffinityProvider {
+
+    /**
+     * Restricts the calling thread to run only on the given CPU.
+     *
+     * @param cpu the zero-based index of the CPU, as numbered by the OS
+     */
+    void pinCurrentThread(int cpu) throws Exception;
+}
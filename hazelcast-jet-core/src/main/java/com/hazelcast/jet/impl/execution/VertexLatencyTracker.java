@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.metrics.LongProbeFunction;
+import com.hazelcast.internal.metrics.ProbeBuilder;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.jet.impl.util.LatencyHistogram;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Collects the latencies of the {@link LatencyMarker}s received by the
+ * processor tasklets of one vertex on this member. The latency of a marker
+ * is the time from its creation in a source tasklet until it was received
+ * by this vertex, so the difference between the latencies of two adjacent
+ * vertices is the latency added by the upstream one.
+ * <p>
+ * It's shared by the processor tasklets of the vertex, the histograms are
+ * thread-safe.
+ */
+public final class VertexLatencyTracker {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"P50", "P99", "P999"};
+
+    private final long markerIntervalNanos;
+    private final boolean isSource;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LatencyHistogram[] edgeHistograms;
+
+    /**
+     * @param markerIntervalMillis the interval in which the source tasklets
+     *      inject a latency marker
+     * @param isSource whether the vertex is a source, that is whether its
+     *      tasklets inject the markers
+     * @param ordinalCount the number of inbound ordinals of the vertex
+     */
+    public VertexLatencyTracker(long markerIntervalMillis, boolean isSource, int ordinalCount) {
+        this.markerIntervalNanos = MILLISECONDS.toNanos(markerIntervalMillis);
+        this.isSource = isSource;
+        this.edgeHistograms = new LatencyHistogram[ordinalCount];
+        Arrays.setAll(edgeHistograms, i -> new LatencyHistogram());
+    }
+
+    long markerIntervalNanos() {
+        return markerIntervalNanos;
+    }
+
+    boolean isSource() {
+        return isSource;
+    }
+
+    LatencyHistogram histogram() {
+        return histogram;
+    }
+
+    /**
+     * Records the latency of a marker received on the given ordinal.
+     */
+    void recordMarker(int ordinal, LatencyMarker marker) {
+        long latency = LatencyMarker.epochNanos() - marker.timestampNanos();
+        histogram.record(latency);
+        edgeHistograms[ordinal].record(latency);
+    }
+
+    /**
+     * Registers the latency metrics of the vertex and of each of its inbound
+     * edges.
+     *
+     * @param source the object the metrics are deregistered with
+     */
+    public <S> void registerMetrics(ProbeBuilder vertexProbeBuilder, S source) {
+        registerMetrics(vertexProbeBuilder, source, histogram);
+        for (int i = 0; i < edgeHistograms.length; i++) {
+            registerMetrics(vertexProbeBuilder.withTag("ordinal", String.valueOf(i)), source, edgeHistograms[i]);
+        }
+    }
+
+    private static <S> void registerMetrics(ProbeBuilder probeBuilder, S source, LatencyHistogram histogram) {
+        probeBuilder.register(source, "latencyMarkerCount", ProbeLevel.INFO, ProbeUnit.COUNT,
+                (LongProbeFunction<S>) s -> histogram.count());
+        probeBuilder.register(source, "latencyMax", ProbeLevel.INFO, ProbeUnit.NS,
+                (LongProbeFunction<S>) s -> histogram.max());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            double percentile = PERCENTILES[i];
+            probeBuilder.register(source, "latency" + PERCENTILE_NAMES[i], ProbeLevel.INFO, ProbeUnit.NS,
+                    (LongProbeFunction<S>) s -> histogram.percentile(percentile));
+        }
+    }
+}
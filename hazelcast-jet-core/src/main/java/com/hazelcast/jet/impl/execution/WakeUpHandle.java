@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+/**
+ * Wakes up the cooperative worker running a tasklet when new work for
+ * the tasklet arrives, for example when an item is offered to one of its
+ * input conveyors. Producers call {@link #wakeUp()}, which does nothing
+ * until {@link TaskletExecutionService} binds the handle to a worker, see
+ * {@link com.hazelcast.jet.impl.util.JetProperties#JET_COOPERATIVE_IDLE_WAKEUP_ENABLED}.
+ * <p>
+ * Calling {@code wakeUp()} is cheap if the worker isn't idle and is safe
+ * from any thread.
+ */
+public final class WakeUpHandle {
+
+    private volatile Runnable wakeUpFn;
+
+    /**
+     * Wakes up the worker the handle is bound to, if it's idle.
+     */
+    public void wakeUp() {
+        Runnable fn = wakeUpFn;
+        if (fn != null) {
+            fn.run();
+        }
+    }
+
+    /**
+     * Binds the handle to the given worker wake-up function or unbinds it,
+     * if the function is null.
+     */
+    void bind(@Nullable Runnable wakeUpFn) {
+        this.wakeUpFn = wakeUpFn;
+    }
+
+    /**
+     * Binds all the given handles to the given worker wake-up function.
+     */
+    static void bindAll(@Nonnull Collection<WakeUpHandle> handles, @Nullable Runnable wakeUpFn) {
+        for (WakeUpHandle handle : handles) {
+            handle.bind(wakeUpFn);
+        }
+    }
+}
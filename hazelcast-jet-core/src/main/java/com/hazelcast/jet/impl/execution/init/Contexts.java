@@ -22,6 +22,7 @@ import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.impl.execution.WakeUpHandle;
 import com.hazelcast.logging.ILogger;
 
 import javax.annotation.Nonnull;
@@ -134,6 +135,7 @@ public final class Contexts {
 
         private final int localProcessorIndex;
         private final int globalProcessorIndex;
+        private final WakeUpHandle wakeUpHandle = new WakeUpHandle();
 
         @SuppressWarnings("checkstyle:ParameterNumber")
         public ProcCtx(JetInstance instance, long jobId, long executionId, JobConfig jobConfig,
@@ -146,6 +148,15 @@ public final class Contexts {
             this.globalProcessorIndex = globalProcessorIndex;
         }
 
+        /**
+         * Returns the handle to wake up the worker running the processor,
+         * for example when an asynchronous operation of the processor
+         * completes.
+         */
+        public WakeUpHandle wakeUpHandle() {
+            return wakeUpHandle;
+        }
+
         @Override
         public int localProcessorIndex() {
             return localProcessorIndex;
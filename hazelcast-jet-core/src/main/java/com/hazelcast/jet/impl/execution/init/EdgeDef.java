@@ -20,6 +20,7 @@ import com.hazelcast.jet.config.EdgeConfig;
 import com.hazelcast.jet.core.Edge;
 import com.hazelcast.jet.core.Edge.RoutingPolicy;
 import com.hazelcast.jet.core.Partitioner;
+import com.hazelcast.jet.function.ComparatorEx;
 import com.hazelcast.jet.impl.MasterJobContext;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -37,6 +38,7 @@ public class EdgeDef implements IdentifiedDataSerializable {
     private boolean isDistributed;
     private RoutingPolicy routingPolicy;
     private Partitioner partitioner;
+    private ComparatorEx<?> orderComparator;
     private EdgeConfig config;
 
     // transient fields populated and used after deserialization
@@ -56,6 +58,7 @@ public class EdgeDef implements IdentifiedDataSerializable {
         this.isDistributed = isJobDistributed && edge.isDistributed();
         this.routingPolicy = edge.getRoutingPolicy();
         this.partitioner = edge.getPartitioner();
+        this.orderComparator = edge.getOrderComparator();
         this.config = config;
     }
 
@@ -74,6 +77,10 @@ public class EdgeDef implements IdentifiedDataSerializable {
         return partitioner;
     }
 
+    ComparatorEx<?> orderComparator() {
+        return orderComparator;
+    }
+
     String edgeId() {
         return id;
     }
@@ -132,6 +139,7 @@ public class EdgeDef implements IdentifiedDataSerializable {
         out.writeBoolean(isDistributed);
         out.writeObject(routingPolicy);
         CustomClassLoadedObject.write(out, partitioner);
+        CustomClassLoadedObject.write(out, orderComparator);
         out.writeObject(config);
     }
 
@@ -144,6 +152,7 @@ public class EdgeDef implements IdentifiedDataSerializable {
         isDistributed = in.readBoolean();
         routingPolicy = in.readObject();
         partitioner = CustomClassLoadedObject.read(in);
+        orderComparator = CustomClassLoadedObject.read(in);
         config = in.readObject();
     }
 
@@ -32,9 +32,11 @@ import com.hazelcast.jet.core.Edge.RoutingPolicy;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.impl.JetService;
+import com.hazelcast.jet.impl.Networking;
+import com.hazelcast.jet.impl.execution.ChainedEdgeStream;
+import com.hazelcast.jet.impl.execution.ChainedTasklet;
 import com.hazelcast.jet.impl.execution.ConcurrentInboundEdgeStream;
 import com.hazelcast.jet.impl.execution.ConveyorCollector;
-import com.hazelcast.jet.impl.execution.ConveyorCollectorWithPartition;
 import com.hazelcast.jet.impl.execution.InboundEdgeStream;
 import com.hazelcast.jet.impl.execution.OutboundCollector;
 import com.hazelcast.jet.impl.execution.OutboundEdgeStream;
@@ -44,9 +46,13 @@ import com.hazelcast.jet.impl.execution.SenderTasklet;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
 import com.hazelcast.jet.impl.execution.StoreSnapshotTasklet;
 import com.hazelcast.jet.impl.execution.Tasklet;
+import com.hazelcast.jet.impl.execution.TaskletCallMetrics;
+import com.hazelcast.jet.impl.execution.VertexLatencyTracker;
+import com.hazelcast.jet.impl.execution.WakeUpHandle;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcSupplierCtx;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
+import com.hazelcast.jet.impl.util.JetProperties;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ObjectDataInput;
@@ -55,6 +61,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.StringUtil;
 
 import java.io.IOException;
@@ -62,11 +69,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -81,6 +91,8 @@ import static com.hazelcast.jet.impl.util.Util.memoize;
 import static com.hazelcast.jet.impl.util.Util.readList;
 import static com.hazelcast.jet.impl.util.Util.sanitizeLoggerNamePart;
 import static com.hazelcast.jet.impl.util.Util.writeList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
@@ -107,7 +119,12 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
 
     private final Map<String, ConcurrentConveyor<Object>[]> localConveyorMap = new HashMap<>();
     private final Map<String, Map<Address, ConcurrentConveyor<Object>>> edgeSenderConveyorMap = new HashMap<>();
+    // the handles the producers to a conveyor use to wake up its consumer
+    private final Map<ConcurrentConveyor<Object>, WakeUpHandle> conveyorWakeUpMap = new IdentityHashMap<>();
     private final List<Processor> processors = new ArrayList<>();
+    // IDs of the edges whose source and destination processors run chained in one tasklet
+    private Set<String> chainedEdgeIds = new HashSet<>();
+    private final Map<String, ChainedEdgeStream[]> chainedEdgeStreamMap = new HashMap<>();
 
     private PartitionArrangement ptionArrgmt;
 
@@ -142,15 +159,30 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
 
         this.ptionArrgmt = new PartitionArrangement(partitionOwners, nodeEngine.getThisAddress());
         JetInstance instance = getJetInstance(nodeEngine);
+        Map<Integer, Collection<? extends Processor>> vertexProcessors = new HashMap<>();
         for (VertexDef vertex : vertices) {
-            Collection<? extends Processor> processors = createProcessors(vertex, vertex.localParallelism());
+            vertexProcessors.put(vertex.vertexId(), createProcessors(vertex, vertex.localParallelism()));
+        }
+        HazelcastProperties jetProperties = new HazelcastProperties(getConfig().getProperties());
+        if (jetProperties.getBoolean(JetProperties.JET_OPERATOR_CHAINING_ENABLED)) {
+            chainedEdgeIds = findChainableEdges(vertexProcessors);
+        }
+        long latencyMarkerIntervalMs = jetProperties.getLong(JetProperties.JET_LATENCY_MARKER_INTERVAL_MILLIS);
+        // the co-located or pinned processor tasklets must not be moved by work stealing
+        boolean threadAffinity = jetProperties.getBoolean(JetProperties.JET_COOPERATIVE_TASKLET_COLOCATION_ENABLED)
+                || !jetProperties.getString(JetProperties.JET_COOPERATIVE_THREAD_AFFINITY_CPUS).trim().isEmpty();
+        Map<Integer, ProcessorTasklet[]> vertexTasklets = new HashMap<>();
+        for (VertexDef vertex : vertices) {
+            Collection<? extends Processor> processors = vertexProcessors.get(vertex.vertexId());
+            ProcessorTasklet[] processorTasklets = new ProcessorTasklet[vertex.localParallelism()];
+            vertexTasklets.put(vertex.vertexId(), processorTasklets);
 
             // create StoreSnapshotTasklet and the queues to it
             QueuedPipe<Object>[] snapshotQueues = new QueuedPipe[vertex.localParallelism()];
             Arrays.setAll(snapshotQueues, i -> new OneToOneConcurrentArrayQueue<>(SNAPSHOT_QUEUE_SIZE));
             ConcurrentConveyor<Object> ssConveyor = ConcurrentConveyor.concurrentConveyor(null, snapshotQueues);
             StoreSnapshotTasklet ssTasklet = new StoreSnapshotTasklet(snapshotContext,
-                    new ConcurrentInboundEdgeStream(ssConveyor, 0, 0, true,
+                    new ConcurrentInboundEdgeStream(ssConveyor, 0, 0, true, null, wakeUpHandle(ssConveyor),
                             "ssFrom:" + vertex.name()),
                     new AsyncSnapshotWriterImpl(nodeEngine, snapshotContext, vertex.name(), memberIndex, memberCount),
                     nodeEngine.getLogger(StoreSnapshotTasklet.class.getName() + "."
@@ -158,6 +190,26 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     vertex.name(), vertex.isHigherPrioritySource());
             tasklets.add(ssTasklet);
 
+            ProbeBuilder probeBuilder = this.nodeEngine.getMetricsRegistry().newProbeBuilder()
+                    .withTag("module", "jet")
+                    .withTag("job", idToString(jobId))
+                    .withTag("exec", idToString(executionId))
+                    .withTag("vertex", vertex.name());
+
+            // ignore vertices which are only used for snapshot restore and do not
+            // consider snapshot restore edges for determining source tag
+            if (isSource(vertex)) {
+                probeBuilder = probeBuilder.withTag("source", "true");
+            }
+            if (vertex.outboundEdges().size() == 0) {
+                probeBuilder = probeBuilder.withTag("sink", "true");
+            }
+            TaskletCallMetrics.registerSums(probeBuilder, ssTasklet, "snapshot",
+                    singletonList(ssTasklet.getCallMetrics()));
+
+            VertexLatencyTracker latencyTracker = latencyMarkerIntervalMs <= 0 ? null
+                    : new VertexLatencyTracker(latencyMarkerIntervalMs, isSource(vertex),
+                            vertex.inboundEdges().stream().mapToInt(EdgeDef::destOrdinal).max().orElse(-1) + 1);
             int localProcessorIdx = 0;
             for (Processor processor : processors) {
                 int globalProcessorIndex = memberIndex * vertex.localParallelism() + localProcessorIdx;
@@ -182,21 +234,6 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                         memberCount
                 );
 
-                ProbeBuilder probeBuilder = this.nodeEngine.getMetricsRegistry().newProbeBuilder()
-                        .withTag("module", "jet")
-                        .withTag("job", idToString(jobId))
-                        .withTag("exec", idToString(executionId))
-                        .withTag("vertex", vertex.name());
-
-                // ignore vertices which are only used for snapshot restore and do not
-                // consider snapshot restore edges for determining source tag
-                if (vertex.inboundEdges().stream().allMatch(EdgeDef::isSnapshotRestoreEdge)
-                        && !vertex.isSnapshotVertex()) {
-                    probeBuilder = probeBuilder.withTag("source", "true");
-                }
-                if (vertex.outboundEdges().size() == 0) {
-                    probeBuilder = probeBuilder.withTag("sink", "true");
-                }
                 ProbeBuilder processorProbeBuilder = probeBuilder
                         .withTag("proc", String.valueOf(globalProcessorIndex));
                 processorProbeBuilder
@@ -212,16 +249,24 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                         vertex, localProcessorIdx, globalProcessorIndex
                 );
 
-                OutboundCollector snapshotCollector = new ConveyorCollector(ssConveyor, localProcessorIdx, null);
+                OutboundCollector snapshotCollector = new ConveyorCollector(ssConveyor, localProcessorIdx, null,
+                        wakeUpHandle(ssConveyor));
 
                 ProcessorTasklet processorTasklet = new ProcessorTasklet(context, nodeEngine.getSerializationService(),
                         processor, inboundStreams, outboundStreams, snapshotContext, snapshotCollector,
-                        processorProbeBuilder);
+                        processorProbeBuilder, latencyTracker);
+                processorTasklet.setThreadAffinity(threadAffinity);
+                if (latencyTracker != null && localProcessorIdx == 0) {
+                    // the histograms are shared by the tasklets of the vertex, we register them to the first one
+                    latencyTracker.registerMetrics(probeBuilder, processorTasklet);
+                }
                 tasklets.add(processorTasklet);
+                processorTasklets[localProcessorIdx] = processorTasklet;
                 this.processors.add(processor);
                 localProcessorIdx++;
             }
         }
+        chainTasklets(vertexTasklets);
         List<ReceiverTasklet> allReceivers = receiverMap.values().stream()
                                                         .flatMap(o -> o.values().stream())
                                                         .flatMap(a -> a.values().stream())
@@ -230,6 +275,10 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         tasklets.addAll(allReceivers);
     }
 
+    private static boolean isSource(VertexDef vertex) {
+        return vertex.inboundEdges().stream().allMatch(EdgeDef::isSnapshotRestoreEdge) && !vertex.isSnapshotVertex();
+    }
+
     public static String createLoggerName(
             String processorClassName, String jobName, String vertexName, int processorIndex
     ) {
@@ -348,6 +397,72 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 .forEach(p -> p.init(partitionService::getPartitionId));
     }
 
+    /**
+     * Finds the local edges that can be executed by running the source and
+     * destination processors back-to-back in one tasklet: the edge must be
+     * the only outbound edge of its source and the only inbound edge of
+     * its destination, both vertices must have the same local parallelism
+     * and cooperative processors. Such an edge is then connected as if it
+     * was {@link RoutingPolicy#ISOLATED isolated}, that is the processor
+     * <i>i</i> sends only to the processor <i>i</i>, through a {@link
+     * ChainedEdgeStream} instead of a conveyor. For a {@link
+     * RoutingPolicy#UNICAST unicast} edge this is one of the allowed
+     * distributions.
+     */
+    private Set<String> findChainableEdges(Map<Integer, Collection<? extends Processor>> vertexProcessors) {
+        Set<String> result = new HashSet<>();
+        for (VertexDef vertex : vertices) {
+            if (vertex.outboundEdges().size() != 1) {
+                continue;
+            }
+            EdgeDef edge = vertex.outboundEdges().get(0);
+            VertexDef destVertex = edge.destVertex();
+            if (!edge.isDistributed()
+                    && !edge.isSnapshotRestoreEdge()
+                    && (edge.routingPolicy() == RoutingPolicy.ISOLATED || edge.routingPolicy() == RoutingPolicy.UNICAST)
+                    && destVertex.inboundEdges().size() == 1
+                    && vertex.localParallelism() == destVertex.localParallelism()
+                    && vertexProcessors.get(vertex.vertexId()).stream().allMatch(Processor::isCooperative)
+                    && vertexProcessors.get(destVertex.vertexId()).stream().allMatch(Processor::isCooperative)
+            ) {
+                result.add(edge.edgeId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the processor tasklets of each chain of vertices connected by
+     * {@link #chainedEdgeIds chained edges} with one {@link ChainedTasklet}
+     * per local processor index.
+     */
+    private void chainTasklets(Map<Integer, ProcessorTasklet[]> vertexTasklets) {
+        for (VertexDef head : vertices) {
+            boolean isChainHead = head.inboundEdges().stream().noneMatch(e -> chainedEdgeIds.contains(e.edgeId()));
+            if (!isChainHead) {
+                continue;
+            }
+            List<VertexDef> chain = new ArrayList<>();
+            for (VertexDef v = head; ; v = v.outboundEdges().get(0).destVertex()) {
+                chain.add(v);
+                if (v.outboundEdges().size() != 1 || !chainedEdgeIds.contains(v.outboundEdges().get(0).edgeId())) {
+                    break;
+                }
+            }
+            if (chain.size() == 1) {
+                continue;
+            }
+            for (int i = 0; i < head.localParallelism(); i++) {
+                List<Tasklet> chainedTasklets = new ArrayList<>(chain.size());
+                for (VertexDef v : chain) {
+                    chainedTasklets.add(vertexTasklets.get(v.vertexId())[i]);
+                }
+                tasklets.removeAll(chainedTasklets);
+                tasklets.add(new ChainedTasklet(chainedTasklets));
+            }
+        }
+    }
+
     private static Collection<? extends Processor> createProcessors(VertexDef vertexDef, int parallelism) {
         final Collection<? extends Processor> processors = vertexDef.processorSupplier().get(parallelism);
         if (processors.size() != parallelism) {
@@ -390,6 +505,9 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
             final Map<Address, ConcurrentConveyor<Object>> addrToConveyor = new HashMap<>();
             List<AtomicLong> bytesCounters = new ArrayList<>();
             List<AtomicLong> itemsCounters = new ArrayList<>();
+            List<AtomicLong> packetsCounters = new ArrayList<>();
+            List<AtomicLong> stallNanosCounters = new ArrayList<>();
+            List<TaskletCallMetrics> callMetrics = new ArrayList<>();
             Tasklet firstTasklet = null;
             for (Address destAddr : remoteMembers.get()) {
                 final ConcurrentConveyor<Object> conveyor = createConveyorArray(
@@ -399,12 +517,17 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                                 + destAddr.toString().replace('.', '-'));
                 final int destVertexId = edge.destVertex().vertexId();
                 final SenderTasklet t = new SenderTasklet(inboundEdgeStream, nodeEngine,
-                        destAddr, executionId, destVertexId, edge.getConfig().getPacketSizeLimit());
+                        destAddr, executionId, destVertexId, edge.getConfig(),
+                        edge.routingPolicy() == RoutingPolicy.PARTITIONED ? edge.partitioner() : null,
+                        nodeEngine.getPartitionService().getPartitionCount());
                 if (firstTasklet == null) {
                     firstTasklet = t;
                 }
                 bytesCounters.add(t.getBytesOutCounter());
                 itemsCounters.add(t.getItemsOutCounter());
+                packetsCounters.add(t.getPacketsOutCounter());
+                stallNanosCounters.add(t.getFlowControlStallNanosCounter());
+                callMetrics.add(t.getCallMetrics());
                 senderMap.computeIfAbsent(destVertexId, xx -> new HashMap<>())
                          .computeIfAbsent(edge.destOrdinal(), xx -> new HashMap<>())
                          .put(destAddr, t);
@@ -420,6 +543,19 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                         addCountersProbeFunction(bytesCounters));
                 probeBuilder.register(firstTasklet, "distributedItemsOut", ProbeLevel.INFO, ProbeUnit.BYTES,
                         addCountersProbeFunction(itemsCounters));
+                probeBuilder.register(firstTasklet, "distributedPacketsOut", ProbeLevel.INFO, ProbeUnit.COUNT,
+                        addCountersProbeFunction(packetsCounters));
+                LongProbeFunction<Tasklet> stallNanos = addCountersProbeFunction(stallNanosCounters);
+                probeBuilder.register(firstTasklet, "distributedFlowControlStallTime", ProbeLevel.INFO, ProbeUnit.MS,
+                        (LongProbeFunction<Tasklet>) t -> NANOSECONDS.toMillis(stallNanos.get(t)));
+                LongProbeFunction<Tasklet> bytesOut = addCountersProbeFunction(bytesCounters);
+                LongProbeFunction<Tasklet> packetsOut = addCountersProbeFunction(packetsCounters);
+                probeBuilder.register(firstTasklet, "distributedAvgPacketSize", ProbeLevel.INFO, ProbeUnit.BYTES,
+                        (LongProbeFunction<Tasklet>) t -> {
+                            long packets = packetsOut.get(t);
+                            return packets == 0 ? 0 : bytesOut.get(t) / packets;
+                        });
+                TaskletCallMetrics.registerSums(probeBuilder, firstTasklet, "distributedSender", callMetrics);
             }
             return addrToConveyor;
         });
@@ -471,6 +607,15 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         final int[][] ptionsPerProcessor =
                 ptionArrgmt.assignPartitionsToProcessors(downstreamParallelism, edge.isDistributed());
 
+        if (chainedEdgeIds.contains(edge.edgeId())) {
+            // the processor i sends to the processor i, they run in the same tasklet
+            ChainedEdgeStream[] chainedStreams = chainedEdgeStreamMap.computeIfAbsent(edge.edgeId(),
+                    e -> new ChainedEdgeStream[downstreamParallelism]);
+            chainedStreams[processorIndex] = new ChainedEdgeStream(edge.destOrdinal(), edge.priority(), queueSize,
+                    ptionsPerProcessor[processorIndex]);
+            return new OutboundCollector[] {chainedStreams[processorIndex]};
+        }
+
         if (edge.routingPolicy() == RoutingPolicy.ISOLATED) {
             if (downstreamParallelism < upstreamParallelism) {
                 throw new IllegalArgumentException(String.format(
@@ -487,7 +632,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     e -> createConveyorArray(downstreamParallelism, 1, queueSize));
             return IntStream.range(0, downstreamParallelism)
                             .filter(i -> i % upstreamParallelism == processorIndex)
-                            .mapToObj(i -> new ConveyorCollector(localConveyors[i], 0, ptionsPerProcessor[i]))
+                            .mapToObj(i -> new ConveyorCollector(localConveyors[i], 0, ptionsPerProcessor[i],
+                                    wakeUpHandle(localConveyors[i])))
                             .toArray(OutboundCollector[]::new);
         }
 
@@ -506,7 +652,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 });
         final OutboundCollector[] localCollectors = new OutboundCollector[downstreamParallelism];
         Arrays.setAll(localCollectors, n ->
-                new ConveyorCollector(localConveyors[n], processorIndex, ptionsPerProcessor[n]));
+                new ConveyorCollector(localConveyors[n], processorIndex, ptionsPerProcessor[n],
+                        wakeUpHandle(localConveyors[n])));
 
         // in a local edge, we only have the local collectors.
         if (!edge.isDistributed()) {
@@ -525,8 +672,9 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         allCollectors[0] = compositeCollector(localCollectors, edge, totalPtionCount);
         int index = 1;
         for (Map.Entry<Address, int[]> entry : memberToPartitions.entrySet()) {
-            allCollectors[index++] = new ConveyorCollectorWithPartition(senderConveyorMap.get(entry.getKey()),
-                    processorIndex, entry.getValue());
+            ConcurrentConveyor<Object> senderConveyor = senderConveyorMap.get(entry.getKey());
+            allCollectors[index++] = new ConveyorCollector(senderConveyor,
+                    processorIndex, entry.getValue(), wakeUpHandle(senderConveyor));
         }
         return allCollectors;
     }
@@ -543,6 +691,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                        int offset = 0;
                        List<AtomicLong> itemCounters = new ArrayList<>();
                        List<AtomicLong> bytesCounters = new ArrayList<>();
+                       List<TaskletCallMetrics> callMetrics = new ArrayList<>();
                        Tasklet firstTasklet = null;
                        for (Address addr : ptionArrgmt.remotePartitionAssignment.get().keySet()) {
                            final OutboundCollector[] collectors = new OutboundCollector[ptionsPerProcessor.length];
@@ -550,19 +699,22 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                            final int queueOffset = --offset;
                            Arrays.setAll(collectors, n -> new ConveyorCollector(
                                    localConveyors[n], localConveyors[n].queueCount() + queueOffset,
-                                   ptionsPerProcessor[n]));
+                                   ptionsPerProcessor[n], wakeUpHandle(localConveyors[n])));
                            final OutboundCollector collector = compositeCollector(collectors, edge, totalPtionCount);
                            ReceiverTasklet receiverTasklet = new ReceiverTasklet(
                                    collector, edge.getConfig().getReceiveWindowMultiplier(),
                                    getConfig().getInstanceConfig().getFlowControlPeriodMs(),
                                    nodeEngine.getLoggingService(),
-                                   "receiverFor:" + edge.destVertex().name() + "#" + edge.destOrdinal());
+                                   "receiverFor:" + edge.destVertex().name() + "#" + edge.destOrdinal(),
+                                   edge.getConfig().isCompressionEnabled(),
+                                   edge.getConfig().isCreditFlowControlEnabled() ? creditSender(edge, addr) : null);
                            addrToTasklet.put(addr, receiverTasklet);
                            if (firstTasklet == null) {
                                firstTasklet = receiverTasklet;
                            }
                            itemCounters.add(receiverTasklet.getItemsInCounter());
                            bytesCounters.add(receiverTasklet.getBytesInCounter());
+                           callMetrics.add(receiverTasklet.getCallMetrics());
                        }
                        if (firstTasklet != null) {
                            // We register the metrics to the first tasklet. The metrics itself aggregate counters from
@@ -572,11 +724,20 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                                    addCountersProbeFunction(itemCounters));
                            probeBuilder.register(firstTasklet, "distributedBytesIn", ProbeLevel.INFO, ProbeUnit.COUNT,
                                    addCountersProbeFunction(bytesCounters));
+                           TaskletCallMetrics.registerSums(probeBuilder, firstTasklet, "distributedReceiver",
+                                   callMetrics);
                        }
                        return addrToTasklet;
                    });
     }
 
+    private IntConsumer creditSender(EdgeDef edge, Address senderAddress) {
+        int destVertexId = edge.destVertex().vertexId();
+        int destOrdinal = edge.destOrdinal();
+        return sendSeqLimitCompressed -> Networking.sendFlowControlPacket(nodeEngine, senderAddress, executionId,
+                destVertexId, destOrdinal, sendSeqLimitCompressed);
+    }
+
     private JetConfig getConfig() {
         JetService service = nodeEngine.getService(JetService.SERVICE_NAME);
         return service.getJetInstance().getConfig();
@@ -586,6 +747,11 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                                                              int globalProcessorIdx) {
         final List<InboundEdgeStream> inboundStreams = new ArrayList<>();
         for (EdgeDef inEdge : srcVertex.inboundEdges()) {
+            ChainedEdgeStream[] chainedStreams = chainedEdgeStreamMap.get(inEdge.edgeId());
+            if (chainedStreams != null) {
+                inboundStreams.add(chainedStreams[localProcessorIdx]);
+                continue;
+            }
             // each tasklet has one input conveyor per edge
             final ConcurrentConveyor<Object> conveyor = localConveyorMap.get(inEdge.edgeId())[localProcessorIdx];
             inboundStreams.add(newEdgeStream(inEdge, conveyor,
@@ -598,7 +764,11 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                                                       String debugName) {
         return new ConcurrentInboundEdgeStream(conveyor, inEdge.destOrdinal(), inEdge.priority(),
                 jobConfig.getProcessingGuarantee() == ProcessingGuarantee.EXACTLY_ONCE,
-                debugName);
+                inEdge.orderComparator(), wakeUpHandle(conveyor), debugName);
+    }
+
+    private WakeUpHandle wakeUpHandle(ConcurrentConveyor<Object> conveyor) {
+        return conveyorWakeUpMap.computeIfAbsent(conveyor, c -> new WakeUpHandle());
     }
 
     public List<Processor> getProcessors() {
@@ -23,11 +23,13 @@ import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.aggregate.AggregateOperation2;
 import com.hazelcast.jet.aggregate.AggregateOperation3;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.function.ComparatorEx;
 import com.hazelcast.jet.function.FunctionEx;
 import com.hazelcast.jet.function.TriFunction;
 import com.hazelcast.jet.function.TriPredicate;
 import com.hazelcast.jet.impl.pipeline.transform.DistinctTransform;
 import com.hazelcast.jet.impl.pipeline.transform.GroupTransform;
+import com.hazelcast.jet.impl.pipeline.transform.SortedGroupTransform;
 import com.hazelcast.jet.pipeline.BatchStage;
 import com.hazelcast.jet.pipeline.BatchStageWithKey;
 import com.hazelcast.jet.pipeline.ContextFactory;
@@ -130,6 +132,20 @@ public class BatchStageWithKeyImpl<T, K> extends StageWithGroupingBase<T, K> imp
                 DO_NOT_ADAPT);
     }
 
+    @Nonnull @Override
+    public <R> BatchStage<Entry<K, R>> aggregateSorted(
+            @Nonnull ComparatorEx<? super K> keyComparator,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
+    ) {
+        return computeStage.attach(new SortedGroupTransform<>(
+                        computeStage.transform,
+                        keyFn(),
+                        keyComparator,
+                        aggrOp,
+                        Util::entry),
+                DO_NOT_ADAPT);
+    }
+
     @Nonnull @Override
     public <T1, R> BatchStage<Entry<K, R>> aggregate2(
             @Nonnull BatchStageWithKey<T1, ? extends K> stage1,
@@ -251,23 +251,43 @@ public abstract class ComputeStageImplBase<T> extends AbstractStage {
             FunctionEx<? super T, ? extends K> keyFn,
             @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
 
+    ) {
+        return attachRollingAggregate(keyFn, aggrOp, 0);
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    <K, R, OUT, RET> RET attachRollingAggregate(
+            FunctionEx<? super T, ? extends K> keyFn,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp,
+            long preAggregationIntervalMillis
     ) {
         checkSerializable(keyFn, "keyFn");
         return (RET) attach(new RollingAggregateTransform(
                         transform,
                         fnAdapter.adaptKeyFn(keyFn),
                         fnAdapter.adaptAggregateOperation1(aggrOp),
-                        fnAdapter.adaptRollingAggregateOutputFn(Util::entry)
+                        fnAdapter.adaptRollingAggregateOutputFn(Util::entry),
+                        preAggregationIntervalMillis
         ), fnAdapter);
     }
 
     @Nonnull
-    @SuppressWarnings("unchecked")
     <R, RET> RET attachGlobalRollingAggregate(@Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp) {
+        return attachGlobalRollingAggregate(aggrOp, 0);
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    <R, RET> RET attachGlobalRollingAggregate(
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp,
+            long preAggregationIntervalMillis
+    ) {
         GlobalRollingAggregateTransform transform = new GlobalRollingAggregateTransform(
                 this.transform,
                 fnAdapter.adaptAggregateOperation1(aggrOp),
-                fnAdapter.adaptRollingAggregateOutputFn((key, result) -> result));
+                fnAdapter.adaptRollingAggregateOutputFn((key, result) -> result),
+                preAggregationIntervalMillis);
         return (RET) attach(transform, fnAdapter);
     }
 
@@ -39,6 +39,7 @@ import javax.annotation.Nonnull;
 import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
+import static com.hazelcast.util.Preconditions.checkPositive;
 
 public class StreamStageImpl<T> extends ComputeStageImplBase<T> implements StreamStage<T> {
 
@@ -133,6 +134,15 @@ public class StreamStageImpl<T> extends ComputeStageImplBase<T> implements Strea
         return attachGlobalRollingAggregate(aggrOp);
     }
 
+    @Nonnull @Override
+    public <R> StreamStage<R> rollingAggregate(
+            long preAggregationIntervalMillis,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
+    ) {
+        checkPositive(preAggregationIntervalMillis, "preAggregationIntervalMillis must be positive");
+        return attachGlobalRollingAggregate(aggrOp, preAggregationIntervalMillis);
+    }
+
     @Nonnull @Override
     public StreamStage<T> merge(@Nonnull StreamStage<? extends T> other) {
         return attachMerge(other);
@@ -32,6 +32,8 @@ import javax.annotation.Nonnull;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+import static com.hazelcast.util.Preconditions.checkPositive;
+
 public class StreamStageWithKeyImpl<T, K> extends StageWithGroupingBase<T, K> implements StreamStageWithKey<T, K> {
 
     StreamStageWithKeyImpl(
@@ -104,6 +106,15 @@ public class StreamStageWithKeyImpl<T, K> extends StageWithGroupingBase<T, K> im
         return computeStage.attachRollingAggregate(keyFn(), aggrOp);
     }
 
+    @Nonnull @Override
+    public <R> StreamStage<Map.Entry<K, R>> rollingAggregate(
+            long preAggregationIntervalMillis,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
+    ) {
+        checkPositive(preAggregationIntervalMillis, "preAggregationIntervalMillis must be positive");
+        return computeStage.attachRollingAggregate(keyFn(), aggrOp, preAggregationIntervalMillis);
+    }
+
     @Nonnull @Override
     public <R> StreamStage<R> customTransform(@Nonnull String stageName, @Nonnull ProcessorMetaSupplier procSupplier) {
         return computeStage.attachPartitionedCustomTransform(stageName, procSupplier, keyFn());
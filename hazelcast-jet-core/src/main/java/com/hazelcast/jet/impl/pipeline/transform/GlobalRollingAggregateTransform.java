@@ -17,34 +17,97 @@
 package com.hazelcast.jet.impl.pipeline.transform;
 
 import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.datamodel.Tuple3;
+import com.hazelcast.jet.function.FunctionEx;
 import com.hazelcast.jet.function.TriFunction;
 import com.hazelcast.jet.impl.pipeline.Planner;
 import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
+import com.hazelcast.jet.impl.processor.RollingAccumulateP;
 import com.hazelcast.jet.impl.util.ConstantFunctionEx;
 
 import javax.annotation.Nonnull;
 
+import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.processor.Processors.rollingAggregateP;
+import static com.hazelcast.jet.impl.pipeline.transform.AggregateTransform.FIRST_STAGE_VERTEX_NAME_SUFFIX;
 
 public class GlobalRollingAggregateTransform<T, R> extends AbstractTransform {
     @Nonnull private final AggregateOperation1<? super T, ?, ? extends R> aggrOp;
     @Nonnull private final TriFunction<? super T, Integer, ? super R, ? extends R> mapToOutputFn;
+    private final long preAggregationIntervalMillis;
 
     public GlobalRollingAggregateTransform(
             @Nonnull Transform upstream,
             @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp,
             @Nonnull TriFunction<? super T, Integer, ? super R, ? extends R> mapToOutputFn
+    ) {
+        this(upstream, aggrOp, mapToOutputFn, 0);
+    }
+
+    /**
+     * @param preAggregationIntervalMillis see {@link RollingAggregateTransform#RollingAggregateTransform(
+     *      Transform, FunctionEx, AggregateOperation1, TriFunction, long)}
+     */
+    public GlobalRollingAggregateTransform(
+            @Nonnull Transform upstream,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp,
+            @Nonnull TriFunction<? super T, Integer, ? super R, ? extends R> mapToOutputFn,
+            long preAggregationIntervalMillis
     ) {
         super("rolling-aggregate", upstream);
         this.aggrOp = aggrOp;
         this.mapToOutputFn = mapToOutputFn;
+        this.preAggregationIntervalMillis = preAggregationIntervalMillis;
     }
 
     @Override
     public void addToDag(Planner p) {
         ConstantFunctionEx<T, Integer> keyFn = new ConstantFunctionEx<>(name().hashCode());
+        if (preAggregationIntervalMillis > 0 && aggrOp.combineFn() != null) {
+            addToDagTwoStage(p, keyFn);
+            return;
+        }
         PlannerVertex pv = p.addVertex(this, name(), localParallelism(),
                 rollingAggregateP(keyFn, aggrOp, mapToOutputFn));
         p.addEdges(this, pv.v, edge -> edge.partitioned(keyFn).distributed());
     }
+
+    //                   ---------
+    //                  | source  |
+    //                   ---------
+    //                       |
+    //                     local
+    //                       v
+    //              --------------------
+    //             | RollingAccumulateP |
+    //              --------------------
+    //                       |
+    //                  distributed
+    //                   all-to-one
+    //                       v
+    //              -------------------
+    //             | rollingAggregateP |
+    //              -------------------
+    @SuppressWarnings("unchecked")
+    private <A> void addToDagTwoStage(Planner p, ConstantFunctionEx<T, Integer> keyFn) {
+        AggregateOperation1<? super T, A, ? extends R> aggrOp =
+                (AggregateOperation1<? super T, A, ? extends R>) this.aggrOp;
+        TriFunction<? super T, Integer, ? super R, ? extends R> mapToOutputFn = this.mapToOutputFn;
+        long intervalMillis = preAggregationIntervalMillis;
+
+        FunctionEx<Tuple3<Integer, A, T>, Integer> partialKeyFn = Tuple3::f0;
+        AggregateOperation1<Tuple3<Integer, A, T>, A, ? extends R> combiningAggrOp =
+                aggrOp.withCombiningAccumulateFn(Tuple3::f1);
+        TriFunction<Tuple3<Integer, A, T>, Integer, R, R> partialToOutputFn =
+                (t3, key, result) -> mapToOutputFn.apply(t3.f2(), key, result);
+
+        Vertex v1 = p.dag.newVertex(name() + FIRST_STAGE_VERTEX_NAME_SUFFIX,
+                () -> new RollingAccumulateP<>(keyFn, aggrOp, intervalMillis))
+                         .localParallelism(localParallelism());
+        PlannerVertex pv2 = p.addVertex(this, name(), localParallelism(),
+                rollingAggregateP(partialKeyFn, combiningAggrOp, partialToOutputFn));
+        p.addEdges(this, v1);
+        p.dag.edge(between(v1, pv2.v).distributed().allToOne(keyFn.apply(null)));
+    }
 }
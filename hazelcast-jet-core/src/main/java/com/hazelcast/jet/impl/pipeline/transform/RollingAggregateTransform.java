@@ -17,36 +17,103 @@
 package com.hazelcast.jet.impl.pipeline.transform;
 
 import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.datamodel.Tuple3;
 import com.hazelcast.jet.function.FunctionEx;
 import com.hazelcast.jet.function.TriFunction;
 import com.hazelcast.jet.impl.pipeline.Planner;
 import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
+import com.hazelcast.jet.impl.processor.RollingAccumulateP;
 
 import javax.annotation.Nonnull;
 
+import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.processor.Processors.rollingAggregateP;
+import static com.hazelcast.jet.impl.pipeline.transform.AggregateTransform.FIRST_STAGE_VERTEX_NAME_SUFFIX;
 
 public class RollingAggregateTransform<T, K, R, OUT> extends AbstractTransform {
     private final FunctionEx<? super T, ? extends K> keyFn;
     @Nonnull private final AggregateOperation1<? super T, ?, ? extends R> aggrOp;
     @Nonnull private final TriFunction<? super T, ? super K, ? super R, ? extends OUT> mapToOutputFn;
+    private final long preAggregationIntervalMillis;
 
     public RollingAggregateTransform(
             @Nonnull Transform upstream,
             @Nonnull FunctionEx<? super T, ? extends K> keyFn,
             @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp,
             @Nonnull TriFunction<? super T, ? super K, ? super R, ? extends OUT> mapToOutputFn
+    ) {
+        this(upstream, keyFn, aggrOp, mapToOutputFn, 0);
+    }
+
+    /**
+     * @param preAggregationIntervalMillis if positive, the items are first
+     *      accumulated locally and the partial accumulators are sent to the
+     *      second stage once per this interval. Ignored if the aggregate
+     *      operation has no {@code combineFn}.
+     */
+    public RollingAggregateTransform(
+            @Nonnull Transform upstream,
+            @Nonnull FunctionEx<? super T, ? extends K> keyFn,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp,
+            @Nonnull TriFunction<? super T, ? super K, ? super R, ? extends OUT> mapToOutputFn,
+            long preAggregationIntervalMillis
     ) {
         super("rolling-aggregate", upstream);
         this.keyFn = keyFn;
         this.aggrOp = aggrOp;
         this.mapToOutputFn = mapToOutputFn;
+        this.preAggregationIntervalMillis = preAggregationIntervalMillis;
     }
 
     @Override
     public void addToDag(Planner p) {
+        if (preAggregationIntervalMillis > 0 && aggrOp.combineFn() != null) {
+            addToDagTwoStage(p);
+            return;
+        }
         PlannerVertex pv = p.addVertex(this, name(), localParallelism(),
                 rollingAggregateP(keyFn, aggrOp, mapToOutputFn));
         p.addEdges(this, pv.v, edge -> edge.partitioned(keyFn).distributed());
     }
+
+    //                   ---------
+    //                  | source  |
+    //                   ---------
+    //                       |
+    //                     local
+    //                  partitioned
+    //                       v
+    //              --------------------
+    //             | RollingAccumulateP |
+    //              --------------------
+    //                       |
+    //                  distributed
+    //                  partitioned
+    //                       v
+    //              -------------------
+    //             | rollingAggregateP |
+    //              -------------------
+    @SuppressWarnings("unchecked")
+    private <A> void addToDagTwoStage(Planner p) {
+        FunctionEx<? super T, ? extends K> keyFn = this.keyFn;
+        AggregateOperation1<? super T, A, ? extends R> aggrOp =
+                (AggregateOperation1<? super T, A, ? extends R>) this.aggrOp;
+        TriFunction<? super T, ? super K, ? super R, ? extends OUT> mapToOutputFn = this.mapToOutputFn;
+        long intervalMillis = preAggregationIntervalMillis;
+
+        FunctionEx<Tuple3<K, A, T>, K> partialKeyFn = Tuple3::f0;
+        AggregateOperation1<Tuple3<K, A, T>, A, ? extends R> combiningAggrOp =
+                aggrOp.withCombiningAccumulateFn(Tuple3::f1);
+        TriFunction<Tuple3<K, A, T>, K, R, OUT> partialToOutputFn =
+                (t3, key, result) -> mapToOutputFn.apply(t3.f2(), key, result);
+
+        Vertex v1 = p.dag.newVertex(name() + FIRST_STAGE_VERTEX_NAME_SUFFIX,
+                () -> new RollingAccumulateP<>(keyFn, aggrOp, intervalMillis))
+                         .localParallelism(localParallelism());
+        PlannerVertex pv2 = p.addVertex(this, name(), localParallelism(),
+                rollingAggregateP(partialKeyFn, combiningAggrOp, partialToOutputFn));
+        p.addEdges(this, v1, edge -> edge.partitioned(keyFn));
+        p.dag.edge(between(v1, pv2.v).distributed().partitioned(partialKeyFn));
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.pipeline.transform;
+
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.function.BiFunctionEx;
+import com.hazelcast.jet.function.ComparatorEx;
+import com.hazelcast.jet.function.FunctionEx;
+import com.hazelcast.jet.impl.pipeline.Planner;
+import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
+
+import javax.annotation.Nonnull;
+
+import static com.hazelcast.jet.core.processor.Processors.aggregateSortedByKeyP;
+
+public class SortedGroupTransform<T, K, A, R, OUT> extends AbstractTransform {
+    @Nonnull
+    private final FunctionEx<? super T, ? extends K> groupKeyFn;
+    @Nonnull
+    private final ComparatorEx<? super K> keyComparator;
+    @Nonnull
+    private final AggregateOperation1<? super T, A, R> aggrOp;
+    @Nonnull
+    private final BiFunctionEx<? super K, ? super R, OUT> mapToOutputFn;
+
+    public SortedGroupTransform(
+            @Nonnull Transform upstream,
+            @Nonnull FunctionEx<? super T, ? extends K> groupKeyFn,
+            @Nonnull ComparatorEx<? super K> keyComparator,
+            @Nonnull AggregateOperation1<? super T, A, R> aggrOp,
+            @Nonnull BiFunctionEx<? super K, ? super R, OUT> mapToOutputFn
+    ) {
+        super("sorted-group-and-aggregate", upstream);
+        this.groupKeyFn = groupKeyFn;
+        this.keyComparator = keyComparator;
+        this.aggrOp = aggrOp;
+        this.mapToOutputFn = mapToOutputFn;
+    }
+
+    //                   ---------
+    //                  | source  |
+    //                   ---------
+    //                       |
+    //                  distributed
+    //                  partitioned
+    //                    ordered
+    //                       v
+    //              -----------------------
+    //             | aggregateSortedByKeyP |
+    //              -----------------------
+    @Override
+    public void addToDag(Planner p) {
+        PlannerVertex pv = p.addVertex(this, name(), localParallelism(),
+                aggregateSortedByKeyP(groupKeyFn, keyComparator, aggrOp, mapToOutputFn));
+        p.addEdges(this, pv.v, e -> e.distributed()
+                                     .partitioned(groupKeyFn)
+                                     .ordered(ComparatorEx.comparing(groupKeyFn, keyComparator)));
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.processor;
+
+/**
+ * A context object of the async-transform processors which collects the
+ * calls it receives and sends them in batches. The processor calls {@link
+ * #flush()} whenever it runs out of input or has to wait for the in-flight
+ * calls, so that a partial batch doesn't wait indefinitely.
+ * <p>
+ * Only supported for context objects that aren't shared by the processors,
+ * the methods are called from the processor's thread.
+ */
+public interface AsyncBatchingContext {
+
+    /**
+     * Sends the collected calls, if there are any.
+     */
+    void flush();
+}
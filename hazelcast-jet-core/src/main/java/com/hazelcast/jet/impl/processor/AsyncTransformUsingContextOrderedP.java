@@ -26,6 +26,8 @@ import com.hazelcast.jet.core.ResettableSingletonTraverser;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.function.BiFunctionEx;
+import com.hazelcast.jet.impl.execution.WakeUpHandle;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.pipeline.ContextFactory;
 
 import javax.annotation.Nonnull;
@@ -55,12 +57,14 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
     private final BiFunctionEx<? super C, ? super T, CompletableFuture<Traverser<R>>> callAsyncFn;
 
     private C contextObject;
+    private AsyncBatchingContext batchingContext;
     // on the queue there is either:
     // - tuple2(originalItem, future)
     // - watermark
     private ArrayDeque<Object> queue;
     private Traverser<?> currentTraverser = Traversers.empty();
     private int maxAsyncOps;
+    private WakeUpHandle wakeUpHandle;
     private ResettableSingletonTraverser<Watermark> watermarkTraverser = new ResettableSingletonTraverser<>();
     private boolean tryProcessSucceeded;
 
@@ -94,7 +98,13 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
             assert contextObject == null : "contextObject is not null: " + contextObject;
             contextObject = contextFactory.createFn().apply(context.jetInstance());
         }
+        if (contextObject instanceof AsyncBatchingContext) {
+            batchingContext = (AsyncBatchingContext) contextObject;
+        }
         maxAsyncOps = contextFactory.maxPendingCallsPerProcessor();
+        if (context instanceof ProcCtx) {
+            wakeUpHandle = ((ProcCtx) context).wakeUpHandle();
+        }
         queue = new ArrayDeque<>(maxAsyncOps);
     }
 
@@ -102,6 +112,7 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
         if (queue.size() == maxAsyncOps) {
             // if queue is full, try to emit and apply backpressure
+            flushBatch();
             tryFlushQueue();
             return false;
         }
@@ -110,12 +121,16 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
         CompletableFuture<? extends Traverser<R>> future = callAsyncFn.apply(contextObject, castedItem);
         if (future != null) {
             queue.add(tuple2(castedItem, future));
+            if (wakeUpHandle != null) {
+                future.whenComplete((r, e) -> wakeUpHandle.wakeUp());
+            }
         }
         return true;
     }
 
     @Override
     public boolean tryProcessWatermark(@Nonnull Watermark watermark) {
+        flushBatch();
         tryFlushQueue();
         return queue.size() < maxAsyncOps
                 && !getOutbox().hasUnfinishedItem()
@@ -124,6 +139,7 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
 
     @Override
     public boolean tryProcess() {
+        flushBatch();
         if (tryProcessSucceeded) {
             tryFlushQueue();
         } else {
@@ -135,6 +151,7 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
 
     @Override
     public boolean complete() {
+        flushBatch();
         return tryFlushQueue();
     }
 
@@ -143,6 +160,7 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
         // We're stateless, wait until responses to all async requests are emitted. This is a
         // stop-the-world situation, no new async requests are sent while waiting. If async requests
         // are slow, this might be a major slowdown.
+        flushBatch();
         return tryFlushQueue();
     }
 
@@ -154,6 +172,13 @@ public final class AsyncTransformUsingContextOrderedP<C, T, R> extends AbstractP
             contextFactory.destroyFn().accept(contextObject);
         }
         contextObject = null;
+        batchingContext = null;
+    }
+
+    private void flushBatch() {
+        if (batchingContext != null) {
+            batchingContext.flush();
+        }
     }
 
     /**
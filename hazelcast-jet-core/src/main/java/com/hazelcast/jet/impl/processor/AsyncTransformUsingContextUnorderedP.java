@@ -30,6 +30,8 @@ import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.datamodel.Tuple3;
 import com.hazelcast.jet.function.BiFunctionEx;
 import com.hazelcast.jet.function.FunctionEx;
+import com.hazelcast.jet.impl.execution.WakeUpHandle;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.util.LoggingUtil;
 import com.hazelcast.jet.pipeline.ContextFactory;
 
@@ -79,6 +81,7 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
     private final Function<? super T, ? extends K> extractKeyFn;
 
     private C contextObject;
+    private AsyncBatchingContext batchingContext;
     private ManyToOneConcurrentArrayQueue<Tuple3<T, Long, Object>> resultQueue;
     // TODO we can use more efficient structure: we only remove from the beginning and add to the end
     private final SortedMap<Long, Long> watermarkCounts = new TreeMap<>();
@@ -91,6 +94,7 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
     private long lastEmittedWm = Long.MIN_VALUE;
     private long minRestoredWm = Long.MAX_VALUE;
     private int maxAsyncOps;
+    private WakeUpHandle wakeUpHandle;
     private int asyncOpsCounter;
 
     /** Temporary collection for restored objects during snapshot restore. */
@@ -128,7 +132,13 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
             assert contextObject == null : "contextObject is not null: " + contextObject;
             contextObject = contextFactory.createFn().apply(context.jetInstance());
         }
+        if (contextObject instanceof AsyncBatchingContext) {
+            batchingContext = (AsyncBatchingContext) contextObject;
+        }
         maxAsyncOps = contextFactory.maxPendingCallsPerProcessor();
+        if (context instanceof ProcCtx) {
+            wakeUpHandle = ((ProcCtx) context).wakeUpHandle();
+        }
         resultQueue = new ManyToOneConcurrentArrayQueue<>(maxAsyncOps);
     }
 
@@ -142,6 +152,7 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
         T castedItem = (T) item;
         if (!processItem(castedItem)) {
             // if queue is full, try to emit and apply backpressure
+            flushBatch();
             tryFlushQueue();
             return false;
         }
@@ -161,7 +172,12 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
         watermarkCounts.merge(lastReceivedWm, 1L, Long::sum);
         Long lastWatermarkAtReceiveTime = lastReceivedWm;
         future.whenComplete(withTryCatch(getLogger(),
-                (r, e) -> resultQueue.add(tuple3(item, lastWatermarkAtReceiveTime, r != null ? r : e))));
+                (r, e) -> {
+                    resultQueue.add(tuple3(item, lastWatermarkAtReceiveTime, r != null ? r : e));
+                    if (wakeUpHandle != null) {
+                        wakeUpHandle.wakeUp();
+                    }
+                }));
         inFlightItems.merge(item, 1, Integer::sum);
         return true;
     }
@@ -186,6 +202,7 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
 
     @Override
     public boolean tryProcess() {
+        flushBatch();
         if (tryProcessSucceeded) {
             tryFlushQueue();
         } else {
@@ -197,6 +214,7 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
 
     @Override
     public boolean complete() {
+        flushBatch();
         return tryFlushQueue();
     }
 
@@ -241,6 +259,7 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
         for (T t; (t = restoredObjects.peek()) != null && processItem(t); ) {
             restoredObjects.remove();
         }
+        flushBatch();
         if (restoredObjects.isEmpty()) {
             // finish current object, we can't return true with a half-emitted item
             if (!emitFromTraverser(currentTraverser)) {
@@ -264,6 +283,13 @@ public final class AsyncTransformUsingContextUnorderedP<C, T, K, R> extends Abst
             contextFactory.destroyFn().accept(contextObject);
         }
         contextObject = null;
+        batchingContext = null;
+    }
+
+    private void flushBatch() {
+        if (batchingContext != null) {
+            batchingContext.flush();
+        }
     }
 
     /**
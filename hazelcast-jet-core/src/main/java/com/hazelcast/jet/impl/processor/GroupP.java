@@ -23,11 +23,8 @@ import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.function.FunctionEx;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -39,12 +36,19 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * The accumulators are kept in a {@link KeyedStateStore} chosen by the
+ * job's {@linkplain com.hazelcast.jet.config.JobConfig#setStateBackend
+ * state backend}. If the job {@linkplain
+ * com.hazelcast.jet.config.JobConfig#setMaxKeysInMemory limits the number
+ * of keys in memory}, the accumulators are spilled to disk when the limit
+ * is exceeded.
  */
 public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     @Nonnull private final List<FunctionEx<?, ? extends K>> groupKeyFns;
     @Nonnull private final AggregateOperation<A, R> aggrOp;
 
-    private final Map<K, A> keyToAcc = new HashMap<>();
+    private KeyedStateStore<K, A> keyToAcc;
     private Traverser<OUT> resultTraverser;
     private final BiFunction<? super K, ? super R, OUT> mapToOutputFn;
 
@@ -68,39 +72,50 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
         this(singletonList(groupKeyFn), aggrOp, mapToOutputFn);
     }
 
+    @Override
+    protected void init(@Nonnull Context context) {
+        keyToAcc = KeyedStateStore.create(context, aggrOp.combineFn());
+    }
+
+    @Override
+    protected boolean isBatchProcessing() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void processBatch(int ordinal, @Nonnull Object[] items, int count) {
+        Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
+        BiConsumer<? super A, ? super Object> accumulateFn = aggrOp.<Object>accumulateFn(ordinal);
+        for (int i = 0; i < count; i++) {
+            Object item = items[i];
+            keyToAcc.accumulate(keyFn.apply(item), item, aggrOp.createFn(), accumulateFn);
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
-        A acc = keyToAcc.computeIfAbsent(key, k -> aggrOp.createFn().get());
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        keyToAcc.accumulate(key, item, aggrOp.createFn(), aggrOp.<Object>accumulateFn(ordinal));
         return true;
     }
 
     @Override
     public boolean complete() {
         if (resultTraverser == null) {
-            resultTraverser = new ResultTraverser()
+            resultTraverser = keyToAcc.drain()
                     // reuse null filtering done by map()
                     .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
         }
         return emitFromTraverser(resultTraverser);
     }
 
-    private class ResultTraverser implements Traverser<Entry<K, A>> {
-        private final Iterator<Entry<K, A>> iter = keyToAcc.entrySet().iterator();
-
-        @Override
-        public Entry<K, A> next() {
-            if (!iter.hasNext()) {
-                return null;
-            }
-            try {
-                return iter.next();
-            } finally {
-                iter.remove();
-            }
+    @Override
+    public void close() {
+        if (keyToAcc != null) {
+            keyToAcc.dispose();
         }
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.Traverser;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link KeyedStateStore} keeping the accumulators as plain objects in a
+ * {@code HashMap}.
+ */
+final class HeapKeyedStateStore<K, A> implements KeyedStateStore<K, A> {
+
+    private final Map<K, A> keyToAcc = new HashMap<>();
+
+    @Override
+    public <T> void accumulate(
+            @Nonnull K key,
+            @Nonnull T item,
+            @Nonnull Supplier<? extends A> createFn,
+            @Nonnull BiConsumer<? super A, ? super T> accumulateFn
+    ) {
+        A acc = keyToAcc.computeIfAbsent(key, k -> createFn.get());
+        accumulateFn.accept(acc, item);
+    }
+
+    @Override
+    public int size() {
+        return keyToAcc.size();
+    }
+
+    @Nonnull @Override
+    public Traverser<Entry<K, A>> drain() {
+        Iterator<Entry<K, A>> iter = keyToAcc.entrySet().iterator();
+        return () -> {
+            if (!iter.hasNext()) {
+                return null;
+            }
+            try {
+                return iter.next();
+            } finally {
+                iter.remove();
+            }
+        };
+    }
+
+    @Override
+    public void dispose() {
+        keyToAcc.clear();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.instance.HazelcastInstanceImpl;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.StateBackend;
+import com.hazelcast.jet.core.Processor.Context;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Storage for the per-key accumulators of an aggregating processor. The
+ * implementation is chosen by the job's {@linkplain
+ * com.hazelcast.jet.config.JobConfig#setStateBackend state backend}.
+ *
+ * @param <K> type of the grouping key
+ * @param <A> type of the accumulator
+ */
+interface KeyedStateStore<K, A> {
+
+    /**
+     * Applies the {@code accumulateFn} to the accumulator for the given key
+     * and the given item. If there's no accumulator for the key yet, it's
+     * created using {@code createFn}.
+     */
+    <T> void accumulate(
+            @Nonnull K key,
+            @Nonnull T item,
+            @Nonnull Supplier<? extends A> createFn,
+            @Nonnull BiConsumer<? super A, ? super T> accumulateFn
+    );
+
+    /**
+     * Returns the number of keys held in memory.
+     */
+    int size();
+
+    /**
+     * Returns a traverser over all the entries in the store. Each returned
+     * entry is removed from the store. The store must not be modified
+     * until the traverser is exhausted.
+     */
+    @Nonnull
+    Traverser<Entry<K, A>> drain();
+
+    /**
+     * Releases all the memory held by the store.
+     */
+    void dispose();
+
+    /**
+     * Creates a store for the state backend configured for the job. If the
+     * job has a {@linkplain
+     * com.hazelcast.jet.config.JobConfig#setMaxKeysInMemory limit on the
+     * number of keys in memory} and {@code combineFn} is not null, the
+     * store spills to disk when the limit is exceeded.
+     */
+    @Nonnull
+    static <K, A> KeyedStateStore<K, A> create(
+            @Nonnull Context context,
+            @Nullable BiConsumer<? super A, ? super A> combineFn
+    ) {
+        JobConfig jobConfig = context.jobConfig();
+        InternalSerializationService serializationService = null;
+        if (jobConfig.getStateBackend() == StateBackend.OFF_HEAP || jobConfig.getMaxKeysInMemory() > 0) {
+            HazelcastInstanceImpl hzInstance = (HazelcastInstanceImpl) context.jetInstance().getHazelcastInstance();
+            serializationService = hzInstance.getSerializationService();
+        }
+        KeyedStateStore<K, A> store = jobConfig.getStateBackend() == StateBackend.OFF_HEAP
+                ? new OffHeapKeyedStateStore<>(serializationService)
+                : new HeapKeyedStateStore<>();
+        if (jobConfig.getMaxKeysInMemory() > 0 && combineFn != null) {
+            store = new SpillingKeyedStateStore<>(store, serializationService, combineFn,
+                    jobConfig.getMaxKeysInMemory());
+        }
+        return store;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.nio.serialization.Data;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * {@link KeyedStateStore} keeping the serialized keys and accumulators in
+ * direct byte buffers, outside of the Java heap. Only the hash index is
+ * kept on heap: it's an open-addressing table of record addresses, so the
+ * GC only sees two primitive arrays regardless of the number of keys.
+ * <p>
+ * The records are appended to fixed-size chunks and have this layout:
+ * <pre>
+ *     int keyLength
+ *     int valueCapacity
+ *     int valueLength
+ *     byte[keyLength] key
+ *     byte[valueCapacity] value
+ * </pre>
+ * When an accumulator grows beyond its capacity, the record is re-appended
+ * with a larger capacity and the old copy is abandoned. The memory is
+ * released only when the store is drained or disposed, which fits the
+ * batch aggregation that accumulates everything before emitting anything.
+ */
+final class OffHeapKeyedStateStore<K, A> implements KeyedStateStore<K, A> {
+
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int VALUE_CAPACITY_OFFSET = Integer.BYTES;
+    private static final int VALUE_LENGTH_OFFSET = 2 * Integer.BYTES;
+
+    private final InternalSerializationService serializationService;
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * Record addresses: {@code (chunkIndex + 1) << 32 | offset}, 0 means an
+     * empty slot.
+     */
+    private long[] addresses;
+    private int[] hashes;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    OffHeapKeyedStateStore(@Nonnull InternalSerializationService serializationService) {
+        this(serializationService, DEFAULT_CHUNK_SIZE);
+    }
+
+    OffHeapKeyedStateStore(@Nonnull InternalSerializationService serializationService, int chunkSize) {
+        this.serializationService = serializationService;
+        this.chunkSize = chunkSize;
+        allocateIndex(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public <T> void accumulate(
+            @Nonnull K key,
+            @Nonnull T item,
+            @Nonnull Supplier<? extends A> createFn,
+            @Nonnull BiConsumer<? super A, ? super T> accumulateFn
+    ) {
+        Data keyData = serializationService.toData(key);
+        byte[] keyBytes = keyData.toByteArray();
+        int hash = keyData.hashCode();
+        int slot = findSlot(keyBytes, hash);
+        long address = addresses[slot];
+        A acc = address == 0 ? createFn.get() : readValue(address);
+        accumulateFn.accept(acc, item);
+        byte[] valueBytes = serializationService.toData(acc).toByteArray();
+        if (address == 0) {
+            addresses[slot] = append(keyBytes, valueBytes);
+            hashes[slot] = hash;
+            if (++size > resizeThreshold) {
+                rehash(addresses.length << 1);
+            }
+        } else {
+            addresses[slot] = writeValue(address, keyBytes, valueBytes);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Nonnull @Override
+    public Traverser<Entry<K, A>> drain() {
+        return new Traverser<Entry<K, A>>() {
+            private int slot;
+
+            @Override
+            public Entry<K, A> next() {
+                for (; slot < addresses.length; slot++) {
+                    long address = addresses[slot];
+                    if (address == 0) {
+                        continue;
+                    }
+                    addresses[slot++] = 0;
+                    Entry<K, A> result = entry(readKey(address), readValue(address));
+                    if (--size == 0) {
+                        dispose();
+                    }
+                    return result;
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void dispose() {
+        chunks.clear();
+        size = 0;
+        allocateIndex(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the number of bytes allocated in native memory.
+     */
+    long allocatedBytes() {
+        long result = 0;
+        for (ByteBuffer chunk : chunks) {
+            result += chunk.capacity();
+        }
+        return result;
+    }
+
+    private int findSlot(byte[] keyBytes, int hash) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long address = addresses[slot];
+            if (address == 0 || hashes[slot] == hash && keyEquals(address, keyBytes)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean keyEquals(long address, byte[] keyBytes) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        if (chunk.getInt(offset) != keyBytes.length) {
+            return false;
+        }
+        int keyOffset = offset + HEADER_SIZE;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (chunk.get(keyOffset + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private K readKey(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        byte[] keyBytes = new byte[chunk.getInt(offset)];
+        readBytes(chunk, offset + HEADER_SIZE, keyBytes);
+        return serializationService.toObject(new HeapData(keyBytes));
+    }
+
+    private A readValue(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        int keyLength = chunk.getInt(offset);
+        byte[] valueBytes = new byte[chunk.getInt(offset + VALUE_LENGTH_OFFSET)];
+        readBytes(chunk, offset + HEADER_SIZE + keyLength, valueBytes);
+        return serializationService.toObject(new HeapData(valueBytes));
+    }
+
+    /**
+     * Writes the value to the record at the given address, if it has enough
+     * capacity, otherwise appends a new record. Returns the address of the
+     * record holding the value.
+     */
+    private long writeValue(long address, byte[] keyBytes, byte[] valueBytes) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        if (chunk.getInt(offset + VALUE_CAPACITY_OFFSET) < valueBytes.length) {
+            return append(keyBytes, valueBytes);
+        }
+        chunk.putInt(offset + VALUE_LENGTH_OFFSET, valueBytes.length);
+        writeBytes(chunk, offset + HEADER_SIZE + keyBytes.length, valueBytes);
+        return address;
+    }
+
+    private long append(byte[] keyBytes, byte[] valueBytes) {
+        // leave some room for the accumulator to grow without relocation
+        int valueCapacity = valueBytes.length + (valueBytes.length >> 1);
+        int recordSize = HEADER_SIZE + keyBytes.length + valueCapacity;
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.remaining() < recordSize) {
+            chunk = ByteBuffer.allocateDirect(Math.max(chunkSize, recordSize));
+            chunks.add(chunk);
+        }
+        int offset = chunk.position();
+        chunk.putInt(keyBytes.length)
+             .putInt(valueCapacity)
+             .putInt(valueBytes.length)
+             .put(keyBytes)
+             .put(valueBytes);
+        chunk.position(offset + recordSize);
+        return (long) chunks.size() << 32 | offset;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldAddresses = addresses;
+        int[] oldHashes = hashes;
+        allocateIndex(newCapacity);
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] == 0) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            while (addresses[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            addresses[slot] = oldAddresses[i];
+            hashes[slot] = oldHashes[i];
+        }
+    }
+
+    private void allocateIndex(int capacity) {
+        capacity = nextPowerOfTwo(capacity);
+        addresses = new long[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32) - 1);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private static void readBytes(ByteBuffer chunk, int offset, byte[] dest) {
+        ByteBuffer view = chunk.duplicate();
+        view.position(offset);
+        view.get(dest);
+    }
+
+    private static void writeBytes(ByteBuffer chunk, int offset, byte[] src) {
+        ByteBuffer view = chunk.duplicate();
+        view.position(offset);
+        view.put(src);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.datamodel.Tuple2;
+import com.hazelcast.jet.datamodel.Tuple3;
+import com.hazelcast.jet.function.FunctionEx;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Traversers.traverseIterable;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
+import static com.hazelcast.jet.datamodel.Tuple3.tuple3;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * First-stage processor of a two-stage {@link RollingAggregateP rolling
+ * aggregation}. It accumulates the items locally, per key, and once per
+ * interval emits a {@code Tuple3(key, accumulator, lastItem)} for each key
+ * it received an item for, where {@code lastItem} is the most recent item
+ * folded into the accumulator. The second stage combines the accumulators
+ * and maps the result together with {@code lastItem}, so the output carries
+ * the same metadata, such as the event timestamp, as the single-stage
+ * rolling aggregation.
+ * <p>
+ * The accumulators are also emitted before forwarding a watermark, so that
+ * the watermark doesn't overtake the items they contain.
+ *
+ * @param <T> type of the input item
+ * @param <K> type of the key
+ * @param <A> type of the accumulator
+ */
+public final class RollingAccumulateP<T, K, A> extends AbstractProcessor {
+    private final FunctionEx<? super T, ? extends K> keyFn;
+    private final AggregateOperation1<? super T, A, ?> aggrOp;
+    private final long flushIntervalNanos;
+
+    private final Map<K, Partial<T, A>> keyToPartial = new HashMap<>();
+    private long nextFlushTime;
+    private Tuple3<K, A, T> pendingItem;
+    private Traverser<Entry<K, Tuple2<A, T>>> snapshotTraverser;
+
+    public RollingAccumulateP(
+            @Nonnull FunctionEx<? super T, ? extends K> keyFn,
+            @Nonnull AggregateOperation1<? super T, A, ?> aggrOp,
+            long flushIntervalMillis
+    ) {
+        this.keyFn = keyFn;
+        this.aggrOp = aggrOp;
+        this.flushIntervalNanos = MILLISECONDS.toNanos(flushIntervalMillis);
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        nextFlushTime = nanoTime() + flushIntervalNanos;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        if (!flushIfDue()) {
+            return false;
+        }
+        T t = (T) item;
+        Partial<T, A> partial = keyToPartial.computeIfAbsent(keyFn.apply(t),
+                k -> new Partial<>(aggrOp.createFn().get()));
+        aggrOp.accumulateFn().accept(partial.acc, t);
+        partial.lastItem = t;
+        return true;
+    }
+
+    @Override
+    public boolean tryProcess() {
+        return flushIfDue();
+    }
+
+    @Override
+    public boolean tryProcessWatermark(@Nonnull Watermark watermark) {
+        return flush() && tryEmit(watermark);
+    }
+
+    @Override
+    public boolean complete() {
+        return flush();
+    }
+
+    private boolean flushIfDue() {
+        return pendingItem == null && nanoTime() < nextFlushTime || flush();
+    }
+
+    /**
+     * Emits all the partial accumulators. The entries are removed as they are
+     * emitted, so that a snapshot taken while the flushing is in progress only
+     * contains the accumulators that weren't emitted yet.
+     */
+    private boolean flush() {
+        if (pendingItem != null) {
+            if (!tryEmit(pendingItem)) {
+                return false;
+            }
+            pendingItem = null;
+        }
+        for (Iterator<Entry<K, Partial<T, A>>> it = keyToPartial.entrySet().iterator(); it.hasNext(); ) {
+            Entry<K, Partial<T, A>> e = it.next();
+            it.remove();
+            Tuple3<K, A, T> item = tuple3(e.getKey(), e.getValue().acc, e.getValue().lastItem);
+            if (!tryEmit(item)) {
+                pendingItem = item;
+                return false;
+            }
+        }
+        nextFlushTime = nanoTime() + flushIntervalNanos;
+        return true;
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        if (snapshotTraverser == null) {
+            snapshotTraverser = traverseIterable(keyToPartial.entrySet())
+                    .map(e -> entry(e.getKey(), tuple2(e.getValue().acc, e.getValue().lastItem)));
+            if (pendingItem != null) {
+                snapshotTraverser = snapshotTraverser.prepend(
+                        entry(pendingItem.f0(), tuple2(pendingItem.f1(), pendingItem.f2())));
+            }
+            snapshotTraverser = snapshotTraverser.onFirstNull(() -> snapshotTraverser = null);
+        }
+        return emitFromTraverserToSnapshot(snapshotTraverser);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
+        // the same key can come from several members, we combine them
+        Tuple2<A, T> restored = (Tuple2<A, T>) value;
+        Partial<T, A> partial = keyToPartial.get(key);
+        if (partial == null) {
+            partial = new Partial<>(restored.f0());
+            partial.lastItem = restored.f1();
+            keyToPartial.put((K) key, partial);
+        } else {
+            aggrOp.combineFn().accept(partial.acc, restored.f0());
+        }
+    }
+
+    private static final class Partial<T, A> {
+        final A acc;
+        T lastItem;
+
+        Partial(A acc) {
+            this.acc = acc;
+        }
+    }
+}
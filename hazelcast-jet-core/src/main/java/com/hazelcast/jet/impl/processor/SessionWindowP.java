@@ -24,6 +24,7 @@ import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.BroadcastKey;
+import com.hazelcast.jet.core.TimerService;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
@@ -37,22 +38,16 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
-import java.util.SortedMap;
 import java.util.StringJoiner;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ToLongFunction;
-import java.util.stream.Stream;
 
 import static com.hazelcast.jet.Traversers.traverseIterable;
-import static com.hazelcast.jet.Traversers.traverseStream;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
@@ -62,6 +57,7 @@ import static com.hazelcast.jet.impl.util.Util.lazyIncrement;
 import static com.hazelcast.jet.impl.util.Util.logLateEvent;
 import static com.hazelcast.jet.impl.util.Util.toLocalDateTime;
 import static com.hazelcast.util.Preconditions.checkTrue;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.System.arraycopy;
 import static java.util.Collections.emptyList;
@@ -82,7 +78,7 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
 
     // exposed for testing, to check for memory leaks
     final Map<K, Windows<A>> keyToWindows = new HashMap<>();
-    final SortedMap<Long, Set<K>> deadlineToKeys = new TreeMap<>();
+    TimerService<K> timers;
     long currentWatermark = Long.MIN_VALUE;
 
     private final long sessionTimeout;
@@ -146,6 +142,7 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     @Override
     protected void init(@Nonnull Context context) {
         processingGuarantee = context.processingGuarantee();
+        timers = context.newTimerService();
         lastTimeEarlyResultsEmitted = NANOSECONDS.toMillis(System.nanoTime());
     }
 
@@ -186,8 +183,8 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     @Override
     public boolean tryProcessWatermark(@Nonnull Watermark wm) {
         currentWatermark = wm.timestamp();
-        assert totalWindows.get() == deadlineToKeys.values().stream().mapToInt(Set::size).sum()
-                : "unexpected totalWindows. Expected=" + deadlineToKeys.values().stream().mapToInt(Set::size).sum()
+        assert totalWindows.get() == keyToWindows.values().stream().mapToInt(w -> w.size).sum()
+                : "unexpected totalWindows. Expected=" + keyToWindows.values().stream().mapToInt(w -> w.size).sum()
                 + ", actual=" + totalWindows.get();
         return closedWindowFlatmapper.tryProcess(wm);
     }
@@ -199,39 +196,15 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     private Traverser<Object> traverseClosedWindows(Watermark wm) {
-        SortedMap<Long, Set<K>> windowsToClose = deadlineToKeys.headMap(wm.timestamp());
-
-        Stream<Object> closedWindows = windowsToClose
-                .values().stream()
-                .flatMap(Set::stream)
-                .map(key -> closeWindows(keyToWindows.get(key), key, wm.timestamp()))
-                .flatMap(List::stream);
-        Traverser<Object> result = traverseStream(closedWindows)
-                .onFirstNull(() -> {
-                    lazyAdd(totalWindows, -windowsToClose.values().stream().mapToInt(Set::size).sum());
-                    windowsToClose.clear();
-                });
+        Traverser<Object> result = timers.expiredKeys(wm.timestamp())
+                .flatMap(key -> Traversers.<Object>traverseIterable(
+                        closeWindows(keyToWindows.get(key), key, wm.timestamp())));
         if (wm != COMPLETING_WM) {
             result = result.append(wm);
         }
         return result;
     }
 
-    private void addToDeadlines(K key, long deadline) {
-        if (deadlineToKeys.computeIfAbsent(deadline, x -> new HashSet<>()).add(key)) {
-            lazyIncrement(totalWindows);
-        }
-    }
-
-    private void removeFromDeadlines(K key, long deadline) {
-        Set<K> ks = deadlineToKeys.get(deadline);
-        ks.remove(key);
-        lazyAdd(totalWindows, -1);
-        if (ks.isEmpty()) {
-            deadlineToKeys.remove(deadline);
-        }
-    }
-
     @SuppressWarnings("unchecked")
     @Override
     public boolean saveToSnapshot() {
@@ -273,13 +246,15 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
 
     @Override
     public boolean finishSnapshotRestore() {
-        assert deadlineToKeys.isEmpty();
-        // populate deadlineToKeys
+        assert timers.isEmpty();
+        // schedule a timer for the earliest window of each key
+        long windowCount = 0;
         for (Entry<K, Windows<A>> entry : keyToWindows.entrySet()) {
-            for (long end : entry.getValue().ends) {
-                addToDeadlines(entry.getKey(), end);
-            }
+            Windows<A> w = entry.getValue();
+            timers.schedule(entry.getKey(), w.ends[0]);
+            windowCount += w.size;
         }
+        totalWindows.set(windowCount);
         currentWatermark = minRestoredCurrentWatermark;
         totalKeys.set(keyToWindows.size());
         logFine(getLogger(), "Restored currentWatermark from snapshot to: %s", currentWatermark);
@@ -288,6 +263,8 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
 
     private void addItem(int ordinal, Windows<A> w, K key, long timestamp, Object item) {
         aggrOp.accumulateFn(ordinal).accept(resolveAcc(w, key, timestamp), item);
+        // the windows are sorted and don't overlap, the first one ends first
+        timers.schedule(key, w.ends[0]);
     }
 
     private Traverser<OUT> earlyWindows(K key, Windows<A> w) {
@@ -321,8 +298,10 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
                 results.add(out);
             }
         }
+        lazyAdd(totalWindows, -i);
         if (i != w.size) {
             w.removeHead(i);
+            timers.schedule(key, w.ends[0]);
         } else {
             keyToWindows.remove(key);
             totalKeys.set(keyToWindows.size());
@@ -362,21 +341,17 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
             if (i + 1 == w.size || w.starts[i + 1] >= eventEnd) {
                 // the window `i + 1` doesn't overlap the event interval
                 w.starts[i] = min(w.starts[i], timestamp);
-                if (w.ends[i] < eventEnd) {
-                    removeFromDeadlines(key, w.ends[i]);
-                    w.ends[i] = eventEnd;
-                    addToDeadlines(key, w.ends[i]);
-                }
+                w.ends[i] = max(w.ends[i], eventEnd);
                 return w.accs[i];
             }
             // both `i` and `i + 1` windows overlap the event interval
-            removeFromDeadlines(key, w.ends[i]);
             w.ends[i] = w.ends[i + 1];
             combineFn.accept(w.accs[i], w.accs[i + 1]);
             w.removeWindow(i + 1);
+            lazyAdd(totalWindows, -1);
             return w.accs[i];
         }
-        addToDeadlines(key, eventEnd);
+        lazyIncrement(totalWindows);
         return insertWindow(w, i, timestamp, eventEnd);
     }
 
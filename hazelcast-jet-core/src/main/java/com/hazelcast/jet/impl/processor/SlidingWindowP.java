@@ -17,7 +17,9 @@
 package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.core.PartitionAware;
+import com.hazelcast.instance.HazelcastInstanceImpl;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.Traversers;
@@ -30,8 +32,11 @@ import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.processor.Processors;
 import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.jet.impl.util.Object2ObjectHashMap;
+import com.hazelcast.jet.impl.util.PrimitiveAccumulatorHashMap;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.util.collection.Long2ObjectHashMap;
 import com.hazelcast.util.function.LongFunction;
@@ -39,7 +44,7 @@ import com.hazelcast.util.function.LongFunction;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -48,11 +53,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ToLongFunction;
-import java.util.stream.LongStream;
-import java.util.stream.Stream;
 
 import static com.hazelcast.jet.Traversers.traverseIterable;
-import static com.hazelcast.jet.Traversers.traverseStream;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
@@ -108,6 +110,7 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     // extracted lambdas to reduce GC litter
     private final LongFunction<Map<K, A>> createMapPerTsFunction;
     private final Function<K, A> createAccFunction;
+    private final Function<K, A> createWindowAccFunction;
 
     @Probe
     private final AtomicLong lateEventsDropped = new AtomicLong();
@@ -128,6 +131,11 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     // optimization that avoids a full scan over the entire keyset.
     private long topTs = Long.MIN_VALUE;
 
+    // Serialized snapshot entries of the frames that can no longer change,
+    // reused by the following snapshots. Null if the reuse is disabled.
+    private Long2ObjectHashMap<List<Entry<Data, Data>>> serializedFrames;
+    private InternalSerializationService serializationService;
+
     // values used temporarily during snapshot restore
     private long minRestoredNextWinToEmit = Long.MAX_VALUE;
     private long minRestoredFrameTs = Long.MAX_VALUE;
@@ -163,20 +171,30 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                         .onFirstNull(() -> nextWinToEmit = winPolicy.higherFrameTs(wm.timestamp()))
         );
         this.emptyAcc = aggrOp.createFn().get();
+        // the common accumulators are kept in primitive arrays instead of objects
+        boolean primitiveFrames = PrimitiveAccumulatorHashMap.isSupported(emptyAcc);
         this.createMapPerTsFunction = x -> {
             lazyIncrement(totalFrames);
-            return new HashMap<>();
+            return primitiveFrames
+                    ? new PrimitiveAccumulatorHashMap<>(aggrOp.createFn())
+                    : new Object2ObjectHashMap<>();
         };
         this.createAccFunction = k -> {
             lazyIncrement(totalKeysInFrames);
             return aggrOp.createFn().get();
         };
+        this.createWindowAccFunction = k -> aggrOp.createFn().get();
     }
 
     @Override
     protected void init(@Nonnull Context context) {
         processingGuarantee = context.processingGuarantee();
         lastTimeEarlyResultsEmitted = NANOSECONDS.toMillis(System.nanoTime());
+        if (isLastStage && context.jobConfig().isReuseSerializedClosedFrames()) {
+            HazelcastInstanceImpl hzInstance = (HazelcastInstanceImpl) context.jetInstance().getHazelcastInstance();
+            serializationService = hzInstance.getSerializationService();
+            serializedFrames = new Long2ObjectHashMap<>();
+        }
     }
 
     @Override
@@ -199,13 +217,11 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         lastTimeEarlyResultsEmitted = now;
         slidingWindowBackup = slidingWindow;
         slidingWindow = null;
-        Stream<Long> earlyWinRange = range(
+        earlyWinTraverser = SlidingWindowP.<OUT>traverseRange(
                 rangeStart,
                 topTs + winPolicy.windowSize() - winPolicy.frameSize(),
-                winPolicy.frameSize())
-            .boxed();
-        earlyWinTraverser = traverseStream(earlyWinRange)
-                .flatMap(winEnd -> traverseIterable(computeWindow(winEnd).entrySet())
+                winPolicy.frameSize(),
+                winEnd -> traverseIterable(computeWindow(winEnd).entrySet())
                         .map(e -> mapToOutputFn.apply(
                                 winEnd - winPolicy.windowSize(),
                                 winEnd,
@@ -237,10 +253,15 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return true;
         }
         final K key = keyFns.get(ordinal).apply(item);
-        A acc = tsToKeyToAcc
-                .computeIfAbsent(frameTs, createMapPerTsFunction)
-                .computeIfAbsent(key, createAccFunction);
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        Map<K, A> frame = tsToKeyToAcc.computeIfAbsent(frameTs, createMapPerTsFunction);
+        if (frame instanceof PrimitiveAccumulatorHashMap) {
+            // the accumulator isn't an object in the map, it's updated in place
+            if (((PrimitiveAccumulatorHashMap<K, A>) frame).accumulate(key, item, aggrOp.accumulateFn(ordinal))) {
+                lazyIncrement(totalKeysInFrames);
+            }
+        } else {
+            aggrOp.accumulateFn(ordinal).accept(frame.computeIfAbsent(key, createAccFunction), item);
+        }
         topTs = max(topTs, frameTs);
         return true;
     }
@@ -261,10 +282,12 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return flushBuffers();
         }
         if (snapshotTraverser == null) {
+            if (serializedFrames != null) {
+                // forget the frames evicted since the previous snapshot
+                serializedFrames.keySet().removeIf(ts -> !tsToKeyToAcc.containsKey(ts));
+            }
             snapshotTraverser = traverseIterable(tsToKeyToAcc.entrySet())
-                    .<Entry>flatMap(e -> traverseIterable(e.getValue().entrySet())
-                            .map(e2 -> entry(new SnapshotKey(e.getKey(), e2.getKey()), e2.getValue()))
-                    )
+                    .<Entry>flatMap(e -> frameSnapshotTraverser(e.getKey(), e.getValue()))
                     .append(entry(broadcastKey(Keys.NEXT_WIN_TO_EMIT), nextWinToEmit))
                     .onFirstNull(() -> {
                         logFine(getLogger(), "Saved nextWinToEmit: %s", nextWinToEmit);
@@ -274,6 +297,32 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         return emitFromTraverserToSnapshot(snapshotTraverser);
     }
 
+    /**
+     * Returns the snapshot entries for the given frame. Events for frames
+     * before {@code nextWinToEmit} are dropped as late, so such frames can
+     * no longer change: if the reuse is enabled in the job config, their entries
+     * are serialized once and reused by the following snapshots. The
+     * outbox passes already serialized entries through unchanged, so the
+     * snapshot contents are the same as without the reuse.
+     */
+    private Traverser<? extends Entry> frameSnapshotTraverser(long frameTs, Map<K, A> frame) {
+        if (serializedFrames == null || frameTs >= nextWinToEmit) {
+            return traverseIterable(frame.entrySet())
+                    .map(e -> entry(new SnapshotKey(frameTs, e.getKey()), e.getValue()));
+        }
+        List<Entry<Data, Data>> serializedFrame = serializedFrames.get(frameTs);
+        if (serializedFrame == null) {
+            serializedFrame = new ArrayList<>(frame.size());
+            for (Entry<K, A> e : frame.entrySet()) {
+                serializedFrame.add(entry(
+                        serializationService.toData(new SnapshotKey(frameTs, e.getKey())),
+                        serializationService.toData(e.getValue())));
+            }
+            serializedFrames.put(frameTs, serializedFrame);
+        }
+        return traverseIterable(serializedFrame);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
@@ -356,8 +405,8 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             // wmFlatMapper to initialize nextWinToEmit to the next window
             return Traversers.empty();
         }
-        return traverseStream(range(rangeStart, wm, winPolicy.frameSize()).boxed())
-                .flatMap(winEnd -> traverseIterable(computeWindow(winEnd).entrySet())
+        return traverseRange(rangeStart, wm, winPolicy.frameSize(),
+                winEnd -> traverseIterable(computeWindow(winEnd).entrySet())
                         .map(e -> mapToOutputFn.apply(
                                 winEnd - winPolicy.windowSize(), winEnd,
                                 e.getKey(), aggrOp.finishFn().apply(e.getValue()),
@@ -403,17 +452,14 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     private Map<K, A> recomputeWindow(long frameTs) {
-        Map<K, A> window = new HashMap<>();
+        Map<K, A> window = new Object2ObjectHashMap<>();
         for (long ts = frameTs - winPolicy.windowSize() + winPolicy.frameSize();
              ts <= frameTs;
              ts += winPolicy.frameSize()
         ) {
             assert combineFn != null : "combineFn == null";
-            for (Entry<K, A> entry : tsToKeyToAcc.getOrDefault(ts, emptyMap()).entrySet()) {
-                combineFn.accept(
-                        window.computeIfAbsent(entry.getKey(), k -> aggrOp.createFn().get()),
-                        entry.getValue());
-            }
+            tsToKeyToAcc.getOrDefault(ts, emptyMap()).forEach((key, acc) -> combineFn.accept(
+                    window.computeIfAbsent(key, createWindowAccFunction), acc));
         }
         return window;
     }
@@ -422,13 +468,13 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         if (patchingFrame == null) {
             return;
         }
-        for (Entry<K, A> e : patchingFrame.entrySet()) {
-            slidingWindow.compute(e.getKey(), (k, acc) -> {
-                A result = acc != null ? acc : aggrOp.createFn().get();
-                patchOp.accept(result, e.getValue());
-                return result.equals(emptyAcc) ? null : result;
-            });
-        }
+        patchingFrame.forEach((key, patch) -> {
+            A acc = slidingWindow.computeIfAbsent(key, createWindowAccFunction);
+            patchOp.accept(acc, patch);
+            if (acc.equals(emptyAcc)) {
+                slidingWindow.remove(key);
+            }
+        });
     }
 
     private void completeWindow(long frameTs) {
@@ -469,13 +515,32 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     /**
-     * Returns a stream of {@code long}s:
-     * {@code for (long i = start; i <= end; i += step) yield i;}
+     * Returns a traverser over the items of the traversers returned by
+     * {@code mapFn} for each {@code i} in {@code for (long i = start; i <= end;
+     * i += step)}. Unlike a {@code LongStream}, doesn't box the {@code long}s.
      */
-    private static LongStream range(long start, long end, long step) {
-        return start > end
-                ? LongStream.empty()
-                : LongStream.iterate(start, n -> n + step).limit(1 + (end - start) / step);
+    private static <T> Traverser<T> traverseRange(
+            long start, long end, long step, LongFunction<? extends Traverser<? extends T>> mapFn
+    ) {
+        return new Traverser<T>() {
+            private long remaining = start > end ? 0 : 1 + (end - start) / step;
+            private long nextValue = start;
+            private Traverser<? extends T> current = Traversers.empty();
+
+            @Override
+            public T next() {
+                T item;
+                while ((item = current.next()) == null) {
+                    if (remaining == 0) {
+                        return null;
+                    }
+                    remaining--;
+                    current = mapFn.apply(nextValue);
+                    nextValue += step;
+                }
+                return item;
+            }
+        };
     }
 
     // package-visible for test
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.function.FunctionEx;
+
+import javax.annotation.Nonnull;
+import java.util.Comparator;
+import java.util.function.BiFunction;
+
+/**
+ * Batch processor that groups items by key and computes the supplied
+ * aggregate operation on each group, expecting the input to be sorted by
+ * the grouping key. It keeps only the accumulator of the current key and
+ * emits the result as soon as an item with a different key arrives, so it
+ * uses constant memory and starts emitting before the input is exhausted.
+ * <p>
+ * The processor fails if it detects that the input isn't sorted according
+ * to the supplied comparator.
+ */
+public class SortedGroupP<T, K, A, R, OUT> extends AbstractProcessor {
+    @Nonnull private final FunctionEx<? super T, ? extends K> groupKeyFn;
+    @Nonnull private final Comparator<? super K> keyComparator;
+    @Nonnull private final AggregateOperation1<? super T, A, R> aggrOp;
+    @Nonnull private final BiFunction<? super K, ? super R, OUT> mapToOutputFn;
+
+    private K currentKey;
+    private A currentAcc;
+    private OUT pendingOutput;
+
+    public SortedGroupP(
+            @Nonnull FunctionEx<? super T, ? extends K> groupKeyFn,
+            @Nonnull Comparator<? super K> keyComparator,
+            @Nonnull AggregateOperation1<? super T, A, R> aggrOp,
+            @Nonnull BiFunction<? super K, ? super R, OUT> mapToOutputFn
+    ) {
+        this.groupKeyFn = groupKeyFn;
+        this.keyComparator = keyComparator;
+        this.aggrOp = aggrOp;
+        this.mapToOutputFn = mapToOutputFn;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean tryProcess0(@Nonnull Object item) {
+        if (pendingOutput != null && !tryEmit(pendingOutput)) {
+            return false;
+        }
+        pendingOutput = null;
+        T t = (T) item;
+        K key = groupKeyFn.apply(t);
+        if (currentAcc != null) {
+            int cmp = keyComparator.compare(key, currentKey);
+            if (cmp < 0) {
+                throw new JetException("The input isn't sorted by the grouping key: " + key
+                        + " received after " + currentKey);
+            }
+            if (cmp > 0) {
+                pendingOutput = finishCurrent();
+                if (pendingOutput != null && !tryEmit(pendingOutput)) {
+                    return false;
+                }
+                pendingOutput = null;
+            }
+        }
+        if (currentAcc == null) {
+            currentKey = key;
+            currentAcc = aggrOp.createFn().get();
+        }
+        aggrOp.accumulateFn().accept(currentAcc, t);
+        return true;
+    }
+
+    @Override
+    public boolean complete() {
+        if (pendingOutput == null && currentAcc != null) {
+            pendingOutput = finishCurrent();
+        }
+        if (pendingOutput != null && !tryEmit(pendingOutput)) {
+            return false;
+        }
+        pendingOutput = null;
+        return true;
+    }
+
+    private OUT finishCurrent() {
+        OUT out = mapToOutputFn.apply(currentKey, aggrOp.finishFn().apply(currentAcc));
+        currentKey = null;
+        currentAcc = null;
+        return out;
+    }
+}
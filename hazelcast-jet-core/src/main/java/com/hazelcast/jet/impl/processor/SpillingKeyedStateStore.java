@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.nio.IOUtil;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link KeyedStateStore} that bounds the number of keys kept in memory.
+ * The accumulators are kept in a delegate store until it holds more than
+ * {@code maxKeysInMemory} keys, then they are written to {@value
+ * #PARTITION_COUNT} hash-partitioned files in a temporary directory and
+ * the delegate is emptied. A key can therefore be present in several
+ * spilled runs of its partition.
+ * <p>
+ * When drained, the store spills what's left in memory and then loads the
+ * partitions one by one back into the delegate store, merging the
+ * accumulators of the same key using the {@code combineFn}. This is the same partitioning idea as the grace
+ * hash join: only one partition needs to fit in memory at a time.
+ */
+final class SpillingKeyedStateStore<K, A> implements KeyedStateStore<K, A> {
+
+    static final int PARTITION_COUNT = 16;
+
+    private final KeyedStateStore<K, A> inMemoryStore;
+    private final InternalSerializationService serializationService;
+    private final BiConsumer<? super A, ? super A> combineFn;
+    private final long maxKeysInMemory;
+
+    private Supplier<? extends A> createFn;
+    private File spillDir;
+    private int spillCount;
+
+    SpillingKeyedStateStore(
+            @Nonnull KeyedStateStore<K, A> inMemoryStore,
+            @Nonnull InternalSerializationService serializationService,
+            @Nonnull BiConsumer<? super A, ? super A> combineFn,
+            long maxKeysInMemory
+    ) {
+        this.inMemoryStore = inMemoryStore;
+        this.serializationService = serializationService;
+        this.combineFn = combineFn;
+        this.maxKeysInMemory = maxKeysInMemory;
+    }
+
+    @Override
+    public <T> void accumulate(
+            @Nonnull K key,
+            @Nonnull T item,
+            @Nonnull Supplier<? extends A> createFn,
+            @Nonnull BiConsumer<? super A, ? super T> accumulateFn
+    ) {
+        this.createFn = createFn;
+        inMemoryStore.accumulate(key, item, createFn, accumulateFn);
+        if (inMemoryStore.size() > maxKeysInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * Returns the number of keys held in memory.
+     */
+    @Override
+    public int size() {
+        return inMemoryStore.size();
+    }
+
+    @Nonnull @Override
+    public Traverser<Entry<K, A>> drain() {
+        if (spillDir == null) {
+            return inMemoryStore.drain();
+        }
+        spill();
+        return new Traverser<Entry<K, A>>() {
+            private int partition;
+            private Traverser<Entry<K, A>> partitionTraverser;
+
+            @Override
+            public Entry<K, A> next() {
+                Entry<K, A> e;
+                while (partitionTraverser == null || (e = partitionTraverser.next()) == null) {
+                    if (partition == PARTITION_COUNT) {
+                        dispose();
+                        return null;
+                    }
+                    loadPartition(partition++);
+                    partitionTraverser = inMemoryStore.drain();
+                }
+                return e;
+            }
+        };
+    }
+
+    @Override
+    public void dispose() {
+        inMemoryStore.dispose();
+        if (spillDir != null) {
+            IOUtil.delete(spillDir);
+            spillDir = null;
+        }
+    }
+
+    /**
+     * Returns how many times the in-memory state was written to disk.
+     */
+    int spillCount() {
+        return spillCount;
+    }
+
+    private void spill() {
+        DataOutputStream[] outs = new DataOutputStream[PARTITION_COUNT];
+        try {
+            if (spillDir == null) {
+                spillDir = Files.createTempDirectory("jet-spill-").toFile();
+            }
+            Traverser<Entry<K, A>> traverser = inMemoryStore.drain();
+            for (Entry<K, A> e; (e = traverser.next()) != null; ) {
+                int partition = partition(e.getKey());
+                if (outs[partition] == null) {
+                    outs[partition] = new DataOutputStream(new BufferedOutputStream(
+                            new FileOutputStream(partitionFile(partition), true)));
+                }
+                writeObject(outs[partition], e.getKey());
+                writeObject(outs[partition], e.getValue());
+            }
+            spillCount++;
+        } catch (IOException e) {
+            throw new JetException("Failed to spill the aggregation state to " + spillDir, e);
+        } finally {
+            for (DataOutputStream out : outs) {
+                IOUtil.closeResource(out);
+            }
+        }
+    }
+
+    /**
+     * Loads the spilled runs of the given partition into the in-memory store
+     * and deletes the partition file.
+     */
+    private void loadPartition(int partition) {
+        File file = partitionFile(partition);
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            for (K key; (key = readObject(in)) != null; ) {
+                A acc = readObject(in);
+                inMemoryStore.accumulate(key, acc, createFn, combineFn);
+            }
+        } catch (IOException e) {
+            throw new JetException("Failed to load the spilled aggregation state from " + file, e);
+        }
+        IOUtil.delete(file);
+    }
+
+    private File partitionFile(int partition) {
+        return new File(spillDir, "partition-" + partition);
+    }
+
+    private static int partition(Object key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % PARTITION_COUNT;
+    }
+
+    private void writeObject(DataOutputStream out, Object object) throws IOException {
+        byte[] bytes = serializationService.toData(object).toByteArray();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the next object, returns {@code null} at the end of the file.
+     */
+    private <T> T readObject(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return serializationService.toObject(new HeapData(bytes));
+    }
+}
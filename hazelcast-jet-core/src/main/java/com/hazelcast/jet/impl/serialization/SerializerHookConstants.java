@@ -54,6 +54,7 @@ public final class SerializerHookConstants {
     public static final int JET_EVENT = -324;
     public static final int TIMESTAMPED_ITEM = -325;
     public static final int PRIORITY_QUEUE = -326;
+    public static final int LATENCY_MARKER = -327;
 
 
     // reserved for hadoop module: -380 to -390
@@ -59,6 +59,22 @@ public final class ArrayDequeInbox implements Inbox {
         progTracker.madeProgress();
     }
 
+    @Override
+    public int drainTo(Object[] target) {
+        int size = queue.size();
+        if (size == 0) {
+            return 0;
+        }
+        if (size > target.length) {
+            return Inbox.super.drainTo(target);
+        }
+        // bulk copy out of the deque's backing array, then clear it
+        queue.toArray(target);
+        queue.clear();
+        progTracker.madeProgress();
+        return size;
+    }
+
     /**
      * Retrieves the queue backing this inbox.
      */
@@ -43,4 +43,9 @@ public interface AsyncSnapshotWriter {
     long getTotalPayloadBytes();
     long getTotalKeys();
     long getTotalChunks();
+
+    /**
+     * Releases the local resources held by the writer.
+     */
+    void close();
 }
@@ -34,9 +34,11 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteOrder;
@@ -72,6 +74,11 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     private final AtomicReference<Throwable> firstError = new AtomicReference<>();
     private final AtomicInteger numActiveFlushes = new AtomicInteger();
 
+    // chunks staged on the local disk, null if staging is disabled
+    private SnapshotChunkLog stagingLog;
+    private IMap stagingMap;
+    private final int maxConcurrentPuts;
+
     // stats
     private long totalKeys;
     private long totalChunks;
@@ -128,6 +135,14 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
         this.numConcurrentAsyncOps = jetService.numConcurrentAsyncOps();
 
+        HazelcastProperties jetProperties = new HazelcastProperties(jetService.getConfig().getProperties());
+        if (jetProperties.getBoolean(JetProperties.JET_SNAPSHOT_STAGING_ENABLED)) {
+            String dir = jetProperties.getString(JetProperties.JET_SNAPSHOT_STAGING_DIR);
+            stagingLog = new SnapshotChunkLog(dir.isEmpty() ? null : new File(dir),
+                    SnapshotChunkLog.DEFAULT_SEGMENT_SIZE);
+        }
+        maxConcurrentPuts = jetProperties.getInteger(JetProperties.JET_SNAPSHOT_STAGING_MAX_CONCURRENT_PUTS);
+
         byte[] valueTerminatorWithHeader = nodeEngine.getSerializationService().toData(
                 SnapshotDataValueTerminator.INSTANCE).toByteArray();
         valueTerminator = Arrays.copyOfRange(valueTerminatorWithHeader, HeapData.TYPE_OFFSET,
@@ -223,7 +238,13 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             return false;
         }
 
-        if (!Util.tryIncrement(numConcurrentAsyncOps, 1, JetService.MAX_PARALLEL_ASYNC_OPS)) {
+        if (stagingLog != null) {
+            drainStagingLog();
+            // keep the order: while there are staged chunks, stage the new ones too
+            if (!stagingLog.isEmpty() || !tryAcquirePutPermit()) {
+                return stage(partitionId, dataSupplier);
+            }
+        } else if (!tryAcquirePutPermit()) {
             return false;
         }
         try {
@@ -231,18 +252,82 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             Data data = dataSupplier.get();
             totalPayloadBytes += data.dataSize();
             totalChunks++;
-            ICompletableFuture<Object> future = currentMap.putAsync(
-                    new SnapshotDataKey(partitionKeys[partitionId], currentSnapshotId, vertexName, partitionSequence),
-                    data);
-            partitionSequence += memberCount;
-            future.andThen(callback);
-            numActiveFlushes.incrementAndGet();
+            putAsync(currentMap, nextSnapshotDataKey(partitionId), data);
         } catch (HazelcastInstanceNotActiveException ignored) {
             return false;
         }
         return true;
     }
 
+    private boolean tryAcquirePutPermit() {
+        if (stagingLog != null && numActiveFlushes.get() >= maxConcurrentPuts) {
+            return false;
+        }
+        return Util.tryIncrement(numConcurrentAsyncOps, 1, JetService.MAX_PARALLEL_ASYNC_OPS);
+    }
+
+    private SnapshotDataKey nextSnapshotDataKey(int partitionId) {
+        SnapshotDataKey key =
+                new SnapshotDataKey(partitionKeys[partitionId], currentSnapshotId, vertexName, partitionSequence);
+        partitionSequence += memberCount;
+        return key;
+    }
+
+    private void putAsync(IMap map, Object key, Data data) {
+        ICompletableFuture<Object> future = map.putAsync(key, data);
+        future.andThen(callback);
+        numActiveFlushes.incrementAndGet();
+    }
+
+    /**
+     * Appends the chunk to the staging log. If that's not possible, puts it
+     * to the map directly, even if that exceeds the limit on concurrent
+     * puts: the supplier clears the buffer, so we can't back off.
+     */
+    private boolean stage(int partitionId, Supplier<Data> dataSupplier) {
+        Data data = dataSupplier.get();
+        totalPayloadBytes += data.dataSize();
+        totalChunks++;
+        Data key = nodeEngine.getSerializationService().toData(nextSnapshotDataKey(partitionId));
+        try {
+            if (stagingLog.append(key, data)) {
+                stagingMap = currentMap;
+                return true;
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to stage a snapshot chunk on the local disk, disabling the staging", e);
+            if (stagingLog.isEmpty()) {
+                stagingLog.close();
+                stagingLog = null;
+            }
+        }
+        numConcurrentAsyncOps.incrementAndGet();
+        try {
+            putAsync(currentMap, key, data);
+        } catch (HazelcastInstanceNotActiveException e) {
+            numConcurrentAsyncOps.decrementAndGet();
+            firstError.compareAndSet(null, e);
+        }
+        return true;
+    }
+
+    /**
+     * Puts the staged chunks to the snapshot map, as long as the limit on
+     * concurrent puts allows.
+     */
+    private void drainStagingLog() {
+        while (!stagingLog.isEmpty() && tryAcquirePutPermit()) {
+            Entry<Data, Data> chunk = stagingLog.poll();
+            try {
+                putAsync(stagingMap, chunk.getKey(), chunk.getValue());
+            } catch (HazelcastInstanceNotActiveException e) {
+                numConcurrentAsyncOps.decrementAndGet();
+                firstError.compareAndSet(null, e);
+                return;
+            }
+        }
+    }
+
     private boolean initCurrentMap() {
         if (currentMap == null) {
             String mapName = snapshotContext.currentMapName();
@@ -291,6 +376,12 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
     @Override
     public boolean hasPendingAsyncOps() {
+        if (stagingLog != null) {
+            drainStagingLog();
+            if (!stagingLog.isEmpty()) {
+                return true;
+            }
+        }
         return numActiveFlushes.get() > 0;
     }
 
@@ -301,7 +392,20 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
     @Override
     public boolean isEmpty() {
-        return numActiveFlushes.get() == 0 && Arrays.stream(buffers).allMatch(this::containsOnlyHeader);
+        return numActiveFlushes.get() == 0 && Arrays.stream(buffers).allMatch(this::containsOnlyHeader)
+                && (stagingLog == null || stagingLog.isEmpty());
+    }
+
+    @Override
+    public void close() {
+        if (stagingLog != null) {
+            stagingLog.close();
+        }
+    }
+
+    // for test
+    SnapshotChunkLog stagingLog() {
+        return stagingLog;
     }
 
     int partitionKey(int partitionId) {
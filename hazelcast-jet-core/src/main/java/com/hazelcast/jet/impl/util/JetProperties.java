@@ -52,6 +52,148 @@ public final class JetProperties {
     public static final HazelcastProperty JET_MINIMUM_IDLE_MICROSECONDS
             = new HazelcastProperty("jet.minimum.idle.microseconds", 25, MICROSECONDS);
 
+    /**
+     * Enables work stealing among cooperative worker threads. Tasklets are
+     * assigned to the workers round-robin; if enabled, a worker whose
+     * tasklets haven't made progress for a while will take over a busy
+     * tasklet from a worker that has more than one busy tasklet. A tasklet is
+     * considered busy if it made progress in most of its recent calls.
+     * <p>
+     * Useful with skewed data, where a few tasklets receive most of the
+     * items. If {@link #JET_COOPERATIVE_TASKLET_COLOCATION_ENABLED
+     * co-location} is enabled or {@link #JET_COOPERATIVE_THREAD_AFFINITY_CPUS
+     * CPUs} are set, the processor tasklets keep their worker and only the
+     * other tasklets can be stolen. Disabled by default.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_WORK_STEALING_ENABLED
+            = new HazelcastProperty("jet.cooperative.work.stealing.enabled", false);
+
+    /**
+     * A comma-separated list of CPUs or CPU ranges, for example {@code
+     * 0-7,16-23}, to pin the cooperative worker threads to. The worker
+     * <i>i</i> is pinned to the <i>i</i>-th CPU in the list, wrapping around
+     * if there are more workers than CPUs. The pinning is done by the
+     * {@linkplain #JET_COOPERATIVE_THREAD_AFFINITY_PROVIDER affinity
+     * provider}. If a worker can't be pinned, a warning is logged and it
+     * runs unpinned.
+     * <p>
+     * Combined with {@link #JET_COOPERATIVE_TASKLET_COLOCATION_ENABLED}, list
+     * the CPUs of one socket first to keep the neighbouring workers, and
+     * the processors placed on them, on one socket. Empty by default, which
+     * means the workers aren't pinned.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_THREAD_AFFINITY_CPUS
+            = new HazelcastProperty("jet.cooperative.thread.affinity.cpus", "");
+
+    /**
+     * The class name of the {@link
+     * com.hazelcast.jet.impl.execution.ThreadAffinityProvider} used to pin
+     * the cooperative worker threads to the {@linkplain
+     * #JET_COOPERATIVE_THREAD_AFFINITY_CPUS configured CPUs}. The default
+     * provider uses the {@code taskset} utility and works on Linux only.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_THREAD_AFFINITY_PROVIDER
+            = new HazelcastProperty("jet.cooperative.thread.affinity.provider",
+            "com.hazelcast.jet.impl.execution.TasksetThreadAffinityProvider");
+
+    /**
+     * Places the cooperative tasklets of processors with the same local
+     * index on the same cooperative worker, instead of assigning all
+     * tasklets round-robin. The processors with the same index are connected
+     * by isolated edges and often exchange most of their data, which then
+     * stays in the caches of one core. Other tasklets are still assigned
+     * round-robin.
+     * <p>
+     * Disabled by default.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_TASKLET_COLOCATION_ENABLED
+            = new HazelcastProperty("jet.cooperative.tasklet.colocation.enabled", false);
+
+    /**
+     * Makes the producers of the input of a cooperative tasklet wake up the
+     * worker running the tasklet, if the worker is idle. The producers are
+     * the upstream tasklets offering to a local conveyor, the network
+     * thread receiving a packet of a distributed edge and the completion
+     * callbacks of asynchronous operations of a processor.
+     * <p>
+     * Without it, an idle worker parks for up to {@linkplain
+     * #JET_MINIMUM_IDLE_MICROSECONDS 1 millisecond} before it checks for new
+     * input, which adds to the latency of low-volume streams. The idle
+     * worker still wakes up when the park time elapses, because some
+     * tasklets, like sources, get no signal when they have new work.
+     * <p>
+     * Disabled by default.
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_IDLE_WAKEUP_ENABLED
+            = new HazelcastProperty("jet.cooperative.idle.wakeup.enabled", false);
+
+    /**
+     * The interval in milliseconds at which the source tasklets inject
+     * latency markers into the stream. The markers travel through the DAG
+     * along with the items, but they aren't delivered to the processors.
+     * Each vertex records the time elapsed since the marker was created and
+     * exposes the count, maximum and 50th, 99th and 99.9th percentile of
+     * the latency as metrics, for the vertex and for each of its inbound
+     * edges.
+     * <p>
+     * The markers are created using the wall clock of the source member,
+     * therefore latencies measured on other members include the clock skew.
+     * <p>
+     * The value of 0 disables the markers, that is the default.
+     */
+    public static final HazelcastProperty JET_LATENCY_MARKER_INTERVAL_MILLIS
+            = new HazelcastProperty("jet.latency.marker.interval.millis", 0, MILLISECONDS);
+
+    /**
+     * Enables operator chaining. If a local unicast or isolated edge is the
+     * only output of its source vertex and the only input of its
+     * destination vertex, and both vertices have the same local parallelism
+     * and cooperative processors, the processors on either side of the edge
+     * are executed back-to-back in a single tasklet, instead of being
+     * scheduled separately. Longer sequences of such edges are chained
+     * too. The processor <i>i</i> of the source vertex then sends all items
+     * to the processor <i>i</i> of the destination vertex, directly and
+     * without a concurrent queue.
+     * <p>
+     * Disabled by default.
+     */
+    public static final HazelcastProperty JET_OPERATOR_CHAINING_ENABLED
+            = new HazelcastProperty("jet.operator.chaining.enabled", false);
+
+    /**
+     * Enables staging of snapshot chunks on the local disk. Normally, when
+     * the number of concurrent snapshot map writes reaches its limit, the
+     * processors are blocked until some of the writes complete. If enabled,
+     * the chunks that can't be written immediately are appended to
+     * memory-mapped files in the {@link #JET_SNAPSHOT_STAGING_DIR staging
+     * directory} and written to the snapshot map in the background. The
+     * snapshot still completes only after all its chunks are in the
+     * snapshot map.
+     * <p>
+     * Disabled by default.
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_STAGING_ENABLED
+            = new HazelcastProperty("jet.snapshot.staging.enabled", false);
+
+    /**
+     * The directory for the {@linkplain #JET_SNAPSHOT_STAGING_ENABLED
+     * snapshot staging} files. The default value is empty, which means the
+     * temporary directory given by the {@code java.io.tmpdir} system
+     * property.
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_STAGING_DIR
+            = new HazelcastProperty("jet.snapshot.staging.dir", "");
+
+    /**
+     * The maximum number of concurrent snapshot map writes of each
+     * vertex on a member when {@linkplain #JET_SNAPSHOT_STAGING_ENABLED
+     * snapshot staging} is enabled. The remaining chunks wait in the staging
+     * files. A lower value reduces the interference of snapshots with other
+     * IMap operations, at the cost of longer snapshots.
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_STAGING_MAX_CONCURRENT_PUTS
+            = new HazelcastProperty("jet.snapshot.staging.max.concurrent.puts", 16);
+
     private JetProperties() {
     }
 }
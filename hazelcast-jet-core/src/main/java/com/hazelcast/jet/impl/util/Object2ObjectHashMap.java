@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A hash map with open addressing and linear probing. The keys and values
+ * are stored in two parallel arrays, so, unlike {@link java.util.HashMap},
+ * the map doesn't allocate an entry object for each mapping. Entry objects
+ * are only created temporarily when iterating the {@link #entrySet()};
+ * prefer {@link #forEach} to avoid them.
+ * <p>
+ * A null key is supported, like in {@code HashMap}, null values are not.
+ * Removal through the iterators of the collection views is not supported,
+ * use {@link #remove(Object)}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class Object2ObjectHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int MIN_CAPACITY = 8;
+    private static final double LOAD_FACTOR = 0.6;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    // stored in the keys array in place of the null key
+    private static final Object NULL_KEY = new Object();
+
+    private Object[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    public Object2ObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public Object2ObjectHashMap(int initialCapacity) {
+        allocate(nextPowerOfTwo(Math.max(MIN_CAPACITY, initialCapacity)));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, @Nonnull V value) {
+        requireNonNull(value, "value");
+        Object maskedKey = maskNull(key);
+        int index = slot(maskedKey);
+        for (Object k; (k = keys[index]) != null; index = (index + 1) & mask) {
+            if (k.equals(maskedKey)) {
+                V oldValue = (V) values[index];
+                values[index] = value;
+                return oldValue;
+            }
+        }
+        insertAt(index, maskedKey, value);
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(K key, @Nonnull Function<? super K, ? extends V> mappingFunction) {
+        Object maskedKey = maskNull(key);
+        int index = slot(maskedKey);
+        for (Object k; (k = keys[index]) != null; index = (index + 1) & mask) {
+            if (k.equals(maskedKey)) {
+                return (V) values[index];
+            }
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            insertAt(index, maskedKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V oldValue = (V) values[index];
+        deleteAt(index);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((K) unmaskNull(keys[i]), (V) values[i]);
+            }
+        }
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            @Nonnull
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int slot(Object key) {
+        int hash = key.hashCode() * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int indexOf(Object key) {
+        Object maskedKey = maskNull(key);
+        for (int index = slot(maskedKey); keys[index] != null; index = (index + 1) & mask) {
+            if (keys[index].equals(maskedKey)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static Object unmaskNull(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    private void insertAt(int index, Object key, Object value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Deletes the mapping at the given index and shifts back the following
+     * mappings of the probe sequence, so that no tombstones are needed.
+     */
+    private void deleteAt(int index) {
+        keys[index] = null;
+        values[index] = null;
+        size--;
+        for (int next = (index + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int ideal = slot(keys[next]);
+            // move the mapping if its ideal slot isn't cyclically in (index, next]
+            boolean inRange = index <= next
+                    ? index < ideal && ideal <= next
+                    : index < ideal || ideal <= next;
+            if (!inRange) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                keys[next] = null;
+                values[next] = null;
+                index = next;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int index = slot(key);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int nextIndex = advance(0);
+
+        private int advance(int from) {
+            int i = from;
+            while (i < keys.length && keys[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < keys.length;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MapEntry entry = new MapEntry(nextIndex);
+            nextIndex = advance(nextIndex + 1);
+            return entry;
+        }
+    }
+
+    private final class MapEntry implements Entry<K, V> {
+        private final int index;
+        private final K key;
+        private V value;
+
+        @SuppressWarnings("unchecked")
+        MapEntry(int index) {
+            this.index = index;
+            this.key = (K) unmaskNull(keys[index]);
+            this.value = (V) values[index];
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = requireNonNull(value, "value");
+            values[index] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> that = (Entry<?, ?>) o;
+            return Objects.equals(getKey(), that.getKey()) && getValue().equals(that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
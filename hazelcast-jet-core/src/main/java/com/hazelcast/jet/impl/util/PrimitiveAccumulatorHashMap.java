@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.accumulator.LongLongAccumulator;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static com.hazelcast.util.Preconditions.checkTrue;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A hash map from keys to {@link LongAccumulator}, {@link DoubleAccumulator}
+ * or {@link LongLongAccumulator} accumulators which stores the state of the
+ * accumulators in a {@code long[]} instead of keeping the accumulator
+ * objects. It uses open addressing and linear probing. {@code Long} and
+ * {@code Integer} keys are stored unboxed in a {@code long[]}, other keys,
+ * e.g. {@code String}s, in an {@code Object[]}. The map switches to the
+ * latter as soon as it gets a key of a different class than the first one.
+ * A null key is supported, like in {@code HashMap}.
+ * <p>
+ * Since there are no accumulator objects in the map, {@link #get}, {@link
+ * #put} and the entries copy the state from and to the arrays: changing a
+ * returned accumulator doesn't change the map. Use {@link #accumulate} to
+ * update the state in place. {@link #forEach} passes the same accumulator
+ * instance to every call, the action must not keep it. Removal through the
+ * iterators of the collection views is not supported, use {@link
+ * #remove(Object)}.
+ *
+ * @param <K> the key type
+ * @param <A> the accumulator type
+ */
+public final class PrimitiveAccumulatorHashMap<K, A> extends AbstractMap<K, A> {
+
+    private static final int MIN_CAPACITY = 8;
+    private static final double LOAD_FACTOR = 0.6;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    // the kinds of keys, the map has NO_KEYS until the first key is added
+    private static final int NO_KEYS = 0;
+    private static final int LONG_KEYS = 1;
+    private static final int INT_KEYS = 2;
+    private static final int OBJECT_KEYS = 3;
+
+    private static final AccumulatorType<LongAccumulator> LONG_ACCUMULATOR =
+            new AccumulatorType<LongAccumulator>(1) {
+                @Override
+                LongAccumulator create() {
+                    return new LongAccumulator();
+                }
+
+                @Override
+                void load(long[] values, int base, LongAccumulator acc) {
+                    acc.set(values[base]);
+                }
+
+                @Override
+                void store(LongAccumulator acc, long[] values, int base) {
+                    values[base] = acc.get();
+                }
+            };
+
+    private static final AccumulatorType<DoubleAccumulator> DOUBLE_ACCUMULATOR =
+            new AccumulatorType<DoubleAccumulator>(1) {
+                @Override
+                DoubleAccumulator create() {
+                    return new DoubleAccumulator();
+                }
+
+                @Override
+                void load(long[] values, int base, DoubleAccumulator acc) {
+                    acc.set(Double.longBitsToDouble(values[base]));
+                }
+
+                @Override
+                void store(DoubleAccumulator acc, long[] values, int base) {
+                    values[base] = Double.doubleToRawLongBits(acc.export());
+                }
+            };
+
+    private static final AccumulatorType<LongLongAccumulator> LONG_LONG_ACCUMULATOR =
+            new AccumulatorType<LongLongAccumulator>(2) {
+                @Override
+                LongLongAccumulator create() {
+                    return new LongLongAccumulator();
+                }
+
+                @Override
+                void load(long[] values, int base, LongLongAccumulator acc) {
+                    acc.set1(values[base]);
+                    acc.set2(values[base + 1]);
+                }
+
+                @Override
+                void store(LongLongAccumulator acc, long[] values, int base) {
+                    values[base] = acc.get1();
+                    values[base + 1] = acc.get2();
+                }
+            };
+
+    private final AccumulatorType<A> accType;
+    // the number of longs per accumulator
+    private final int width;
+    // the state of a new accumulator
+    private final long[] initialState;
+    // the accumulator passed to the accumulate function and to forEach
+    private final A flyweight;
+
+    private int keyKind = NO_KEYS;
+    // null if the keys are objects
+    private long[] longKeys;
+    // null unless the keys are objects
+    private Object[] objectKeys;
+    private boolean[] used;
+    private long[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    /**
+     * @param createFn the function creating a new accumulator, it must return
+     *                 a {@linkplain #isSupported supported} accumulator
+     */
+    @SuppressWarnings("unchecked")
+    public PrimitiveAccumulatorHashMap(@Nonnull Supplier<? extends A> createFn) {
+        flyweight = createFn.get();
+        accType = (AccumulatorType<A>) typeOf(flyweight);
+        checkTrue(accType != null, "Unsupported accumulator: " + flyweight.getClass().getName());
+        width = accType.width;
+        initialState = new long[width];
+        accType.store(flyweight, initialState, 0);
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Tells whether the map can store accumulators of the same class as the
+     * given one. Subclasses of the supported accumulators aren't supported.
+     */
+    public static boolean isSupported(@Nonnull Object acc) {
+        return typeOf(acc) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public A get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : copyOf(index);
+    }
+
+    @Override
+    public A put(K key, @Nonnull A value) {
+        requireNonNull(value, "value");
+        int index = indexOf(key);
+        A oldValue = null;
+        if (index < 0) {
+            index = indexOrInsert(key);
+        } else {
+            oldValue = copyOf(index);
+        }
+        accType.store(value, values, index * width);
+        return oldValue;
+    }
+
+    @Override
+    public A remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        A oldValue = copyOf(index);
+        deleteAt(index);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(used, false);
+        if (objectKeys != null) {
+            Arrays.fill(objectKeys, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Applies the accumulate function to the state of the key's accumulator,
+     * adding the key with the state of a new accumulator if it's absent.
+     *
+     * @return {@code true} if the key was added
+     */
+    public <T> boolean accumulate(K key, T item, @Nonnull BiConsumer<? super A, ? super T> accumulateFn) {
+        int oldSize = size;
+        int base = indexOrInsert(key) * width;
+        accType.load(values, base, flyweight);
+        accumulateFn.accept(flyweight, item);
+        accType.store(flyweight, values, base);
+        return size > oldSize;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super A> action) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                accType.load(values, i * width, flyweight);
+                action.accept(keyAt(i), flyweight);
+            }
+        }
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<K, A>> entrySet() {
+        return new AbstractSet<Entry<K, A>>() {
+            @Override
+            @Nonnull
+            public Iterator<Entry<K, A>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static AccumulatorType<?> typeOf(Object acc) {
+        Class<?> clazz = acc.getClass();
+        if (clazz == LongAccumulator.class) {
+            return LONG_ACCUMULATOR;
+        }
+        if (clazz == DoubleAccumulator.class) {
+            return DOUBLE_ACCUMULATOR;
+        }
+        return clazz == LongLongAccumulator.class ? LONG_LONG_ACCUMULATOR : null;
+    }
+
+    private static int kindOf(Object key) {
+        if (key instanceof Long) {
+            return LONG_KEYS;
+        }
+        return key instanceof Integer ? INT_KEYS : OBJECT_KEYS;
+    }
+
+    private int longSlot(long key) {
+        int hash = (int) (key ^ (key >>> 32)) * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int objectSlot(Object key) {
+        int hash = Objects.hashCode(key) * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        return (K) (keyKind == OBJECT_KEYS ? objectKeys[index] : box(keyKind, longKeys[index]));
+    }
+
+    private static Object box(int keyKind, long key) {
+        return keyKind == LONG_KEYS ? (Object) key : (Object) (int) key;
+    }
+
+    private int freeIndex(int slot) {
+        int index = slot;
+        while (used[index]) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private A copyOf(int index) {
+        A acc = accType.create();
+        accType.load(values, index * width, acc);
+        return acc;
+    }
+
+    private int indexOf(Object key) {
+        if (keyKind == OBJECT_KEYS) {
+            for (int index = objectSlot(key); used[index]; index = (index + 1) & mask) {
+                if (Objects.equals(objectKeys[index], key)) {
+                    return index;
+                }
+            }
+        } else if (kindOf(key) == keyKind) {
+            long longKey = ((Number) key).longValue();
+            for (int index = longSlot(longKey); used[index]; index = (index + 1) & mask) {
+                if (longKeys[index] == longKey) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the key, adding it with the state of a new
+     * accumulator if it's absent.
+     */
+    private int indexOrInsert(Object key) {
+        if (keyKind != OBJECT_KEYS && kindOf(key) != keyKind) {
+            // the first key decides the kind, a key of another kind switches to object keys
+            rehash(used.length, keyKind == NO_KEYS ? kindOf(key) : OBJECT_KEYS);
+        }
+        int index;
+        if (keyKind == OBJECT_KEYS) {
+            for (index = objectSlot(key); used[index]; index = (index + 1) & mask) {
+                if (Objects.equals(objectKeys[index], key)) {
+                    return index;
+                }
+            }
+            objectKeys[index] = key;
+        } else {
+            long longKey = ((Number) key).longValue();
+            for (index = longSlot(longKey); used[index]; index = (index + 1) & mask) {
+                if (longKeys[index] == longKey) {
+                    return index;
+                }
+            }
+            longKeys[index] = longKey;
+        }
+        used[index] = true;
+        System.arraycopy(initialState, 0, values, index * width, width);
+        if (++size > resizeThreshold) {
+            rehash(used.length << 1, keyKind);
+            return indexOf(key);
+        }
+        return index;
+    }
+
+    /**
+     * Deletes the mapping at the given index and shifts back the following
+     * mappings of the probe sequence, so that no tombstones are needed.
+     */
+    private void deleteAt(int index) {
+        clearAt(index);
+        size--;
+        for (int next = (index + 1) & mask; used[next]; next = (next + 1) & mask) {
+            int ideal = keyKind == OBJECT_KEYS ? objectSlot(objectKeys[next]) : longSlot(longKeys[next]);
+            // move the mapping if its ideal slot isn't cyclically in (index, next]
+            boolean inRange = index <= next
+                    ? index < ideal && ideal <= next
+                    : index < ideal || ideal <= next;
+            if (!inRange) {
+                used[index] = true;
+                if (keyKind == OBJECT_KEYS) {
+                    objectKeys[index] = objectKeys[next];
+                } else {
+                    longKeys[index] = longKeys[next];
+                }
+                System.arraycopy(values, next * width, values, index * width, width);
+                clearAt(next);
+                index = next;
+            }
+        }
+    }
+
+    private void clearAt(int index) {
+        used[index] = false;
+        if (objectKeys != null) {
+            objectKeys[index] = null;
+        }
+    }
+
+    private void allocate(int capacity) {
+        if (keyKind == OBJECT_KEYS) {
+            objectKeys = new Object[capacity];
+            longKeys = null;
+        } else {
+            longKeys = new long[capacity];
+            objectKeys = null;
+        }
+        used = new boolean[capacity];
+        values = new long[capacity * width];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity, int newKeyKind) {
+        int oldKeyKind = keyKind;
+        long[] oldLongKeys = longKeys;
+        Object[] oldObjectKeys = objectKeys;
+        boolean[] oldUsed = used;
+        long[] oldValues = values;
+        keyKind = newKeyKind;
+        allocate(nextPowerOfTwo(newCapacity));
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (!oldUsed[i]) {
+                continue;
+            }
+            int index;
+            if (keyKind == OBJECT_KEYS) {
+                Object key = oldKeyKind == OBJECT_KEYS ? oldObjectKeys[i] : box(oldKeyKind, oldLongKeys[i]);
+                index = freeIndex(objectSlot(key));
+                objectKeys[index] = key;
+            } else {
+                index = freeIndex(longSlot(oldLongKeys[i]));
+                longKeys[index] = oldLongKeys[i];
+            }
+            used[index] = true;
+            System.arraycopy(oldValues, i * width, values, index * width, width);
+        }
+    }
+
+    private abstract static class AccumulatorType<A> {
+        final int width;
+
+        AccumulatorType(int width) {
+            this.width = width;
+        }
+
+        abstract A create();
+
+        abstract void load(long[] values, int base, A acc);
+
+        abstract void store(A acc, long[] values, int base);
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, A>> {
+        private int nextIndex = advance(0);
+
+        private int advance(int from) {
+            int i = from;
+            while (i < used.length && !used[i]) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < used.length;
+        }
+
+        @Override
+        public Entry<K, A> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, A> entry = new SimpleImmutableEntry<>(keyAt(nextIndex), copyOf(nextIndex));
+            nextIndex = advance(nextIndex + 1);
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.memory.impl.UnsafeUtil;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+/**
+ * A FIFO queue of snapshot chunks backed by memory-mapped segment files on
+ * the local disk. {@link AsyncSnapshotWriterImpl} stages the chunks here
+ * when it can't put them to the snapshot map immediately, and replicates
+ * them to the map later.
+ * <p>
+ * Each record is {@code int keyLength, byte[] key, int valueLength, byte[]
+ * value}. The segments are created on demand and reused once all records
+ * were polled. They are unmapped and deleted when the log is closed. Not
+ * thread-safe.
+ */
+final class SnapshotChunkLog implements Closeable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    // Unsafe.invokeCleaner(ByteBuffer) on JDK 9+, null on JDK 8
+    private static final Method INVOKE_CLEANER = invokeCleanerMethod();
+
+    private final File dir;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final List<File> segmentFiles = new ArrayList<>();
+
+    // the position of each segment is its write position
+    private int writeSegment;
+    private int readSegment;
+    private int readPosition;
+    private int size;
+
+    SnapshotChunkLog(File dir, int segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Appends the chunk to the log. Returns {@code false} if the chunk
+     * doesn't fit into a segment.
+     */
+    boolean append(Data key, Data value) throws IOException {
+        byte[] keyBytes = key.toByteArray();
+        byte[] valueBytes = value.toByteArray();
+        int recordSize = 2 * Integer.BYTES + keyBytes.length + valueBytes.length;
+        if (recordSize > segmentSize) {
+            return false;
+        }
+        if (segments.isEmpty()) {
+            addSegment();
+        }
+        MappedByteBuffer segment = segments.get(writeSegment);
+        if (segment.remaining() < recordSize) {
+            if (++writeSegment == segments.size()) {
+                addSegment();
+            }
+            segment = segments.get(writeSegment);
+        }
+        segment.putInt(keyBytes.length)
+               .put(keyBytes)
+               .putInt(valueBytes.length)
+               .put(valueBytes);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest chunk or returns {@code null}, if the
+     * log is empty.
+     */
+    Entry<Data, Data> poll() {
+        if (size == 0) {
+            return null;
+        }
+        MappedByteBuffer segment = segments.get(readSegment);
+        if (readPosition == segment.position()) {
+            readSegment++;
+            readPosition = 0;
+            segment = segments.get(readSegment);
+        }
+        ByteBuffer view = segment.duplicate();
+        view.position(readPosition);
+        byte[] keyBytes = new byte[view.getInt()];
+        view.get(keyBytes);
+        byte[] valueBytes = new byte[view.getInt()];
+        view.get(valueBytes);
+        readPosition = view.position();
+        if (--size == 0) {
+            rewind();
+        }
+        return entry(new HeapData(keyBytes), new HeapData(valueBytes));
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        for (MappedByteBuffer segment : segments) {
+            unmap(segment);
+        }
+        segments.clear();
+        for (File file : segmentFiles) {
+            IOUtil.delete(file);
+        }
+        segmentFiles.clear();
+        size = 0;
+        writeSegment = readSegment = readPosition = 0;
+    }
+
+    private void rewind() {
+        for (MappedByteBuffer segment : segments) {
+            segment.clear();
+        }
+        writeSegment = readSegment = readPosition = 0;
+    }
+
+    private void addSegment() throws IOException {
+        File file = File.createTempFile("jet-snapshot-", ".segment", dir);
+        segmentFiles.add(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // the mapping stays valid after the channel is closed
+            segments.add(raf.getChannel().map(READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    /**
+     * Releases the mapping of the segment right away instead of waiting for
+     * the buffer to be garbage-collected. Some platforms can't delete a file
+     * that is still mapped. The segment must not be accessed afterwards.
+     */
+    private static void unmap(MappedByteBuffer segment) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UnsafeUtil.UNSAFE, segment);
+            } else {
+                Method cleanerMethod = segment.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(segment);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception ignored) {
+            // the mapping is released when the buffer is garbage-collected
+        }
+    }
+
+    private static Method invokeCleanerMethod() {
+        if (UnsafeUtil.UNSAFE == null) {
+            return null;
+        }
+        try {
+            return UnsafeUtil.UNSAFE.getClass().getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -142,6 +142,46 @@ public interface BatchStage<T> extends GeneralStage<T> {
         return (BatchStage<R>) GeneralStage.super.<K, V, R>mapUsingIMap(iMap, lookupKeyFn, mapFn);
     }
 
+    @Override @Nonnull
+    default <K, V, R> BatchStage<R> mapUsingIMap(
+            @Nonnull String mapName,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStage.super.<K, V, R>mapUsingIMap(mapName, cacheConfig, lookupKeyFn, mapFn);
+    }
+
+    @Override @Nonnull
+    default <K, V, R> BatchStage<R> mapUsingIMap(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStage.super.<K, V, R>mapUsingIMap(iMap, cacheConfig, lookupKeyFn, mapFn);
+    }
+
+    @Nonnull @Override
+    default <K, V, R> BatchStage<R> mapUsingIMapBatched(
+            @Nonnull String mapName,
+            int maxBatchSize,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStage.super.<K, V, R>mapUsingIMapBatched(mapName, maxBatchSize, lookupKeyFn, mapFn);
+    }
+
+    @Nonnull @Override
+    default <K, V, R> BatchStage<R> mapUsingIMapBatched(
+            @Nonnull IMap<K, V> iMap,
+            int maxBatchSize,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStage.super.<K, V, R>mapUsingIMapBatched(iMap, maxBatchSize, lookupKeyFn, mapFn);
+    }
+
     @Nonnull @Override
     <R> BatchStage<R> rollingAggregate(@Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp);
 
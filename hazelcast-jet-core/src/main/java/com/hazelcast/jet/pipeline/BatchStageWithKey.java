@@ -27,6 +27,7 @@ import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.datamodel.Tuple3;
 import com.hazelcast.jet.function.BiFunctionEx;
+import com.hazelcast.jet.function.ComparatorEx;
 import com.hazelcast.jet.function.SupplierEx;
 import com.hazelcast.jet.function.TriFunction;
 import com.hazelcast.jet.function.TriPredicate;
@@ -79,6 +80,58 @@ public interface BatchStageWithKey<T, K> extends GeneralStageWithKey<T, K> {
         return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMap(iMap, mapFn);
     }
 
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMap(
+            @Nonnull String mapName,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMap(mapName, cacheConfig, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMap(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMap(iMap, cacheConfig, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMapBatched(
+            @Nonnull String mapName,
+            int maxBatchSize,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapBatched(mapName, maxBatchSize, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMapBatched(
+            @Nonnull IMap<K, V> iMap,
+            int maxBatchSize,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapBatched(iMap, maxBatchSize, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMapColocated(
+            @Nonnull String mapName,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapColocated(mapName, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMapColocated(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapColocated(iMap, mapFn);
+    }
+
     @Nonnull @Override
     <C, R> BatchStage<R> mapUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
@@ -143,6 +196,59 @@ public interface BatchStageWithKey<T, K> extends GeneralStageWithKey<T, K> {
             @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
     );
 
+    /**
+     * Attaches a stage that performs the given group-and-aggregate operation
+     * on input that is already sorted by the grouping key, for example the
+     * result of a JDBC query with an {@code ORDER BY} clause. It emits the
+     * same key-value pairs as {@link #aggregate}, but it emits the result for
+     * a key as soon as it sees the next key, so it keeps only one accumulator
+     * in memory and starts producing output before the input is exhausted.
+     * <p>
+     * The output of each upstream processor must be sorted according to the
+     * given comparator. The stage merges the sorted outputs of all upstream
+     * processors so that each of its processors observes the keys it's
+     * responsible for in order. While one upstream processor has no items
+     * for a downstream processor, the items from the other upstream
+     * processors are buffered, so skewed keys can still take memory. If it
+     * observes a key that's less than the previous one, the job fails.
+     * <p>
+     * Sample usage:
+     * <pre>{@code
+     * BatchStage<Entry<String, Long>> aggregated = people
+     *         .groupingKey(Person::getLastName)
+     *         .aggregateSorted(ComparatorEx.naturalOrder(), AggregateOperations.counting());
+     * }</pre>
+     *
+     * @see com.hazelcast.jet.aggregate.AggregateOperations AggregateOperations
+     * @param keyComparator the comparator that defines the order of the input
+     * @param aggrOp the aggregate operation to perform
+     * @param <R> type of the aggregation result
+     * @since 3.2
+     */
+    @Nonnull
+    <R> BatchStage<Entry<K, R>> aggregateSorted(
+            @Nonnull ComparatorEx<? super K> keyComparator,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
+    );
+
+    /**
+     * Attaches a stage that performs the given group-and-aggregate operation
+     * on input that is already sorted by the grouping key in its natural
+     * order. The grouping key must be {@link Comparable}. See {@link
+     * #aggregateSorted(ComparatorEx, AggregateOperation1)}.
+     *
+     * @param aggrOp the aggregate operation to perform
+     * @param <R> type of the aggregation result
+     * @since 3.2
+     */
+    @Nonnull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    default <R> BatchStage<Entry<K, R>> aggregateSorted(
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
+    ) {
+        return aggregateSorted((ComparatorEx) ComparatorEx.naturalOrder(), aggrOp);
+    }
+
     /**
      * Attaches a stage that performs the given cogroup-and-aggregate operation
      * over the items from both this stage and {@code stage1} you supply. It
@@ -21,6 +21,9 @@ import com.hazelcast.core.ReplicatedMap;
 import com.hazelcast.jet.IMapJet;
 import com.hazelcast.jet.function.BiFunctionEx;
 import com.hazelcast.jet.function.FunctionEx;
+import com.hazelcast.jet.impl.connector.IMapBatchedLookup;
+import com.hazelcast.jet.impl.connector.IMapColocatedLookup;
+import com.hazelcast.jet.impl.connector.IMapLookupCache;
 
 import javax.annotation.Nonnull;
 
@@ -94,4 +97,39 @@ public final class ContextFactories {
                 .withCreateFn(jet -> jet.<K, V>getMap(mapName))
                 .withLocalSharing();
     }
+
+    /**
+     * Returns a factory that provides a member-wide cache of the lookups in
+     * the map as the context. Used by {@link GeneralStage#mapUsingIMap(String,
+     * LookupCacheConfig, FunctionEx, BiFunctionEx)}.
+     */
+    @Nonnull
+    static <K, V> ContextFactory<IMapLookupCache<K, V>> iMapLookupCacheContext(
+            @Nonnull String mapName, @Nonnull LookupCacheConfig cacheConfig
+    ) {
+        return IMapLookupCache.contextFactory(mapName, cacheConfig);
+    }
+
+    /**
+     * Returns a factory that provides a per-processor object which looks up
+     * the keys in the map in batches as the context. Used by {@link
+     * GeneralStage#mapUsingIMapBatched(String, int, FunctionEx, BiFunctionEx)}.
+     */
+    @Nonnull
+    static <K, V> ContextFactory<IMapBatchedLookup<K, V>> iMapBatchedLookupContext(
+            @Nonnull String mapName, int maxBatchSize
+    ) {
+        return IMapBatchedLookup.contextFactory(mapName, maxBatchSize);
+    }
+
+    /**
+     * Returns a factory that provides a member-wide object which reads the
+     * keys of the locally owned partitions directly from the map's record
+     * store as the context. Used by {@link
+     * GeneralStageWithKey#mapUsingIMapColocated(String, BiFunctionEx)}.
+     */
+    @Nonnull
+    static <K, V> ContextFactory<IMapColocatedLookup<K, V>> iMapColocatedLookupContext(@Nonnull String mapName) {
+        return IMapColocatedLookup.contextFactory(mapName);
+    }
 }
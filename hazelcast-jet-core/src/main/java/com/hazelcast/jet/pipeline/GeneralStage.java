@@ -532,6 +532,143 @@ public interface GeneralStage<T> extends Stage {
         return mapUsingIMap(iMap.getName(), lookupKeyFn, mapFn);
     }
 
+    /**
+     * Attaches a mapping stage where for each item a lookup in the {@code
+     * IMap} with the supplied name is performed through a cache and the
+     * result of the lookup is merged with the item and emitted. Otherwise
+     * it's the same as {@link #mapUsingIMap(String, FunctionEx,
+     * BiFunctionEx)}.
+     * <p>
+     * The cache is shared by the processors of the stage on each member. If
+     * most of the lookups are for a limited set of hot keys, it saves most of
+     * the remote calls. See {@link LookupCacheConfig} for the eviction and
+     * invalidation options. The cache exposes the {@code hits}, {@code
+     * misses}, {@code evictions}, {@code invalidations} and {@code size}
+     * metrics tagged with the map name as {@code lookupCache}.
+     *
+     * @param mapName name of the {@code IMap}
+     * @param cacheConfig the configuration of the cache
+     * @param lookupKeyFn a function which returns the key to look up in the
+     *          map. Must not return null
+     * @param mapFn the mapping function
+     * @param <K> type of the key in the {@code IMap}
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <K, V, R> GeneralStage<R> mapUsingIMap(
+            @Nonnull String mapName,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        GeneralStage<R> res = mapUsingContextAsync(
+                ContextFactories.<K, V>iMapLookupCacheContext(mapName, cacheConfig),
+                (cache, t) -> cache.getAsync(lookupKeyFn.apply(t)).thenApply(e -> mapFn.apply(t, e)));
+        return res.setName("mapUsingIMap");
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the supplied
+     * {@code IMap} is performed through a cache. See {@link
+     * #mapUsingIMap(String, LookupCacheConfig, FunctionEx, BiFunctionEx)}.
+     *
+     * @param iMap the {@code IMap} to lookup from
+     * @param cacheConfig the configuration of the cache
+     * @param lookupKeyFn a function which returns the key to look up in the
+     *          map. Must not return null
+     * @param mapFn the mapping function
+     * @param <K> type of the key in the {@code IMap}
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <K, V, R> GeneralStage<R> mapUsingIMap(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingIMap(iMap.getName(), cacheConfig, lookupKeyFn, mapFn);
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the {@code
+     * IMap} with the supplied name is performed and the result of the lookup
+     * is merged with the item and emitted. Unlike {@link
+     * #mapUsingIMap(String, FunctionEx, BiFunctionEx)}, which sends one
+     * operation for each item, the lookups are done in batches.
+     * <p>
+     * Each processor collects the keys of the items it receives until it
+     * runs out of input or collects {@code maxBatchSize} distinct keys. Then
+     * it looks them up all at once, which sends a single operation to each
+     * member owning some of the keys. Under load this reduces the number of
+     * operations, and the load on the partition threads, by about the size
+     * of the batch. When the input is sparse, the batches are small and the
+     * latency is the same as without batching.
+     * <p>
+     * A processor can have up to 4 full batches in flight. The key class
+     * must implement {@code equals()} and {@code hashCode()}, because the
+     * same key is looked up once per batch.
+     *
+     * @param mapName name of the {@code IMap}
+     * @param maxBatchSize the maximum number of keys looked up in a batch
+     * @param lookupKeyFn a function which returns the key to look up in the
+     *          map. Must not return null
+     * @param mapFn the mapping function
+     * @param <K> type of the key in the {@code IMap}
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <K, V, R> GeneralStage<R> mapUsingIMapBatched(
+            @Nonnull String mapName,
+            int maxBatchSize,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        GeneralStage<R> res = mapUsingContextAsync(
+                ContextFactories.<K, V>iMapBatchedLookupContext(mapName, maxBatchSize),
+                (lookup, t) -> lookup.getAsync(lookupKeyFn.apply(t)).thenApply(e -> mapFn.apply(t, e)));
+        return res.setName("mapUsingIMapBatched");
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the supplied
+     * {@code IMap} is performed in batches. See {@link
+     * #mapUsingIMapBatched(String, int, FunctionEx, BiFunctionEx)}.
+     *
+     * @param iMap the {@code IMap} to lookup from
+     * @param maxBatchSize the maximum number of keys looked up in a batch
+     * @param lookupKeyFn a function which returns the key to look up in the
+     *          map. Must not return null
+     * @param mapFn the mapping function
+     * @param <K> type of the key in the {@code IMap}
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <K, V, R> GeneralStage<R> mapUsingIMapBatched(
+            @Nonnull IMap<K, V> iMap,
+            int maxBatchSize,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingIMapBatched(iMap.getName(), maxBatchSize, lookupKeyFn, mapFn);
+    }
+
     /**
      * Attaches a rolling aggregation stage. As opposed to regular aggregation,
      * this stage emits the current aggregation result after receiving each
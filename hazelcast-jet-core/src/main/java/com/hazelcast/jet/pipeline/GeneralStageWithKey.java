@@ -370,6 +370,162 @@ public interface GeneralStageWithKey<T, K> {
         return mapUsingIMap(iMap.getName(), mapFn);
     }
 
+    /**
+     * Attaches a mapping stage where for each item a lookup in the {@code
+     * IMap} with the supplied name using the grouping key is performed
+     * through a cache. Otherwise it's the same as {@link
+     * #mapUsingIMap(String, BiFunctionEx)}. See {@link
+     * GeneralStage#mapUsingIMap(String, LookupCacheConfig, FunctionEx,
+     * BiFunctionEx)} for the description of the cache.
+     *
+     * @param mapName name of the {@code IMap}
+     * @param cacheConfig the configuration of the cache
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMap(
+            @Nonnull String mapName,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingContextAsync(ContextFactories.<K, V>iMapLookupCacheContext(mapName, cacheConfig),
+                (cache, key, item) -> cache.getAsync(key).thenApply(value -> mapFn.apply(item, value)));
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the supplied
+     * {@code IMap} using the grouping key is performed through a cache. See
+     * {@link #mapUsingIMap(String, LookupCacheConfig, BiFunctionEx)}.
+     *
+     * @param iMap the {@code IMap} to use as the context
+     * @param cacheConfig the configuration of the cache
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMap(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingIMap(iMap.getName(), cacheConfig, mapFn);
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the {@code
+     * IMap} with the supplied name using the grouping key is performed in
+     * batches. Otherwise it's the same as {@link #mapUsingIMap(String,
+     * BiFunctionEx)}. See {@link GeneralStage#mapUsingIMapBatched(String,
+     * int, FunctionEx, BiFunctionEx)} for the description of the batching.
+     *
+     * @param mapName name of the {@code IMap}
+     * @param maxBatchSize the maximum number of keys looked up in a batch
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMapBatched(
+            @Nonnull String mapName,
+            int maxBatchSize,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingContextAsync(ContextFactories.<K, V>iMapBatchedLookupContext(mapName, maxBatchSize),
+                (lookup, key, item) -> lookup.getAsync(key).thenApply(value -> mapFn.apply(item, value)));
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the supplied
+     * {@code IMap} using the grouping key is performed in batches. See
+     * {@link #mapUsingIMapBatched(String, int, BiFunctionEx)}.
+     *
+     * @param iMap the {@code IMap} to use as the context
+     * @param maxBatchSize the maximum number of keys looked up in a batch
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMapBatched(
+            @Nonnull IMap<K, V> iMap,
+            int maxBatchSize,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingIMapBatched(iMap.getName(), maxBatchSize, mapFn);
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the {@code
+     * IMap} with the supplied name using the grouping key is performed on
+     * the member owning the key. Otherwise it's the same as {@link
+     * #mapUsingIMap(String, BiFunctionEx)}.
+     * <p>
+     * Jet routes each item to the member that owns the partition of its
+     * grouping key. If the key's partition is owned locally, the value is
+     * read from the map's partition on the partition thread directly, without
+     * sending an operation through the map proxy. This saves the invocation,
+     * the response handling and the serialization of the value if the map
+     * uses the {@code BINARY} in-memory format. The keys of other partitions
+     * are looked up through the proxy, for example after a partition
+     * migrated while the job runs.
+     * <p>
+     * The lookups are local only if the map uses the default partitioning
+     * strategy, which Jet uses to route the items. If the map has a {@code
+     * MapLoader}, all lookups go through the proxy.
+     *
+     * @param mapName name of the {@code IMap}
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMapColocated(
+            @Nonnull String mapName,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingContextAsync(ContextFactories.<K, V>iMapColocatedLookupContext(mapName),
+                (lookup, key, item) -> lookup.getAsync(key).thenApply(value -> mapFn.apply(item, value)));
+    }
+
+    /**
+     * Attaches a mapping stage where for each item a lookup in the supplied
+     * {@code IMap} using the grouping key is performed on the member owning
+     * the key. See {@link #mapUsingIMapColocated(String, BiFunctionEx)}.
+     *
+     * @param iMap the {@code IMap} to use as the context
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMapColocated(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingIMapColocated(iMap.getName(), mapFn);
+    }
+
     /**
      * Attaches a rolling aggregation stage. As opposed to regular aggregation,
      * this stage emits the current aggregation result after receiving each
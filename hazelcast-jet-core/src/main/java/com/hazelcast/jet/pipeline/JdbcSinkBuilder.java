@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.pipeline;
+
+import com.hazelcast.jet.function.BiConsumerEx;
+import com.hazelcast.jet.function.FunctionEx;
+import com.hazelcast.jet.function.SupplierEx;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import static com.hazelcast.jet.core.processor.SinkProcessors.writeJdbcP;
+import static com.hazelcast.jet.impl.util.Util.checkSerializable;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * See {@link Sinks#jdbcBuilder()}.
+ *
+ * @param <T> type of the items the sink accepts
+ *
+ * @since 3.2
+ */
+public final class JdbcSinkBuilder<T> {
+
+    private static final int DEFAULT_BATCH_LIMIT = 1000;
+    private static final int DEFAULT_CONNECTION_COUNT = 1;
+
+    private String updateQuery;
+    private SupplierEx<? extends Connection> newConnectionFn;
+    private BiConsumerEx<? super PreparedStatement, ? super T> bindFn;
+    private FunctionEx<? super T, ?> keyFn;
+    private int batchLimit = DEFAULT_BATCH_LIMIT;
+    private int connectionCount = DEFAULT_CONNECTION_COUNT;
+
+    /**
+     * Use {@link Sinks#jdbcBuilder()}.
+     */
+    JdbcSinkBuilder() {
+    }
+
+    /**
+     * Sets the parametrized SQL query which inserts or updates an item. To
+     * tolerate the items written again after a job restart, it should be an
+     * <em>insert-or-update</em> statement.
+     */
+    @Nonnull
+    public JdbcSinkBuilder<T> updateQuery(@Nonnull String updateQuery) {
+        this.updateQuery = updateQuery;
+        return this;
+    }
+
+    /**
+     * Sets the JDBC URL of the database. The connections are created using
+     * {@link DriverManager#getConnection(String)}. If {@code connectionFn} is
+     * provided, this parameter is ignored.
+     */
+    @Nonnull
+    public JdbcSinkBuilder<T> connectionURL(@Nonnull String connectionURL) {
+        checkNotNull(connectionURL, "connectionURL");
+        this.newConnectionFn = () -> DriverManager.getConnection(connectionURL);
+        return this;
+    }
+
+    /**
+     * Sets the function which creates the connections to the database. Each
+     * processor creates {@linkplain #connectionCount(int) connectionCount}
+     * connections. Auto-commit will be disabled on them.
+     */
+    @Nonnull
+    public JdbcSinkBuilder<T> connectionFn(@Nonnull SupplierEx<? extends Connection> newConnectionFn) {
+        checkSerializable(newConnectionFn, "newConnectionFn");
+        this.newConnectionFn = newConnectionFn;
+        return this;
+    }
+
+    /**
+     * Sets the function which binds the parameters of the update query for an
+     * item. It should not execute the query, call commit or any other method.
+     */
+    @Nonnull
+    public JdbcSinkBuilder<T> bindFn(@Nonnull BiConsumerEx<? super PreparedStatement, ? super T> bindFn) {
+        checkSerializable(bindFn, "bindFn");
+        this.bindFn = bindFn;
+        return this;
+    }
+
+    /**
+     * Sets the function which returns the key of the row the item updates,
+     * for example its primary key. If set, the items with the same key are
+     * always written through the same {@linkplain #connectionCount(int)
+     * connection}, therefore they are committed in the order the processor
+     * received them. The key must implement {@code hashCode()}.
+     * <p>
+     * Without it, the batches are written through any free connection and
+     * two updates of the same row can be committed in either order if
+     * there is more than one connection.
+     */
+    @Nonnull
+    public JdbcSinkBuilder<T> keyFn(@Nonnull FunctionEx<? super T, ?> keyFn) {
+        checkSerializable(keyFn, "keyFn");
+        this.keyFn = keyFn;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of items written and committed in one batch.
+     * A smaller batch is written if there's no more input and a connection is
+     * free. Default value is {@value #DEFAULT_BATCH_LIMIT}.
+     */
+    @Nonnull
+    public JdbcSinkBuilder<T> batchLimit(int batchLimit) {
+        checkPositive(batchLimit, "batchLimit must be positive");
+        this.batchLimit = batchLimit;
+        return this;
+    }
+
+    /**
+     * Sets the number of connections each processor uses. Each connection
+     * writes and commits one batch at a time on a thread dedicated to it,
+     * so this is the maximum number of batches of a processor in flight. The
+     * processor fills the next batch while they are being committed. Default
+     * value is {@value #DEFAULT_CONNECTION_COUNT}.
+     * <p>
+     * The batches of different connections are committed concurrently and
+     * in no particular order. If an item can update a row updated by an
+     * earlier item, set the {@linkplain #keyFn(FunctionEx) key function}
+     * when using more than one connection, otherwise the older update can
+     * be committed last.
+     */
+    @Nonnull
+    public JdbcSinkBuilder<T> connectionCount(int connectionCount) {
+        checkPositive(connectionCount, "connectionCount must be positive");
+        this.connectionCount = connectionCount;
+        return this;
+    }
+
+    /**
+     * Creates and returns the JDBC {@link Sink} with the supplied parameters.
+     */
+    @Nonnull
+    public Sink<T> build() {
+        checkNotNull(updateQuery, "updateQuery must be set");
+        checkNotNull(newConnectionFn, "connectionURL or connectionFn must be set");
+        checkNotNull(bindFn, "bindFn must be set");
+        return Sinks.fromProcessor("jdbcSink",
+                writeJdbcP(updateQuery, newConnectionFn, bindFn, keyFn, batchLimit, connectionCount));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.pipeline;
+
+import com.hazelcast.jet.function.FunctionEx;
+import com.hazelcast.jet.function.SupplierEx;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+
+import static com.hazelcast.jet.core.processor.SourceProcessors.readJdbcP;
+import static com.hazelcast.jet.impl.util.Util.checkSerializable;
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkTrue;
+
+/**
+ * See {@link Sources#jdbcBuilder()}.
+ *
+ * @since 3.2
+ */
+public final class JdbcSourceBuilder {
+
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private SupplierEx<? extends Connection> newConnectionFn;
+    private String table;
+    private String query;
+    private String partitionColumn;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    /**
+     * Use {@link Sources#jdbcBuilder()}.
+     */
+    JdbcSourceBuilder() {
+    }
+
+    /**
+     * Sets the JDBC URL of the database. The connections are created using
+     * {@link DriverManager#getConnection(String)}. If {@code connectionFn} is
+     * provided, this parameter is ignored.
+     */
+    @Nonnull
+    public JdbcSourceBuilder connectionURL(@Nonnull String connectionURL) {
+        checkNotNull(connectionURL, "connectionURL");
+        this.newConnectionFn = () -> DriverManager.getConnection(connectionURL);
+        return this;
+    }
+
+    /**
+     * Sets the function which creates the connections to the database. Each
+     * processor creates its own connection and closes it when done. One more
+     * connection is created on the job coordinator to query the range of the
+     * partition column.
+     */
+    @Nonnull
+    public JdbcSourceBuilder connectionFn(@Nonnull SupplierEx<? extends Connection> newConnectionFn) {
+        checkSerializable(newConnectionFn, "newConnectionFn");
+        this.newConnectionFn = newConnectionFn;
+        return this;
+    }
+
+    /**
+     * Sets the name of the table to read. Either the table or the {@linkplain
+     * #query(String) query} must be set. The name is used in the SQL
+     * statements as is, quote it if the database requires it.
+     */
+    @Nonnull
+    public JdbcSourceBuilder table(@Nonnull String table) {
+        this.table = table;
+        return this;
+    }
+
+    /**
+     * Sets the query whose results to read. Either the query or the {@linkplain
+     * #table(String) table} must be set. The query is used as a subquery in
+     * the {@code FROM} clause, therefore it must not end with a semicolon and
+     * the database must support such subqueries.
+     */
+    @Nonnull
+    public JdbcSourceBuilder query(@Nonnull String query) {
+        this.query = query;
+        return this;
+    }
+
+    /**
+     * Sets the column used to split the rows among the processors. It must be
+     * a numeric, {@code DATE} or {@code TIMESTAMP} column of the table or of
+     * the query result. Ideally it's indexed and its values are uniformly
+     * distributed, for example an auto-increment primary key.
+     * <p>
+     * When the job starts, the source queries the minimum and maximum of the
+     * column, splits the range into as many sub-ranges of equal width as
+     * there are processors (the total parallelism of the source) and each
+     * processor reads the rows in its own sub-range. The rows with a {@code
+     * NULL} value are read by the first processor.
+     * <p>
+     * If not set, a single processor on a single member reads all the rows.
+     */
+    @Nonnull
+    public JdbcSourceBuilder partitionColumn(@Nonnull String partitionColumn) {
+        this.partitionColumn = partitionColumn;
+        return this;
+    }
+
+    /**
+     * Sets the fetch size hint of the statements, that is the number of rows
+     * the JDBC driver fetches from the database at once. The source reads the
+     * results with a forward-only, read-only result set and disables the
+     * auto-commit of its connections, which is required by some drivers, for
+     * example the PostgreSQL one, to stream the rows instead of loading the
+     * whole result set into memory. Some drivers need more configuration, for
+     * example MySQL needs the {@code useCursorFetch=true} connection property.
+     * <p>
+     * The value of 0 means that the driver's default is used. Default value
+     * is {@value #DEFAULT_FETCH_SIZE}.
+     */
+    @Nonnull
+    public JdbcSourceBuilder fetchSize(int fetchSize) {
+        checkNotNegative(fetchSize, "fetchSize must not be negative");
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Creates and returns the JDBC {@link BatchSource} with the supplied
+     * parameters and the given function to create the output objects.
+     *
+     * @param mapOutputFn the function which creates the output object from
+     *                    the current row of the {@link ResultSet}. It must
+     *                    not move the cursor of the result set.
+     * @param <T> the type of the items the source emits
+     */
+    @Nonnull
+    public <T> BatchSource<T> build(@Nonnull FunctionEx<? super ResultSet, ? extends T> mapOutputFn) {
+        checkNotNull(newConnectionFn, "connectionURL or connectionFn must be set");
+        checkTrue(table == null ^ query == null, "exactly one of table or query must be set");
+        String tableOrSubquery = table != null ? table : '(' + query + ") jet_jdbc_source";
+        return Sources.batchFromProcessor("jdbcSource(" + (table != null ? table : "query") + ')',
+                readJdbcP(newConnectionFn, tableOrSubquery, partitionColumn, fetchSize, mapOutputFn));
+    }
+}
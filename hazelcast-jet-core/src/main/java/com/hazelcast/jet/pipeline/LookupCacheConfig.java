@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.pipeline;
+
+import com.hazelcast.jet.function.BiFunctionEx;
+import com.hazelcast.jet.function.FunctionEx;
+
+import java.io.Serializable;
+
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * Configuration of the cache of the {@code IMap} lookups done by {@link
+ * GeneralStage#mapUsingIMap(String, LookupCacheConfig, FunctionEx,
+ * BiFunctionEx) mapUsingIMap()}. The cache is shared by all the processors
+ * of the stage on a member.
+ *
+ * @since 3.2
+ */
+public class LookupCacheConfig implements Serializable {
+
+    /**
+     * The default maximum number of cached entries.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private static final long serialVersionUID = 1L;
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long timeToLiveMillis;
+    private boolean invalidateOnChange = true;
+
+    /**
+     * Returns the maximum number of cached entries.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of cached entries on a member. When the cache
+     * is full, an entry that wasn't looked up recently is evicted to make room
+     * for a new one. The recency is approximated by sampling a few entries.
+     * The default value is {@value #DEFAULT_MAX_SIZE}.
+     */
+    public LookupCacheConfig setMaxSize(int maxSize) {
+        checkPositive(maxSize, "maxSize must be positive");
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Returns the time to live of the cached entries in milliseconds.
+     */
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a cached entry is looked up
+     * in the map again. The value of 0 means the entries don't expire, that
+     * is the default.
+     */
+    public LookupCacheConfig setTimeToLiveMillis(long timeToLiveMillis) {
+        checkNotNegative(timeToLiveMillis, "timeToLiveMillis must not be negative");
+        this.timeToLiveMillis = timeToLiveMillis;
+        return this;
+    }
+
+    /**
+     * Tells whether the cached entries are invalidated when the map changes.
+     */
+    public boolean isInvalidateOnChange() {
+        return invalidateOnChange;
+    }
+
+    /**
+     * Sets whether the cache registers an entry listener on the map and
+     * invalidates the cached entries when they are added, updated, removed,
+     * evicted or expired in the map. The invalidation is asynchronous, a
+     * lookup done shortly after a change can still return the old value.
+     * <p>
+     * If disabled, the cache doesn't see the changes of the map until the
+     * {@linkplain #setTimeToLiveMillis(long) time to live} of the entry
+     * elapses. Use it if the map doesn't change while the job runs.
+     * Enabled by default.
+     */
+    public LookupCacheConfig setInvalidateOnChange(boolean invalidateOnChange) {
+        this.invalidateOnChange = invalidateOnChange;
+        return this;
+    }
+}
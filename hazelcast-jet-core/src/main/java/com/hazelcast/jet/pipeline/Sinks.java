@@ -943,4 +943,52 @@ public final class Sinks {
     ) {
         return Sinks.jdbc(updateQuery, () -> DriverManager.getConnection(connectionUrl), bindFn);
     }
+
+    /**
+     * Returns a builder object that offers a step-by-step fluent API to build
+     * a JDBC sink which writes larger batches than {@link Sinks#jdbc(String,
+     * SupplierEx, BiConsumerEx)} and overlaps their execution: each processor
+     * writes and commits the batches on several connections using a
+     * dedicated executor, while it fills the next batch. See javadoc on {@link
+     * JdbcSinkBuilder} methods for more details.
+     * <p>
+     * Example:<pre>{@code
+     *     p.drainTo(Sinks.<Person>jdbcBuilder()
+     *             .updateQuery("INSERT INTO person (id, name) VALUES(?, ?) "
+     *                     + "ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name")
+     *             .connectionURL("jdbc:...")
+     *             .bindFn((stmt, item) -> {
+     *                 stmt.setInt(1, item.id);
+     *                 stmt.setString(2, item.name);
+     *             })
+     *             .keyFn(item -> item.id)
+     *             .batchLimit(5000)
+     *             .connectionCount(4)
+     *             .build());
+     * }</pre>
+     * <p>
+     * In case of an {@link SQLException} the processor will automatically try
+     * to reconnect and the job won't fail, except for the {@link
+     * SQLNonTransientException} subclass. The default local parallelism for
+     * this sink is 1.
+     * <p>
+     * No state is saved to snapshot for this sink, but all the items received
+     * before a snapshot barrier are committed before the snapshot completes.
+     * After the job is restarted, the items received after the last snapshot
+     * will be written again, providing an <i>at-least-once</i> guarantee. If
+     * the update query is an idempotent <em>insert-or-update</em> keyed on the
+     * item's identity, the rewritten items overwrite themselves and the
+     * contents of the table is the same as with an <i>exactly-once</i>
+     * guarantee. This only holds if the updates of the same row are
+     * committed in order: with more than one connection, set the {@link
+     * JdbcSinkBuilder#keyFn key function}.
+     *
+     * @param <T> type of the items the sink accepts
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    public static <T> JdbcSinkBuilder<T> jdbcBuilder() {
+        return new JdbcSinkBuilder<>();
+    }
 }
@@ -1273,4 +1273,40 @@ public final class Sources {
         return batchFromProcessor("jdbcSource",
                 SourceProcessors.readJdbcP(connectionURL, query, createOutputFn));
     }
+
+    /**
+     * Returns a builder object that offers a step-by-step fluent API to build
+     * a JDBC {@link BatchSource} which reads a table or the result of a query
+     * in parallel on all members. The rows are split among the processors by
+     * the range of a numeric or date partition column, therefore there's no
+     * need to write the sharding SQL by hand as with {@link #jdbc(SupplierEx,
+     * ToResultSetFunction, FunctionEx)}. See javadoc on {@link
+     * JdbcSourceBuilder} methods for more details.
+     * <p>
+     * Example: <pre>{@code
+     *     p.drawFrom(Sources.jdbcBuilder()
+     *                       .connectionURL(DB_CONNECTION_URL)
+     *                       .table("PERSON")
+     *                       .partitionColumn("ID")
+     *                       .build(resultSet -> new Person(resultSet.getInt(1), resultSet.getString(2))))
+     *      .setLocalParallelism(4)
+     * }</pre>
+     * <p>
+     * If the underlying table is modified while being read, the source may
+     * miss and/or duplicate some entries, because multiple queries for parts
+     * of the data on multiple members will be executed.
+     * <p>
+     * The source does not save any state to snapshot. If the job is restarted,
+     * it will re-emit all entries.
+     * <p>
+     * Any {@code SQLException} will cause the job to fail.
+     * <p>
+     * The default local parallelism for this processor is 1.
+     *
+     * @since 3.2
+     */
+    @Nonnull
+    public static JdbcSourceBuilder jdbcBuilder() {
+        return new JdbcSourceBuilder();
+    }
 }
@@ -149,9 +149,70 @@ public interface StreamStage<T> extends GeneralStage<T> {
         return (StreamStage<R>) GeneralStage.super.<K, V, R>mapUsingIMap(iMap, lookupKeyFn, mapFn);
     }
 
+    @Override @Nonnull
+    default <K, V, R> StreamStage<R> mapUsingIMap(
+            @Nonnull String mapName,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStage.super.<K, V, R>mapUsingIMap(mapName, cacheConfig, lookupKeyFn, mapFn);
+    }
+
+    @Override @Nonnull
+    default <K, V, R> StreamStage<R> mapUsingIMap(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStage.super.<K, V, R>mapUsingIMap(iMap, cacheConfig, lookupKeyFn, mapFn);
+    }
+
+    @Nonnull @Override
+    default <K, V, R> StreamStage<R> mapUsingIMapBatched(
+            @Nonnull String mapName,
+            int maxBatchSize,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStage.super.<K, V, R>mapUsingIMapBatched(mapName, maxBatchSize, lookupKeyFn, mapFn);
+    }
+
+    @Nonnull @Override
+    default <K, V, R> StreamStage<R> mapUsingIMapBatched(
+            @Nonnull IMap<K, V> iMap,
+            int maxBatchSize,
+            @Nonnull FunctionEx<? super T, ? extends K> lookupKeyFn,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStage.super.<K, V, R>mapUsingIMapBatched(iMap, maxBatchSize, lookupKeyFn, mapFn);
+    }
+
     @Nonnull @Override
     <R> StreamStage<R> rollingAggregate(@Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp);
 
+    /**
+     * Attaches a rolling aggregation stage that pre-aggregates the items on
+     * each processor and sends the partial accumulators to the single
+     * processor that holds the global aggregation state once per {@code
+     * preAggregationIntervalMillis}. See {@link
+     * StreamStageWithKey#rollingAggregate(long, AggregateOperation1)} for a
+     * discussion of the output it emits.
+     *
+     * @param preAggregationIntervalMillis the interval at which the partial
+     *      accumulators are sent to the aggregating processor
+     * @param aggrOp the aggregate operation to perform
+     * @param <R> type of the aggregate operation result
+     * @return the newly attached stage
+     * @since 3.2
+     */
+    @Nonnull
+    <R> StreamStage<R> rollingAggregate(
+            long preAggregationIntervalMillis,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
+    );
+
     @Nonnull @Override
     <K, T1_IN, T1, R> StreamStage<R> hashJoin(
             @Nonnull BatchStage<T1_IN> stage1,
@@ -67,6 +67,58 @@ public interface StreamStageWithKey<T, K> extends GeneralStageWithKey<T, K> {
         return (StreamStage<R>) GeneralStageWithKey.super.mapUsingIMap(iMap, mapFn);
     }
 
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMap(
+            @Nonnull String mapName,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMap(mapName, cacheConfig, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMap(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull LookupCacheConfig cacheConfig,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMap(iMap, cacheConfig, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMapBatched(
+            @Nonnull String mapName,
+            int maxBatchSize,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapBatched(mapName, maxBatchSize, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMapBatched(
+            @Nonnull IMap<K, V> iMap,
+            int maxBatchSize,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapBatched(iMap, maxBatchSize, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMapColocated(
+            @Nonnull String mapName,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapColocated(mapName, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMapColocated(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull BiFunctionEx<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapColocated(iMap, mapFn);
+    }
+
     @Nonnull @Override
     <C, R> StreamStage<R> mapUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
@@ -109,6 +161,43 @@ public interface StreamStageWithKey<T, K> extends GeneralStageWithKey<T, K> {
             @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
     );
 
+    /**
+     * Attaches a rolling aggregation stage that pre-aggregates the items
+     * locally before sending them to the member that owns the key. Each
+     * processor accumulates the items it receives per key and, once per
+     * {@code preAggregationIntervalMillis}, sends just the partial
+     * accumulators to the owner, which combines them using the aggregate
+     * operation's {@link AggregateOperation1#combineFn() combineFn}. This
+     * can greatly reduce the network traffic if there are many items per key
+     * in an interval.
+     * <p>
+     * Unlike {@link #rollingAggregate(AggregateOperation1)}, this stage doesn't
+     * emit a result for each item. Instead it emits the current result for a
+     * key each time it receives a partial accumulator for it, that is at most
+     * once per interval from each upstream processor. The emitted result is
+     * therefore up to {@code preAggregationIntervalMillis} stale. The
+     * timestamp of the result is that of the latest item included in the
+     * partial accumulator. The partial accumulators are also sent before a
+     * watermark is forwarded, so the results are never late.
+     * <p>
+     * If the aggregate operation has no {@code combineFn}, this method behaves
+     * like {@link #rollingAggregate(AggregateOperation1)}.
+     * <p>
+     * This stage is fault-tolerant and saves its state to the snapshot.
+     *
+     * @param preAggregationIntervalMillis the interval at which the partial
+     *      accumulators are sent to the owner of the key
+     * @param aggrOp the aggregate operation to perform
+     * @param <R> type of the aggregate operation result
+     * @return the newly attached stage
+     * @since 3.2
+     */
+    @Nonnull
+    <R> StreamStage<Entry<K, R>> rollingAggregate(
+            long preAggregationIntervalMillis,
+            @Nonnull AggregateOperation1<? super T, ?, ? extends R> aggrOp
+    );
+
     @Nonnull @Override
     default <R> StreamStage<R> customTransform(@Nonnull String stageName,
                                                @Nonnull SupplierEx<Processor> procSupplier
@@ -20,6 +20,7 @@ import com.hazelcast.core.Member;
 import com.hazelcast.core.Partition;
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.EdgeConfig;
 import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.DAG;
@@ -74,6 +75,15 @@ public class BackpressureTest extends JetTestSupport {
 
     @Test
     public void testBackpressure() {
+        runBackpressureJob(new EdgeConfig());
+    }
+
+    @Test
+    public void testBackpressure_withCreditFlowControl() {
+        runBackpressureJob(new EdgeConfig().setCreditFlowControlEnabled(true));
+    }
+
+    private void runBackpressureJob(EdgeConfig edgeConfig) {
         DAG dag = new DAG();
 
         final int member1Port = jet1.getCluster().getLocalMember().getAddress().getPort();
@@ -92,7 +102,8 @@ public class BackpressureTest extends JetTestSupport {
         Vertex sink = dag.newVertex("sink", SinkProcessors.writeMapP("counts"));
 
         dag.edge(between(source, hiccup)
-                .distributed().partitioned(wholeItem(), (x, y) -> ptionOwnedByMember2))
+                .distributed().partitioned(wholeItem(), (x, y) -> ptionOwnedByMember2)
+                .setConfig(edgeConfig))
            .edge(between(hiccup, sink));
 
         jet1.newJob(dag).join();
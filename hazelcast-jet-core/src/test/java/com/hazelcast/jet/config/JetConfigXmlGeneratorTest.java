@@ -88,7 +88,11 @@ public class JetConfigXmlGeneratorTest {
         EdgeConfig defaultEdgeConfig = jetConfig.getDefaultEdgeConfig();
         defaultEdgeConfig.setQueueSize(randomInt())
                          .setPacketSizeLimit(randomInt())
-                         .setReceiveWindowMultiplier(randomInt());
+                         .setReceiveWindowMultiplier(randomInt())
+                         .setCompressionEnabled(true)
+                         .setAdaptivePacketSizingEnabled(true)
+                         .setPacketLingerMicros(randomInt())
+                         .setCreditFlowControlEnabled(true);
         String xml = generate(jetConfig);
 
         // Then
@@ -130,6 +134,10 @@ public class JetConfigXmlGeneratorTest {
         assertEquals(expected.getQueueSize(), actual.getQueueSize());
         assertEquals(expected.getPacketSizeLimit(), actual.getPacketSizeLimit());
         assertEquals(expected.getReceiveWindowMultiplier(), actual.getReceiveWindowMultiplier());
+        assertEquals(expected.isCompressionEnabled(), actual.isCompressionEnabled());
+        assertEquals(expected.isAdaptivePacketSizingEnabled(), actual.isAdaptivePacketSizingEnabled());
+        assertEquals(expected.getPacketLingerMicros(), actual.getPacketLingerMicros());
+        assertEquals(expected.isCreditFlowControlEnabled(), actual.isCreditFlowControlEnabled());
     }
 
     private static void assertInstanceConfig(InstanceConfig expected, InstanceConfig actual) {
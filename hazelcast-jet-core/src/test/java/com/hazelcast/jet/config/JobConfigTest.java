@@ -92,6 +92,45 @@ public class JobConfigTest extends JetTestSupport {
         assertEquals(50, config.getSnapshotIntervalMillis());
     }
 
+    @Test
+    public void when_setStateBackend_thenReturnsStateBackend() {
+        // When
+        JobConfig config = new JobConfig();
+        config.setStateBackend(StateBackend.OFF_HEAP);
+
+        // Then
+        assertEquals(StateBackend.OFF_HEAP, config.getStateBackend());
+    }
+
+    @Test
+    public void when_setMaxKeysInMemory_thenReturnsMaxKeysInMemory() {
+        // When
+        JobConfig config = new JobConfig();
+        config.setMaxKeysInMemory(1_000_000);
+
+        // Then
+        assertEquals(1_000_000, config.getMaxKeysInMemory());
+    }
+
+    @Test
+    public void when_setNegativeMaxKeysInMemory_thenThrows() {
+        // Then
+        exception.expect(IllegalArgumentException.class);
+
+        // When
+        new JobConfig().setMaxKeysInMemory(-1);
+    }
+
+    @Test
+    public void when_enableReuseSerializedClosedFrames_thenReturnsEnabled() {
+        // When
+        JobConfig config = new JobConfig();
+        config.setReuseSerializedClosedFrames(true);
+
+        // Then
+        assertTrue(config.isReuseSerializedClosedFrames());
+    }
+
     @Test
     public void when_addClass_thenReturnsResourceConfig() {
         // When
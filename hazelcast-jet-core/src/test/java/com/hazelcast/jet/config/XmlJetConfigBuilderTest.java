@@ -111,6 +111,10 @@ public class XmlJetConfigBuilderTest extends AbstractJetConfigBuilderTest {
                 "       <queue-size>111</queue-size>\n" +
                 "       <packet-size-limit>222</packet-size-limit>\n" +
                 "       <receive-window-multiplier>333</receive-window-multiplier>\n" +
+                "       <compression-enabled>true</compression-enabled>\n" +
+                "       <adaptive-packet-sizing-enabled>true</adaptive-packet-sizing-enabled>\n" +
+                "       <packet-linger-micros>444</packet-linger-micros>\n" +
+                "       <credit-flow-control-enabled>true</credit-flow-control-enabled>\n" +
                 "    </edge-defaults>\n" +
                 JET_END_TAG;
 
@@ -122,6 +126,10 @@ public class XmlJetConfigBuilderTest extends AbstractJetConfigBuilderTest {
         assertEquals("queueSize", 111, edgeConfig.getQueueSize());
         assertEquals("packetSizeLimit", 222, edgeConfig.getPacketSizeLimit());
         assertEquals("receiveWindowMultiplier", 333, edgeConfig.getReceiveWindowMultiplier());
+        assertTrue("compressionEnabled", edgeConfig.isCompressionEnabled());
+        assertTrue("adaptivePacketSizingEnabled", edgeConfig.isAdaptivePacketSizingEnabled());
+        assertEquals("packetLingerMicros", 444, edgeConfig.getPacketLingerMicros());
+        assertTrue("creditFlowControlEnabled", edgeConfig.isCreditFlowControlEnabled());
     }
 
     @Test
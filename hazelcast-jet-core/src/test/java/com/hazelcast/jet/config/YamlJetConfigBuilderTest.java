@@ -119,7 +119,11 @@ public class YamlJetConfigBuilderTest extends AbstractJetConfigBuilderTest {
                 + "  edge-defaults:\n"
                 + "    queue-size: 999\n"
                 + "    packet-size-limit: 997\n"
-                + "    receive-window-multiplier: 996\n";
+                + "    receive-window-multiplier: 996\n"
+                + "    compression-enabled: true\n"
+                + "    adaptive-packet-sizing-enabled: true\n"
+                + "    packet-linger-micros: 995\n"
+                + "    credit-flow-control-enabled: true\n";
 
         //When
         JetConfig jetConfig = buildConfig(yaml);
@@ -129,6 +133,10 @@ public class YamlJetConfigBuilderTest extends AbstractJetConfigBuilderTest {
         assertEquals("queueSize", 999, edgeConfig.getQueueSize());
         assertEquals("packetSizeLimit", 997, edgeConfig.getPacketSizeLimit());
         assertEquals("receiveWindowMultiplier", 996, edgeConfig.getReceiveWindowMultiplier());
+        assertTrue("compressionEnabled", edgeConfig.isCompressionEnabled());
+        assertTrue("adaptivePacketSizingEnabled", edgeConfig.isAdaptivePacketSizingEnabled());
+        assertEquals("packetLingerMicros", 995, edgeConfig.getPacketLingerMicros());
+        assertTrue("creditFlowControlEnabled", edgeConfig.isCreditFlowControlEnabled());
     }
 
 
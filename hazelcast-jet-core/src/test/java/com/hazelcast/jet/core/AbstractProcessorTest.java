@@ -32,7 +32,9 @@ import org.mockito.Mockito;
 
 import javax.annotation.Nonnull;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Queue;
 
 import static java.util.stream.IntStream.range;
@@ -351,6 +353,22 @@ public class AbstractProcessorTest {
         validateReceptionAtOrdinals(output, ALL_ORDINALS);
     }
 
+    @Test
+    public void when_batchProcessing_then_itemsReceivedInArray() {
+        // Given
+        BatchingP batchingP = new BatchingP();
+        inbox.add(1);
+        inbox.add(2);
+        inbox.add(3);
+
+        // When
+        batchingP.process(ORDINAL_2, inbox);
+
+        // Then
+        assertTrue(inbox.isEmpty());
+        assertEquals(Arrays.asList(ORDINAL_2, 1, 2, 3), batchingP.received);
+    }
+
     private void validateReceptionAtOrdinals(Object item, int... ordinals) {
         for (int i = 0; i < OUTBOX_BUCKET_COUNT; i++) {
             Queue<Object> q = outbox.queue(i);
@@ -425,4 +443,19 @@ public class AbstractProcessorTest {
 
     private static class NothingOverriddenP extends AbstractProcessor {
     }
+
+    private static class BatchingP extends AbstractProcessor {
+        final List<Object> received = new ArrayList<>();
+
+        @Override
+        protected boolean isBatchProcessing() {
+            return true;
+        }
+
+        @Override
+        protected void processBatch(int ordinal, @Nonnull Object[] items, int count) {
+            received.add(ordinal);
+            received.addAll(Arrays.asList(items).subList(0, count));
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.core;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Util;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
@@ -37,6 +38,7 @@ import static com.hazelcast.jet.Traversers.traverseItems;
 import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.core.processor.Processors.aggregateByKeyP;
+import static com.hazelcast.jet.core.processor.Processors.aggregateSortedByKeyP;
 import static com.hazelcast.jet.core.processor.Processors.combineByKeyP;
 import static com.hazelcast.jet.core.processor.Processors.combineP;
 import static com.hazelcast.jet.core.processor.Processors.filterP;
@@ -48,6 +50,7 @@ import static com.hazelcast.jet.core.processor.Processors.mapP;
 import static com.hazelcast.jet.core.processor.Processors.mapUsingContextAsyncP;
 import static com.hazelcast.jet.core.processor.Processors.mapUsingContextP;
 import static com.hazelcast.jet.core.processor.Processors.noopP;
+import static com.hazelcast.jet.function.ComparatorEx.naturalOrder;
 import static com.hazelcast.test.HazelcastTestSupport.sleepMillis;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -220,6 +223,30 @@ public class ProcessorsTest {
                 ));
     }
 
+    @Test
+    public void aggregateSortedByKey() {
+        FunctionEx<Object, String> keyFn = Object::toString;
+        TestSupport
+                .verifyProcessor(aggregateSortedByKeyP(keyFn, naturalOrder(), aggregateToListAndString(), Util::entry))
+                .disableSnapshots()
+                .input(asList(1, 1, 2, 3, 3))
+                .expectOutput(asList(
+                        entry("1", "[1, 1]"),
+                        entry("2", "[2]"),
+                        entry("3", "[3, 3]")
+                ));
+    }
+
+    @Test(expected = JetException.class)
+    public void when_aggregateSortedByKeyWithUnsortedInput_then_fail() {
+        FunctionEx<Object, String> keyFn = Object::toString;
+        TestSupport
+                .verifyProcessor(aggregateSortedByKeyP(keyFn, naturalOrder(), aggregateToListAndString(), Util::entry))
+                .disableSnapshots()
+                .input(asList(2, 1))
+                .expectOutput(emptyList());
+    }
+
     @Test
     public void accumulateByKey() {
         FunctionEx<Object, String> keyFn = Object::toString;
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class TimerServiceTest {
+    private final TimerService<String> timers = new TimerService<>();
+
+    @Test
+    public void when_noTimers_thenNothingExpires() {
+        assertTrue(timers.isEmpty());
+        assertEquals(Long.MAX_VALUE, timers.nextTime());
+        assertNull(timers.expiredKeys(Long.MAX_VALUE).next());
+    }
+
+    @Test
+    public void when_watermarkAdvances_thenKeysExpireInTimeOrder() {
+        // Given
+        timers.schedule("c", 30);
+        timers.schedule("a", 10);
+        timers.schedule("b", 20);
+
+        // When
+        List<String> expired = drain(timers.expiredKeys(30));
+
+        // Then
+        assertEquals(asList("a", "b"), expired);
+        assertEquals(1, timers.size());
+        assertEquals(30, timers.nextTime());
+    }
+
+    @Test
+    public void when_rescheduled_thenTimerMoved() {
+        // Given
+        timers.schedule("a", 10);
+        timers.schedule("b", 20);
+
+        // When
+        timers.schedule("a", 30);
+
+        // Then
+        assertEquals(2, timers.size());
+        assertEquals(asList("b", "a"), drain(timers.expiredKeys(Long.MAX_VALUE)));
+        assertTrue(timers.isEmpty());
+    }
+
+    @Test
+    public void when_cancelled_thenDoesNotExpire() {
+        // Given
+        timers.schedule("a", 10);
+        timers.schedule("b", 20);
+
+        // When
+        boolean cancelled = timers.cancel("a");
+
+        // Then
+        assertTrue(cancelled);
+        assertFalse(timers.cancel("a"));
+        assertEquals(asList("b"), drain(timers.expiredKeys(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void when_traversalInterrupted_thenResumable() {
+        // Given
+        timers.schedule("a", 10);
+        timers.schedule("b", 20);
+        Traverser<String> expired = timers.expiredKeys(100);
+
+        // When
+        assertEquals("a", expired.next());
+        timers.schedule("a", 200);
+
+        // Then
+        assertEquals("b", expired.next());
+        assertNull(expired.next());
+        assertEquals(1, timers.size());
+    }
+
+    @Test
+    public void when_manyRandomTimers_thenExpireInOrder() {
+        // Given
+        TimerService<Integer> manyTimers = new TimerService<>();
+        Random random = new Random(42);
+        long[] times = new long[1000];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = random.nextInt(10_000);
+            manyTimers.schedule(i, times[i]);
+        }
+        for (int i = 0; i < times.length; i += 3) {
+            times[i] = random.nextInt(10_000);
+            manyTimers.schedule(i, times[i]);
+        }
+        for (int i = 1; i < times.length; i += 7) {
+            manyTimers.cancel(i);
+            times[i] = Long.MAX_VALUE;
+        }
+
+        // When
+        List<Integer> expired = drain(manyTimers.expiredKeys(Long.MAX_VALUE));
+
+        // Then
+        assertTrue(manyTimers.isEmpty());
+        long lastTime = Long.MIN_VALUE;
+        for (Integer key : expired) {
+            assertTrue(times[key] >= lastTime);
+            lastTime = times[key];
+        }
+        assertEquals(times.length - (times.length + 5) / 7, expired.size());
+    }
+
+    private static <T> List<T> drain(Traverser<T> traverser) {
+        List<T> result = new ArrayList<>();
+        for (T t; (t = traverser.next()) != null; ) {
+            result.add(t);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class IMapBatchedLookupTest extends JetTestSupport {
+
+    private IMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        JetInstance instance = createJetMember();
+        map = instance.getMap(randomMapName());
+    }
+
+    @Test
+    public void when_notFlushed_then_notCompleted() {
+        map.put(1, "a");
+        IMapBatchedLookup<Integer, String> lookup = new IMapBatchedLookup<>(map, 10);
+
+        CompletableFuture<String> future = lookup.getAsync(1);
+
+        sleepMillis(100);
+        assertFalse(future.isDone());
+        assertEquals(1, lookup.batchSize());
+    }
+
+    @Test
+    public void when_flushed_then_completedWithValues() throws Exception {
+        map.put(1, "a");
+        map.put(2, "b");
+        IMapBatchedLookup<Integer, String> lookup = new IMapBatchedLookup<>(map, 10);
+
+        CompletableFuture<String> future1 = lookup.getAsync(1);
+        CompletableFuture<String> future2 = lookup.getAsync(2);
+        CompletableFuture<String> future3 = lookup.getAsync(3);
+        lookup.flush();
+
+        assertEquals("a", future1.get());
+        assertEquals("b", future2.get());
+        assertNull(future3.get());
+        assertEquals(0, lookup.batchSize());
+    }
+
+    @Test
+    public void when_sameKeyInBatch_then_sameFuture() throws Exception {
+        map.put(1, "a");
+        IMapBatchedLookup<Integer, String> lookup = new IMapBatchedLookup<>(map, 10);
+
+        CompletableFuture<String> future1 = lookup.getAsync(1);
+        CompletableFuture<String> future2 = lookup.getAsync(1);
+        lookup.flush();
+
+        assertSame(future1, future2);
+        assertEquals("a", future2.get());
+    }
+
+    @Test
+    public void when_batchFull_then_sentWithoutFlush() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            map.put(i, "v" + i);
+        }
+        IMapBatchedLookup<Integer, String> lookup = new IMapBatchedLookup<>(map, 3);
+
+        CompletableFuture<String> future0 = lookup.getAsync(0);
+        lookup.getAsync(1);
+        CompletableFuture<String> future2 = lookup.getAsync(2);
+
+        assertEquals(0, lookup.batchSize());
+        assertEquals("v0", future0.get());
+        assertEquals("v2", future2.get());
+    }
+}
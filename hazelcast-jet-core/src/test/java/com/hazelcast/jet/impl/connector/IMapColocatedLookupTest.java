@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapLoader;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class IMapColocatedLookupTest extends JetTestSupport {
+
+    @Test
+    public void when_singleMember_then_allReadsLocal() throws Exception {
+        JetInstance instance = createJetMember();
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        IMapColocatedLookup<Integer, String> lookup = createLookup(instance, map.getName());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("v" + i, lookup.getAsync(i).get());
+        }
+        assertNull(lookup.getAsync(100).get());
+
+        assertEquals(101, lookup.localReads());
+        assertEquals(0, lookup.remoteReads());
+    }
+
+    @Test
+    public void when_localRead_then_callbacksNotOnPartitionThread() throws Exception {
+        JetInstance instance = createJetMember();
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+        map.put(1, "a");
+        IMapColocatedLookup<Integer, String> lookup = createLookup(instance, map.getName());
+
+        String threadName = lookup.getAsync(1).thenApply(v -> Thread.currentThread().getName()).get();
+
+        assertFalse(threadName, threadName.contains("partition-operation"));
+        assertEquals(1, lookup.localReads());
+    }
+
+    @Test
+    public void when_twoMembers_then_remoteKeysReadThroughProxy() throws Exception {
+        JetInstance[] instances = createJetMembers(new JetConfig(), 2);
+        IMap<Integer, String> map = instances[0].getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        IMapColocatedLookup<Integer, String> lookup = createLookup(instances[0], map.getName());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("v" + i, lookup.getAsync(i).get());
+        }
+
+        assertEquals(100, lookup.localReads() + lookup.remoteReads());
+        assertTrue("localReads=" + lookup.localReads(), lookup.localReads() > 0);
+        assertTrue("remoteReads=" + lookup.remoteReads(), lookup.remoteReads() > 0);
+    }
+
+    @Test
+    public void when_objectInMemoryFormat_then_copyReturned() throws Exception {
+        String mapName = randomMapName();
+        JetConfig config = new JetConfig();
+        config.getHazelcastConfig().addMapConfig(new MapConfig(mapName).setInMemoryFormat(InMemoryFormat.OBJECT));
+        JetInstance instance = createJetMember(config);
+        IMap<Integer, StringBuilder> map = instance.getMap(mapName);
+        map.put(1, new StringBuilder("a"));
+        IMapColocatedLookup<Integer, StringBuilder> lookup = createLookup(instance, mapName);
+
+        StringBuilder value1 = lookup.getAsync(1).get();
+        value1.append("b");
+        StringBuilder value2 = lookup.getAsync(1).get();
+
+        assertNotSame(value1, value2);
+        assertEquals("a", value2.toString());
+    }
+
+    @Test
+    public void when_mapLoader_then_allReadsRemote() throws Exception {
+        String mapName = randomMapName();
+        JetConfig config = new JetConfig();
+        config.getHazelcastConfig().addMapConfig(new MapConfig(mapName).setMapStoreConfig(
+                new MapStoreConfig().setImplementation(new ConstantMapLoader())));
+        JetInstance instance = createJetMember(config);
+        IMapColocatedLookup<Integer, String> lookup = createLookup(instance, mapName);
+
+        assertEquals("loaded-1", lookup.getAsync(1).get());
+
+        assertEquals(0, lookup.localReads());
+        assertEquals(1, lookup.remoteReads());
+    }
+
+    private static <K, V> IMapColocatedLookup<K, V> createLookup(JetInstance instance, String mapName) {
+        return IMapColocatedLookup.<K, V>contextFactory(mapName).createFn().apply(instance);
+    }
+
+    private static class ConstantMapLoader implements MapLoader<Integer, String> {
+        @Override
+        public String load(Integer key) {
+            return "loaded-" + key;
+        }
+
+        @Override
+        public Map<Integer, String> loadAll(Collection<Integer> keys) {
+            return emptyMap();
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.jet.pipeline.LookupCacheConfig;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class IMapLookupCacheTest extends JetTestSupport {
+
+    private JetInstance instance;
+    private IMap<Integer, String> map;
+    private IMapLookupCache<Integer, String> cache;
+
+    @Before
+    public void setUp() {
+        instance = createJetMember();
+        map = instance.getMap(randomMapName());
+    }
+
+    @After
+    public void after() {
+        if (cache != null) {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    public void when_lookedUpTwice_then_secondLookupIsHit() throws Exception {
+        map.put(1, "a");
+        cache = createCache(new LookupCacheConfig());
+
+        assertEquals("a", cache.getAsync(1).get());
+        assertEquals("a", cache.getAsync(1).get());
+
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void when_entryUpdated_then_invalidated() throws Exception {
+        map.put(1, "a");
+        cache = createCache(new LookupCacheConfig());
+        assertEquals("a", cache.getAsync(1).get());
+
+        map.put(1, "b");
+
+        assertTrueEventually(() -> assertEquals("b", cache.getAsync(1).get()));
+    }
+
+    @Test
+    public void when_absentKeyAdded_then_invalidated() throws Exception {
+        cache = createCache(new LookupCacheConfig());
+        assertNull(cache.getAsync(1).get());
+        assertNull(cache.getAsync(1).get());
+        assertEquals(1, cache.hits());
+
+        map.put(1, "a");
+
+        assertTrueEventually(() -> assertEquals("a", cache.getAsync(1).get()));
+    }
+
+    @Test
+    public void when_invalidationDisabled_then_oldValueReturned() throws Exception {
+        map.put(1, "a");
+        cache = createCache(new LookupCacheConfig().setInvalidateOnChange(false));
+        assertEquals("a", cache.getAsync(1).get());
+
+        map.put(1, "b");
+
+        assertEquals("a", cache.getAsync(1).get());
+    }
+
+    @Test
+    public void when_ttlElapsed_then_lookedUpAgain() throws Exception {
+        map.put(1, "a");
+        cache = createCache(new LookupCacheConfig().setInvalidateOnChange(false).setTimeToLiveMillis(10));
+        assertEquals("a", cache.getAsync(1).get());
+        map.put(1, "b");
+
+        assertTrueEventually(() -> assertEquals("b", cache.getAsync(1).get()));
+    }
+
+    @Test
+    public void when_maxSizeReached_then_evicted() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        cache = createCache(new LookupCacheConfig().setMaxSize(10));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("v" + i, cache.getAsync(i).get());
+        }
+
+        assertTrue("size=" + cache.size(), cache.size() <= 10);
+    }
+
+    @Test
+    public void when_keysLookedUpRepeatedly_then_notEvictedByOneTimeKeys() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "v" + i);
+        }
+        cache = createCache(new LookupCacheConfig().setMaxSize(10).setInvalidateOnChange(false));
+
+        // When - the hot keys are looked up between the lookups of cold keys
+        for (int i = 100; i < 1000; i++) {
+            for (int hotKey = 0; hotKey < 5; hotKey++) {
+                assertEquals("v" + hotKey, cache.getAsync(hotKey).get());
+            }
+            assertEquals("v" + i, cache.getAsync(i).get());
+        }
+
+        // Then - the hot keys missed only on their first lookup
+        assertEquals(5 + 900, cache.misses());
+    }
+
+    private IMapLookupCache<Integer, String> createCache(LookupCacheConfig config) {
+        return IMapLookupCache.<Integer, String>contextFactory(map.getName(), config).createFn().apply(instance);
+    }
+}
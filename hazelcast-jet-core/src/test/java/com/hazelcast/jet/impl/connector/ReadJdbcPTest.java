@@ -24,11 +24,15 @@ import org.junit.Test;
 
 import java.io.Serializable;
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 
 public class ReadJdbcPTest extends PipelineTestSupport {
@@ -73,14 +77,79 @@ public class ReadJdbcPTest extends PipelineTestSupport {
         assertEquals(PERSON_COUNT, sinkList.size());
     }
 
+    @Test
+    public void test_whenPartitionColumn() {
+        p.drawFrom(Sources.jdbcBuilder()
+                          .connectionURL(DB_CONNECTION_URL)
+                          .table("PERSON")
+                          .partitionColumn("id")
+                          .fetchSize(10)
+                          .build(resultSet -> resultSet.getInt(1)))
+         .setLocalParallelism(3)
+         .drainTo(sink);
+
+        execute();
+
+        assertEquals(sequence(PERSON_COUNT + 1).subList(1, PERSON_COUNT + 1), sortedSinkList());
+    }
+
+    @Test
+    public void test_whenQueryAndDatePartitionColumn() {
+        p.drawFrom(Sources.jdbcBuilder()
+                          .connectionURL(DB_CONNECTION_URL)
+                          .query("select id, birth_date from PERSON where id > 50")
+                          .partitionColumn("birth_date")
+                          .build(resultSet -> resultSet.getInt(1)))
+         .setLocalParallelism(3)
+         .drainTo(sink);
+
+        execute();
+
+        assertEquals(sequence(PERSON_COUNT + 1).subList(51, PERSON_COUNT + 1), sortedSinkList());
+    }
+
+    @Test
+    public void test_whenNoPartitionColumn() {
+        p.drawFrom(Sources.jdbcBuilder()
+                          .connectionURL(DB_CONNECTION_URL)
+                          .table("PERSON")
+                          .build(resultSet -> resultSet.getInt(1)))
+         .setLocalParallelism(3)
+         .drainTo(sink);
+
+        execute();
+
+        assertEquals(sequence(PERSON_COUNT + 1).subList(1, PERSON_COUNT + 1), sortedSinkList());
+    }
+
+    @Test
+    public void test_rangeBounds() {
+        ReadJdbcP.RangeQueryFunction fn = new ReadJdbcP.RangeQueryFunction("PERSON", "id", 0,
+                ReadJdbcP.PartitionColumnType.NUMBER, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(Long.MIN_VALUE, fn.bound(0, 4));
+        assertEquals(Long.MIN_VALUE / 2, fn.bound(1, 4));
+        assertEquals(0, fn.bound(2, 4));
+        assertEquals(Long.MAX_VALUE / 2 + 1, fn.bound(3, 4));
+
+        fn = new ReadJdbcP.RangeQueryFunction("PERSON", "id", 0, ReadJdbcP.PartitionColumnType.NUMBER, 1, 2);
+        assertEquals(1, fn.bound(1, 3));
+        assertEquals(2, fn.bound(2, 3));
+    }
+
+    private List<Object> sortedSinkList() {
+        return sinkList.stream().map(Integer.class::cast).sorted().collect(toList());
+    }
+
     private static void createAndFillTable() throws SQLException {
         try (Connection connection = DriverManager.getConnection(DB_CONNECTION_URL);
              Statement statement = connection.createStatement()) {
-            statement.execute("CREATE TABLE PERSON(id int primary key, name varchar(255))");
-            try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO PERSON(id, name) VALUES(?, ?)")) {
+            statement.execute("CREATE TABLE PERSON(id int primary key, name varchar(255), birth_date date)");
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT INTO PERSON(id, name, birth_date) VALUES(?, ?, ?)")) {
                 for (int i = 1; i <= PERSON_COUNT; i++) {
                     stmt.setInt(1, i);
                     stmt.setString(2, "name-" + i);
+                    stmt.setDate(3, Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(i * 100)));
                     stmt.executeUpdate();
                 }
             }
@@ -106,6 +106,88 @@ public class WriteJdbcPTest extends PipelineTestSupport {
         execute();
     }
 
+    @Test
+    public void test_builder() throws SQLException {
+        addToSrcList(sequence(PERSON_COUNT));
+        p.drawFrom(source)
+         .map(item -> new Person((Integer) item, item.toString()))
+         .drainTo(Sinks.<Person>jdbcBuilder()
+                 .updateQuery("INSERT INTO " + tableName + "(id, name) VALUES(?, ?)")
+                 .connectionURL(DB_CONNECTION_URL)
+                 .bindFn((stmt, item) -> {
+                     stmt.setInt(1, item.id);
+                     stmt.setString(2, item.name);
+                 })
+                 .batchLimit(3)
+                 .connectionCount(2)
+                 .build());
+
+        execute();
+
+        assertEquals(PERSON_COUNT, rowCount());
+    }
+
+    @Test
+    public void test_builder_withKeyFn_then_updatesOfSameKeyCommittedInOrder() throws SQLException {
+        int itemCount = 1000;
+        int keyCount = 10;
+        addToSrcList(sequence(itemCount));
+        p.drawFrom(source)
+         .map(item -> new Person((Integer) item % keyCount, item.toString()))
+         .drainTo(Sinks.<Person>jdbcBuilder()
+                 .updateQuery("MERGE INTO " + tableName + "(id, name) KEY(id) VALUES(?, ?)")
+                 .connectionURL(DB_CONNECTION_URL)
+                 .bindFn((stmt, item) -> {
+                     stmt.setInt(1, item.id);
+                     stmt.setString(2, item.name);
+                 })
+                 .keyFn(item -> item.id)
+                 .batchLimit(7)
+                 .connectionCount(4)
+                 .build());
+
+        execute();
+
+        assertEquals(keyCount, rowCount());
+        for (int id = 0; id < keyCount; id++) {
+            // the last item with the key must win
+            assertEquals(String.valueOf(itemCount - keyCount + id), name(id));
+        }
+    }
+
+    @Test
+    public void test_builder_reconnect() throws SQLException {
+        addToSrcList(sequence(PERSON_COUNT));
+        p.drawFrom(source)
+         .map(item -> new Person((Integer) item, item.toString()))
+         .drainTo(Sinks.<Person>jdbcBuilder()
+                 .updateQuery("INSERT INTO " + tableName + "(id, name) VALUES(?, ?)")
+                 .connectionFn(failOnceConnectionSupplier())
+                 .bindFn(failOnceBindFn())
+                 .batchLimit(3)
+                 .build());
+
+        execute();
+
+        assertEquals(PERSON_COUNT, rowCount());
+    }
+
+    @Test(expected = CompletionException.class)
+    public void test_builder_failJob_withNonTransientException() {
+        addToSrcList(sequence(PERSON_COUNT));
+        p.drawFrom(source)
+         .map(item -> new Person((Integer) item, item.toString()))
+         .drainTo(Sinks.<Person>jdbcBuilder()
+                 .updateQuery("INSERT INTO " + tableName + "(id, name) VALUES(?, ?)")
+                 .connectionURL(DB_CONNECTION_URL)
+                 .bindFn((stmt, item) -> {
+                     throw new SQLNonTransientException();
+                 })
+                 .build());
+
+        execute();
+    }
+
     private void createTable() throws SQLException {
         try (Connection connection = DriverManager.getConnection(DB_CONNECTION_URL);
              Statement statement = connection.createStatement()) {
@@ -113,6 +195,15 @@ public class WriteJdbcPTest extends PipelineTestSupport {
         }
     }
 
+    private String name(int id) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(DB_CONNECTION_URL);
+             Statement statement = connection.createStatement()) {
+            ResultSet resultSet = statement.executeQuery("SELECT name FROM " + tableName + " WHERE id = " + id);
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
     private int rowCount() throws SQLException {
         try (Connection connection = DriverManager.getConnection(DB_CONNECTION_URL);
              Statement statement = connection.createStatement()) {
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.jet.core.JetTestSupport.wm;
+import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+import static com.hazelcast.jet.impl.util.ProgressState.DONE;
+import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.WAS_ALREADY_DONE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class ChainedEdgeStreamTest {
+
+    private ChainedEdgeStream stream;
+
+    @Before
+    public void setUp() {
+        stream = new ChainedEdgeStream(0, 0, 4, new int[0]);
+    }
+
+    @Test
+    public void when_itemsOffered_then_drainedInOrder() {
+        offer(1, 2, 3);
+        drainAndAssert(MADE_PROGRESS, 1, 2, 3);
+        drainAndAssert(NO_PROGRESS);
+    }
+
+    @Test
+    public void when_full_then_offerRejected() {
+        offer(1, 2, 3, 4);
+        assertEquals(NO_PROGRESS, stream.offer(5));
+        assertEquals(4, stream.sizes());
+
+        drainAndAssert(MADE_PROGRESS, 1, 2, 3, 4);
+        assertEquals(DONE, stream.offer(5));
+    }
+
+    @Test
+    public void when_watermark_then_forwardedAndDrainingStops() {
+        offer(1, wm(1), 2);
+        drainAndAssert(MADE_PROGRESS, 1, wm(1));
+        drainAndAssert(MADE_PROGRESS, 2);
+        assertEquals(1, stream.coalescedWm());
+        assertEquals(1, stream.topObservedWm());
+    }
+
+    @Test
+    public void when_barrier_then_forwardedAndDrainingStops() {
+        SnapshotBarrier barrier = new SnapshotBarrier(1, false);
+        offer(1, barrier, 2);
+        drainAndAssert(MADE_PROGRESS, 1, barrier);
+        drainAndAssert(MADE_PROGRESS, 2);
+    }
+
+    @Test
+    public void when_doneItem_then_done() {
+        offer(1, DONE_ITEM);
+        assertFalse(stream.isDone());
+        drainAndAssert(DONE, 1);
+        assertTrue(stream.isDone());
+        drainAndAssert(WAS_ALREADY_DONE);
+    }
+
+    private void offer(Object... items) {
+        for (Object item : items) {
+            assertEquals(DONE, stream.offer(item));
+        }
+    }
+
+    private void drainAndAssert(ProgressState expectedState, Object... expectedItems) {
+        List<Object> list = new ArrayList<>();
+        assertEquals("progressState", expectedState, stream.drainTo(list::add));
+        assertEquals(Arrays.asList(expectedItems), list);
+    }
+}
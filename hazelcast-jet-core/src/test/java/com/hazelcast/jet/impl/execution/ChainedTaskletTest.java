@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.impl.util.ProgressState.DONE;
+import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class ChainedTaskletTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    public void when_call_then_taskletsCalledInOrder() {
+        // Given
+        ChainedTasklet chained = new ChainedTasklet(asList(
+                new RecordingTasklet("a", NO_PROGRESS),
+                new RecordingTasklet("b", MADE_PROGRESS)));
+
+        // When
+        ProgressState result = chained.call();
+
+        // Then
+        assertEquals(asList("a", "b"), calls);
+        assertEquals(MADE_PROGRESS, result);
+    }
+
+    @Test
+    public void when_oneTaskletDone_then_notCalledAgainAndChainNotDone() {
+        // Given
+        ChainedTasklet chained = new ChainedTasklet(asList(
+                new RecordingTasklet("a", DONE),
+                new RecordingTasklet("b", NO_PROGRESS)));
+
+        // When
+        ProgressState result1 = chained.call();
+        ProgressState result2 = chained.call();
+
+        // Then
+        assertEquals(asList("a", "b", "b"), calls);
+        assertTrue(result1.isMadeProgress());
+        assertEquals(NO_PROGRESS, result2);
+    }
+
+    @Test
+    public void when_allTaskletsDone_then_chainDone() {
+        // Given
+        ChainedTasklet chained = new ChainedTasklet(asList(
+                new RecordingTasklet("a", DONE),
+                new RecordingTasklet("b", DONE)));
+
+        // When
+        ProgressState result = chained.call();
+
+        // Then
+        assertTrue(result.isDone());
+    }
+
+    private final class RecordingTasklet implements Tasklet {
+        private final String name;
+        private final ProgressState result;
+
+        RecordingTasklet(String name, ProgressState result) {
+            this.name = name;
+            this.result = result;
+        }
+
+        @Nonnull @Override
+        public ProgressState call() {
+            calls.add(name);
+            return result;
+        }
+    }
+}
@@ -38,6 +38,8 @@ import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.WAS_ALREADY_DONE;
+import static java.util.Collections.nCopies;
+import static java.util.Comparator.naturalOrder;
 import static org.junit.Assert.assertEquals;
 
 @Category(ParallelTest.class)
@@ -234,6 +236,59 @@ public class ConcurrentInboundEdgeStreamTest {
         drainAndAssert(MADE_PROGRESS, wm(1));
     }
 
+    @Test
+    public void when_ordered_then_itemsMerged() {
+        stream = new ConcurrentInboundEdgeStream(conveyor, 0, 0, false, naturalOrder(), "cies");
+        add(q1, 1, 3, 5);
+        add(q2, 2, 4);
+        // 5 is not emitted: q2 might still receive a smaller item
+        drainAndAssert(MADE_PROGRESS, 1, 2, 3, 4);
+
+        add(q2, DONE_ITEM);
+        drainAndAssert(MADE_PROGRESS, 5);
+
+        add(q1, DONE_ITEM);
+        drainAndAssert(DONE);
+    }
+
+    @Test
+    public void when_orderedAndOneQueueEmpty_then_noProgress() {
+        stream = new ConcurrentInboundEdgeStream(conveyor, 0, 0, false, naturalOrder(), "cies");
+        add(q1, 1, 2);
+        drainAndAssert(NO_PROGRESS);
+
+        add(q2, 3);
+        drainAndAssert(MADE_PROGRESS, 1, 2);
+    }
+
+    @Test
+    public void when_orderedAndWmInQueue_then_wmNotReordered() {
+        stream = new ConcurrentInboundEdgeStream(conveyor, 0, 0, false, naturalOrder(), "cies");
+        add(q1, 1, wm(1), 4);
+        add(q2, 2, wm(1), 3);
+        // the merging stops at a watermark, the watermark is coalesced as usual
+        drainAndAssert(MADE_PROGRESS, 1);
+        drainAndAssert(MADE_PROGRESS, 2);
+        drainAndAssert(MADE_PROGRESS, wm(1));
+        drainAndAssert(MADE_PROGRESS, 3);
+    }
+
+    @Test
+    public void when_orderedAndOneQueueEmpty_then_otherQueueNotBlocked() {
+        stream = new ConcurrentInboundEdgeStream(conveyor, 0, 0, false, naturalOrder(), "cies");
+        // a hot key: more items than the queue can hold, while q2 stays empty
+        Object[] hotItems = new Object[q1.capacity()];
+        Arrays.fill(hotItems, 1);
+        add(q1, hotItems);
+        drainAndAssert(NO_PROGRESS);
+        // the items were moved out of q1, the upstream can add more
+        add(q1, hotItems);
+        drainAndAssert(NO_PROGRESS);
+
+        add(q2, 2, DONE_ITEM);
+        drainAndAssert(MADE_PROGRESS, nCopies(2 * hotItems.length, 1).toArray());
+    }
+
     private void drainAndAssert(ProgressState expectedState, Object... expectedItems) {
         List<Object> list = new ArrayList<>();
         assertEquals("progressState", expectedState, stream.drainTo(list::add));
@@ -52,6 +52,7 @@ public class ExecutionSerializerHooksTest {
     public static Collection<Object> data() {
         return Arrays.asList(
                 DONE_ITEM,
+                new LatencyMarker(3L, 12345L),
                 new SnapshotBarrier(17L, false),
                 new BroadcastEntry<>("key", "value"),
                 broadcastKey("broadcast-key")
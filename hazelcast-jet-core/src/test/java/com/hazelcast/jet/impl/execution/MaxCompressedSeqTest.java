@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.jet.impl.execution.SenderTasklet.maxCompressedSeq;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class MaxCompressedSeqTest {
+
+    @Test
+    public void when_noWrapAround_then_greaterReturned() {
+        assertEquals(2, maxCompressedSeq(1, 2));
+        assertEquals(2, maxCompressedSeq(2, 1));
+        assertEquals(1, maxCompressedSeq(1, 1));
+    }
+
+    @Test
+    public void when_wrappedAround_then_wrappedSeqReturned() {
+        assertEquals(Integer.MIN_VALUE, maxCompressedSeq(Integer.MAX_VALUE, Integer.MIN_VALUE));
+        assertEquals(Integer.MIN_VALUE + 5, maxCompressedSeq(Integer.MIN_VALUE + 5, Integer.MAX_VALUE - 5));
+    }
+
+    @Test
+    public void when_olderLimitReceivedLater_then_ignored() {
+        // a periodic flow-control packet overtaken by a credit packet must not lower the limit
+        int limit = 0;
+        limit = maxCompressedSeq(limit, 100);
+        limit = maxCompressedSeq(limit, 80);
+        assertEquals(100, limit);
+    }
+}
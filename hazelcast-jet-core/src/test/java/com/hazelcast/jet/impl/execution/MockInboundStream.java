@@ -36,6 +36,7 @@ public class MockInboundStream implements InboundEdgeStream {
     private int priority;
     private final Deque<Object> mockData;
     private final int chunkSize;
+    private final WakeUpHandle wakeUpHandle = new WakeUpHandle();
 
     private boolean done;
 
@@ -88,6 +89,11 @@ public class MockInboundStream implements InboundEdgeStream {
         return priority;
     }
 
+    @Override
+    public WakeUpHandle wakeUpHandle() {
+        return wakeUpHandle;
+    }
+
     public Deque<Object> remainingItems() {
         return mockData;
     }
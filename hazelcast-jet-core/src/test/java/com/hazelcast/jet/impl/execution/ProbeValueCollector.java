@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.renderers.ProbeRenderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the values of all probes with the given metric name from a
+ * metrics registry, for example of all cooperative workers.
+ */
+final class ProbeValueCollector implements ProbeRenderer {
+
+    private final String metricSuffix;
+    private final List<Long> values = new ArrayList<>();
+
+    private ProbeValueCollector(String metric) {
+        this.metricSuffix = "metric=" + metric + ']';
+    }
+
+    static List<Long> probeValues(MetricsRegistry registry, String metric) {
+        ProbeValueCollector collector = new ProbeValueCollector(metric);
+        registry.collect(collector);
+        return collector.values;
+    }
+
+    static long probeValue(MetricsRegistry registry, String metric) {
+        List<Long> values = probeValues(registry, metric);
+        if (values.size() != 1) {
+            throw new AssertionError("Expected one probe named " + metric + ", found " + values.size());
+        }
+        return values.get(0);
+    }
+
+    @Override
+    public void renderLong(String name, long value) {
+        if (name.endsWith(metricSuffix)) {
+            values.add(value);
+        }
+    }
+
+    @Override
+    public void renderDouble(String name, double value) {
+    }
+
+    @Override
+    public void renderException(String name, Exception e) {
+    }
+
+    @Override
+    public void renderNoValue(String name) {
+    }
+}
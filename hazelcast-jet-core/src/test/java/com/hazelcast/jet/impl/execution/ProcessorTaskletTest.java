@@ -16,6 +16,8 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.jet.core.Inbox;
 import com.hazelcast.jet.core.Outbox;
@@ -23,6 +25,7 @@ import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.test.TestProcessorContext;
 import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import org.junit.Before;
 import org.junit.Test;
@@ -36,12 +39,15 @@ import java.util.Set;
 import java.util.stream.IntStream;
 
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+import static com.hazelcast.jet.impl.execution.ProbeValueCollector.probeValue;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static com.hazelcast.test.HazelcastTestSupport.sleepMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -53,6 +59,9 @@ public class ProcessorTaskletTest {
 
     private static final int MOCK_INPUT_SIZE = 10;
     private static final int CALL_COUNT_LIMIT = 10;
+    // every 8th call is measured, see ProcessorTasklet.CALL_TIME_SAMPLING_SHIFT
+    private static final int CALL_TIME_SAMPLING_PERIOD = 8;
+    private static final int SLOW_CALL_MILLIS = 200;
 
     private List<Object> mockInput;
     private List<MockInboundStream> instreams;
@@ -246,19 +255,119 @@ public class ProcessorTaskletTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void when_latencyMarkerReceived_then_recordedAndForwardedButNotProcessed() {
+        // Given
+        LatencyMarker marker = new LatencyMarker(1, LatencyMarker.epochNanos());
+        mockInput.add(4, marker);
+        mockInput.add(DONE_ITEM);
+        MockInboundStream instream1 = new MockInboundStream(0, mockInput, mockInput.size());
+        MockOutboundStream outstream1 = new MockOutboundStream(0);
+        instreams.add(instream1);
+        outstreams.add(outstream1);
+        VertexLatencyTracker latencyTracker = new VertexLatencyTracker(1000, false, 1);
+        Tasklet tasklet = createTasklet(latencyTracker);
+
+        // When
+        callUntil(tasklet, DONE);
+
+        // Then
+        assertEquals(1, latencyTracker.histogram().count());
+        assertTrue(outstream1.getBuffer().contains(marker));
+        mockInput.remove(marker);
+        outstream1.getBuffer().remove(marker);
+        assertEquals(mockInput, outstream1.getBuffer());
+    }
+
+    @Test
+    public void when_called_then_callCountsProbed() {
+        // Given
+        MockInboundStream instream1 = new MockInboundStream(0, mockInput, 4);
+        instreams.add(instream1);
+        outstreams.add(new MockOutboundStream(0));
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
+        Tasklet tasklet = createTasklet(null, metricsRegistry);
+
+        // When
+        int madeProgressCount = 0;
+        for (int i = 0; i < CALL_COUNT_LIMIT; i++) {
+            if (tasklet.call().isMadeProgress()) {
+                madeProgressCount++;
+            }
+        }
+
+        // Then
+        // the input is exhausted after a few calls, the rest of the calls don't make progress
+        assertTrue("madeProgressCount=" + madeProgressCount, madeProgressCount > 0);
+        assertTrue("madeProgressCount=" + madeProgressCount, madeProgressCount < CALL_COUNT_LIMIT);
+        assertEquals(CALL_COUNT_LIMIT, probeValue(metricsRegistry, "callCount"));
+        assertEquals(madeProgressCount, probeValue(metricsRegistry, "madeProgressCallCount"));
+    }
+
+    @Test
+    public void when_sampledCallSlow_then_callTimeExtrapolated() {
+        // Given
+        instreams.add(new MockInboundStream(0, emptyList(), 1));
+        outstreams.add(new MockOutboundStream(0));
+        processor.slowTryProcessCall = 0;
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
+        Tasklet tasklet = createTasklet(null, metricsRegistry);
+
+        // When
+        for (int i = 0; i < CALL_TIME_SAMPLING_PERIOD; i++) {
+            tasklet.call();
+        }
+
+        // Then
+        long callTimeNanos = probeValue(metricsRegistry, "callTimeNanos");
+        assertTrue("callTimeNanos=" + callTimeNanos,
+                callTimeNanos >= CALL_TIME_SAMPLING_PERIOD * MILLISECONDS.toNanos(SLOW_CALL_MILLIS));
+    }
+
+    @Test
+    public void when_notSampledCallSlow_then_callTimeNotCounted() {
+        // Given
+        instreams.add(new MockInboundStream(0, emptyList(), 1));
+        outstreams.add(new MockOutboundStream(0));
+        processor.slowTryProcessCall = 1;
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
+        Tasklet tasklet = createTasklet(null, metricsRegistry);
+
+        // When
+        for (int i = 0; i < CALL_TIME_SAMPLING_PERIOD; i++) {
+            tasklet.call();
+        }
+
+        // Then
+        long callTimeNanos = probeValue(metricsRegistry, "callTimeNanos");
+        assertTrue("callTimeNanos=" + callTimeNanos, callTimeNanos < MILLISECONDS.toNanos(SLOW_CALL_MILLIS));
+    }
+
     private ProcessorTasklet createTasklet() {
+        return createTasklet(null);
+    }
+
+    private ProcessorTasklet createTasklet(VertexLatencyTracker latencyTracker) {
+        return createTasklet(latencyTracker, null);
+    }
+
+    private ProcessorTasklet createTasklet(VertexLatencyTracker latencyTracker, MetricsRegistryImpl metricsRegistry) {
         for (int i = 0; i < instreams.size(); i++) {
             instreams.get(i).setOrdinal(i);
         }
 
         final ProcessorTasklet t = new ProcessorTasklet(context, new DefaultSerializationServiceBuilder().build(),
-                processor, instreams, outstreams, mock(SnapshotContext.class), new MockOutboundCollector(10), null);
+                processor, instreams, outstreams, mock(SnapshotContext.class), new MockOutboundCollector(10),
+                metricsRegistry == null ? null : metricsRegistry.newProbeBuilder(), latencyTracker);
         t.init();
         return t;
     }
 
     private static class PassThroughProcessor implements Processor {
         int nullaryProcessCallCountdown;
+        // the index of the tryProcess() call which sleeps, -1 for none
+        int slowTryProcessCall = -1;
+        private int tryProcessCallCount;
         int itemsToEmitInComplete;
         int itemsToEmitInEachCompleteEdge;
         boolean completeReturnedTrue;
@@ -314,6 +423,9 @@ public class ProcessorTaskletTest {
 
         @Override
         public boolean tryProcess() {
+            if (tryProcessCallCount++ == slowTryProcessCall) {
+                sleepMillis(SLOW_CALL_MILLIS);
+            }
             return nullaryProcessCallCountdown-- <= 0;
         }
     }
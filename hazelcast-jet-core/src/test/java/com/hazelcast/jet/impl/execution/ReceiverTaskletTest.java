@@ -22,18 +22,31 @@ import com.hazelcast.logging.LoggingService;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
 
+import static com.hazelcast.jet.impl.execution.ReceiverTasklet.COMPRESSED_SEQ_UNIT_LOG2;
+import static com.hazelcast.jet.impl.execution.ReceiverTasklet.CREDIT_WINDOW_FRACTION;
+import static com.hazelcast.jet.impl.execution.ReceiverTasklet.INITIAL_RECEIVE_WINDOW_COMPRESSED;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 
 @RunWith(HazelcastSerialClassRunner.class)
 public class ReceiverTaskletTest {
 
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
     private ReceiverTasklet t;
     private InternalSerializationService serService;
     private MockOutboundCollector collector;
@@ -52,6 +65,91 @@ public class ReceiverTaskletTest {
         assertEquals(asList(1, 2), collector.getBuffer());
     }
 
+    @Test
+    public void when_called_then_callMetricsUpdated() throws IOException {
+        pushObjects(1, 2);
+        t.call();
+
+        assertEquals(1, t.getCallMetrics().callCount().get());
+        assertEquals(1, t.getCallMetrics().madeProgressCallCount().get());
+    }
+
+    @Test
+    public void when_receiveCompressedObjects_then_emitThem() throws IOException {
+        t = new ReceiverTasklet(collector, 3, 100, mock(LoggingService.class), "", true);
+        pushCompressedObjects("a", "b", "a");
+        pushCompressedObjects("c");
+        t.call();
+        assertEquals(asList("a", "b", "a", "c"), collector.getBuffer());
+    }
+
+    @Test
+    public void when_receiveTruncatedCompressedPacket_then_fail() throws IOException {
+        t = new ReceiverTasklet(collector, 3, 100, mock(LoggingService.class), "", true);
+        final byte[] compressed = compress(serialize("a", "b", "c"));
+        pushCompressedPacket(3, serialize("a", "b", "c").length, compressed, compressed.length / 2);
+
+        exception.expectMessage("Truncated compressed packet");
+        t.call();
+    }
+
+    @Test
+    public void when_creditFlowControl_then_creditSentWhenWindowFractionProcessed() {
+        List<Integer> credits = new ArrayList<>();
+        t = new ReceiverTasklet(collector, 3, 100, mock(LoggingService.class), "", false, credits::add);
+
+        // the initial credit is sent right away
+        t.call();
+        assertEquals(singletonList(INITIAL_RECEIVE_WINDOW_COMPRESSED), credits);
+
+        // processing less than the fraction of the window sends nothing
+        int creditUnits = INITIAL_RECEIVE_WINDOW_COMPRESSED / CREDIT_WINDOW_FRACTION;
+        t.ackItem((long) (creditUnits - 1) << COMPRESSED_SEQ_UNIT_LOG2);
+        t.call();
+        assertEquals(1, credits.size());
+
+        // processing the fraction sends more credit
+        t.ackItem(1L << COMPRESSED_SEQ_UNIT_LOG2);
+        t.call();
+        assertEquals(asList(INITIAL_RECEIVE_WINDOW_COMPRESSED, creditUnits + INITIAL_RECEIVE_WINDOW_COMPRESSED),
+                credits);
+    }
+
+    private void pushCompressedObjects(Object... objs) throws IOException {
+        final byte[] uncompressed = serialize(objs);
+        final byte[] compressed = compress(uncompressed);
+        pushCompressedPacket(objs.length, uncompressed.length, compressed, compressed.length);
+    }
+
+    private void pushCompressedPacket(int itemCount, int uncompressedLength, byte[] compressed, int compressedLength)
+            throws IOException {
+        final BufferObjectDataOutput out = serService.createObjectDataOutput();
+        out.writeInt(itemCount);
+        out.writeInt(uncompressedLength);
+        out.writeInt(compressedLength);
+        out.write(compressed, 0, compressedLength);
+        t.receiveStreamPacket(serService.createObjectDataInput(out.toByteArray()));
+    }
+
+    private byte[] serialize(Object... objs) throws IOException {
+        final BufferObjectDataOutput items = serService.createObjectDataOutput();
+        for (Object obj : objs) {
+            items.writeObject(obj);
+            items.writeInt(Math.abs(obj.hashCode())); // partition id
+        }
+        return items.toByteArray();
+    }
+
+    private static byte[] compress(byte[] uncompressed) {
+        final Deflater deflater = new Deflater();
+        deflater.setInput(uncompressed);
+        deflater.finish();
+        final byte[] compressed = new byte[uncompressed.length + 64];
+        final int compressedLength = deflater.deflate(compressed);
+        deflater.end();
+        return Arrays.copyOf(compressed, compressedLength);
+    }
+
     private void pushObjects(Object... objs) throws IOException {
         final BufferObjectDataOutput out = serService.createObjectDataOutput();
         out.writeInt(objs.length);
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.config.EdgeConfig;
+import com.hazelcast.jet.core.Partitioner;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.logging.LoggingService;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.impl.execution.SenderTasklet.MAX_ADAPTIVE_PACKET_SIZE_FACTOR;
+import static com.hazelcast.test.HazelcastTestSupport.sleepMillis;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class SenderTaskletTest {
+
+    private static final int PACKET_SIZE_LIMIT = 4096;
+    private static final int LINGER_MILLIS = 100;
+
+    private final List<Packet> sentPackets = new ArrayList<>();
+    private MockInboundStream inboundStream;
+    private Connection connection;
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void before() {
+        inboundStream = new MockInboundStream(0, emptyList(), 1000);
+        connection = mock(Connection.class);
+        when(connection.write(any())).thenAnswer(invocation -> sentPackets.add(invocation.getArgument(0)));
+        serializationService = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @Test
+    public void when_fullPacketsAndRoomInReceiveWindow_then_packetSizeTargetGrows() {
+        // Given
+        SenderTasklet t = createTasklet(new EdgeConfig().setPacketSizeLimit(PACKET_SIZE_LIMIT)
+                                                        .setAdaptivePacketSizingEnabled(true));
+        t.setSendSeqLimitCompressed(1000);
+        for (int i = 0; i < 1000; i++) {
+            inboundStream.push(new byte[300]);
+        }
+
+        // When - Then
+        t.call();
+        assertEquals(1, sentPackets.size());
+        assertEquals(2 * PACKET_SIZE_LIMIT, t.getPacketSizeTarget());
+        for (int i = 0; i < 5; i++) {
+            t.call();
+        }
+        assertEquals(6, sentPackets.size());
+        assertEquals(PACKET_SIZE_LIMIT * MAX_ADAPTIVE_PACKET_SIZE_FACTOR, t.getPacketSizeTarget());
+    }
+
+    @Test
+    public void when_receiveWindowExhausted_then_packetSizeTargetShrinks() {
+        // Given - the send seq limit is 0, only the first item fits in it
+        SenderTasklet t = createTasklet(new EdgeConfig().setPacketSizeLimit(PACKET_SIZE_LIMIT)
+                                                        .setAdaptivePacketSizingEnabled(true));
+        inboundStream.push(new byte[70_000], new byte[70_000]);
+
+        // When
+        t.call();
+
+        // Then
+        assertEquals(1, sentPackets.size());
+        assertEquals(PACKET_SIZE_LIMIT / 2, t.getPacketSizeTarget());
+    }
+
+    @Test
+    public void when_packetSmall_then_sentAfterLingerAndTargetShrinks() {
+        // Given
+        SenderTasklet t = createTasklet(new EdgeConfig().setPacketSizeLimit(PACKET_SIZE_LIMIT)
+                                                        .setAdaptivePacketSizingEnabled(true)
+                                                        .setPacketLingerMicros(LINGER_MILLIS * 1000));
+        t.setSendSeqLimitCompressed(1000);
+        inboundStream.push(1, 2, 3);
+
+        // When
+        t.call();
+
+        // Then - the packet is held back
+        assertEquals(0, sentPackets.size());
+
+        // When
+        sleepMillis(2 * LINGER_MILLIS);
+        t.call();
+
+        // Then - the packet is sent after the linger time, it was less than half of the target
+        assertEquals(1, sentPackets.size());
+        assertEquals(3, t.getItemsOutCounter().get());
+        assertEquals(PACKET_SIZE_LIMIT / 2, t.getPacketSizeTarget());
+    }
+
+    @Test
+    public void when_noLinger_then_packetSentImmediately() {
+        // Given
+        SenderTasklet t = createTasklet(new EdgeConfig().setPacketSizeLimit(PACKET_SIZE_LIMIT));
+        t.setSendSeqLimitCompressed(1000);
+        inboundStream.push(1, 2, 3);
+
+        // When
+        t.call();
+
+        // Then
+        assertEquals(1, sentPackets.size());
+        assertEquals(PACKET_SIZE_LIMIT, t.getPacketSizeTarget());
+    }
+
+    @Test
+    public void when_called_then_callMetricsUpdated() {
+        // Given
+        SenderTasklet t = createTasklet(new EdgeConfig().setPacketSizeLimit(PACKET_SIZE_LIMIT));
+        t.setSendSeqLimitCompressed(1000);
+        inboundStream.push(1, 2, 3);
+
+        // When
+        t.call();
+
+        // Then - the first call is always measured
+        assertEquals(1, t.getCallMetrics().callCount().get());
+        assertEquals(1, t.getCallMetrics().madeProgressCallCount().get());
+        assertTrue(t.getCallMetrics().callTimeNanos().get() > 0);
+    }
+
+    @Test
+    public void when_defaultFlowControl_then_sendLimitCanGoDown() {
+        // Given
+        SenderTasklet t = createTasklet(new EdgeConfig());
+        t.setSendSeqLimitCompressed(100);
+
+        // When - the receiver shrank its receive window
+        t.setSendSeqLimitCompressed(80);
+
+        // Then
+        assertEquals(80, t.getSendSeqLimitCompressed());
+    }
+
+    @Test
+    public void when_creditFlowControl_then_lowerSendLimitIgnored() {
+        // Given
+        SenderTasklet t = createTasklet(new EdgeConfig().setCreditFlowControlEnabled(true));
+        t.setSendSeqLimitCompressed(100);
+
+        // When - a periodic packet overtaken by a credit packet
+        t.setSendSeqLimitCompressed(80);
+
+        // Then
+        assertEquals(100, t.getSendSeqLimitCompressed());
+    }
+
+    @Test
+    public void when_compressionEnabled_then_receiverDecompressesItems() {
+        // Given
+        SenderTasklet t = createTasklet(new EdgeConfig().setPacketSizeLimit(PACKET_SIZE_LIMIT)
+                                                        .setCompressionEnabled(true));
+        t.setSendSeqLimitCompressed(1000);
+        MockOutboundCollector collector = new MockOutboundCollector(10);
+        ReceiverTasklet receiver = new ReceiverTasklet(collector, 3, 100, mock(LoggingService.class), "", true);
+
+        // When - two packets, the second one larger than the first one
+        inboundStream.push("a", "b");
+        t.call();
+        inboundStream.push("c", "d", "e", "f");
+        t.call();
+        for (Packet packet : sentPackets) {
+            receiver.receiveStreamPacket(serializationService.createObjectDataInput(packet.toByteArray()));
+        }
+        receiver.call();
+
+        // Then
+        assertEquals(2, sentPackets.size());
+        assertEquals(asList("a", "b", "c", "d", "e", "f"), collector.getBuffer());
+    }
+
+    @Test
+    public void when_partitionedEdge_then_senderComputesPartitionId() {
+        // Given
+        SenderTasklet t = new SenderTasklet(inboundStream, connection,
+                serializationService.createObjectDataOutput(1024), new byte[0], new EdgeConfig(),
+                serializationService, (Partitioner<Integer>) (item, partitionCount) -> item % partitionCount, 10);
+        t.setSendSeqLimitCompressed(1000);
+        List<Integer> partitionIds = new ArrayList<>();
+        MockOutboundCollector collector = new MockOutboundCollector(10) {
+            @Override
+            public ProgressState offer(Object item, int partitionId) {
+                partitionIds.add(partitionId);
+                return offer(item);
+            }
+        };
+        ReceiverTasklet receiver = new ReceiverTasklet(collector, 3, 100, mock(LoggingService.class), "");
+
+        // When
+        inboundStream.push(3, 14, 25);
+        t.call();
+        for (Packet packet : sentPackets) {
+            receiver.receiveStreamPacket(serializationService.createObjectDataInput(packet.toByteArray()));
+        }
+        receiver.call();
+
+        // Then
+        assertEquals(asList(3, 14, 25), collector.getBuffer());
+        assertEquals(asList(3, 4, 5), partitionIds);
+    }
+
+    private SenderTasklet createTasklet(EdgeConfig edgeConfig) {
+        return new SenderTasklet(inboundStream, connection, serializationService.createObjectDataOutput(1024),
+                new byte[0], edgeConfig, serializationService, null, -1);
+    }
+}
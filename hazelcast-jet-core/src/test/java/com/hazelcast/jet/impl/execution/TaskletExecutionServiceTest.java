@@ -20,6 +20,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
 import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.jet.impl.execution.TaskletExecutionService.BusyPercentTracker;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
@@ -35,23 +36,31 @@ import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
+import static com.hazelcast.jet.impl.execution.ProbeValueCollector.probeValues;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static java.util.Arrays.asList;
+import static java.util.Collections.newSetFromMap;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -70,16 +79,18 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
 
     private TaskletExecutionService es;
     private ClassLoader classLoaderMock;
+    private NodeEngineImpl neMock;
+    private MetricsRegistryImpl metricsRegistry;
 
     @Before
     public void before() {
-        NodeEngineImpl neMock = mock(NodeEngineImpl.class);
+        neMock = mock(NodeEngineImpl.class);
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
         LoggingService loggingService = mock(LoggingService.class);
         Mockito.when(hzMock.getName()).thenReturn("test-hz-instance");
         Mockito.when(neMock.getLoggingService()).thenReturn(loggingService);
         Mockito.when(neMock.getHazelcastInstance()).thenReturn(hzMock);
-        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
+        metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
         Mockito.when(neMock.getMetricsRegistry()).thenReturn(metricsRegistry);
         Mockito.when(loggingService.getLogger(TaskletExecutionService.class))
                .thenReturn(Logger.getLogger(TaskletExecutionService.class));
@@ -332,6 +343,185 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    @Test
+    public void when_workStealingEnabled_then_busyTaskletMovedToIdleWorker() {
+        // Given
+        es.shutdown();
+        es = new TaskletExecutionService(neMock, THREAD_COUNT, 10_000, true);
+        // tasklets are assigned round-robin: the first worker gets both busy tasklets
+        ThreadRecordingTasklet busy1 = new ThreadRecordingTasklet(true);
+        ThreadRecordingTasklet busy2 = new ThreadRecordingTasklet(true);
+        List<ThreadRecordingTasklet> tasklets = asList(busy1, new ThreadRecordingTasklet(false),
+                new ThreadRecordingTasklet(false), new ThreadRecordingTasklet(false), busy2);
+
+        // When
+        CompletableFuture<Void> f = es.beginExecute(tasklets, cancellationFuture, classLoaderMock);
+
+        // Then
+        assertTrueEventually(() -> assertTrue("busy tasklet wasn't stolen",
+                busy1.threads.size() > 1 || busy2.threads.size() > 1));
+        tasklets.forEach(t -> t.done = true);
+        f.join();
+    }
+
+    @Test
+    public void when_workStealingEnabledAndThreadAffinity_then_busyTaskletNotMoved() {
+        // Given
+        es.shutdown();
+        es = new TaskletExecutionService(neMock, THREAD_COUNT, 10_000, true);
+        // tasklets are assigned round-robin: the first worker gets both busy tasklets
+        ThreadRecordingTasklet busy1 = new ThreadRecordingTasklet(true).withThreadAffinity();
+        ThreadRecordingTasklet busy2 = new ThreadRecordingTasklet(true).withThreadAffinity();
+        List<ThreadRecordingTasklet> tasklets = asList(busy1, new ThreadRecordingTasklet(false),
+                new ThreadRecordingTasklet(false), new ThreadRecordingTasklet(false), busy2);
+
+        // When
+        CompletableFuture<Void> f = es.beginExecute(tasklets, cancellationFuture, classLoaderMock);
+
+        // Then
+        assertTrueAllTheTime(() -> {
+            assertTrue(busy1.threads.size() <= 1);
+            assertTrue(busy2.threads.size() <= 1);
+        }, 1);
+        tasklets.forEach(t -> t.done = true);
+        f.join();
+    }
+
+    @Test
+    public void when_colocationEnabled_then_taskletsWithSameProcessorIndexOnSameWorker() {
+        // Given
+        es.shutdown();
+        es = new TaskletExecutionService(neMock, THREAD_COUNT, 10_000, false, null, null, true, false);
+        // without co-location, the round-robin assignment would put these on 4 different workers
+        ThreadRecordingTasklet source0 = new ThreadRecordingTasklet(false, 0);
+        ThreadRecordingTasklet source1 = new ThreadRecordingTasklet(false, 1);
+        ThreadRecordingTasklet sink0 = new ThreadRecordingTasklet(false, 0);
+        ThreadRecordingTasklet sink1 = new ThreadRecordingTasklet(false, 1);
+        List<ThreadRecordingTasklet> tasklets = asList(source0, source1, sink0, sink1);
+
+        // When
+        CompletableFuture<Void> f = es.beginExecute(tasklets, cancellationFuture, classLoaderMock);
+
+        // Then
+        assertTrueEventually(() -> tasklets.forEach(t -> assertEquals(1, t.threads.size())));
+        tasklets.forEach(t -> t.done = true);
+        f.join();
+        assertEquals(source0.threads, sink0.threads);
+        assertEquals(source1.threads, sink1.threads);
+        assertNotEquals(source0.threads, source1.threads);
+    }
+
+    @Test
+    public void when_pinningFails_then_taskletsStillExecuted() {
+        // Given
+        es.shutdown();
+        AtomicInteger pinAttempts = new AtomicInteger();
+        ThreadAffinityProvider failingProvider = cpu -> {
+            pinAttempts.incrementAndGet();
+            throw new Exception("mock pinning failure");
+        };
+        es = new TaskletExecutionService(neMock, THREAD_COUNT, 10_000, false, new int[] {0}, failingProvider, false,
+                false);
+        final MockTasklet t = new MockTasklet();
+
+        // When
+        executeAndJoin(singletonList(t));
+
+        // Then
+        t.assertDone();
+        assertTrueEventually(() -> assertEquals(THREAD_COUNT, pinAttempts.get()));
+    }
+
+    @Test
+    public void when_idleWakeUpEnabled_then_parkedWorkerWokenUpBySignal() throws Exception {
+        // Given
+        es.shutdown();
+        // the idle workers park for 60 seconds unless woken up
+        long minimumIdleTimeNs = SECONDS.toNanos(60);
+        es = new TaskletExecutionService(neMock, 1, minimumIdleTimeNs, false, null, null, false, true);
+        WakeUpHandle wakeUpHandle = new WakeUpHandle();
+        SignalledTasklet t = new SignalledTasklet(wakeUpHandle);
+        CompletableFuture<Void> f = es.beginExecute(singletonList(t), cancellationFuture, classLoaderMock);
+        assertTrueEventually(() -> assertTrue("tasklet not called", t.called));
+        // let the worker park
+        Thread.sleep(100);
+
+        // When
+        t.done = true;
+        wakeUpHandle.wakeUp();
+
+        // Then
+        f.get(10, SECONDS);
+    }
+
+    @Test
+    public void when_workersIdle_then_idleTimeProbed() {
+        // When - the workers have no tasklets
+
+        // Then
+        assertTrueEventually(() -> {
+            List<Long> idleTimes = probeValues(metricsRegistry, "idleTimeNanos");
+            assertEquals(THREAD_COUNT, idleTimes.size());
+            assertTrue("idleTimes=" + idleTimes, idleTimes.stream().allMatch(t -> t > 0));
+        });
+    }
+
+    @Test
+    public void when_workerBusy_then_busyPercentProbed() {
+        // Given
+        ThreadRecordingTasklet busy = new ThreadRecordingTasklet(true);
+
+        // When
+        CompletableFuture<Void> f = es.beginExecute(singletonList(busy), cancellationFuture, classLoaderMock);
+
+        // Then
+        assertTrueEventually(() -> {
+            List<Long> busyPercents = probeValues(metricsRegistry, "busyPercent");
+            assertEquals(THREAD_COUNT, busyPercents.size());
+            // only the worker running the tasklet is busy
+            assertEquals("busyPercents=" + busyPercents, 1, busyPercents.stream().filter(p -> p >= 90).count());
+        });
+        busy.done = true;
+        f.join();
+    }
+
+    @Test
+    public void test_busyPercentWindow() {
+        BusyPercentTracker tracker = new BusyPercentTracker(1000, 5000);
+        tracker.addIdleTime(250);
+
+        // the window isn't over yet
+        tracker.update(5999);
+        assertEquals(0, tracker.busyPercent());
+
+        tracker.update(6000);
+        assertEquals(75, tracker.busyPercent());
+
+        // a new window started at 6000, the idle time of the previous one doesn't count
+        tracker.update(6999);
+        assertEquals(75, tracker.busyPercent());
+        tracker.update(7000);
+        assertEquals(100, tracker.busyPercent());
+
+        // a window longer than the minimum
+        tracker.addIdleTime(1500);
+        tracker.update(9000);
+        assertEquals(25, tracker.busyPercent());
+    }
+
+    @Test
+    public void test_parseCpuList() {
+        assertArrayEquals(new int[0], TaskletExecutionService.parseCpuList(""));
+        assertArrayEquals(new int[] {3}, TaskletExecutionService.parseCpuList("3"));
+        assertArrayEquals(new int[] {0, 1, 2, 8, 10, 11},
+                TaskletExecutionService.parseCpuList("0-2, 8,10-11"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_invalidCpuList_then_fail() {
+        TaskletExecutionService.parseCpuList("3-1");
+    }
+
     private void executeAndJoin(List<MockTasklet> tasklets) {
         CompletableFuture<Void> f = es.beginExecute(tasklets, cancellationFuture, classLoaderMock);
         f.join();
@@ -426,6 +616,70 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    private static class ThreadRecordingTasklet implements Tasklet {
+
+        final Set<Thread> threads = newSetFromMap(new ConcurrentHashMap<>());
+        volatile boolean done;
+        private final boolean isBusy;
+        private final int processorIndex;
+        private boolean threadAffinity;
+
+        ThreadRecordingTasklet(boolean isBusy) {
+            this(isBusy, -1);
+        }
+
+        ThreadRecordingTasklet(boolean isBusy, int processorIndex) {
+            this.isBusy = isBusy;
+            this.processorIndex = processorIndex;
+        }
+
+        ThreadRecordingTasklet withThreadAffinity() {
+            threadAffinity = true;
+            return this;
+        }
+
+        @Override
+        public int localProcessorIndex() {
+            return processorIndex;
+        }
+
+        @Override
+        public boolean hasThreadAffinity() {
+            return threadAffinity;
+        }
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            threads.add(Thread.currentThread());
+            return done ? DONE : isBusy ? MADE_PROGRESS : NO_PROGRESS;
+        }
+    }
+
+    private static class SignalledTasklet implements Tasklet {
+
+        volatile boolean done;
+        volatile boolean called;
+        private final WakeUpHandle wakeUpHandle;
+
+        SignalledTasklet(WakeUpHandle wakeUpHandle) {
+            this.wakeUpHandle = wakeUpHandle;
+        }
+
+        @Nonnull
+        @Override
+        public Collection<WakeUpHandle> wakeUpHandles() {
+            return singletonList(wakeUpHandle);
+        }
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            called = true;
+            return done ? DONE : NO_PROGRESS;
+        }
+    }
+
     private static class TaskletAssertingThreadLocal implements Tasklet {
 
         private static ThreadLocal<Integer> threadLocal = ThreadLocal.withInitial(() -> 0);
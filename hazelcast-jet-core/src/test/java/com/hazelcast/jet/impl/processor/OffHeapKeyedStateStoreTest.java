@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class OffHeapKeyedStateStoreTest {
+
+    private final InternalSerializationService serializationService =
+            new DefaultSerializationServiceBuilder().build();
+    // small chunks so that the tests span many of them
+    private final OffHeapKeyedStateStore<Object, long[]> store =
+            new OffHeapKeyedStateStore<>(serializationService, 256);
+
+    @Test
+    public void when_accumulate_then_drainReturnsAccumulatedValues() {
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            store.accumulate("key" + i % 2_000, i, () -> new long[1], (acc, item) -> acc[0] += item);
+        }
+
+        // Then
+        assertEquals(2_000, store.size());
+        Map<Object, Long> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.merge("key" + i % 2_000, (long) i, Long::sum);
+        }
+        Map<Object, Long> actual = new HashMap<>();
+        Traverser<Entry<Object, long[]>> traverser = store.drain();
+        for (Entry<Object, long[]> e; (e = traverser.next()) != null; ) {
+            actual.put(e.getKey(), e.getValue()[0]);
+        }
+        assertEquals(expected, actual);
+        assertEquals(0, store.size());
+        assertEquals(0, store.allocatedBytes());
+    }
+
+    @Test
+    public void when_accumulatorGrows_then_recordRelocated() {
+        OffHeapKeyedStateStore<Integer, List<Integer>> listStore =
+                new OffHeapKeyedStateStore<>(serializationService, 256);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            listStore.accumulate(i % 3, i, ArrayList::new, List::add);
+        }
+
+        // Then
+        Traverser<Entry<Integer, List<Integer>>> traverser = listStore.drain();
+        int count = 0;
+        for (Entry<Integer, List<Integer>> e; (e = traverser.next()) != null; ) {
+            List<Integer> list = e.getValue();
+            for (int i = 0; i < list.size(); i++) {
+                assertEquals(e.getKey() + 3 * i, (int) list.get(i));
+            }
+            count += list.size();
+        }
+        assertEquals(1_000, count);
+        assertNull(traverser.next());
+    }
+
+    @Test
+    public void when_dispose_then_memoryReleased() {
+        store.accumulate("a", 1, () -> new long[1], (acc, item) -> acc[0] += item);
+
+        // When
+        store.dispose();
+
+        // Then
+        assertEquals(0, store.size());
+        assertEquals(0, store.allocatedBytes());
+        assertNull(store.drain().next());
+    }
+}
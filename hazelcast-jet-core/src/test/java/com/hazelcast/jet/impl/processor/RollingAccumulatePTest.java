@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.jet.function.SupplierEx;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.summingLong;
+import static com.hazelcast.jet.core.JetTestSupport.wm;
+import static com.hazelcast.jet.datamodel.Tuple3.tuple3;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+@Category(ParallelTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class RollingAccumulatePTest {
+
+    private static final AggregateOperation1<Entry<String, Long>, ?, Long> SUMMING = summingLong(Entry::getValue);
+    private static final long FLUSH_INTERVAL = HOURS.toMillis(1);
+
+    @Test
+    public void when_inputComplete_then_partialAccumulatorsEmitted() {
+        SupplierEx<Processor> supplier = () -> new RollingAccumulateP<>(Entry::getKey, SUMMING, FLUSH_INTERVAL);
+
+        TestSupport.verifyProcessor(supplier)
+                .input(asList(
+                        entry("a", 1L),
+                        entry("b", 2L),
+                        entry("a", 3L)
+                ))
+                .outputChecker(TestSupport.SAME_ITEMS_ANY_ORDER)
+                .expectOutput(asList(
+                        tuple3("a", new LongAccumulator(4), entry("a", 3L)),
+                        tuple3("b", new LongAccumulator(2), entry("b", 2L))
+                ));
+    }
+
+    @Test
+    public void when_watermark_then_partialAccumulatorsEmittedBeforeIt() {
+        SupplierEx<Processor> supplier = () -> new RollingAccumulateP<>(Entry::getKey, SUMMING, FLUSH_INTERVAL);
+
+        TestSupport.verifyProcessor(supplier)
+                .disableSnapshots()
+                .input(asList(
+                        entry("a", 1L),
+                        entry("a", 2L),
+                        wm(10),
+                        entry("a", 3L)
+                ))
+                .expectOutput(asList(
+                        tuple3("a", new LongAccumulator(3), entry("a", 2L)),
+                        wm(10),
+                        tuple3("a", new LongAccumulator(3), entry("a", 3L))
+                ));
+    }
+}
@@ -72,7 +72,7 @@ public class SessionWindowPTest {
     public void after() {
         // Check against memory leaks
         assertTrue("keyToWindows not empty", lastSuppliedProcessor.keyToWindows.isEmpty());
-        assertTrue("deadlineToKeys not empty", lastSuppliedProcessor.deadlineToKeys.isEmpty());
+        assertTrue("timers not empty", lastSuppliedProcessor.timers.isEmpty());
     }
 
     @Test
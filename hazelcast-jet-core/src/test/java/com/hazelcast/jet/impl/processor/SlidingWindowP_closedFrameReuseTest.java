@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.instance.HazelcastInstanceImpl;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.datamodel.KeyedWindowResult;
+import com.hazelcast.jet.function.ToLongFunctionEx;
+import com.hazelcast.jet.impl.processor.SlidingWindowP.SnapshotKey;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.core.SlidingWindowPolicy.slidingWinPolicy;
+import static com.hazelcast.jet.function.Functions.entryKey;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class SlidingWindowP_closedFrameReuseTest extends JetTestSupport {
+
+    private SlidingWindowP<Entry<String, Long>, LongAccumulator, Long, ?> p;
+    private TestOutbox outbox;
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void before() throws Exception {
+        JetInstance instance = createJetMember();
+        serializationService =
+                ((HazelcastInstanceImpl) instance.getHazelcastInstance()).getSerializationService();
+        p = new SlidingWindowP<>(
+                singletonList(entryKey()),
+                singletonList((ToLongFunctionEx<Entry<?, Long>>) Entry::getValue),
+                slidingWinPolicy(4, 1),
+                0L,
+                counting(),
+                KeyedWindowResult::new,
+                true);
+        outbox = new TestOutbox(new int[] {128}, 128);
+        TestProcessorContext context = new TestProcessorContext().setJetInstance(instance);
+        context.setJobConfig(new JobConfig().setReuseSerializedClosedFrames(true));
+        p.init(outbox, context);
+    }
+
+    @Test
+    public void when_framesBehindWatermark_then_serializedOnce() {
+        // Given
+        for (long ts = 0; ts < 4; ts++) {
+            assertTrue(p.tryProcess(0, entry("k", ts)));
+        }
+        // emits windows ending at 0..2, frames 0..2 can no longer change
+        assertTrue(p.tryProcessWatermark(new Watermark(2)));
+        outbox.drainQueueAndReset(0, new ArrayList<>(), false);
+
+        // When
+        List<Entry<Data, Data>> snapshot1 = takeSnapshot();
+        assertTrue(p.tryProcess(0, entry("k", 3L)));
+        List<Entry<Data, Data>> snapshot2 = takeSnapshot();
+
+        // Then
+        Set<Data> snapshot1Keys = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Entry<Data, Data> e : snapshot1) {
+            snapshot1Keys.add(e.getKey());
+        }
+        Map<Long, Long> frameCounts = new HashMap<>();
+        int reusedCount = 0;
+        for (Entry<Data, Data> e : snapshot2) {
+            Object key = serializationService.toObject(e.getKey());
+            if (!(key instanceof SnapshotKey)) {
+                continue;
+            }
+            SnapshotKey snapshotKey = (SnapshotKey) key;
+            LongAccumulator acc = serializationService.toObject(e.getValue());
+            frameCounts.put(snapshotKey.timestamp, acc.get());
+            if (snapshot1Keys.contains(e.getKey())) {
+                assertTrue("reused entry for a changing frame " + snapshotKey.timestamp, snapshotKey.timestamp < 3);
+                reusedCount++;
+            }
+        }
+        assertEquals(3, reusedCount);
+        Map<Long, Long> expected = new HashMap<>();
+        expected.put(0L, 1L);
+        expected.put(1L, 1L);
+        expected.put(2L, 1L);
+        expected.put(3L, 2L);
+        assertEquals(expected, frameCounts);
+    }
+
+    private List<Entry<Data, Data>> takeSnapshot() {
+        assertTrue(p.saveToSnapshot());
+        List<Entry<Data, Data>> snapshot = new ArrayList<>();
+        for (Entry<Data, Data> e; (e = outbox.snapshotQueue().poll()) != null; ) {
+            snapshot.add(e);
+        }
+        outbox.reset();
+        return snapshot;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class SpillingKeyedStateStoreTest {
+
+    private final InternalSerializationService serializationService =
+            new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void when_keysExceedLimit_then_spilledAndMerged() {
+        SpillingKeyedStateStore<Object, long[]> store = new SpillingKeyedStateStore<>(
+                new HeapKeyedStateStore<>(), serializationService, (acc1, acc2) -> acc1[0] += acc2[0], 100);
+
+        // When
+        Map<Object, Long> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            String key = "key" + i % 1_000;
+            store.accumulate(key, i, () -> new long[1], (acc, item) -> acc[0] += item);
+            expected.merge(key, (long) i, Long::sum);
+        }
+
+        // Then
+        assertTrue("spillCount=" + store.spillCount(), store.spillCount() > 0);
+        assertTrue("size=" + store.size(), store.size() <= 100);
+        Map<Object, Long> actual = new HashMap<>();
+        Traverser<Entry<Object, long[]>> traverser = store.drain();
+        for (Entry<Object, long[]> e; (e = traverser.next()) != null; ) {
+            assertNull("duplicate key " + e.getKey(), actual.put(e.getKey(), e.getValue()[0]));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void when_offHeapDelegate_then_spilledAndMerged() {
+        SpillingKeyedStateStore<Object, long[]> store = new SpillingKeyedStateStore<>(
+                new OffHeapKeyedStateStore<>(serializationService), serializationService,
+                (acc1, acc2) -> acc1[0] += acc2[0], 10);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            store.accumulate(i % 50, 1, () -> new long[1], (acc, item) -> acc[0] += item);
+        }
+
+        // Then - the partitions are loaded back into the off-heap delegate
+        int count = 0;
+        int maxSizeWhileDraining = 0;
+        Traverser<Entry<Object, long[]>> traverser = store.drain();
+        for (Entry<Object, long[]> e; (e = traverser.next()) != null; ) {
+            assertEquals(20, e.getValue()[0]);
+            maxSizeWhileDraining = Math.max(maxSizeWhileDraining, store.size());
+            count++;
+        }
+        assertEquals(50, count);
+        assertTrue("maxSizeWhileDraining=" + maxSizeWhileDraining, maxSizeWhileDraining > 0);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void when_belowLimit_then_notSpilled() {
+        SpillingKeyedStateStore<Object, long[]> store = new SpillingKeyedStateStore<>(
+                new HeapKeyedStateStore<>(), serializationService, (acc1, acc2) -> acc1[0] += acc2[0], 100);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            store.accumulate(i, i, () -> new long[1], (acc, item) -> acc[0] += item);
+        }
+
+        // Then
+        assertEquals(0, store.spillCount());
+        assertEquals(100, store.size());
+    }
+}
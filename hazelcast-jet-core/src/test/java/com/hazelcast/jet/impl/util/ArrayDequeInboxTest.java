@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.NoSuchElementException;
 
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -77,4 +78,22 @@ public class ArrayDequeInboxTest {
         inbox.drain(sink::add);
         assertEquals(singletonList(ITEM), sink);
     }
+
+    @Test
+    public void when_drainToLargerArray_then_allDrained() {
+        inbox.queue().add(2);
+        Object[] sink = new Object[4];
+        assertEquals(2, inbox.drainTo(sink));
+        assertArrayEquals(new Object[] {ITEM, 2, null, null}, sink);
+        assertTrue(inbox.isEmpty());
+    }
+
+    @Test
+    public void when_drainToSmallerArray_then_arrayFilled() {
+        inbox.queue().add(2);
+        Object[] sink = new Object[1];
+        assertEquals(1, inbox.drainTo(sink));
+        assertArrayEquals(new Object[] {ITEM}, sink);
+        assertEquals(2, inbox.poll());
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void when_empty_then_zeroes() {
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void when_smallValues_then_exact() {
+        for (int i = 1; i <= 8; i++) {
+            histogram.record(i);
+        }
+        assertEquals(8, histogram.count());
+        assertEquals(8, histogram.max());
+        assertEquals(4, histogram.percentile(0.5));
+        assertEquals(8, histogram.percentile(1));
+    }
+
+    @Test
+    public void when_largeValues_then_percentileWithinRelativeError() {
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000);
+        }
+        assertEquals(1_000_000_000, histogram.max());
+        assertWithinError(500_000_000, histogram.percentile(0.5));
+        assertWithinError(990_000_000, histogram.percentile(0.99));
+        assertEquals(1_000_000_000, histogram.percentile(1));
+    }
+
+    @Test
+    public void when_negativeValue_then_recordedAsZero() {
+        histogram.record(-5);
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.percentile(0.5));
+    }
+
+    @Test
+    public void when_hugeValue_then_recordedInLastBucket() {
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.max());
+        assertEquals(Long.MAX_VALUE, histogram.percentile(0.5));
+    }
+
+    @Test
+    public void bucketIndexAndHighestValue_consistent() {
+        for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 17, 100, 1023, 1024, 123_456_789, 1L << 41}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue("value=" + value, value <= LatencyHistogram.highestValueInBucket(index));
+            if (index > 0) {
+                assertTrue("value=" + value, value > LatencyHistogram.highestValueInBucket(index - 1));
+            }
+        }
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue("expected=" + expected + ", actual=" + actual,
+                actual >= expected && actual <= expected + expected / 8);
+    }
+}
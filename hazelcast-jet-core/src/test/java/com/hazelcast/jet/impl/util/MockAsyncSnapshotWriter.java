@@ -74,6 +74,10 @@ public class MockAsyncSnapshotWriter implements AsyncSnapshotWriter {
         return isFlushed && !hasPendingFlushes;
     }
 
+    @Override
+    public void close() {
+    }
+
     public Entry<? extends Data, ? extends Data> poll() {
         return entries.poll();
     }
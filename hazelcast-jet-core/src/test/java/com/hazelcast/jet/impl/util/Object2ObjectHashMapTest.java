@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class Object2ObjectHashMapTest {
+
+    private final Object2ObjectHashMap<Object, String> map = new Object2ObjectHashMap<>();
+
+    @Test
+    public void when_put_then_get() {
+        assertNull(map.put("a", "1"));
+        assertEquals("1", map.put("a", "2"));
+        assertEquals("2", map.get("a"));
+        assertEquals(1, map.size());
+        assertNull(map.get("b"));
+    }
+
+    @Test
+    public void when_computeIfAbsent_then_computedOnce() {
+        String v1 = map.computeIfAbsent(1L, k -> "x" + k);
+        String v2 = map.computeIfAbsent(1L, k -> "y" + k);
+        assertEquals("x1", v1);
+        assertSame(v1, v2);
+    }
+
+    @Test
+    public void when_removeCollidingKeys_then_remainingKeysFound() {
+        // keys with equal hash codes share the probe sequence
+        CollidingKey[] keys = new CollidingKey[20];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new CollidingKey(i);
+            map.put(keys[i], String.valueOf(i));
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(String.valueOf(i), map.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 0 ? null : String.valueOf(i), map.get(keys[i]));
+        }
+        assertEquals(keys.length / 2, map.size());
+    }
+
+    @Test
+    public void when_randomOperations_then_sameAsHashMap() {
+        Map<Object, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            Integer key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = String.valueOf(i);
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        Map<Object, String> viaForEach = new HashMap<>();
+        map.forEach(viaForEach::put);
+        assertEquals(expected, viaForEach);
+    }
+
+    @Test
+    public void when_nullKey_then_likeOtherKeys() {
+        assertNull(map.put(null, "1"));
+        assertEquals("1", map.computeIfAbsent(null, k -> "2"));
+        assertEquals("1", map.get(null));
+        assertTrue(map.containsKey(null));
+        assertEquals(singletonMap(null, "1"), map);
+        assertEquals("1", map.remove(null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void when_clear_then_empty() {
+        map.put("a", "1");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+}
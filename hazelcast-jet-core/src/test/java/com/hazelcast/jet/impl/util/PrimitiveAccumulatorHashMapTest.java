@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.accumulator.LongLongAccumulator;
+import com.hazelcast.jet.accumulator.MutableReference;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class PrimitiveAccumulatorHashMapTest {
+
+    private final PrimitiveAccumulatorHashMap<Object, LongAccumulator> map =
+            new PrimitiveAccumulatorHashMap<>(() -> new LongAccumulator(10));
+
+    @Test
+    public void when_accumulate_then_startsFromNewAccumulator() {
+        assertTrue(map.accumulate(1L, 5L, LongAccumulator::add));
+        assertFalse(map.accumulate(1L, 2L, LongAccumulator::add));
+        assertEquals(new LongAccumulator(17), map.get(1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void when_returnedAccumulatorChanged_then_mapNotChanged() {
+        map.put(1L, new LongAccumulator(1));
+        map.get(1L).add(1);
+        assertEquals(new LongAccumulator(1), map.get(1L));
+    }
+
+    @Test
+    public void when_keysOfDifferentClasses_then_keysKept() {
+        map.put(1L, new LongAccumulator(1));
+        map.put(2L, new LongAccumulator(2));
+        // switches to object keys
+        map.put(1, new LongAccumulator(3));
+        map.put("1", new LongAccumulator(4));
+
+        Map<Object, LongAccumulator> expected = new HashMap<>();
+        expected.put(1L, new LongAccumulator(1));
+        expected.put(2L, new LongAccumulator(2));
+        expected.put(1, new LongAccumulator(3));
+        expected.put("1", new LongAccumulator(4));
+        assertEquals(expected, map);
+    }
+
+    @Test
+    public void when_intKeys_then_keysKept() {
+        map.put(1, new LongAccumulator(1));
+        assertNull(map.get(1L));
+        assertEquals(singletonMap(1, new LongAccumulator(1)), map);
+    }
+
+    @Test
+    public void when_nullKey_then_likeOtherKeys() {
+        map.put(1L, new LongAccumulator(1));
+        assertTrue(map.accumulate(null, 1L, LongAccumulator::add));
+        assertEquals(new LongAccumulator(11), map.get(null));
+        assertEquals(new LongAccumulator(11), map.remove(null));
+        assertEquals(singletonMap(1L, new LongAccumulator(1)), map);
+    }
+
+    @Test
+    public void when_doubleAccumulator_then_stateKept() {
+        PrimitiveAccumulatorHashMap<String, DoubleAccumulator> doubleMap =
+                new PrimitiveAccumulatorHashMap<>(DoubleAccumulator::new);
+        doubleMap.accumulate("a", 1.5, DoubleAccumulator::accumulate);
+        doubleMap.accumulate("a", -0.25, DoubleAccumulator::accumulate);
+        assertEquals(1.25, doubleMap.get("a").export(), 0);
+    }
+
+    @Test
+    public void when_longLongAccumulator_then_stateKept() {
+        PrimitiveAccumulatorHashMap<Long, LongLongAccumulator> longLongMap =
+                new PrimitiveAccumulatorHashMap<>(LongLongAccumulator::new);
+        for (long i = 0; i < 100; i++) {
+            longLongMap.accumulate(i % 10, i, (acc, item) -> {
+                acc.add1(1);
+                acc.add2(item);
+            });
+        }
+        assertEquals(10, longLongMap.size());
+        assertEquals(new LongLongAccumulator(10, 450), longLongMap.get(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_unsupportedAccumulator_then_fail() {
+        new PrimitiveAccumulatorHashMap<>(MutableReference::new);
+    }
+
+    @Test
+    public void when_randomOperations_then_sameAsHashMap() {
+        Map<Object, LongAccumulator> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // in the second half the map has object keys
+            Object key = i < 50_000 ? (Object) (long) random.nextInt(2_000) : String.valueOf(random.nextInt(2_000));
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 1:
+                    assertEquals(expected.put(key, new LongAccumulator(i)), map.put(key, new LongAccumulator(i)));
+                    break;
+                default:
+                    long value = i;
+                    expected.computeIfAbsent(key, k -> new LongAccumulator(10)).add(value);
+                    map.accumulate(key, value, LongAccumulator::add);
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        Map<Object, LongAccumulator> viaForEach = new HashMap<>();
+        map.forEach((k, acc) -> viaForEach.put(k, new LongAccumulator(acc.get())));
+        assertEquals(expected, viaForEach);
+    }
+
+    @Test
+    public void when_clear_then_empty() {
+        map.put("a", new LongAccumulator(1));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+    }
+}
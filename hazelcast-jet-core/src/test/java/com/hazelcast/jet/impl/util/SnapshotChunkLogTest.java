@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class SnapshotChunkLogTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final InternalSerializationService serializationService =
+            new DefaultSerializationServiceBuilder().build();
+    private SnapshotChunkLog log;
+
+    @After
+    public void after() {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    @Test
+    public void when_appendAcrossSegments_then_polledInOrder() throws IOException {
+        log = new SnapshotChunkLog(tempFolder.getRoot(), 1024);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(log.append(serializationService.toData(i), serializationService.toData("value-" + i)));
+        }
+
+        // Then
+        assertTrue("segmentCount=" + log.segmentCount(), log.segmentCount() > 1);
+        assertEquals(100, log.size());
+        for (int i = 0; i < 100; i++) {
+            Entry<Data, Data> chunk = log.poll();
+            assertEquals(i, (int) serializationService.toObject(chunk.getKey()));
+            assertEquals("value-" + i, serializationService.toObject(chunk.getValue()));
+        }
+        assertNull(log.poll());
+        assertTrue(log.isEmpty());
+    }
+
+    @Test
+    public void when_drained_then_segmentsReused() throws IOException {
+        log = new SnapshotChunkLog(tempFolder.getRoot(), 1024);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(log.append(serializationService.toData(i), serializationService.toData(i)));
+        }
+        int segmentCount = log.segmentCount();
+        for (int i = 0; i < 100; i++) {
+            log.poll();
+        }
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(log.append(serializationService.toData(i), serializationService.toData(i)));
+        }
+
+        // Then
+        assertEquals(segmentCount, log.segmentCount());
+        assertEquals(0, (int) serializationService.toObject(log.poll().getKey()));
+    }
+
+    @Test
+    public void when_chunkLargerThanSegment_then_appendReturnsFalse() throws IOException {
+        log = new SnapshotChunkLog(tempFolder.getRoot(), 64);
+
+        // When
+        boolean appended = log.append(serializationService.toData(new byte[100]), serializationService.toData(1));
+
+        // Then
+        assertFalse(appended);
+        assertTrue(log.isEmpty());
+    }
+
+    @Test
+    public void when_closed_then_filesDeleted() throws IOException {
+        log = new SnapshotChunkLog(tempFolder.getRoot(), 1024);
+        assertTrue(log.append(serializationService.toData(1), serializationService.toData(1)));
+
+        // When
+        log.close();
+
+        // Then
+        assertEquals(0, tempFolder.getRoot().listFiles().length);
+    }
+}
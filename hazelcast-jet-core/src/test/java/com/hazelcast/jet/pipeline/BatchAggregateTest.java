@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collector;
+import java.util.stream.IntStream;
 
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.aggregate.AggregateOperations.aggregateOperation2;
@@ -326,6 +327,91 @@ public class BatchAggregateTest extends PipelineTestSupport {
                 streamToString(sinkStreamOfEntry(), FORMAT_FN));
     }
 
+    @Test
+    public void groupAggregateSorted() {
+        // Given
+        FunctionEx<Integer, Integer> keyFn = i -> i / 10;
+
+        // When
+        BatchStage<Entry<Integer, Long>> aggregated = sourceStageFromInput()
+                .groupingKey(keyFn)
+                .aggregateSorted(SUMMING);
+
+        // Then
+        aggregated.drainTo(sink);
+        execute();
+        Map<Integer, Long> expected = input.stream().collect(groupingBy(keyFn, summingLong(i -> i)));
+        assertEquals(
+                streamToString(expected.entrySet().stream(), FORMAT_FN),
+                streamToString(sinkStreamOfEntry(), FORMAT_FN));
+    }
+
+    @Test
+    public void groupAggregateSorted_parallelSource() {
+        // Given
+        // each of the source processors on the members emits its share of the input in ascending order
+        FunctionEx<Integer, Integer> keyFn = i -> i / 10;
+        int count = itemCount;
+        BatchSource<Integer> source = SourceBuilder
+                .batch("sortedParallelSource", ctx -> ctx)
+                .<Integer>fillBufferFn((ctx, buf) -> {
+                    for (int i = ctx.globalProcessorIndex(); i < count; i += ctx.totalParallelism()) {
+                        buf.add(i);
+                    }
+                    buf.close();
+                })
+                .distributed(2)
+                .build();
+
+        // When
+        BatchStage<Entry<Integer, Long>> aggregated = p.drawFrom(source)
+                .groupingKey(keyFn)
+                .aggregateSorted(SUMMING);
+
+        // Then
+        aggregated.drainTo(sink);
+        execute();
+        Map<Integer, Long> expected = input.stream().collect(groupingBy(keyFn, summingLong(i -> i)));
+        assertEquals(
+                streamToString(expected.entrySet().stream(), FORMAT_FN),
+                streamToString(sinkStreamOfEntry(), FORMAT_FN));
+    }
+
+    @Test
+    public void groupAggregateSorted_hotKeys() {
+        // Given
+        // each source processor emits one key with many more items than the
+        // queue of an edge can hold, the keys are partitioned to different
+        // downstream processors
+        int itemsPerKey = 50_000;
+        FunctionEx<Integer, Integer> keyFn = i -> i / itemsPerKey;
+        BatchSource<Integer> source = SourceBuilder
+                .batch("hotKeySource", ctx -> ctx)
+                .<Integer>fillBufferFn((ctx, buf) -> {
+                    int start = ctx.globalProcessorIndex() * itemsPerKey;
+                    for (int i = start; i < start + itemsPerKey; i++) {
+                        buf.add(i);
+                    }
+                    buf.close();
+                })
+                .distributed(2)
+                .build();
+
+        // When
+        BatchStage<Entry<Integer, Long>> aggregated = p.drawFrom(source)
+                .groupingKey(keyFn)
+                .aggregateSorted(SUMMING);
+
+        // Then
+        aggregated.drainTo(sink);
+        execute();
+        Map<Integer, Long> expected = IntStream.range(0, 2 * MEMBER_COUNT * itemsPerKey).boxed()
+                                               .collect(groupingBy(keyFn, summingLong(i -> i)));
+        assertEquals(
+                streamToString(expected.entrySet().stream(), FORMAT_FN),
+                streamToString(sinkStreamOfEntry(), FORMAT_FN));
+    }
+
     private class GroupAggregateFixture {
         final FunctionEx<Integer, Integer> keyFn;
         final FunctionEx<Integer, Integer> mapFn1;
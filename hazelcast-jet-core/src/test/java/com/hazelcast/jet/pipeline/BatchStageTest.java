@@ -374,6 +374,129 @@ public class BatchStageTest extends PipelineTestSupport {
                 streamToString(sinkStreamOfEntry(), formatFn));
     }
 
+    @Test
+    public void mapUsingIMap_withCache() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        String prefix = "value-";
+        IMap<Integer, String> map = member.getMap(randomMapName());
+        for (int i = 0; i < 10; i++) {
+            map.put(i, prefix + i);
+        }
+
+        // When
+        BatchStage<Entry<Integer, String>> stage = batchStageFromList(input)
+                .mapUsingIMap(map, new LookupCacheConfig(), i -> i % 10, (i, v) -> entry(i, v));
+
+        // Then
+        stage.drainTo(sink);
+        execute();
+        Function<Entry<Integer, String>, String> formatFn =
+                e -> String.format("(%04d, %s)", e.getKey(), e.getValue());
+        assertEquals(
+                streamToString(input.stream().map(i -> entry(i, prefix + i % 10)), formatFn),
+                streamToString(sinkStreamOfEntry(), formatFn));
+    }
+
+    @Test
+    public void mapUsingIMap_withCache_keyed() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        String prefix = "value-";
+        IMap<Integer, String> map = member.getMap(randomMapName());
+        for (int i : input) {
+            map.put(i, prefix + i);
+        }
+
+        // When
+        BatchStage<Entry<Integer, String>> stage = batchStageFromList(input)
+                .groupingKey(i -> i)
+                .mapUsingIMap(map, new LookupCacheConfig().setMaxSize(10), Util::entry);
+
+        // Then
+        stage.drainTo(sink);
+        execute();
+        Function<Entry<Integer, String>, String> formatFn =
+                e -> String.format("(%04d, %s)", e.getKey(), e.getValue());
+        assertEquals(
+                streamToString(input.stream().map(i -> entry(i, prefix + i)), formatFn),
+                streamToString(sinkStreamOfEntry(), formatFn));
+    }
+
+    @Test
+    public void mapUsingIMapBatched() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        String prefix = "value-";
+        IMap<Integer, String> map = member.getMap(randomMapName());
+        for (int i = 0; i < 10; i++) {
+            map.put(i, prefix + i);
+        }
+
+        // When
+        BatchStage<Entry<Integer, String>> stage = batchStageFromList(input)
+                .mapUsingIMapBatched(map, 16, i -> i % 20, (i, v) -> v == null ? null : entry(i, v));
+
+        // Then
+        stage.drainTo(sink);
+        execute();
+        Function<Entry<Integer, String>, String> formatFn =
+                e -> String.format("(%04d, %s)", e.getKey(), e.getValue());
+        assertEquals(
+                streamToString(input.stream().filter(i -> i % 20 < 10).map(i -> entry(i, prefix + i % 20)), formatFn),
+                streamToString(sinkStreamOfEntry(), formatFn));
+    }
+
+    @Test
+    public void mapUsingIMapBatched_keyed() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        String prefix = "value-";
+        IMap<Integer, String> map = member.getMap(randomMapName());
+        for (int i : input) {
+            map.put(i, prefix + i);
+        }
+
+        // When
+        BatchStage<Entry<Integer, String>> stage = batchStageFromList(input)
+                .groupingKey(i -> i)
+                .mapUsingIMapBatched(map, 16, Util::entry);
+
+        // Then
+        stage.drainTo(sink);
+        execute();
+        Function<Entry<Integer, String>, String> formatFn =
+                e -> String.format("(%04d, %s)", e.getKey(), e.getValue());
+        assertEquals(
+                streamToString(input.stream().map(i -> entry(i, prefix + i)), formatFn),
+                streamToString(sinkStreamOfEntry(), formatFn));
+    }
+
+    @Test
+    public void mapUsingIMapColocated_keyed() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        String prefix = "value-";
+        IMap<Integer, String> map = member.getMap(randomMapName());
+        for (int i : input) {
+            map.put(i, prefix + i);
+        }
+
+        // When
+        BatchStage<Entry<Integer, String>> stage = batchStageFromList(input)
+                .groupingKey(i -> i)
+                .mapUsingIMapColocated(map, Util::entry);
+
+        // Then
+        stage.drainTo(sink);
+        execute();
+        Function<Entry<Integer, String>, String> formatFn =
+                e -> String.format("(%04d, %s)", e.getKey(), e.getValue());
+        assertEquals(
+                streamToString(input.stream().map(i -> entry(i, prefix + i)), formatFn),
+                streamToString(sinkStreamOfEntry(), formatFn));
+    }
+
     @Test
     public void rollingAggregate_global() {
         // Given
@@ -38,12 +38,14 @@ import org.junit.Test;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
@@ -59,7 +61,9 @@ import static com.hazelcast.jet.pipeline.JoinClause.joinMapEntries;
 import static com.hazelcast.jet.pipeline.WindowDefinition.tumbling;
 import static java.util.Collections.emptyList;
 import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
 import static org.junit.Assert.assertEquals;
 
 public class StreamStageTest extends PipelineStreamTestSupport {
@@ -569,6 +573,43 @@ public class StreamStageTest extends PipelineStreamTestSupport {
                 streamToString(sinkStreamOfEntry(), formatFn));
     }
 
+    @Test
+    public void rollingAggregate_withPreAggregation() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+
+        // When
+        StreamStage<Long> rolled = streamStageFromList(input)
+                .rollingAggregate(10, counting());
+
+        // Then
+        rolled.drainTo(sink);
+        execute();
+        // results are emitted per interval, not per item, but the last one must count all the items
+        assertEquals(
+                Long.valueOf(itemCount),
+                sinkList.stream().map(Long.class::cast).max(Long::compare).orElse(null));
+    }
+
+    @Test
+    public void rollingAggregate_keyed_withPreAggregation() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+
+        // When
+        StreamStage<Entry<Integer, Long>> mapped = streamStageFromList(input)
+                .groupingKey(i -> i % 2)
+                .rollingAggregate(10, counting());
+
+        // Then
+        mapped.drainTo(sink);
+        execute();
+        Map<Integer, Long> expected = input.stream().collect(groupingBy(i -> i % 2, Collectors.counting()));
+        assertEquals(
+                expected,
+                this.<Integer, Long>sinkStreamOfEntry().collect(toMap(Entry::getKey, Entry::getValue, Math::max)));
+    }
+
     @Test
     public void when_rollingAggregateWithTimestamps_then_timestampsPropagated() {
         // Given